@@ -18,13 +18,10 @@
 
 package org.wso2.carbon.identity.oauth2.grant.jwt;
 
-import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEObject;
 import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -33,39 +30,67 @@ import org.wso2.carbon.identity.application.authentication.framework.util.Framew
 import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
 import org.wso2.carbon.identity.application.common.model.*;
 import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
-import org.wso2.carbon.identity.application.common.util.IdentityApplicationManagementUtil;
 import org.wso2.carbon.identity.base.IdentityException;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCache;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCacheEntry;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCacheKey;
-import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenRespDTO;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditLogger;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditReason;
 import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCache;
-import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheEntry;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTReplayCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cert.DecodedCertificateCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cert.SignerCertificateValidator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.claim.OIDCClaimMappingCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.client.ClientBindingIndex;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.AssertionValidationException;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.JWTAssertionValidator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.JwksSignatureVerifier;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ReplayStore;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.TrustedIssuer;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ValidatedAssertion;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ValidationHooks;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ValidationSettings;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon.CarbonIssuerResolver;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon.CarbonReplayStore;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon.CarbonTrustedIssuer;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon.CarbonValidationSettings;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon.IdentityProviderLookup;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon.SignerCertificateResolver;
+import org.wso2.carbon.identity.oauth2.grant.jwt.issuance.TokenIssuer;
+import org.wso2.carbon.identity.oauth2.grant.jwt.issuance.TokenReuseIndex;
+import org.wso2.carbon.identity.oauth2.grant.jwt.issuance.TokenReusePolicy;
+import org.wso2.carbon.identity.oauth2.grant.jwt.issuer.KnownIssuerRegistry;
+import org.wso2.carbon.identity.oauth2.grant.jwt.jwe.AssertionDecrypter;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.AllocationProbe;
+import org.wso2.carbon.identity.oauth2.grant.jwt.ratelimit.AdmissionController;
+import org.wso2.carbon.identity.oauth2.grant.jwt.ratelimit.RateLimitScope;
+import org.wso2.carbon.identity.oauth2.grant.jwt.replay.ClusteredReplayStore;
+import org.wso2.carbon.identity.oauth2.grant.jwt.resilience.CircuitBreaker;
+import org.wso2.carbon.identity.oauth2.grant.jwt.resilience.DependencyGuard;
+import org.wso2.carbon.identity.oauth2.grant.jwt.rules.ClaimRuleRegistry;
+import org.wso2.carbon.identity.oauth2.grant.jwt.user.AuthorizedUserCache;
 import org.wso2.carbon.identity.oauth2.model.RequestParameter;
 import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
 import org.wso2.carbon.identity.oauth2.token.handlers.grant.AbstractAuthorizationGrantHandler;
 import org.wso2.carbon.identity.oauth2.util.ClaimsUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
-import org.wso2.carbon.identity.oauth2.validators.jwt.JWKSBasedJWTValidator;
 import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
-import org.wso2.carbon.idp.mgt.IdentityProviderManager;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.PublicKey;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
-import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class to handle JSON Web Token(JWT) grant type
@@ -73,16 +98,23 @@ import java.util.Properties;
 public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
 
     private static final String OAUTH_SPLIT_AUTHZ_USER_3_WAY = "OAuth.SplitAuthzUser3Way";
-    private static final String DEFAULT_IDP_NAME = "default";
+    private static final String IDP_STORE_DEPENDENCY = "identity provider store";
+    private static final String IDP_STORE_METRIC = "dependency.idp";
     private static Log log = LogFactory.getLog(JWTBearerGrantHandler.class);
-    private static final String OIDC_IDP_ENTITY_ID = "IdPEntityId";
-    private static final String ERROR_GET_RESIDENT_IDP =
-            "Error while getting Resident Identity Provider of '%s' tenant.";
 
     private String tenantDomain;
-    private int validityPeriod;
-    private JWTCache jwtCache;
-    private boolean cacheUsedJTI;
+    private JWTAssertionValidator assertionValidator;
+    private KnownIssuerRegistry knownIssuerRegistry;
+    private AdmissionController admissionController;
+    private AuditLogger auditLogger;
+    private TokenReuseIndex tokenReuseIndex;
+    private long tokenReuseMinRemainingMillis;
+    private AssertionDecrypter assertionDecrypter;
+    private ClaimRuleRegistry claimRuleRegistry;
+    private AuthorizedUserCache authorizedUserCache;
+    private OIDCClaimMappingCache oidcClaimMappingCache;
+    private ClientBindingIndex clientBindingIndex;
+    private AllocationProbe allocationProbe;
 
     /**
      * Initialize the JWT cache.
@@ -98,15 +130,63 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
         InputStream resourceStream = loader.getResourceAsStream(resourceName);
         try {
             prop.load(resourceStream);
-            validityPeriod = Integer.parseInt(prop.getProperty(JWTConstants.VALIDITY_PERIOD));
-            cacheUsedJTI = Boolean.parseBoolean(prop.getProperty(JWTConstants.CACHE_USED_JTI));
-            if (cacheUsedJTI) {
-                this.jwtCache = JWTCache.getInstance();
-            }
+            int validityPeriod = Integer.parseInt(prop.getProperty(JWTConstants.VALIDITY_PERIOD));
+            boolean cacheUsedJTI = Boolean.parseBoolean(prop.getProperty(JWTConstants.CACHE_USED_JTI));
+            if (Boolean.parseBoolean(prop.getProperty(JWTConstants.KNOWN_ISSUER_FILTER))) {
+                this.knownIssuerRegistry = KnownIssuerRegistry.getInstance();
+                knownIssuerRegistry.configure(Long.parseLong(
+                        prop.getProperty(JWTConstants.KNOWN_ISSUER_TIMEOUT, "60")) * 1000);
+            }
+            JWTCacheManager.getInstance().configure(
+                    Long.parseLong(prop.getProperty(JWTConstants.CACHE_MEMORY_BUDGET, "64")) * 1024 * 1024,
+                    Integer.parseInt(prop.getProperty(JWTConstants.CACHE_HEAP_PRESSURE_THRESHOLD, "85")),
+                    Integer.parseInt(prop.getProperty(JWTConstants.CACHE_HEAP_PRESSURE_BUDGET, "25")));
+            this.admissionController = AdmissionController.fromProperties(prop);
+            this.allocationProbe = AllocationProbe.fromProperties(prop);
+            this.auditLogger = AuditLogger.getInstance();
+            auditLogger.start(prop);
+            if (Boolean.parseBoolean(prop.getProperty(JWTConstants.TOKEN_REUSE_ENABLED))) {
+                this.tokenReuseIndex = TokenReuseIndex.getInstance();
+                tokenReuseMinRemainingMillis = Long.parseLong(
+                        prop.getProperty(JWTConstants.TOKEN_REUSE_MIN_LIFETIME, "300")) * 1000;
+            }
+            if (Boolean.parseBoolean(prop.getProperty(JWTConstants.ENCRYPTED_ASSERTION_ENABLED))) {
+                this.assertionDecrypter = AssertionDecrypter.getInstance();
+            }
+            if (Boolean.parseBoolean(prop.getProperty(JWTConstants.CLAIM_RULES_ENABLED))) {
+                this.claimRuleRegistry = ClaimRuleRegistry.getInstance();
+            }
+            if (Boolean.parseBoolean(prop.getProperty(JWTConstants.AUTHORIZED_USER_CACHE_ENABLED))) {
+                this.authorizedUserCache = AuthorizedUserCache.getInstance();
+                authorizedUserCache.configure(Long.parseLong(
+                        prop.getProperty(JWTConstants.AUTHORIZED_USER_CACHE_TIMEOUT, "300")) * 1000);
+            }
+            if (Boolean.parseBoolean(prop.getProperty(JWTConstants.OIDC_CLAIM_MAPPING_CACHE_ENABLED))) {
+                this.oidcClaimMappingCache = OIDCClaimMappingCache.getInstance();
+                oidcClaimMappingCache.configure(Long.parseLong(
+                        prop.getProperty(JWTConstants.OIDC_CLAIM_MAPPING_CACHE_TIMEOUT, "300")) * 1000);
+            }
+            if (Boolean.parseBoolean(prop.getProperty(JWTConstants.CLIENT_BINDING_ENABLED))) {
+                this.clientBindingIndex = ClientBindingIndex.getInstance();
+                clientBindingIndex.configure(Long.parseLong(
+                        prop.getProperty(JWTConstants.CLIENT_BINDING_TIMEOUT, "300")) * 1000);
+            }
+            CarbonValidationSettings validationSettings = new CarbonValidationSettings(validityPeriod);
+            this.assertionValidator = new JWTAssertionValidator(new CarbonIssuerResolver(
+                    new SignerCertificateResolver() {
+                        @Override
+                        public X509Certificate resolveSignerCertificate(JWSHeader header, IdentityProvider idp)
+                                throws IdentityOAuth2Exception {
+                            return JWTBearerGrantHandler.this.resolveSignerCertificate(header, idp);
+                        }
+                    }, SignerCertificateValidator.fromProperties(prop), configureDependencyGuards(prop)),
+                    validationSettings, cacheUsedJTI ? createReplayStore(prop, validationSettings) : null,
+                    new GrantValidationHooks(),
+                    Long.parseLong(prop.getProperty(JWTConstants.VALIDATION_PLAN_TIMEOUT, "300")) * 1000);
         } catch (IOException e) {
             throw new IdentityOAuth2Exception("Can not find the file", e);
-        } catch (NumberFormatException e) {
-            throw new IdentityOAuth2Exception("Invalid Validity period", e);
+        } catch (IllegalArgumentException e) {
+            throw new IdentityOAuth2Exception("Invalid value in " + resourceName, e);
         } finally {
             try {
                 resourceStream.close();
@@ -117,33 +197,54 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
     }
 
     /**
-     * Get resident Identity Provider.
-     *
-     * @param tenantDomain tenant Domain
-     * @param jwtIssuer    issuer extracted from assertion
-     * @return resident Identity Provider
-     * @throws IdentityOAuth2Exception
+     * @param prop               JWT grant properties
+     * @param validationSettings validity period and clock skew of assertions
+     * @return the cluster-wide replay store if enabled, otherwise the store over the Carbon cache
+     * @throws IdentityOAuth2Exception if the replay peer server can not be started
      */
-    private IdentityProvider getResidentityIDPForIssuer(String tenantDomain, String jwtIssuer) throws IdentityOAuth2Exception {
-        String issuer = StringUtils.EMPTY;
-        IdentityProvider residentIdentityProvider = null;
+    private ReplayStore createReplayStore(Properties prop, ValidationSettings validationSettings)
+            throws IdentityOAuth2Exception {
+        if (!Boolean.parseBoolean(prop.getProperty(JWTConstants.CLUSTERED_REPLAY_ENABLED))) {
+            return new CarbonReplayStore(JWTReplayCache.getInstance(), JWTCache.getInstance());
+        }
         try {
-            residentIdentityProvider = IdentityProviderManager.getInstance().getResidentIdP(tenantDomain);
-        } catch (IdentityProviderManagementException e) {
-            String errorMsg = String.format(ERROR_GET_RESIDENT_IDP, tenantDomain);
-            throw new IdentityOAuth2Exception(errorMsg, e);
-        }
-        FederatedAuthenticatorConfig[] fedAuthnConfigs = residentIdentityProvider.getFederatedAuthenticatorConfigs();
-        FederatedAuthenticatorConfig oauthAuthenticatorConfig =
-                IdentityApplicationManagementUtil.getFederatedAuthenticator(fedAuthnConfigs,
-                        IdentityApplicationConstants.Authenticator.OIDC.NAME);
-        if (oauthAuthenticatorConfig != null) {
-            issuer = IdentityApplicationManagementUtil.getProperty(oauthAuthenticatorConfig.getProperties(),
-                    OIDC_IDP_ENTITY_ID).getValue();
-        }
-        return jwtIssuer.equals(issuer) ? residentIdentityProvider : null;
+            return ClusteredReplayStore.startShared(prop, validationSettings);
+        } catch (IOException e) {
+            throw new IdentityOAuth2Exception("Error while starting the replay cluster member " +
+                    prop.getProperty(JWTConstants.REPLAY_CLUSTER_LOCAL_MEMBER), e);
+        }
     }
 
+    /**
+     * Put the identity provider store and JWKS endpoints behind latency budgets and circuit breakers, if enabled.
+     *
+     * @param prop JWT grant properties
+     * @return the guarded JWKS verifier, or null if dependencies are not guarded
+     */
+    private JwksSignatureVerifier configureDependencyGuards(Properties prop) {
+        if (!Boolean.parseBoolean(prop.getProperty(JWTConstants.DEPENDENCY_GUARD_ENABLED))) {
+            IdentityProviderLookup.getInstance().configure(null, 0);
+            return null;
+        }
+        ExecutorService executor = DependencyGuard.newExecutor("jwt-grant-dependency-",
+                Integer.parseInt(prop.getProperty(JWTConstants.DEPENDENCY_GUARD_THREADS, "16")),
+                Integer.parseInt(prop.getProperty(JWTConstants.DEPENDENCY_GUARD_QUEUE_SIZE, "64")));
+        int failureThreshold = Integer.parseInt(
+                prop.getProperty(JWTConstants.CIRCUIT_BREAKER_FAILURE_THRESHOLD, "5"));
+        long openDurationMillis = TimeUnit.SECONDS.toMillis(
+                Long.parseLong(prop.getProperty(JWTConstants.CIRCUIT_BREAKER_OPEN_DURATION, "30")));
+        long maxStalenessMillis = TimeUnit.SECONDS.toMillis(
+                Long.parseLong(prop.getProperty(JWTConstants.FALLBACK_MAX_STALENESS, "3600")));
+
+        IdentityProviderLookup.getInstance().configure(
+                new DependencyGuard(IDP_STORE_DEPENDENCY, IDP_STORE_METRIC,
+                        Long.parseLong(prop.getProperty(JWTConstants.IDP_LOOKUP_TIMEOUT, "500")),
+                        new CircuitBreaker(IDP_STORE_DEPENDENCY, IDP_STORE_METRIC, failureThreshold,
+                                openDurationMillis), executor), maxStalenessMillis);
+        return new JwksSignatureVerifier(Integer.parseInt(prop.getProperty(JWTConstants.JWKS_FETCH_TIMEOUT, "1000")),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(prop.getProperty(JWTConstants.JWKS_REFRESH_INTERVAL, "300"))),
+                maxStalenessMillis, failureThreshold, openDurationMillis, executor);
+    }
 
     /**
      * We're validating the JWT token that we receive from the request. Through the assertion parameter is the POST
@@ -164,173 +265,75 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
     @Override
     public boolean validateGrant(OAuthTokenReqMessageContext tokReqMsgCtx) throws IdentityOAuth2Exception {
 //        super.validateGrant(tokReqMsgCtx); //This line was commented to work with IS 5.2.0
+        if (allocationProbe == null) {
+            return validateAssertion(tokReqMsgCtx);
+        }
+        long allocatedBytes = allocationProbe.start();
+        try {
+            return validateAssertion(tokReqMsgCtx);
+        } finally {
+            allocationProbe.stop(allocatedBytes);
+        }
+    }
+
+    private boolean validateAssertion(OAuthTokenReqMessageContext tokReqMsgCtx) throws IdentityOAuth2Exception {
 
         SignedJWT signedJWT;
-        IdentityProvider identityProvider;
-        String tokenEndPointAlias = null;
-        JWTClaimsSet claimsSet;
+        ValidatedAssertion assertion;
+        String jwtIssuer = null;
+        String subject = null;
+        String jti = null;
+        AuditReason failureReason = AuditReason.INVALID_ASSERTION;
+        String clientId = tokReqMsgCtx.getOauth2AccessTokenReqDTO().getClientId();
 
         tenantDomain = tokReqMsgCtx.getOauth2AccessTokenReqDTO().getTenantDomain();
         if (StringUtils.isEmpty(tenantDomain)) {
             tenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
         }
-        signedJWT = getSignedJWT(tokReqMsgCtx);
-        if (signedJWT == null) {
-            handleException("No Valid Assertion was found for " + JWTConstants.OAUTH_JWT_BEARER_GRANT_TYPE);
-        }
-        claimsSet = getClaimSet(signedJWT);
-        if (claimsSet == null) {
-            handleException("Claim values are empty in the given JSON Web Token");
-        }
-
-        String jwtIssuer = claimsSet.getIssuer();
-        String subject = resolveSubject(claimsSet);
-        List<String> audience = claimsSet.getAudience();
-        Date expirationTime = claimsSet.getExpirationTime();
-        Date notBeforeTime = claimsSet.getNotBeforeTime();
-        Date issuedAtTime = claimsSet.getIssueTime();
-        String jti = claimsSet.getJWTID();
-        Map<String, Object> customClaims = claimsSet.getClaims();
-        boolean signatureValid;
-        boolean audienceFound = false;
-        long currentTimeInMillis = System.currentTimeMillis();
-        long timeStampSkewMillis = OAuthServerConfiguration.getInstance().getTimeStampSkewInSeconds() * 1000;
-
-        if (StringUtils.isEmpty(jwtIssuer) || StringUtils.isEmpty(subject) || expirationTime == null || audience == null) {
-            handleException("Mandatory fields(Issuer, Subject, Expiration time or Audience) are empty in the given JSON Web Token.");
-        }
         try {
-            identityProvider = IdentityProviderManager.getInstance().getIdPByName(jwtIssuer, tenantDomain);
-            if (identityProvider != null) {
-                // if no IDPs were found for a given name, the IdentityProviderManager returns a dummy IDP with the
-                // name "default". We need to handle this case.
-                if (StringUtils.equalsIgnoreCase(identityProvider.getIdentityProviderName(), DEFAULT_IDP_NAME)) {
-                    //check whether this jwt was issued by the resident identity provider
-                    identityProvider = getResidentityIDPForIssuer(tenantDomain, jwtIssuer);
-                    if (identityProvider == null) {
-                        handleException("No Registered IDP found for the JWT with issuer name : " + jwtIssuer);
-                    }
+            try {
+                signedJWT = getSignedJWT(tokReqMsgCtx);
+                if (signedJWT == null) {
+                    handleException("No Valid Assertion was found for " + JWTConstants.OAUTH_JWT_BEARER_GRANT_TYPE);
                 }
-
-                tokenEndPointAlias = getTokenEndpointAlias(identityProvider);
-            } else {
-                handleException("No Registered IDP found for the JWT with issuer name : " + jwtIssuer);
-            }
-
-            signatureValid = validateSignature(signedJWT, identityProvider);
-            if (signatureValid) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Signature/MAC validated successfully.");
+                assertion = assertionValidator.validate(tenantDomain, clientId, signedJWT);
+            } catch (AssertionValidationException e) {
+                failureReason = e.getReason();
+                jwtIssuer = e.getIssuer();
+                subject = e.getSubject();
+                jti = e.getJti();
+                // Rate limit rejections are expected under load and are counted in the metrics, so not logged as
+                // errors.
+                if (failureReason != AuditReason.RATE_LIMITED) {
+                    log.error(e.getMessage());
+                } else if (log.isDebugEnabled()) {
+                    log.debug(e.getMessage() + " Issuer name : " + jwtIssuer);
                 }
-            } else {
-                handleException("Signature or Message Authentication invalid.");
+                throw new IdentityOAuth2Exception(e.getMessage(), e);
             }
+            jwtIssuer = assertion.getIssuer();
+            subject = assertion.getSubject();
+            jti = assertion.getJti();
+            IdentityProvider identityProvider = getIdentityProvider(assertion);
 
-            if (Boolean.parseBoolean(IdentityUtil.getProperty(OAUTH_SPLIT_AUTHZ_USER_3_WAY))) {
-                tokReqMsgCtx.setAuthorizedUser(OAuth2Util.getUserFromUserName(subject));
-            } else {
-                tokReqMsgCtx.setAuthorizedUser(AuthenticatedUser
-                        .createLocalAuthenticatedUserFromSubjectIdentifier(subject));
-            }
+            failureReason = AuditReason.INVALID_ASSERTION;
+            tokReqMsgCtx.setAuthorizedUser(getAuthorizedUser(tokReqMsgCtx, subject, identityProvider));
             if (log.isDebugEnabled()) {
                 log.debug("Subject(sub) found in JWT: " + subject);
                 log.debug(subject + " set as the Authorized User.");
             }
-
             tokReqMsgCtx.setScope(tokReqMsgCtx.getOauth2AccessTokenReqDTO().getScope());
-
-            if (StringUtils.isEmpty(tokenEndPointAlias)) {
-                handleException("Token Endpoint alias of the local Identity Provider has not been " +
-                        "configured for " + identityProvider.getIdentityProviderName());
-            }
-            for (String aud : audience) {
-                if (StringUtils.equals(tokenEndPointAlias, aud)) {
-                    if (log.isDebugEnabled()) {
-                        log.debug(tokenEndPointAlias + " of IDP was found in the list of audiences.");
-                    }
-                    audienceFound = true;
-                    break;
-                }
-            }
-            if (!audienceFound) {
-                handleException("None of the audience values matched the tokenEndpoint Alias " + tokenEndPointAlias);
-            }
-            boolean checkedExpirationTime = checkExpirationTime(expirationTime, currentTimeInMillis,
-                    timeStampSkewMillis);
-            if (checkedExpirationTime) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Expiration Time(exp) of JWT was validated successfully.");
-                }
-            }
-            if (notBeforeTime == null) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Not Before Time(nbf) not found in JWT. Continuing Validation");
-                }
-            } else {
-                boolean checkedNotBeforeTime = checkNotBeforeTime(notBeforeTime, currentTimeInMillis,
-                        timeStampSkewMillis);
-                if (checkedNotBeforeTime) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Not Before Time(nbf) of JWT was validated successfully.");
-                    }
-                }
-            }
-            if (issuedAtTime == null) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Issued At Time(iat) not found in JWT. Continuing Validation");
-                }
-            } else {
-                boolean checkedValidityToken = checkValidityOfTheToken(issuedAtTime, currentTimeInMillis,
-                        timeStampSkewMillis);
-                if (checkedValidityToken) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Issued At Time(iat) of JWT was validated successfully.");
-                    }
-                }
-            }
-            if (cacheUsedJTI && (jti != null)) {
-                JWTCacheEntry entry = (JWTCacheEntry) jwtCache.getValueFromCache(jti);
-                if (entry != null) {
-                    if (checkCachedJTI(jti, signedJWT, entry, currentTimeInMillis, timeStampSkewMillis)) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("JWT id: " + jti + " not found in the cache.");
-                            log.debug("jti of the JWT has been validated successfully.");
-                        }
-                    }
-                }
-            } else {
-                if (log.isDebugEnabled()) {
-                    if (!cacheUsedJTI) {
-                        log.debug("List of used JSON Web Token IDs are not maintained. Continue Validation");
-                    }
-                    if (jti == null) {
-                        log.debug("JSON Web Token ID(jti) not found in JWT. Continuing Validation");
-                    }
-                }
-            }
-            if (customClaims == null) {
-                if (log.isDebugEnabled()) {
-                    log.debug("No custom claims found. Continue validating other claims.");
-                }
-            } else {
-                boolean customClaimsValidated = validateCustomClaims(claimsSet.getClaims());
-                if (!customClaimsValidated) {
-                    handleException("Custom Claims in the JWT were invalid");
-                }
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("JWT Token was validated successfully");
-            }
-            if (cacheUsedJTI) {
-                jwtCache.addToCache(jti, new JWTCacheEntry(signedJWT));
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("JWT Token was added to the cache successfully");
+            tokReqMsgCtx.addProperty(JWTConstants.IDENTITY_PROVIDER_CONTEXT_PROPERTY, identityProvider);
+            tokReqMsgCtx.addProperty(JWTConstants.SUBJECT_CONTEXT_PROPERTY, subject);
+        } catch (IdentityOAuth2Exception | RuntimeException e) {
+            if (auditLogger.isEnabled()) {
+                auditLogger.record(false, e instanceof RuntimeException ? AuditReason.INTERNAL_ERROR : failureReason,
+                        tenantDomain, jwtIssuer, subject, jti, clientId);
             }
-        } catch (IdentityProviderManagementException e) {
-            handleException("Error while getting the Federated Identity Provider ");
-        } catch (JOSEException e) {
-            handleException("Error when verifying signature");
+            throw e;
+        }
+        if (auditLogger.isEnabled()) {
+            auditLogger.record(true, AuditReason.VALID, tenantDomain, jwtIssuer, subject, jti, clientId);
         }
         if (log.isDebugEnabled()) {
             log.debug("Issuer(iss) of the JWT validated successfully");
@@ -338,20 +341,109 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
         return true;
     }
 
+    private static IdentityProvider getIdentityProvider(ValidatedAssertion assertion) {
+        return ((CarbonTrustedIssuer) assertion.getTrustedIssuer()).getIdentityProvider();
+    }
+
     @Override
     public OAuth2AccessTokenRespDTO issue(OAuthTokenReqMessageContext tokReqMsgCtx) throws IdentityOAuth2Exception {
 
-        OAuth2AccessTokenRespDTO responseDTO = super.issue(tokReqMsgCtx);
         String[] scope = tokReqMsgCtx.getScope();
-        if (OAuth2Util.isOIDCAuthzRequest(scope)) {
+        boolean oidcRequest = OAuth2Util.isOIDCAuthzRequest(scope);
+        OAuth2AccessTokenRespDTO responseDTO;
+        // OIDC requests always get a new token, since each of them needs its own ID token.
+        if (tokenReuseIndex != null && !oidcRequest) {
+            responseDTO = issueWithTokenReuse(tokReqMsgCtx);
+        } else {
+            responseDTO = super.issue(tokReqMsgCtx);
+        }
+        if (oidcRequest) {
             handleCustomClaims(tokReqMsgCtx, responseDTO);
         }
         return responseDTO;
     }
 
+    /**
+     * Issue a token, returning the token previously issued for the same tenant, identity provider, client, subject
+     * and scopes instead if the identity provider opted in to token reuse and enough of its lifetime remains.
+     *
+     * @param tokReqMsgCtx Token message request context
+     * @return access token response
+     * @throws IdentityOAuth2Exception
+     */
+    private OAuth2AccessTokenRespDTO issueWithTokenReuse(final OAuthTokenReqMessageContext tokReqMsgCtx)
+            throws IdentityOAuth2Exception {
+
+        IdentityProvider identityProvider = (IdentityProvider) tokReqMsgCtx.getProperty(
+                JWTConstants.IDENTITY_PROVIDER_CONTEXT_PROPERTY);
+        String subject = (String) tokReqMsgCtx.getProperty(JWTConstants.SUBJECT_CONTEXT_PROPERTY);
+        if (identityProvider == null || subject == null) {
+            return super.issue(tokReqMsgCtx);
+        }
+        TokenReusePolicy tokenReusePolicy = TokenReusePolicy.of(identityProvider, tokenReuseMinRemainingMillis);
+        if (!tokenReusePolicy.isEnabled()) {
+            return super.issue(tokReqMsgCtx);
+        }
+
+        String tenantDomain = tokReqMsgCtx.getOauth2AccessTokenReqDTO().getTenantDomain();
+        if (StringUtils.isEmpty(tenantDomain)) {
+            tenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
+        }
+        String key = TokenReuseIndex.buildKey(tenantDomain, identityProvider.getIdentityProviderName(),
+                tokReqMsgCtx.getOauth2AccessTokenReqDTO().getClientId(), subject, tokReqMsgCtx.getScope());
+        return tokenReuseIndex.issue(key, tokenReusePolicy.getMinRemainingMillis(), new TokenIssuer() {
+            @Override
+            public OAuth2AccessTokenRespDTO issue() throws IdentityOAuth2Exception {
+                return JWTBearerGrantHandler.super.issue(tokReqMsgCtx);
+            }
+        });
+    }
+
+    /**
+     * Resolve the authorized user of the subject, from the authorized user cache if it is enabled.
+     *
+     * @param tokReqMsgCtx     Token message request context
+     * @param subject          subject of the assertion
+     * @param identityProvider identity provider that issued the assertion
+     * @return authorized user
+     */
+    private AuthenticatedUser getAuthorizedUser(OAuthTokenReqMessageContext tokReqMsgCtx, String subject,
+                                                IdentityProvider identityProvider) {
+        boolean splitSubject = Boolean.parseBoolean(IdentityUtil.getProperty(OAUTH_SPLIT_AUTHZ_USER_3_WAY));
+        String key = null;
+        if (authorizedUserCache != null) {
+            // The tenant is taken from the request rather than the shared field, since the key must not mix tenants.
+            String tenantDomain = tokReqMsgCtx.getOauth2AccessTokenReqDTO().getTenantDomain();
+            if (StringUtils.isEmpty(tenantDomain)) {
+                tenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
+            }
+            key = AuthorizedUserCache.buildKey(tenantDomain, identityProvider.getIdentityProviderName(), subject,
+                    splitSubject);
+            AuthenticatedUser cachedUser = authorizedUserCache.get(key);
+            if (cachedUser != null) {
+                return cachedUser;
+            }
+        }
+        AuthenticatedUser authorizedUser;
+        if (splitSubject) {
+            authorizedUser = OAuth2Util.getUserFromUserName(subject);
+        } else {
+            authorizedUser = AuthenticatedUser.createLocalAuthenticatedUserFromSubjectIdentifier(subject);
+        }
+        if (authorizedUserCache != null) {
+            authorizedUserCache.put(key, authorizedUser);
+        }
+        return authorizedUser;
+    }
+
     private void handleCustomClaims(OAuthTokenReqMessageContext tokReqMsgCtx, OAuth2AccessTokenRespDTO responseDTO) throws
             IdentityOAuth2Exception {
-        SignedJWT signedJWT = getSignedJWT(tokReqMsgCtx);
+        SignedJWT signedJWT;
+        try {
+            signedJWT = getSignedJWT(tokReqMsgCtx);
+        } catch (AssertionValidationException e) {
+            throw new IdentityOAuth2Exception(e.getMessage(), e);
+        }
 
         // Ignore null checks since the execution comes to this phase only if validate grant phase is passed.
         // Hence, continuing without null check.
@@ -367,7 +459,7 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
 
         IdentityProvider identityProvider = null;
         try {
-            identityProvider = IdentityProviderManager.getInstance().getIdPByName(jwtIssuer, tenantDomain);
+            identityProvider = IdentityProviderLookup.getInstance().getIdPByName(jwtIssuer, tenantDomain);
         } catch (IdentityProviderManagementException e) {
             handleException(
                     "Error while getting IDP based on the jwt issuer " + jwtIssuer + "  for the tenant " + "domain "
@@ -389,13 +481,18 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
         // ########################### all claims are in local dialect ############################
 
         if (localClaims != null && localClaims.size() > 0) {
-            Map<String, String> oidcClaims;
+            Map<ClaimMapping, String> claimMappings;
             try {
-                oidcClaims = ClaimsUtil.convertClaimsToOIDCDialect(tokReqMsgCtx, localClaims);
+                if (oidcClaimMappingCache != null) {
+                    claimMappings = oidcClaimMappingCache.toOIDCClaims(tokReqMsgCtx, localClaims);
+                } else {
+                    Map<String, String> oidcClaims = ClaimsUtil.convertClaimsToOIDCDialect(tokReqMsgCtx,
+                            localClaims);
+                    claimMappings = FrameworkUtils.buildClaimMappings(oidcClaims);
+                }
             } catch (IdentityApplicationManagementException | IdentityException e) {
                 throw new IdentityOAuth2Exception("Error while converting user claims to OIDC dialect" + ".");
             }
-            Map<ClaimMapping, String> claimMappings = FrameworkUtils.buildClaimMappings(oidcClaims);
             addUserAttributesToCache(responseDTO, tokReqMsgCtx, claimMappings);
         }
 
@@ -403,7 +500,8 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
     private Map<String, String> getClaims(JWTClaimsSet claimsSet) {
 
         Map<String, Object> customClaims = claimsSet.getClaims();
-        Map<String, String> customClaimMap = new HashMap<>();
+        // Sized for the claims up front, so the map is not rehashed while it is filled.
+        Map<String, String> customClaimMap = new HashMap<>(customClaims.size() * 4 / 3 + 1);
         for (Map.Entry<String, Object> entry : customClaims.entrySet()) {
             Object value = entry.getValue();
             customClaimMap.put(entry.getKey(), value.toString());
@@ -415,7 +513,7 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
             identityProvider) {
 
         boolean localClaimDialect;
-        Map<String, String> localClaims = new HashMap<>();
+        Map<String, String> localClaims;
         localClaimDialect = identityProvider.getClaimConfig().isLocalClaimDialect();
         if (localClaimDialect) {
             localClaims = handleLocalClaims(attributes, identityProvider);
@@ -432,6 +530,7 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
                     log.debug("IDP claims dialect is not local. These claims are not handled for " +
                             "identity provider: " + identityProvider.getIdentityProviderName());
                 }
+                localClaims = new HashMap<>();
             }
 
         }
@@ -462,7 +561,7 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
 
     private Map<String, String> handleLocalClaims(Map<String, String> attributes, IdentityProvider identityProvider) {
 
-        Map<String, String> localClaims = new HashMap<>();
+        Map<String, String> localClaims;
         if (ClaimsUtil.isInLocalDialect(attributes)) {
             localClaims = attributes;
             if (log.isDebugEnabled()) {
@@ -476,6 +575,7 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
                         "for identity provider: " + identityProvider.getIdentityProviderName() +
                         ". Not considering attributes in assertion.");
             }
+            localClaims = new HashMap<>();
         }
         return localClaims;
     }
@@ -494,10 +594,20 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
     }
 
     /**
+     * Get the signed JWT of the assertion, decrypting it first if it is a nested JWT. The result is kept in the
+     * message context, so the assertion is parsed and decrypted only once per request. A nested JWT is admitted by
+     * the decryption rate limit before the private key is used.
+     *
      * @param tokReqMsgCtx Token message request context
      * @return signedJWT
+     * @throws AssertionValidationException if the decryption rate limit of the client is exceeded
      */
-    private SignedJWT getSignedJWT(OAuthTokenReqMessageContext tokReqMsgCtx) throws IdentityOAuth2Exception {
+    private SignedJWT getSignedJWT(OAuthTokenReqMessageContext tokReqMsgCtx) throws IdentityOAuth2Exception,
+            AssertionValidationException {
+        SignedJWT parsedJWT = (SignedJWT) tokReqMsgCtx.getProperty(JWTConstants.SIGNED_JWT_CONTEXT_PROPERTY);
+        if (parsedJWT != null) {
+            return parsedJWT;
+        }
         RequestParameter[] params = tokReqMsgCtx.getOauth2AccessTokenReqDTO().getRequestParameters();
         String assertion = null;
         SignedJWT signedJWT = null;
@@ -512,10 +622,29 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
         }
 
         try {
-            signedJWT = SignedJWT.parse(assertion);
+            if (AssertionDecrypter.isEncrypted(assertion)) {
+                if (assertionDecrypter == null) {
+                    handleException("Encrypted assertions are not accepted for "
+                            + JWTConstants.OAUTH_JWT_BEARER_GRANT_TYPE);
+                }
+                String tenantDomain = tokReqMsgCtx.getOauth2AccessTokenReqDTO().getTenantDomain();
+                if (StringUtils.isEmpty(tenantDomain)) {
+                    tenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
+                }
+                JWEObject jweObject = assertionDecrypter.parse(assertion);
+                if (admissionController != null && !admissionController.tryAdmitDecryption(tenantDomain,
+                        tokReqMsgCtx.getOauth2AccessTokenReqDTO().getClientId())) {
+                    throw new AssertionValidationException(AuditReason.RATE_LIMITED,
+                            RateLimitScope.DECRYPTION.getRejectionMessage());
+                }
+                signedJWT = assertionDecrypter.decrypt(jweObject, tenantDomain);
+            } else {
+                signedJWT = SignedJWT.parse(assertion);
+            }
             if (log.isDebugEnabled()) {
                 logJWT(signedJWT);
             }
+            tokReqMsgCtx.addProperty(JWTConstants.SIGNED_JWT_CONTEXT_PROPERTY, signedJWT);
         } catch (ParseException e) {
             handleException("Error while parsing the JWT" + e.getMessage());
         }
@@ -536,155 +665,6 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
         return claimsSet;
     }
 
-    /**
-     * Get token endpoint alias
-     *
-     * @param identityProvider Identity provider
-     * @return token endpoint alias
-     */
-    private String getTokenEndpointAlias(IdentityProvider identityProvider) {
-        Property oauthTokenURL = null;
-        String tokenEndPointAlias = null;
-        if (IdentityApplicationConstants.RESIDENT_IDP_RESERVED_NAME.equals(
-                identityProvider.getIdentityProviderName())) {
-            try {
-                identityProvider = IdentityProviderManager.getInstance().getResidentIdP(tenantDomain);
-            } catch (IdentityProviderManagementException e) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Error while getting Resident IDP :" + e.getMessage());
-                }
-            }
-            FederatedAuthenticatorConfig[] fedAuthnConfigs =
-                    identityProvider.getFederatedAuthenticatorConfigs();
-            FederatedAuthenticatorConfig oauthAuthenticatorConfig =
-                    IdentityApplicationManagementUtil.getFederatedAuthenticator(fedAuthnConfigs,
-                            IdentityApplicationConstants.Authenticator.OIDC.NAME);
-
-            if (oauthAuthenticatorConfig != null) {
-                oauthTokenURL = IdentityApplicationManagementUtil.getProperty(
-                        oauthAuthenticatorConfig.getProperties(),
-                        IdentityApplicationConstants.Authenticator.OIDC.OAUTH2_TOKEN_URL);
-            }
-            if (oauthTokenURL != null) {
-                tokenEndPointAlias = oauthTokenURL.getValue();
-                if (log.isDebugEnabled()) {
-                    log.debug("Token End Point Alias of Resident IDP :" + tokenEndPointAlias);
-                }
-            }
-        } else {
-            tokenEndPointAlias = identityProvider.getAlias();
-            if (log.isDebugEnabled()) {
-                log.debug("Token End Point Alias of the Federated IDP: " + tokenEndPointAlias);
-            }
-        }
-        return tokenEndPointAlias;
-    }
-
-    /**
-     * The JWT MUST contain an exp (expiration) claim that limits the time window during which
-     * the JWT can be used. The authorization server MUST reject any JWT with an expiration time
-     * that has passed, subject to allowable clock skew between systems. Note that the
-     * authorization server may reject JWTs with an exp claim value that is unreasonably far in the
-     * future.
-     *
-     * @param expirationTime      Expiration time
-     * @param currentTimeInMillis Current time
-     * @param timeStampSkewMillis Time skew
-     * @return true or false
-     */
-    private boolean checkExpirationTime(Date expirationTime, long currentTimeInMillis, long timeStampSkewMillis) throws IdentityOAuth2Exception {
-        long expirationTimeInMillis = expirationTime.getTime();
-        if ((currentTimeInMillis + timeStampSkewMillis) > expirationTimeInMillis) {
-            handleException("JSON Web Token is expired." +
-                    ", Expiration Time(ms) : " + expirationTimeInMillis +
-                    ", TimeStamp Skew : " + timeStampSkewMillis +
-                    ", Current Time : " + currentTimeInMillis + ". JWT Rejected and validation terminated");
-        }
-        return true;
-    }
-
-    /**
-     * The JWT MAY contain an nbf (not before) claim that identifies the time before which the
-     * token MUST NOT be accepted for processing.
-     *
-     * @param notBeforeTime       Not before time
-     * @param currentTimeInMillis Current time
-     * @param timeStampSkewMillis Time skew
-     * @return true or false
-     */
-    private boolean checkNotBeforeTime(Date notBeforeTime, long currentTimeInMillis, long timeStampSkewMillis) throws IdentityOAuth2Exception {
-        long notBeforeTimeMillis = notBeforeTime.getTime();
-        if (currentTimeInMillis + timeStampSkewMillis < notBeforeTimeMillis) {
-            handleException("JSON Web Token is used before Not_Before_Time." +
-                    ", Not Before Time(ms) : " + notBeforeTimeMillis +
-                    ", TimeStamp Skew : " + timeStampSkewMillis +
-                    ", Current Time : " + currentTimeInMillis + ". JWT Rejected and validation terminated");
-        }
-        return true;
-    }
-
-    /**
-     * The JWT MAY contain an iat (issued at) claim that identifies the time at which the JWT was
-     * issued. Note that the authorization server may reject JWTs with an iat claim value that is
-     * unreasonably far in the past
-     *
-     * @param issuedAtTime        Token issued time
-     * @param currentTimeInMillis Current time
-     * @param timeStampSkewMillis Time skew
-     * @return true or false
-     */
-    private boolean checkValidityOfTheToken(Date issuedAtTime, long currentTimeInMillis, long timeStampSkewMillis) throws IdentityOAuth2Exception {
-        long issuedAtTimeMillis = issuedAtTime.getTime();
-        long rejectBeforeMillis = 1000L * 60 * validityPeriod;
-        if (currentTimeInMillis + timeStampSkewMillis - issuedAtTimeMillis >
-                rejectBeforeMillis) {
-            handleException("JSON Web Token is issued before the allowed time." +
-                    ", Issued At Time(ms) : " + issuedAtTimeMillis +
-                    ", Reject before limit(ms) : " + rejectBeforeMillis +
-                    ", TimeStamp Skew : " + timeStampSkewMillis +
-                    ", Current Time : " + currentTimeInMillis + ". JWT Rejected and validation terminated");
-        }
-        return true;
-    }
-
-    /**
-     * Method to check whether the JTI is already in the cache.
-     *
-     * @param jti                 JSON Token Id
-     * @param signedJWT           Signed JWT
-     * @param entry               Cache entry
-     * @param currentTimeInMillis Current time
-     * @param timeStampSkewMillis Skew time
-     * @return true or false
-     */
-    private boolean checkCachedJTI(String jti, SignedJWT signedJWT, JWTCacheEntry entry, long currentTimeInMillis,
-                                   long timeStampSkewMillis) throws IdentityOAuth2Exception {
-        try {
-            SignedJWT cachedJWT = entry.getJwt();
-            long cachedJWTExpiryTimeMillis = cachedJWT.getJWTClaimsSet().getExpirationTime().getTime();
-            if (currentTimeInMillis + timeStampSkewMillis > cachedJWTExpiryTimeMillis) {
-                if (log.isDebugEnabled()) {
-                    log.debug("JWT Token has been reused after the allowed expiry time : "
-                            + cachedJWT.getJWTClaimsSet().getExpirationTime());
-                }
-
-                // Update the cache with the new JWT for the same JTI.
-                this.jwtCache.addToCache(jti, new JWTCacheEntry(signedJWT));
-                if (log.isDebugEnabled()) {
-                    log.debug("jti of the JWT has been validated successfully and cache updated");
-                }
-            } else {
-                    handleException("JWT Token \n" + signedJWT.getHeader().toJSONObject().toString() + "\n"
-                            + signedJWT.getPayload().toJSONObject().toString() + "\n" +
-                            "Has been replayed before the allowed expiry time : "
-                            + cachedJWT.getJWTClaimsSet().getExpirationTime());
-            }
-        } catch (ParseException e) {
-            handleException("Unable to parse the cached jwt assertion : " + entry.getEncodedJWt());
-        }
-        return true;
-    }
-
     /**
      * @param signedJWT the signedJWT to be logged
      */
@@ -694,94 +674,6 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
         log.debug("Signature: " + signedJWT.getSignature().toString());
     }
 
-    /**
-     * Method to validate the signature of the JWT
-     *
-     * @param signedJWT signed JWT whose signature is to be verified
-     * @param idp       Identity provider who issued the signed JWT
-     * @return whether signature is valid, true if valid else false
-     * @throws com.nimbusds.jose.JOSEException
-     * @throws org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception
-     */
-    private boolean validateSignature(SignedJWT signedJWT, IdentityProvider idp)
-            throws JOSEException, IdentityOAuth2Exception {
-
-        boolean isJWKSEnabled = false;
-        boolean hasJWKSUri = false;
-        String jwksUri = null;
-
-        String isJWKSEnalbedProperty = IdentityUtil.getProperty(JWTConstants.JWKS_VALIDATION_ENABLE_CONFIG);
-        isJWKSEnabled = Boolean.parseBoolean(isJWKSEnalbedProperty);
-        if (isJWKSEnabled) {
-            if (log.isDebugEnabled()) {
-                log.debug("JWKS based JWT validation enabled.");
-            }
-        }
-
-        IdentityProviderProperty[] identityProviderProperties = idp.getIdpProperties();
-        if (!ArrayUtils.isEmpty(identityProviderProperties)) {
-            for (IdentityProviderProperty identityProviderProperty : identityProviderProperties) {
-                if (StringUtils.equals(identityProviderProperty.getName(), JWTConstants.JWKS_URI)) {
-                    hasJWKSUri = true;
-                    jwksUri = identityProviderProperty.getValue();
-                    if (log.isDebugEnabled()) {
-                        log.debug("JWKS endpoint set for the identity provider : " + idp.getIdentityProviderName() +
-                                ", jwks_uri : " + jwksUri);
-                    }
-                    break;
-                } else {
-                    if (log.isDebugEnabled()) {
-                        log.debug("JWKS endpoint not specified for the identity provider : " + idp
-                                .getIdentityProviderName());
-                    }
-                }
-            }
-        }
-
-        if (isJWKSEnabled && hasJWKSUri) {
-            JWKSBasedJWTValidator jwksBasedJWTValidator = new JWKSBasedJWTValidator();
-            return jwksBasedJWTValidator.validateSignature(signedJWT.getParsedString(), jwksUri, signedJWT.getHeader
-                    ().getAlgorithm().getName(), null);
-        } else {
-            JWSVerifier verifier = null;
-            JWSHeader header = signedJWT.getHeader();
-            X509Certificate x509Certificate = resolveSignerCertificate(header, idp);
-            if (x509Certificate == null) {
-                handleException(
-                        "Unable to locate certificate for Identity Provider " + idp.getDisplayName() + "; JWT " +
-                                header.toString());
-            }
-
-            String alg = signedJWT.getHeader().getAlgorithm().getName();
-            if (StringUtils.isEmpty(alg)) {
-                handleException("Algorithm must not be null.");
-            } else {
-                if (log.isDebugEnabled()) {
-                    log.debug("Signature Algorithm found in the JWT Header: " + alg);
-                }
-                if (alg.startsWith("RS")) {
-                    // At this point 'x509Certificate' will never be null.
-                    PublicKey publicKey = x509Certificate.getPublicKey();
-                    if (publicKey instanceof RSAPublicKey) {
-                        verifier = new RSASSAVerifier((RSAPublicKey) publicKey);
-                    } else {
-                        handleException("Public key is not an RSA public key.");
-                    }
-                } else {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Signature Algorithm not supported yet : " + alg);
-                    }
-                }
-                if (verifier == null) {
-                    handleException("Could not create a signature verifier for algorithm type: " + alg);
-                }
-            }
-
-            // At this point 'verifier' will never be null;
-            return signedJWT.verify(verifier);
-        }
-    }
-
     /**
      * The default implementation resolves one certificate to Identity Provider and ignores the JWT header.
      * Override this method, to resolve and enforce the certificate in any other way
@@ -796,8 +688,7 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
                                                        IdentityProvider idp) throws IdentityOAuth2Exception {
         X509Certificate x509Certificate = null;
         try {
-            x509Certificate = (X509Certificate) IdentityApplicationManagementUtil
-                    .decodeCertificate(idp.getCertificate());
+            x509Certificate = DecodedCertificateCache.getInstance().decode(idp.getCertificate());
         } catch (CertificateException e) {
             handleException("Error occurred while decoding public certificate of Identity Provider "
                     + idp.getIdentityProviderName() + " for tenant domain " + tenantDomain);
@@ -842,6 +733,87 @@ public class JWTBearerGrantHandler extends AbstractAuthorizationGrantHandler {
         return true;
     }
 
+    /**
+     * Checks of the grant handler that run inside the assertion validation: the client binding, the known issuer
+     * filter, admission control, the claim rules of the identity provider and the
+     * {@link #resolveSubject(JWTClaimsSet)} and {@link #validateCustomClaims(Map)} extension points.
+     */
+    private class GrantValidationHooks extends ValidationHooks {
+
+        private final boolean customClaimsOverridden = isOverridden(JWTBearerGrantHandler.this.getClass(),
+                JWTBearerGrantHandler.class, "validateCustomClaims", Map.class);
+
+        @Override
+        public String resolveSubject(JWTClaimsSet claimsSet) {
+            return JWTBearerGrantHandler.this.resolveSubject(claimsSet);
+        }
+
+        @Override
+        public void afterClaimsParsed(String tenantDomain, String clientId, JWTClaimsSet claimsSet)
+                throws AssertionValidationException {
+            // Reject issuers and audiences the client is not bound to before any identity provider or key work.
+            if (clientBindingIndex == null || clientId == null) {
+                return;
+            }
+            String bindingFailure;
+            try {
+                bindingFailure = clientBindingIndex.check(tenantDomain, clientId, claimsSet.getIssuer(),
+                        claimsSet.getAudience());
+            } catch (IdentityApplicationManagementException e) {
+                throw new AssertionValidationException(AuditReason.INTERNAL_ERROR,
+                        "Error while loading the service provider of client: " + clientId, e);
+            }
+            if (bindingFailure != null) {
+                throw new AssertionValidationException(AuditReason.CLIENT_NOT_ALLOWED, bindingFailure);
+            }
+        }
+
+        @Override
+        public void beforeIssuerResolution(String tenantDomain, String clientId, String issuer)
+                throws AssertionValidationException {
+            // Reject unknown issuers before any identity provider management call is made for them.
+            if (knownIssuerRegistry != null && !knownIssuerRegistry.isKnownIssuer(tenantDomain, issuer)) {
+                throw new AssertionValidationException(AuditReason.UNKNOWN_ISSUER,
+                        "No Registered IDP found for the JWT with issuer name : " + issuer);
+            }
+            if (admissionController != null) {
+                RateLimitScope exceededScope = admissionController.tryAdmit(tenantDomain, issuer, clientId);
+                if (exceededScope != null) {
+                    throw new AssertionValidationException(AuditReason.RATE_LIMITED,
+                            exceededScope.getRejectionMessage());
+                }
+            }
+        }
+
+        @Override
+        public void afterIssuerResolution(String tenantDomain, String issuer, TrustedIssuer trustedIssuer) {
+            if (admissionController != null) {
+                admissionController.applyIdentityProviderLimit(tenantDomain, issuer,
+                        ((CarbonTrustedIssuer) trustedIssuer).getIdentityProvider());
+            }
+        }
+
+        @Override
+        public boolean hasCustomClaimValidation(String tenantDomain, TrustedIssuer trustedIssuer) {
+            return customClaimsOverridden || (claimRuleRegistry != null &&
+                    claimRuleRegistry.hasRules(((CarbonTrustedIssuer) trustedIssuer).getIdentityProvider()));
+        }
+
+        @Override
+        public boolean validateCustomClaims(String tenantDomain, TrustedIssuer trustedIssuer,
+                                            Map<String, Object> claims) throws AssertionValidationException {
+            if (claimRuleRegistry != null) {
+                String ruleFailure = claimRuleRegistry.evaluate(tenantDomain,
+                        ((CarbonTrustedIssuer) trustedIssuer).getIdentityProvider(), claims);
+                if (ruleFailure != null) {
+                    throw new AssertionValidationException(AuditReason.CUSTOM_CLAIMS_INVALID,
+                            "Custom Claims in the JWT were invalid. " + ruleFailure);
+                }
+            }
+            return JWTBearerGrantHandler.this.validateCustomClaims(claims);
+        }
+    }
+
     private void handleException(String errorMessage) throws IdentityOAuth2Exception {
         log.error(errorMessage);
         throw new IdentityOAuth2Exception(errorMessage);
@@ -26,5 +26,84 @@ public class JWTConstants {
     public static final String PROPERTIES_FILE = "jwt.properties";
     public static final String JWKS_URI = "jwksUri";
     public static final String JWKS_VALIDATION_ENABLE_CONFIG = "JWTValidatorConfigs.Enable";
+    public static final String KNOWN_ISSUER_FILTER = "knownIssuerFilter";
+    public static final String KNOWN_ISSUER_TIMEOUT = "knownIssuerTimeout";
+    public static final String RATE_LIMIT_ENABLED = "rateLimitEnabled";
+    public static final String ISSUER_RATE_LIMIT = "issuerRateLimit";
+    public static final String ISSUER_RATE_LIMIT_BURST = "issuerRateLimitBurst";
+    public static final String CLIENT_RATE_LIMIT = "clientRateLimit";
+    public static final String CLIENT_RATE_LIMIT_BURST = "clientRateLimitBurst";
+    public static final String TENANT_RATE_LIMIT = "tenantRateLimit";
+    public static final String TENANT_RATE_LIMIT_BURST = "tenantRateLimitBurst";
+    public static final String DECRYPTION_RATE_LIMIT = "decryptionRateLimit";
+    public static final String DECRYPTION_RATE_LIMIT_BURST = "decryptionRateLimitBurst";
+    public static final String RATE_LIMIT_MAX_KEYS = "rateLimitMaxKeys";
+    public static final String RATE_LIMIT_IDLE_TIMEOUT = "rateLimitIdleTimeout";
+    public static final String RATE_LIMIT_IDP_PROPERTY = "jwtGrantRateLimit";
+    public static final String RATE_LIMIT_BURST_IDP_PROPERTY = "jwtGrantRateLimitBurst";
+    public static final String AUDIT_ENABLED = "auditEnabled";
+    public static final String AUDIT_DIRECTORY = "auditDirectory";
+    public static final String AUDIT_BUFFER_SIZE = "auditBufferSize";
+    public static final String AUDIT_MAX_FILE_SIZE = "auditMaxFileSize";
+    public static final String AUDIT_MAX_FILES = "auditMaxFiles";
+    public static final String AUDIT_OVERFLOW_POLICY = "auditOverflowPolicy";
+    public static final String AUDIT_MAX_BLOCK_TIME = "auditMaxBlockTime";
+    public static final String AUDIT_DRAIN_INTERVAL = "auditDrainInterval";
+    public static final String TOKEN_REUSE_ENABLED = "tokenReuseEnabled";
+    public static final String TOKEN_REUSE_MIN_LIFETIME = "tokenReuseMinRemainingLifetime";
+    public static final String TOKEN_REUSE_IDP_PROPERTY = "jwtTokenReuse";
+    public static final String TOKEN_REUSE_MIN_LIFETIME_IDP_PROPERTY = "jwtTokenReuseMinRemainingLifetime";
+    public static final String IDENTITY_PROVIDER_CONTEXT_PROPERTY = "JWTBearerGrant.IdentityProvider";
+    public static final String SUBJECT_CONTEXT_PROPERTY = "JWTBearerGrant.Subject";
+    public static final String SIGNED_JWT_CONTEXT_PROPERTY = "JWTBearerGrant.SignedJWT";
+    public static final String ENCRYPTED_ASSERTION_ENABLED = "encryptedAssertionEnabled";
+    public static final String CLAIM_RULES_ENABLED = "claimRulesEnabled";
+    public static final String CLAIM_RULES_IDP_PROPERTY = "jwtClaimRules";
+    public static final String AUTHORIZED_USER_CACHE_ENABLED = "authorizedUserCacheEnabled";
+    public static final String AUTHORIZED_USER_CACHE_TIMEOUT = "authorizedUserCacheTimeout";
+    public static final String SIGNER_CERTIFICATE_VALIDATION_ENABLED = "signerCertificateValidationEnabled";
+    public static final String REVOCATION_CHECK_ENABLED = "revocationCheckEnabled";
+    public static final String REVOCATION_METHODS = "revocationMethods";
+    public static final String REVOCATION_SOFT_FAIL = "revocationSoftFail";
+    public static final String REVOCATION_FETCH_TIMEOUT = "revocationFetchTimeout";
+    public static final String REVOCATION_INITIAL_CHECK_WAIT = "revocationInitialCheckWait";
+    public static final String REVOCATION_REFRESH_INTERVAL = "revocationRefreshInterval";
+    public static final String REVOCATION_RETRY_INTERVAL = "revocationRetryInterval";
+    public static final String REVOCATION_MAX_ENTRIES = "revocationMaxEntries";
+    public static final String REVOCATION_OCSP_RESPONDER_URL = "revocationOcspResponderUrl";
+    public static final String DEPENDENCY_GUARD_ENABLED = "dependencyGuardEnabled";
+    public static final String DEPENDENCY_GUARD_THREADS = "dependencyGuardThreads";
+    public static final String DEPENDENCY_GUARD_QUEUE_SIZE = "dependencyGuardQueueSize";
+    public static final String IDP_LOOKUP_TIMEOUT = "idpLookupTimeout";
+    public static final String JWKS_FETCH_TIMEOUT = "jwksFetchTimeout";
+    public static final String JWKS_REFRESH_INTERVAL = "jwksRefreshInterval";
+    public static final String CIRCUIT_BREAKER_FAILURE_THRESHOLD = "circuitBreakerFailureThreshold";
+    public static final String CIRCUIT_BREAKER_OPEN_DURATION = "circuitBreakerOpenDuration";
+    public static final String FALLBACK_MAX_STALENESS = "fallbackMaxStaleness";
+    public static final String OIDC_CLAIM_MAPPING_CACHE_ENABLED = "oidcClaimMappingCacheEnabled";
+    public static final String OIDC_CLAIM_MAPPING_CACHE_TIMEOUT = "oidcClaimMappingCacheTimeout";
+    public static final String CACHE_MEMORY_BUDGET = "cacheMemoryBudget";
+    public static final String CACHE_HEAP_PRESSURE_THRESHOLD = "cacheHeapPressureThreshold";
+    public static final String CACHE_HEAP_PRESSURE_BUDGET = "cacheHeapPressureBudget";
+    public static final String VALIDATION_PLAN_TIMEOUT = "validationPlanTimeout";
+    public static final String CLIENT_BINDING_ENABLED = "clientBindingEnabled";
+    public static final String CLIENT_BINDING_TIMEOUT = "clientBindingTimeout";
+    public static final String ALLOWED_ISSUERS_SP_PROPERTY = "jwtAllowedIssuers";
+    public static final String ALLOWED_AUDIENCES_SP_PROPERTY = "jwtAllowedAudiences";
+    public static final String ALLOCATION_PROBE_ENABLED = "allocationProbeEnabled";
+    public static final String ALLOCATION_PROBE_SAMPLE_INTERVAL = "allocationProbeSampleInterval";
+    public static final String ALLOCATION_BUDGET = "allocationBudget";
+    public static final String CLUSTERED_REPLAY_ENABLED = "clusteredReplayEnabled";
+    public static final String REPLAY_CLUSTER_LOCAL_MEMBER = "replayClusterLocalMember";
+    public static final String REPLAY_CLUSTER_MEMBERS = "replayClusterMembers";
+    public static final String REPLAY_CLUSTER_BIND_ADDRESS = "replayClusterBindAddress";
+    public static final String REPLAY_CLUSTER_VIRTUAL_NODES = "replayClusterVirtualNodes";
+    public static final String REPLAY_CLUSTER_BATCH_SIZE = "replayClusterBatchSize";
+    public static final String REPLAY_CLUSTER_REQUEST_TIMEOUT = "replayClusterRequestTimeout";
+    public static final String REPLAY_CLUSTER_HANDOFF_PERIOD = "replayClusterHandoffPeriod";
+    public static final String REPLAY_CLUSTER_MAX_ENTRIES = "replayClusterMaxEntries";
+    public static final String REPLAY_CLUSTER_SECRET = "replayClusterSecret";
+    public static final String REPLAY_CLUSTER_FALLBACK = "replayClusterFallback";
+    public static final String REPLAY_CLUSTER_FAILURE_TIMEOUT = "replayClusterFailureTimeout";
 
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.audit;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Command line reader for the binary JWT grant audit files. Prints one tab separated line per record:
+ * time, outcome, reason, tenant, issuer, subject, jti and client id. Truncated values end with "...".
+ * <p/>
+ * Usage: {@code java -cp <bundle jar> org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditLogReader <file|dir>...}
+ */
+public class AuditLogReader {
+
+    private final PrintStream out;
+    private final SimpleDateFormat dateFormat;
+
+    public AuditLogReader(PrintStream out) {
+        this.out = out;
+        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: AuditLogReader <audit file or directory>...");
+            System.exit(1);
+        }
+        AuditLogReader reader = new AuditLogReader(System.out);
+        for (String arg : args) {
+            File file = new File(arg);
+            if (file.isDirectory()) {
+                File[] auditFiles = file.listFiles(new FilenameFilter() {
+                    @Override
+                    public boolean accept(File dir, String name) {
+                        return name.startsWith(RotatingAuditFileWriter.FILE_PREFIX) &&
+                                name.endsWith(RotatingAuditFileWriter.FILE_SUFFIX);
+                    }
+                });
+                if (auditFiles != null) {
+                    Arrays.sort(auditFiles);
+                    for (File auditFile : auditFiles) {
+                        reader.read(auditFile);
+                    }
+                }
+            } else {
+                reader.read(file);
+            }
+        }
+        System.out.flush();
+    }
+
+    /**
+     * Print all the complete records of an audit file.
+     *
+     * @param file audit file
+     * @return number of records printed
+     * @throws IOException if the file can not be read or is not an audit file
+     */
+    public int read(File file) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            FileChannel channel = inputStream.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(AuditRecord.FILE_HEADER_SIZE);
+            readFully(channel, header);
+            header.flip();
+            if (header.remaining() < AuditRecord.FILE_HEADER_SIZE || header.getInt() != AuditRecord.FILE_MAGIC) {
+                throw new IOException(file + " is not a JWT grant audit file");
+            }
+            short version = header.getShort();
+            short recordSize = header.getShort();
+            if (version != AuditRecord.FORMAT_VERSION || recordSize != AuditRecord.RECORD_SIZE) {
+                throw new IOException("Unsupported audit file format version " + version + " in " + file);
+            }
+            ByteBuffer record = ByteBuffer.allocate(AuditRecord.RECORD_SIZE);
+            int count = 0;
+            while (true) {
+                record.clear();
+                readFully(channel, record);
+                if (record.position() < AuditRecord.RECORD_SIZE) {
+                    // A partially written record at the end of the file being written.
+                    return count;
+                }
+                print(record);
+                count++;
+            }
+        }
+    }
+
+    private void print(ByteBuffer record) {
+        StringBuilder line = new StringBuilder(256);
+        line.append(dateFormat.format(new Date(AuditRecord.getTimestamp(record, 0)))).append('\t');
+        line.append(AuditRecord.isSuccess(record, 0) ? "SUCCESS" : "FAILURE").append('\t');
+        AuditReason reason = AuditRecord.getReason(record, 0);
+        line.append(reason != null ? reason.name() : "UNKNOWN");
+        for (int field = AuditRecord.FIELD_TENANT; field <= AuditRecord.FIELD_CLIENT; field++) {
+            String value = AuditRecord.getString(record, 0, field);
+            line.append('\t').append(value != null ? value : "-");
+            if (AuditRecord.isTruncated(record, 0, field)) {
+                line.append("...");
+            }
+        }
+        out.println(line);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.audit;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.JWTConstants;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+import org.wso2.carbon.utils.CarbonUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of JWT bearer grant decisions. The request thread only claims a slot in a preallocated ring buffer and
+ * encodes a fixed layout {@link AuditRecord} into it; a background writer drains the ring in batches to rotating
+ * binary files, which can be read with {@link AuditLogReader}.
+ */
+public class AuditLogger {
+
+    private static final Log log = LogFactory.getLog(AuditLogger.class);
+    private static final AuditLogger instance = new AuditLogger();
+    private static final String DEFAULT_DIRECTORY_NAME = "jwt-grant-audit";
+    private static final int MAX_BATCH_RECORDS = 256;
+    private static final long WRITE_ERROR_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long FORCE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final AtomicLong writtenRecords;
+    private final AtomicLong droppedRecords;
+    private final AtomicLong writeErrors;
+
+    private volatile AuditRingBuffer ringBuffer;
+    private volatile boolean running;
+    private OverflowPolicy overflowPolicy;
+    private long maxBlockNanos;
+    private long drainIntervalNanos;
+    private long wakeupMask;
+    private RotatingAuditFileWriter fileWriter;
+    private Thread writerThread;
+
+    private AuditLogger() {
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        writtenRecords = metrics.counter("audit.written");
+        droppedRecords = metrics.counter("audit.dropped");
+        writeErrors = metrics.counter("audit.writeErrors");
+    }
+
+    public static AuditLogger getInstance() {
+        return instance;
+    }
+
+    /**
+     * Start the audit writer if auditing is enabled in the configuration. Calling it again once started has no
+     * effect.
+     *
+     * @param properties grant handler properties
+     */
+    public synchronized void start(Properties properties) {
+        if (running || !Boolean.parseBoolean(properties.getProperty(JWTConstants.AUDIT_ENABLED))) {
+            return;
+        }
+        String directory = properties.getProperty(JWTConstants.AUDIT_DIRECTORY);
+        if (StringUtils.isBlank(directory)) {
+            directory = CarbonUtils.getCarbonLogsPath() + File.separator + DEFAULT_DIRECTORY_NAME;
+        }
+        int bufferSize = Integer.parseInt(properties.getProperty(JWTConstants.AUDIT_BUFFER_SIZE, "8192"));
+        long maxFileSize = Long.parseLong(properties.getProperty(JWTConstants.AUDIT_MAX_FILE_SIZE, "64")) *
+                1024 * 1024;
+        int maxFiles = Integer.parseInt(properties.getProperty(JWTConstants.AUDIT_MAX_FILES, "10"));
+        overflowPolicy = OverflowPolicy.valueOf(properties.getProperty(JWTConstants.AUDIT_OVERFLOW_POLICY,
+                OverflowPolicy.DROP.name()).trim().toUpperCase());
+        maxBlockNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(properties.getProperty(JWTConstants.AUDIT_MAX_BLOCK_TIME, "10")));
+        drainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(properties.getProperty(JWTConstants.AUDIT_DRAIN_INTERVAL, "50")));
+
+        fileWriter = new RotatingAuditFileWriter(new File(directory), maxFileSize, maxFiles);
+        final AuditRingBuffer ring = new AuditRingBuffer(bufferSize);
+        wakeupMask = ring.capacity() / 2 - 1;
+        writerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop(ring);
+            }
+        }, "JWTGrantAuditWriter");
+        writerThread.setDaemon(true);
+        running = true;
+        ringBuffer = ring;
+        writerThread.start();
+        if (log.isDebugEnabled()) {
+            log.debug("JWT grant audit started. Directory: " + directory + ", buffer: " + ringBuffer.capacity() +
+                    " records, overflow policy: " + overflowPolicy);
+        }
+    }
+
+    /**
+     * Stop the writer after draining the records already in the buffer.
+     */
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            writerThread.interrupt();
+        }
+        ringBuffer = null;
+    }
+
+    public boolean isEnabled() {
+        return ringBuffer != null;
+    }
+
+    /**
+     * Record a grant decision. Never blocks longer than the configured maximum blocking time and never throws.
+     */
+    public void record(boolean success, AuditReason reason, String tenantDomain, String issuer, String subject,
+                       String jti, String clientId) {
+        AuditRingBuffer ring = ringBuffer;
+        if (ring == null) {
+            return;
+        }
+        long sequence = ring.tryClaim();
+        if (sequence < 0 && overflowPolicy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + maxBlockNanos;
+            while (sequence < 0 && System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+                sequence = ring.tryClaim();
+            }
+        }
+        if (sequence < 0) {
+            droppedRecords.incrementAndGet();
+            return;
+        }
+        ring.publish(sequence, System.currentTimeMillis(), success, reason, tenantDomain, issuer, subject, jti,
+                clientId);
+        // Wake the writer up every half buffer, so that bursts do not have to wait for the drain interval.
+        if ((sequence & wakeupMask) == 0) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private void writeLoop(AuditRingBuffer ring) {
+        boolean unflushed = false;
+        long lastForceNanos = System.nanoTime();
+        while ((running || ring.pending() > 0) && !Thread.currentThread().isInterrupted()) {
+            try {
+                int drained = ring.drain(fileWriter, MAX_BATCH_RECORDS);
+                if (drained > 0) {
+                    writtenRecords.addAndGet(drained);
+                    unflushed = true;
+                    continue;
+                }
+                // Records are forced to the device at most once per interval, since a force can take far longer
+                // than filling the buffer.
+                if (unflushed && System.nanoTime() - lastForceNanos > FORCE_INTERVAL_NANOS) {
+                    fileWriter.flush();
+                    lastForceNanos = System.nanoTime();
+                    unflushed = false;
+                }
+                LockSupport.parkNanos(drainIntervalNanos);
+            } catch (IOException e) {
+                writeErrors.incrementAndGet();
+                log.error("Error while writing JWT grant audit records. Retrying with a new audit file.", e);
+                fileWriter.close();
+                LockSupport.parkNanos(WRITE_ERROR_BACKOFF_NANOS);
+            }
+        }
+        fileWriter.close();
+    }
+}
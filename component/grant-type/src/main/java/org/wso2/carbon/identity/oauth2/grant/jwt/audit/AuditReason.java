@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.audit;
+
+/**
+ * Reason recorded with a JWT bearer grant decision. The code is what is stored in the binary audit record, so
+ * existing codes must never be changed or reused.
+ */
+public enum AuditReason {
+
+    VALID(0, "Assertion accepted"),
+    INVALID_ASSERTION(1, "Assertion missing or malformed"),
+    MISSING_MANDATORY_CLAIMS(2, "Mandatory claims missing"),
+    UNKNOWN_ISSUER(3, "Issuer not registered"),
+    RATE_LIMITED(4, "Rate limit exceeded"),
+    IDP_ERROR(5, "Identity provider lookup failed"),
+    SIGNATURE_INVALID(6, "Signature invalid"),
+    AUDIENCE_MISMATCH(7, "Audience mismatch"),
+    EXPIRED(8, "Assertion expired"),
+    NOT_YET_VALID(9, "Assertion used before nbf"),
+    ISSUED_TOO_LONG_AGO(10, "Assertion issued before the allowed time"),
+    REPLAYED(11, "Assertion replayed"),
+    CUSTOM_CLAIMS_INVALID(12, "Custom claims invalid"),
+    INTERNAL_ERROR(13, "Internal error"),
+    CERTIFICATE_INVALID(14, "Signer certificate expired, revoked or of unknown status"),
+    CLIENT_NOT_ALLOWED(15, "Client not allowed to present the assertion");
+
+    private static final AuditReason[] BY_CODE;
+
+    static {
+        BY_CODE = new AuditReason[values().length];
+        for (AuditReason reason : values()) {
+            BY_CODE[reason.code] = reason;
+        }
+    }
+
+    private final byte code;
+    private final String description;
+
+    AuditReason(int code, String description) {
+        this.code = (byte) code;
+        this.description = description;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @param code code stored in an audit record
+     * @return the reason of the code, or null if the code is unknown
+     */
+    public static AuditReason fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Fixed binary layout of an audit record. Every record takes {@link #RECORD_SIZE} bytes:
+ * <pre>
+ *   offset  size  field
+ *        0     8  decision time, milliseconds since the epoch
+ *        8     1  outcome, {@link #OUTCOME_SUCCESS} or {@link #OUTCOME_FAILURE}
+ *        9     1  {@link AuditReason} code
+ *       10     2  truncation flags, one bit per string field
+ *       12    64  tenant domain
+ *       76   128  issuer (iss)
+ *      204   128  subject (sub)
+ *      332    96  JWT id (jti)
+ *      428    84  OAuth client id
+ * </pre>
+ * String fields start with a signed 16 bit length, -1 for a null value, followed by UTF-8 bytes. Values that do not
+ * fit are cut at a character boundary and flagged as truncated. An audit file starts with an 8 byte header holding
+ * {@link #FILE_MAGIC}, {@link #FORMAT_VERSION} and the record size.
+ */
+public final class AuditRecord {
+
+    public static final int RECORD_SIZE = 512;
+    public static final int FILE_MAGIC = 0x4A574155;
+    public static final short FORMAT_VERSION = 1;
+    public static final int FILE_HEADER_SIZE = 8;
+
+    public static final byte OUTCOME_SUCCESS = 0;
+    public static final byte OUTCOME_FAILURE = 1;
+
+    public static final int FIELD_TENANT = 0;
+    public static final int FIELD_ISSUER = 1;
+    public static final int FIELD_SUBJECT = 2;
+    public static final int FIELD_JTI = 3;
+    public static final int FIELD_CLIENT = 4;
+
+    private static final int TIMESTAMP_OFFSET = 0;
+    private static final int OUTCOME_OFFSET = 8;
+    private static final int REASON_OFFSET = 9;
+    private static final int FLAGS_OFFSET = 10;
+    private static final int[] FIELD_OFFSETS = {12, 76, 204, 332, 428};
+    private static final int[] FIELD_SIZES = {64, 128, 128, 96, 84};
+    private static final short NULL_LENGTH = -1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private AuditRecord() {
+    }
+
+    /**
+     * Encode a record into the buffer without allocating.
+     */
+    static void write(ByteBuffer buffer, int base, long timestamp, boolean success, AuditReason reason,
+                      String tenantDomain, String issuer, String subject, String jti, String clientId) {
+        buffer.putLong(base + TIMESTAMP_OFFSET, timestamp);
+        buffer.put(base + OUTCOME_OFFSET, success ? OUTCOME_SUCCESS : OUTCOME_FAILURE);
+        buffer.put(base + REASON_OFFSET, reason.getCode());
+        int flags = 0;
+        flags |= putString(buffer, base, FIELD_TENANT, tenantDomain);
+        flags |= putString(buffer, base, FIELD_ISSUER, issuer);
+        flags |= putString(buffer, base, FIELD_SUBJECT, subject);
+        flags |= putString(buffer, base, FIELD_JTI, jti);
+        flags |= putString(buffer, base, FIELD_CLIENT, clientId);
+        buffer.putShort(base + FLAGS_OFFSET, (short) flags);
+    }
+
+    public static long getTimestamp(ByteBuffer buffer, int base) {
+        return buffer.getLong(base + TIMESTAMP_OFFSET);
+    }
+
+    public static boolean isSuccess(ByteBuffer buffer, int base) {
+        return buffer.get(base + OUTCOME_OFFSET) == OUTCOME_SUCCESS;
+    }
+
+    public static AuditReason getReason(ByteBuffer buffer, int base) {
+        return AuditReason.fromCode(buffer.get(base + REASON_OFFSET));
+    }
+
+    public static boolean isTruncated(ByteBuffer buffer, int base, int field) {
+        return (buffer.getShort(base + FLAGS_OFFSET) & (1 << field)) != 0;
+    }
+
+    public static String getString(ByteBuffer buffer, int base, int field) {
+        int offset = base + FIELD_OFFSETS[field];
+        short length = buffer.getShort(offset);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + 2 + i);
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * @return the truncation flag of the field if the value did not fit, 0 otherwise
+     */
+    private static int putString(ByteBuffer buffer, int base, int field, String value) {
+        int offset = base + FIELD_OFFSETS[field];
+        if (value == null) {
+            buffer.putShort(offset, NULL_LENGTH);
+            return 0;
+        }
+        int position = offset + 2;
+        int limit = offset + FIELD_SIZES[field];
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (position + 1 > limit) {
+                    return finish(buffer, offset, position, field);
+                }
+                buffer.put(position++, (byte) c);
+            } else if (c < 0x800) {
+                if (position + 2 > limit) {
+                    return finish(buffer, offset, position, field);
+                }
+                buffer.put(position++, (byte) (0xC0 | (c >> 6)));
+                buffer.put(position++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length &&
+                    Character.isLowSurrogate(value.charAt(i + 1))) {
+                if (position + 4 > limit) {
+                    return finish(buffer, offset, position, field);
+                }
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put(position++, (byte) (0xF0 | (codePoint >> 18)));
+                buffer.put(position++, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put(position++, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put(position++, (byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                if (position + 3 > limit) {
+                    return finish(buffer, offset, position, field);
+                }
+                // Unpaired surrogates are not valid UTF-8; they are replaced the same way String.getBytes does.
+                char encoded = Character.isSurrogate(c) ? '?' : c;
+                if (encoded == '?') {
+                    buffer.put(position++, (byte) encoded);
+                } else {
+                    buffer.put(position++, (byte) (0xE0 | (encoded >> 12)));
+                    buffer.put(position++, (byte) (0x80 | ((encoded >> 6) & 0x3F)));
+                    buffer.put(position++, (byte) (0x80 | (encoded & 0x3F)));
+                }
+            }
+        }
+        buffer.putShort(offset, (short) (position - offset - 2));
+        return 0;
+    }
+
+    private static int finish(ByteBuffer buffer, int offset, int position, int field) {
+        buffer.putShort(offset, (short) (position - offset - 2));
+        return 1 << field;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Preallocated multi-producer, single-consumer ring of fixed size audit records. A producer claims a sequence with a
+ * compare-and-set, encodes its record straight into the slot and publishes it by storing the sequence in the slot's
+ * marker. The single writer thread drains published records in order and hands contiguous runs of slots to a
+ * {@link RecordSink}, so records are copied to the file without being decoded.
+ */
+class AuditRingBuffer {
+
+    /**
+     * Receives the drained records.
+     */
+    interface RecordSink {
+
+        /**
+         * @param records buffer positioned at the first record, limited at the end of the last one
+         * @param count   number of records in the buffer
+         */
+        void write(ByteBuffer records, int count) throws IOException;
+    }
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+
+    AuditRingBuffer(int requestedCapacity) {
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.buffer = ByteBuffer.allocateDirect(size * AuditRecord.RECORD_SIZE);
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Claim the next free slot.
+     *
+     * @return the sequence of the claimed slot, or -1 if the ring is full
+     */
+    long tryClaim() {
+        while (true) {
+            long sequence = head.get();
+            if (sequence - tail >= capacity) {
+                return -1;
+            }
+            if (head.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Encode a record into a claimed slot and make it visible to the writer.
+     */
+    void publish(long sequence, long timestamp, boolean success, AuditReason reason, String tenantDomain,
+                 String issuer, String subject, String jti, String clientId) {
+        int index = (int) (sequence & mask);
+        AuditRecord.write(buffer, index * AuditRecord.RECORD_SIZE, timestamp, success, reason, tenantDomain, issuer,
+                subject, jti, clientId);
+        published.lazySet(index, sequence);
+    }
+
+    /**
+     * Hand the published records, up to the given count, to the sink and free their slots. Must only be called by
+     * the writer thread.
+     *
+     * @return number of records drained
+     */
+    int drain(RecordSink sink, int maxRecords) throws IOException {
+        long start = tail;
+        long end = start;
+        while (end - start < maxRecords && published.get((int) (end & mask)) == end) {
+            end++;
+        }
+        int count = (int) (end - start);
+        if (count == 0) {
+            return 0;
+        }
+        int first = (int) (start & mask);
+        int firstRun = Math.min(count, capacity - first);
+        writeRun(sink, first, firstRun);
+        if (count > firstRun) {
+            writeRun(sink, 0, count - firstRun);
+        }
+        tail = end;
+        return count;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long pending() {
+        return head.get() - tail;
+    }
+
+    private void writeRun(RecordSink sink, int firstIndex, int count) throws IOException {
+        ByteBuffer run = buffer.duplicate();
+        run.limit((firstIndex + count) * AuditRecord.RECORD_SIZE);
+        run.position(firstIndex * AuditRecord.RECORD_SIZE);
+        sink.write(run, count);
+    }
+}
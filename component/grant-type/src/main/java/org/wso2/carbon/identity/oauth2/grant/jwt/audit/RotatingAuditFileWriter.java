@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.audit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Writes drained audit records to size-rotated files named {@code jwt-grant-audit-<timestamp>.bin} in the audit
+ * directory, keeping at most the configured number of files.
+ */
+class RotatingAuditFileWriter implements AuditRingBuffer.RecordSink {
+
+    static final String FILE_PREFIX = "jwt-grant-audit-";
+    static final String FILE_SUFFIX = ".bin";
+
+    private static final Log log = LogFactory.getLog(RotatingAuditFileWriter.class);
+
+    private final File directory;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final ByteBuffer header;
+    private FileOutputStream outputStream;
+    private FileChannel channel;
+    private long fileSize;
+    private long lastFileTimestamp;
+
+    RotatingAuditFileWriter(File directory, long maxFileSize, int maxFiles) {
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.header = ByteBuffer.allocate(AuditRecord.FILE_HEADER_SIZE);
+        header.putInt(AuditRecord.FILE_MAGIC);
+        header.putShort(AuditRecord.FORMAT_VERSION);
+        header.putShort((short) AuditRecord.RECORD_SIZE);
+        header.flip();
+    }
+
+    @Override
+    public void write(ByteBuffer records, int count) throws IOException {
+        if (channel == null || fileSize >= maxFileSize) {
+            rotate();
+        }
+        while (records.hasRemaining()) {
+            fileSize += channel.write(records);
+        }
+    }
+
+    /**
+     * Push the written records to the storage device.
+     */
+    void flush() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+        }
+    }
+
+    void close() {
+        if (outputStream != null) {
+            try {
+                outputStream.close();
+            } catch (IOException e) {
+                log.error("Error while closing the JWT grant audit file", e);
+            }
+            outputStream = null;
+            channel = null;
+        }
+    }
+
+    private void rotate() throws IOException {
+        close();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create the audit directory " + directory.getAbsolutePath());
+        }
+        // File names must stay unique and sortable even when files are rotated within the same millisecond.
+        long timestamp = Math.max(System.currentTimeMillis(), lastFileTimestamp + 1);
+        lastFileTimestamp = timestamp;
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMddHHmmssSSS");
+        File file = new File(directory, FILE_PREFIX + dateFormat.format(new Date(timestamp)) + FILE_SUFFIX);
+        outputStream = new FileOutputStream(file);
+        channel = outputStream.getChannel();
+        ByteBuffer fileHeader = header.duplicate();
+        while (fileHeader.hasRemaining()) {
+            channel.write(fileHeader);
+        }
+        fileSize = AuditRecord.FILE_HEADER_SIZE;
+        deleteOldFiles();
+        if (log.isDebugEnabled()) {
+            log.debug("Writing JWT grant audit records to " + file.getAbsolutePath());
+        }
+    }
+
+    private void deleteOldFiles() {
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+            }
+        });
+        if (files == null || files.length <= maxFiles) {
+            return;
+        }
+        Arrays.sort(files);
+        for (int i = 0; i < files.length - maxFiles; i++) {
+            if (!files[i].delete()) {
+                log.warn("Unable to delete the old JWT grant audit file " + files[i].getAbsolutePath());
+            }
+        }
+    }
+}
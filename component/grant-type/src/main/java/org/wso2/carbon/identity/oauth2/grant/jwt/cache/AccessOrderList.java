@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cache;
+
+/**
+ * Access ordered list of {@link CacheNode}s, least recently used first. Not thread safe.
+ */
+final class AccessOrderList {
+
+    private final int segment;
+    private CacheNode<?> first;
+    private CacheNode<?> last;
+    private long weight;
+
+    AccessOrderList(int segment) {
+        this.segment = segment;
+    }
+
+    CacheNode<?> first() {
+        return first;
+    }
+
+    CacheNode<?> last() {
+        return last;
+    }
+
+    long weight() {
+        return weight;
+    }
+
+    boolean isEmpty() {
+        return first == null;
+    }
+
+    void addLast(CacheNode<?> node) {
+        node.segment = segment;
+        node.previous = last;
+        node.next = null;
+        if (last == null) {
+            first = node;
+        } else {
+            last.next = node;
+        }
+        last = node;
+        weight += node.weight;
+    }
+
+    void remove(CacheNode<?> node) {
+        if (node.previous == null) {
+            first = node.next;
+        } else {
+            node.previous.next = node.next;
+        }
+        if (node.next == null) {
+            last = node.previous;
+        } else {
+            node.next.previous = node.previous;
+        }
+        node.previous = null;
+        node.next = null;
+        weight -= node.weight;
+    }
+
+    void moveToLast(CacheNode<?> node) {
+        if (node != last) {
+            remove(node);
+            addLast(node);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cache;
+
+/**
+ * Entry of a {@link ManagedCache}, which is also the node of the eviction policy of {@link JWTCacheManager}. The
+ * fields below the final ones are guarded by the eviction lock.
+ *
+ * @param <V> value type
+ */
+final class CacheNode<V> {
+
+    static final int NEW = 0;
+    static final int WINDOW = 1;
+    static final int PROBATION = 2;
+    static final int PROTECTED = 3;
+    static final int RETIRED = 4;
+
+    final ManagedCache<V> cache;
+    final String key;
+    final V value;
+    final long weight;
+    final long expiryTimeMillis;
+    final int hash;
+
+    int segment = NEW;
+    CacheNode<?> previous;
+    CacheNode<?> next;
+
+    CacheNode(ManagedCache<V> cache, String key, V value, long weight, long expiryTimeMillis) {
+        this.cache = cache;
+        this.key = key;
+        this.value = value;
+        this.weight = weight;
+        this.expiryTimeMillis = expiryTimeMillis;
+        this.hash = cache.hashSeed ^ key.hashCode();
+    }
+
+    boolean isExpired(long currentTimeMillis) {
+        return expiryTimeMillis != 0 && currentTimeMillis >= expiryTimeMillis;
+    }
+
+    boolean isLinked() {
+        return segment == WINDOW || segment == PROBATION || segment == PROTECTED;
+    }
+}
@@ -24,6 +24,8 @@ import org.wso2.carbon.identity.application.common.cache.CacheEntry;
 import java.text.ParseException;
 
 public class JWTCacheEntry extends CacheEntry {
+    // Pinned to the value computed for the original class, so that nodes of different versions share the cache.
+    private static final long serialVersionUID = 6992191839208844533L;
     private String encodedJWT;
 
     public JWTCacheEntry(SignedJWT jwt) {
@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.management.JMException;
+import javax.management.ListenerNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+/**
+ * Owns the in-memory caches of the JWT grant handler and keeps them, together, within one memory budget. Every
+ * entry is charged its estimated size, and entries of all caches compete for the budget under one W-TinyLFU policy:
+ * new entries go to a small LRU window, entries leaving the window go to the probation segment of a segmented LRU
+ * and are promoted to its protected segment when they are used again. When the budget is exceeded the least
+ * recently used probation entry is compared with the newest one, and the one seen less often recently, according
+ * to a {@link FrequencySketch}, is evicted. One-off entries, such as keys taken from bad requests, therefore can not
+ * push out the entries requests keep hitting.
+ * <p/>
+ * Lookups do not take the eviction lock: they are recorded in a lossy buffer that is replayed against the policy by
+ * whichever thread gets the lock next. Writes are rare, as they follow a miss, and update the policy directly.
+ * <p/>
+ * When the heap usage of the old generation after a garbage collection exceeds the heap pressure threshold, the
+ * budget is cut to the configured share until usage is back below the threshold.
+ * <p/>
+ * The distributed {@link JWTReplayCache} of used JTIs is not managed here; it is a Carbon cache whose entries can not
+ * be evicted early without allowing replays.
+ */
+public class JWTCacheManager implements JWTCacheManagerMXBean {
+
+    private static final Log log = LogFactory.getLog(JWTCacheManager.class);
+    private static final String OBJECT_NAME = "org.wso2.carbon.identity.oauth2.grant.jwt:type=CacheManager";
+    private static final JWTCacheManager instance = new JWTCacheManager();
+    private static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+    // Entry size the frequency sketch is sized for; the sketch only needs to be in the right order of magnitude.
+    private static final long EXPECTED_ENTRY_SIZE = 1024;
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    // An entry larger than this share of the budget would evict a large part of every cache.
+    private static final int MAX_ENTRY_PERCENT = 25;
+    private static final int READ_BUFFER_SIZE = 256;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int DRAIN_INTERVAL_MASK = 63;
+    private static final long PRESSURE_RECHECK_MILLIS = 10000;
+
+    private final ConcurrentMap<String, ManagedCache<?>> caches = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AccessOrderList window = new AccessOrderList(CacheNode.WINDOW);
+    private final AccessOrderList probation = new AccessOrderList(CacheNode.PROBATION);
+    private final AccessOrderList protectedSegment = new AccessOrderList(CacheNode.PROTECTED);
+    private final FrequencySketch sketch = new FrequencySketch(DEFAULT_BUDGET_BYTES / EXPECTED_ENTRY_SIZE);
+    private final AtomicReferenceArray<CacheNode<?>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong heapPressureEvents;
+    private final AtomicLong rejected;
+
+    private volatile long budgetBytes = DEFAULT_BUDGET_BYTES;
+    private volatile long effectiveBudgetBytes = DEFAULT_BUDGET_BYTES;
+    private volatile int pressureBudgetPercent = 25;
+    private volatile boolean underHeapPressure;
+    private MemoryPoolMXBean pressurePool;
+    private long pressureThresholdBytes;
+    private NotificationListener pressureListener;
+    // Guarded by the eviction lock.
+    private long lastPressureCheckMillis;
+
+    private JWTCacheManager() {
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        heapPressureEvents = metrics.counter("cache.heapPressureEvents");
+        rejected = metrics.counter("cache.rejected");
+    }
+
+    public static JWTCacheManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Apply the budget to all caches, evicting entries if the caches are over the new budget.
+     *
+     * @param budgetBytes            memory budget of all caches in bytes
+     * @param heapPressurePercent    old generation usage after garbage collection, in percent of its maximum, above
+     *                               which the budget is reduced, or 0 to ignore the heap usage
+     * @param pressureBudgetPercent  share of the budget in percent kept under heap pressure
+     */
+    public void configure(long budgetBytes, int heapPressurePercent, int pressureBudgetPercent) {
+        if (budgetBytes < 0 || heapPressurePercent < 0 || heapPressurePercent > 100 || pressureBudgetPercent < 0 ||
+                pressureBudgetPercent > 100) {
+            throw new IllegalArgumentException("Invalid cache budget: " + budgetBytes + " bytes, heap pressure at " +
+                    heapPressurePercent + "%, " + pressureBudgetPercent + "% under pressure");
+        }
+        evictionLock.lock();
+        try {
+            this.budgetBytes = budgetBytes;
+            this.pressureBudgetPercent = pressureBudgetPercent;
+            this.effectiveBudgetBytes = underHeapPressure ? budgetBytes * pressureBudgetPercent / 100 : budgetBytes;
+            long expectedEntries = budgetBytes / EXPECTED_ENTRY_SIZE;
+            if (expectedEntries > sketch.width() || expectedEntries < sketch.width() / 4) {
+                sketch.resize(expectedEntries);
+            }
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+        watchHeap(heapPressurePercent);
+        if (log.isDebugEnabled()) {
+            log.debug("JWT grant cache budget set to " + budgetBytes + " bytes");
+        }
+    }
+
+    /**
+     * @param name    cache name, also used in the metric names of the cache
+     * @param weigher estimates the size of the entries of the cache
+     * @param <V>     value type
+     * @return the cache registered under the name, created on first use
+     */
+    @SuppressWarnings("unchecked")
+    public <V> ManagedCache<V> getCache(String name, Weigher<V> weigher) {
+        ManagedCache<?> cache = caches.get(name);
+        if (cache == null) {
+            ManagedCache<V> newCache = new ManagedCache<>(name, this, weigher);
+            cache = caches.putIfAbsent(name, newCache);
+            if (cache == null) {
+                cache = newCache;
+            }
+        }
+        return (ManagedCache<V>) cache;
+    }
+
+    boolean isAdmissible(long weight) {
+        if (weight > effectiveBudgetBytes / 100 * MAX_ENTRY_PERCENT) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void onRead(CacheNode<?> node) {
+        long count = reads.getAndIncrement();
+        readBuffer.lazySet((int) (count & READ_BUFFER_MASK), node);
+        if ((count & DRAIN_INTERVAL_MASK) == DRAIN_INTERVAL_MASK && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    <V> void onWrite(CacheNode<V> node, CacheNode<V> previous) {
+        evictionLock.lock();
+        try {
+            if (previous != null) {
+                unlink(previous);
+            }
+            // A concurrent remove of the key may have been applied first, in which case the node is retired.
+            if (node.segment == CacheNode.NEW && node.cache.entries.get(node.key) == node) {
+                sketch.increment(node.hash);
+                window.addLast(node);
+                node.cache.weight += node.weight;
+            } else {
+                node.segment = CacheNode.RETIRED;
+            }
+            drainReadBuffer();
+            checkHeapPressureRelief();
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    void onRemoval(CacheNode<?> node) {
+        evictionLock.lock();
+        try {
+            unlink(node);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void drainReadBuffer() {
+        for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+            CacheNode<?> node = readBuffer.get(i);
+            if (node != null) {
+                readBuffer.lazySet(i, null);
+                onAccess(node);
+            }
+        }
+    }
+
+    private void onAccess(CacheNode<?> node) {
+        if (!node.isLinked()) {
+            return;
+        }
+        sketch.increment(node.hash);
+        if (node.segment == CacheNode.WINDOW) {
+            window.moveToLast(node);
+        } else if (node.segment == CacheNode.PROBATION) {
+            probation.remove(node);
+            protectedSegment.addLast(node);
+            long protectedMax = (effectiveBudgetBytes - windowMax()) / 100 * PROTECTED_PERCENT;
+            while (protectedSegment.weight() > protectedMax && protectedSegment.first() != node) {
+                CacheNode<?> demoted = protectedSegment.first();
+                protectedSegment.remove(demoted);
+                probation.addLast(demoted);
+            }
+        } else {
+            protectedSegment.moveToLast(node);
+        }
+    }
+
+    private void evict() {
+        long windowMax = windowMax();
+        while (window.weight() > windowMax) {
+            CacheNode<?> node = window.first();
+            window.remove(node);
+            probation.addLast(node);
+        }
+        long budget = effectiveBudgetBytes;
+        while (window.weight() + probation.weight() + protectedSegment.weight() > budget) {
+            CacheNode<?> victim = probation.first();
+            if (victim == null) {
+                victim = protectedSegment.isEmpty() ? window.first() : protectedSegment.first();
+            } else {
+                // TinyLFU admission: the newest probation entry only stays if it is seen more often than the oldest.
+                CacheNode<?> candidate = probation.last();
+                if (candidate != victim && sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+                    victim = candidate;
+                }
+            }
+            evict(victim);
+        }
+    }
+
+    private void evict(CacheNode<?> node) {
+        unlink(node);
+        node.cache.entries.remove(node.key, node);
+        node.cache.evictions.incrementAndGet();
+    }
+
+    private void unlink(CacheNode<?> node) {
+        if (node.segment == CacheNode.WINDOW) {
+            window.remove(node);
+        } else if (node.segment == CacheNode.PROBATION) {
+            probation.remove(node);
+        } else if (node.segment == CacheNode.PROTECTED) {
+            protectedSegment.remove(node);
+        } else {
+            node.segment = CacheNode.RETIRED;
+            return;
+        }
+        node.segment = CacheNode.RETIRED;
+        node.cache.weight -= node.weight;
+    }
+
+    private long windowMax() {
+        return effectiveBudgetBytes / 100 * WINDOW_PERCENT;
+    }
+
+    private synchronized void watchHeap(int heapPressurePercent) {
+        stopWatchingHeap();
+        if (heapPressurePercent == 0) {
+            return;
+        }
+        MemoryPoolMXBean oldGeneration = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            // The old generation is the largest heap pool that reports its usage after collections.
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() &&
+                    pool.getUsage().getMax() > 0 && (oldGeneration == null ||
+                    pool.getUsage().getMax() > oldGeneration.getUsage().getMax())) {
+                oldGeneration = pool;
+            }
+        }
+        if (oldGeneration == null) {
+            log.warn("No heap memory pool supports collection usage thresholds. The JWT grant cache budget will " +
+                    "not react to heap pressure.");
+            return;
+        }
+        pressureThresholdBytes = oldGeneration.getUsage().getMax() / 100 * heapPressurePercent;
+        oldGeneration.setCollectionUsageThreshold(pressureThresholdBytes);
+        pressurePool = oldGeneration;
+        pressureListener = new NotificationListener() {
+            @Override
+            public void handleNotification(Notification notification, Object handback) {
+                if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                    onHeapPressure();
+                }
+            }
+        };
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(pressureListener, null,
+                null);
+    }
+
+    private synchronized void stopWatchingHeap() {
+        if (pressureListener == null) {
+            return;
+        }
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(pressureListener);
+        } catch (ListenerNotFoundException e) {
+            log.debug("Heap pressure listener was already removed", e);
+        }
+        pressurePool.setCollectionUsageThreshold(0);
+        pressureListener = null;
+        pressurePool = null;
+        evictionLock.lock();
+        try {
+            underHeapPressure = false;
+            effectiveBudgetBytes = budgetBytes;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void onHeapPressure() {
+        heapPressureEvents.incrementAndGet();
+        long reducedBudget;
+        evictionLock.lock();
+        try {
+            underHeapPressure = true;
+            lastPressureCheckMillis = System.currentTimeMillis();
+            reducedBudget = budgetBytes * pressureBudgetPercent / 100;
+            effectiveBudgetBytes = reducedBudget;
+            drainReadBuffer();
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+        log.warn("Heap usage after garbage collection is above the threshold. Reduced the JWT grant cache budget to "
+                + reducedBudget + " bytes.");
+    }
+
+    private void checkHeapPressureRelief() {
+        if (!underHeapPressure) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastPressureCheckMillis < PRESSURE_RECHECK_MILLIS) {
+            return;
+        }
+        lastPressureCheckMillis = now;
+        MemoryPoolMXBean pool = pressurePool;
+        MemoryUsage usage = pool != null ? pool.getCollectionUsage() : null;
+        if (usage == null || usage.getUsed() < pressureThresholdBytes) {
+            underHeapPressure = false;
+            effectiveBudgetBytes = budgetBytes;
+            log.info("Heap usage after garbage collection is back below the threshold. Restored the JWT grant " +
+                    "cache budget to " + budgetBytes + " bytes.");
+        }
+    }
+
+    @Override
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    @Override
+    public long getEffectiveBudgetBytes() {
+        return effectiveBudgetBytes;
+    }
+
+    @Override
+    public long getWeightBytes() {
+        long weight = 0;
+        for (ManagedCache<?> cache : caches.values()) {
+            weight += cache.getWeight();
+        }
+        return weight;
+    }
+
+    @Override
+    public boolean isUnderHeapPressure() {
+        return underHeapPressure;
+    }
+
+    @Override
+    public Map<String, Long> getFootprints() {
+        Map<String, Long> footprints = new TreeMap<>();
+        for (ManagedCache<?> cache : caches.values()) {
+            footprints.put(cache.getName(), cache.getWeight());
+        }
+        return footprints;
+    }
+
+    @Override
+    public Map<String, Integer> getEntryCounts() {
+        Map<String, Integer> entryCounts = new TreeMap<>();
+        for (ManagedCache<?> cache : caches.values()) {
+            entryCounts.put(cache.getName(), cache.size());
+        }
+        return entryCounts;
+    }
+
+    @Override
+    public Map<String, Double> getHitRatios() {
+        Map<String, Double> hitRatios = new TreeMap<>();
+        for (ManagedCache<?> cache : caches.values()) {
+            hitRatios.put(cache.getName(), cache.getHitRatio());
+        }
+        return hitRatios;
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (ManagedCache<?> cache : caches.values()) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Register the cache manager in the platform MBean server.
+     */
+    public void register() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while registering the JWT grant cache manager MBean", e);
+        }
+    }
+
+    /**
+     * Remove the cache manager from the platform MBean server and stop watching the heap.
+     */
+    public void unregister() {
+        stopWatchingHeap();
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while unregistering the JWT grant cache manager MBean", e);
+        }
+    }
+}
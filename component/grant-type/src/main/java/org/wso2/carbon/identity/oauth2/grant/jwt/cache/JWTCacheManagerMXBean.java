@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cache;
+
+import java.util.Map;
+
+/**
+ * JMX view of the caches of the JWT grant handler.
+ */
+public interface JWTCacheManagerMXBean {
+
+    /**
+     * @return configured memory budget of all caches in bytes
+     */
+    long getBudgetBytes();
+
+    /**
+     * @return memory budget currently enforced, which is lower than the configured one under heap pressure
+     */
+    long getEffectiveBudgetBytes();
+
+    /**
+     * @return estimated footprint of all caches in bytes
+     */
+    long getWeightBytes();
+
+    /**
+     * @return true if the budget is reduced because the heap is short of memory
+     */
+    boolean isUnderHeapPressure();
+
+    /**
+     * @return estimated footprint of each cache in bytes, keyed by cache name
+     */
+    Map<String, Long> getFootprints();
+
+    /**
+     * @return number of entries of each cache, keyed by cache name
+     */
+    Map<String, Integer> getEntryCounts();
+
+    /**
+     * @return hit ratio of each cache since the grant metrics were last reset, keyed by cache name
+     */
+    Map<String, Double> getHitRatios();
+
+    /**
+     * Drop the entries of all caches.
+     */
+    void invalidateAll();
+}
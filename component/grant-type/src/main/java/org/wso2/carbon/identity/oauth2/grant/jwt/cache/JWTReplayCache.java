@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cache;
+
+import org.wso2.carbon.identity.application.common.cache.BaseCache;
+import org.wso2.carbon.identity.application.common.cache.CacheEntry;
+import org.wso2.carbon.utils.CarbonUtils;
+
+/**
+ * Carbon cache of the JWT ids used by accepted assertions. It is separate from the {@link JWTCache} that holds whole
+ * assertions, so that nodes which still read whole assertions from that cache never see the expiry time entries.
+ */
+public class JWTReplayCache extends BaseCache {
+    private static final JWTReplayCache instance = new JWTReplayCache("JWTReplayCache");
+
+    private JWTReplayCache(String cacheName) {
+        super(cacheName);
+    }
+
+    public static JWTReplayCache getInstance() {
+        CarbonUtils.checkSecurity();
+        return instance;
+    }
+
+    public void addToCache(String key, CacheEntry entry) {
+        super.addToCache(key, entry);
+    }
+
+    public CacheEntry getValueFromCache(String key) {
+        return (CacheEntry) super.getValueFromCache(key);
+    }
+
+    public void clearCacheEntry(String key) {
+        super.clearCacheEntry(key);
+    }
+}
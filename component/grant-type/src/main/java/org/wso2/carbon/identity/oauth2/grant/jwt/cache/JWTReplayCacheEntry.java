@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cache;
+
+import org.wso2.carbon.identity.application.common.cache.CacheEntry;
+
+/**
+ * Entry of the {@link JWTReplayCache}, holding only the expiry time of the assertion that used the JWT id.
+ */
+public class JWTReplayCacheEntry extends CacheEntry {
+    private static final long serialVersionUID = 1L;
+    private final long expiryTimeMillis;
+
+    public JWTReplayCacheEntry(long expiryTimeMillis) {
+        this.expiryTimeMillis = expiryTimeMillis;
+    }
+
+    public long getExpiryTimeMillis() {
+        return expiryTimeMillis;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cache;
+
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named cache owned by {@link JWTCacheManager}. Lookups are a concurrent map read; which entries stay is decided
+ * by the manager, which charges the estimated size of every entry against the memory budget shared by all caches
+ * and evicts with one policy across them. Entries can also expire after a time to live given when they are put.
+ * <p/>
+ * Hits, misses and evictions are counted in {@link GrantMetrics} as <code>cache.&lt;name&gt;.hits</code>,
+ * <code>.misses</code> and <code>.evictions</code>.
+ *
+ * @param <V> value type
+ */
+public class ManagedCache<V> {
+
+    final int hashSeed;
+    final ConcurrentMap<String, CacheNode<V>> entries = new ConcurrentHashMap<>();
+    final AtomicLong hits;
+    final AtomicLong misses;
+    final AtomicLong evictions;
+    // Guarded by the eviction lock of the manager, read without it for reporting.
+    volatile long weight;
+
+    private final String name;
+    private final JWTCacheManager manager;
+    private final Weigher<V> weigher;
+
+    ManagedCache(String name, JWTCacheManager manager, Weigher<V> weigher) {
+        this.name = name;
+        this.manager = manager;
+        this.weigher = weigher;
+        this.hashSeed = name.hashCode() * 0x9e3779b9;
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        this.hits = metrics.counter("cache." + name + ".hits");
+        this.misses = metrics.counter("cache." + name + ".misses");
+        this.evictions = metrics.counter("cache." + name + ".evictions");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param key cache key
+     * @return the cached value, or null if there is no live entry for the key
+     */
+    public V get(String key) {
+        CacheNode<V> node = entries.get(key);
+        if (node == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (node.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(key, node)) {
+                manager.onRemoval(node);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        manager.onRead(node);
+        hits.incrementAndGet();
+        return node.value;
+    }
+
+    /**
+     * Look a value up without counting the lookup or recording it as a use of the entry.
+     *
+     * @param key cache key
+     * @return the cached value, or null if there is no live entry for the key
+     */
+    public V peek(String key) {
+        CacheNode<V> node = entries.get(key);
+        return node != null && !node.isExpired(System.currentTimeMillis()) ? node.value : null;
+    }
+
+    /**
+     * Cache a value that does not expire. It stays until it is evicted or invalidated.
+     *
+     * @param key   cache key
+     * @param value value
+     */
+    public void put(String key, V value) {
+        put(key, value, 0);
+    }
+
+    /**
+     * Cache a value. Values too large for the budget are not cached, and any previous value of the key is dropped.
+     *
+     * @param key               cache key
+     * @param value             value
+     * @param timeToLiveMillis  time after which the entry expires, or 0 if it does not expire
+     */
+    public void put(String key, V value, long timeToLiveMillis) {
+        long entryWeight = SizeEstimator.ENTRY_OVERHEAD + SizeEstimator.sizeOf(key) + weigher.weigh(key, value);
+        if (!manager.isAdmissible(entryWeight)) {
+            remove(key);
+            return;
+        }
+        long expiryTimeMillis = timeToLiveMillis > 0 ? System.currentTimeMillis() + timeToLiveMillis : 0;
+        CacheNode<V> node = new CacheNode<>(this, key, value, entryWeight, expiryTimeMillis);
+        CacheNode<V> previous = entries.put(key, node);
+        manager.onWrite(node, previous);
+    }
+
+    /**
+     * @param key cache key
+     */
+    public void remove(String key) {
+        CacheNode<V> node = entries.remove(key);
+        if (node != null) {
+            manager.onRemoval(node);
+        }
+    }
+
+    /**
+     * Drop all entries whose key starts with the prefix, e.g. the entries of a tenant.
+     *
+     * @param keyPrefix key prefix
+     */
+    public void invalidate(String keyPrefix) {
+        Iterator<Map.Entry<String, CacheNode<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CacheNode<V>> entry = iterator.next();
+            if (entry.getKey().startsWith(keyPrefix) && entries.remove(entry.getKey(), entry.getValue())) {
+                manager.onRemoval(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Drop all entries.
+     */
+    public void clear() {
+        invalidate("");
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return estimated heap footprint of the entries in bytes
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return share of lookups since the metrics were last reset that found a live entry
+     */
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+}
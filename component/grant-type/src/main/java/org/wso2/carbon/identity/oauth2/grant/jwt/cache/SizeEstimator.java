@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cache;
+
+import java.util.Map;
+
+/**
+ * Rough heap sizes of the objects cache entries are made of, assuming a 64 bit JVM with compressed references.
+ */
+public final class SizeEstimator {
+
+    /**
+     * Object header, padding and the bookkeeping of the cache itself: the map entry and the policy node.
+     */
+    public static final long ENTRY_OVERHEAD = 128;
+    public static final long OBJECT_OVERHEAD = 16;
+    public static final long REFERENCE = 4;
+    private static final long STRING_OVERHEAD = 40;
+    private static final long MAP_ENTRY_OVERHEAD = 32;
+
+    private SizeEstimator() {
+    }
+
+    /**
+     * @param value string, may be null
+     * @return size of the string and its backing array
+     */
+    public static long sizeOf(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+
+    /**
+     * @param values strings, may contain nulls
+     * @return combined size of the strings
+     */
+    public static long sizeOf(String... values) {
+        long size = 0;
+        for (String value : values) {
+            size += sizeOf(value);
+        }
+        return size;
+    }
+
+    /**
+     * @param map              map, may be null
+     * @param valueSizeInBytes size of each value that is not shared with other entries
+     * @return size of a hash map with string keys
+     */
+    public static long sizeOf(Map<String, ?> map, long valueSizeInBytes) {
+        if (map == null) {
+            return 0;
+        }
+        long size = 2 * OBJECT_OVERHEAD + REFERENCE * 2 * map.size();
+        for (String key : map.keySet()) {
+            size += MAP_ENTRY_OVERHEAD + sizeOf(key) + valueSizeInBytes;
+        }
+        return size;
+    }
+
+    /**
+     * @param encodedLength length of the encoded form of an object
+     * @param expansion     how much larger the parsed object is than its encoding
+     * @return size of the parsed object
+     */
+    public static long sizeOfParsed(int encodedLength, int expansion) {
+        return OBJECT_OVERHEAD + (long) encodedLength * expansion;
+    }
+}
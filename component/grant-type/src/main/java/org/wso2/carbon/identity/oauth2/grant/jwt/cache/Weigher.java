@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cache;
+
+/**
+ * Estimates the heap footprint of a cache entry, which is what {@link JWTCacheManager} charges against the memory
+ * budget. Estimates only need to be in the right order of magnitude; see {@link SizeEstimator} for the usual parts.
+ *
+ * @param <V> value type of the cache
+ */
+public interface Weigher<V> {
+
+    /**
+     * @param key   cache key
+     * @param value cached value
+     * @return estimated size of the entry in bytes
+     */
+    long weigh(String key, V value);
+}
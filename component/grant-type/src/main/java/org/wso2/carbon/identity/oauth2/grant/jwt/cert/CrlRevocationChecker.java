@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+/**
+ * {@link RevocationChecker} over the CRL distribution points of a certificate. Downloaded CRLs are kept per URL
+ * until their next update, so certificates of the same issuer share one download, in a cache of the
+ * {@link JWTCacheManager}. A CRL too large for its budget is downloaded again on every check.
+ */
+public class CrlRevocationChecker implements RevocationChecker {
+
+    private static final Log log = LogFactory.getLog(CrlRevocationChecker.class);
+    private static final int MAX_CRL_LENGTH = 10 * 1024 * 1024;
+    // Parsed CRLs keep their encoding and an object per revoked certificate.
+    private static final int CRL_EXPANSION = 3;
+
+    private final int timeoutMillis;
+    private final long refreshIntervalMillis;
+    private final ManagedCache<CachedCrl> crls;
+
+    /**
+     * @param timeoutMillis         connect and read timeout of a download
+     * @param refreshIntervalMillis how long a CRL without a next update time is used
+     */
+    public CrlRevocationChecker(int timeoutMillis, long refreshIntervalMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.crls = JWTCacheManager.getInstance().getCache("crl", new Weigher<CachedCrl>() {
+            @Override
+            public long weigh(String key, CachedCrl cachedCrl) {
+                return SizeEstimator.sizeOfParsed(cachedCrl.encodedLength, CRL_EXPANSION);
+            }
+        });
+    }
+
+    @Override
+    public RevocationStatus check(X509Certificate certificate, X509Certificate issuer) throws IOException {
+        List<String> urls = RevocationEndpoints.getCrlUrls(certificate);
+        if (urls.isEmpty()) {
+            return null;
+        }
+        if (issuer == null) {
+            throw new IOException("Issuer certificate of " + certificate.getSubjectX500Principal() +
+                    " is not available to verify its CRL");
+        }
+        IOException failure = null;
+        for (String url : urls) {
+            try {
+                X509CRL crl = getCrl(url, issuer);
+                long nextUpdate = crl.getNextUpdate() != null ? crl.getNextUpdate().getTime() : 0;
+                RevocationStatus.State state = crl.isRevoked(certificate) ? RevocationStatus.State.REVOKED :
+                        RevocationStatus.State.GOOD;
+                return new RevocationStatus(state, nextUpdate, url);
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Unable to use the CRL at " + url, e);
+                }
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Drop all downloaded CRLs.
+     */
+    public void clear() {
+        crls.clear();
+    }
+
+    private X509CRL getCrl(String url, X509Certificate issuer) throws IOException {
+        long now = System.currentTimeMillis();
+        CachedCrl cached = crls.get(url);
+        if (cached != null) {
+            return cached.crl;
+        }
+        byte[] encoded = RevocationEndpoints.fetch(url, null, null, timeoutMillis, MAX_CRL_LENGTH);
+        X509CRL crl;
+        try {
+            crl = (X509CRL) CertificateFactory.getInstance("X.509").generateCRL(new ByteArrayInputStream(encoded));
+            if (!crl.getIssuerX500Principal().equals(issuer.getSubjectX500Principal())) {
+                throw new IOException("CRL at " + url + " is issued by " + crl.getIssuerX500Principal() +
+                        " instead of " + issuer.getSubjectX500Principal());
+            }
+            crl.verify(issuer.getPublicKey());
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Invalid CRL at " + url, e);
+        }
+        long expiryTime = crl.getNextUpdate() != null ? crl.getNextUpdate().getTime() : now + refreshIntervalMillis;
+        if (expiryTime > now) {
+            crls.put(url, new CachedCrl(crl, encoded.length), expiryTime - now);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Downloaded CRL of " + crl.getIssuerX500Principal() + " from " + url + ", next update " +
+                    crl.getNextUpdate());
+        }
+        return crl;
+    }
+
+    private static class CachedCrl {
+
+        private final X509CRL crl;
+        private final int encodedLength;
+
+        CachedCrl(X509CRL crl, int encodedLength) {
+            this.crl = crl;
+            this.encodedLength = encodedLength;
+        }
+    }
+}
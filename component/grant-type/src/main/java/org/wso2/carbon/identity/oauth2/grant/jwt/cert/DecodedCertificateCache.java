@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationManagementUtil;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+/**
+ * Caches the certificates decoded from the encoded certificates of identity providers, so that the certificate of an
+ * identity provider is decoded once rather than on every assertion it signs. Entries are keyed by the hash of the
+ * encoded certificate and hold the encoding they were decoded from, which is compared on every hit, so a changed
+ * certificate is never served stale and no invalidation is needed. Their size is bounded by the budget of the
+ * {@link JWTCacheManager}.
+ */
+public class DecodedCertificateCache {
+
+    private static final DecodedCertificateCache instance = new DecodedCertificateCache();
+    // A decoded certificate keeps its DER encoding and the parsed extensions, around twice the size of the PEM.
+    private static final int CERTIFICATE_EXPANSION = 2;
+
+    private final ManagedCache<Entry> certificates;
+
+    private DecodedCertificateCache() {
+        certificates = JWTCacheManager.getInstance().getCache("signerCertificates", new Weigher<Entry>() {
+            @Override
+            public long weigh(String key, Entry entry) {
+                // The encoded certificate is shared with the identity provider and not charged.
+                return SizeEstimator.sizeOf(key) + SizeEstimator.sizeOfParsed(entry.encodedCertificate.length(),
+                        CERTIFICATE_EXPANSION);
+            }
+        });
+    }
+
+    public static DecodedCertificateCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param encodedCertificate certificate as stored with the identity provider
+     * @return the decoded certificate
+     * @throws CertificateException if the certificate can not be decoded
+     */
+    public X509Certificate decode(String encodedCertificate) throws CertificateException {
+        if (encodedCertificate == null) {
+            // Rejected by the decoder as before.
+            return (X509Certificate) IdentityApplicationManagementUtil.decodeCertificate(null);
+        }
+        String key = Integer.toHexString(encodedCertificate.hashCode()) + ':' + encodedCertificate.length();
+        Entry entry = certificates.get(key);
+        if (entry != null && entry.encodedCertificate.equals(encodedCertificate)) {
+            return entry.certificate;
+        }
+        X509Certificate certificate = (X509Certificate) IdentityApplicationManagementUtil
+                .decodeCertificate(encodedCertificate);
+        if (certificate != null) {
+            certificates.put(key, new Entry(encodedCertificate, certificate));
+        }
+        return certificate;
+    }
+
+    private static class Entry {
+
+        private final String encodedCertificate;
+        private final X509Certificate certificate;
+
+        Entry(String encodedCertificate, X509Certificate certificate) {
+            this.encodedCertificate = encodedCertificate;
+            this.certificate = certificate;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal DER reader and writer for the few ASN.1 structures revocation checking needs (certificate extensions,
+ * OCSP requests and responses). Only definite lengths are supported, which is all DER allows.
+ */
+final class Der {
+
+    static final int INTEGER = 0x02;
+    static final int BIT_STRING = 0x03;
+    static final int OCTET_STRING = 0x04;
+    static final int NULL = 0x05;
+    static final int OID = 0x06;
+    static final int ENUMERATED = 0x0a;
+    static final int GENERALIZED_TIME = 0x18;
+    static final int SEQUENCE = 0x30;
+
+    private Der() {
+    }
+
+    /**
+     * @param tag      tag of the element
+     * @param contents encoded children of the element
+     * @return the DER encoding of the element
+     */
+    static byte[] encode(int tag, byte[]... contents) {
+        int length = 0;
+        for (byte[] content : contents) {
+            length += content.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 6);
+        out.write(tag);
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            int bytes = length > 0xffffff ? 4 : length > 0xffff ? 3 : length > 0xff ? 2 : 1;
+            out.write(0x80 | bytes);
+            for (int i = bytes - 1; i >= 0; i--) {
+                out.write(length >>> (8 * i));
+            }
+        }
+        for (byte[] content : contents) {
+            out.write(content, 0, content.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A single element of a DER encoding. Children are read lazily through {@link #reader()}.
+     */
+    static final class Element {
+
+        private final byte[] data;
+        private final int tag;
+        private final int start;
+        private final int contentOffset;
+        private final int contentLength;
+
+        private Element(byte[] data, int tag, int start, int contentOffset, int contentLength) {
+            this.data = data;
+            this.tag = tag;
+            this.start = start;
+            this.contentOffset = contentOffset;
+            this.contentLength = contentLength;
+        }
+
+        int getTag() {
+            return tag;
+        }
+
+        boolean isConstructed() {
+            return (tag & 0x20) != 0;
+        }
+
+        /**
+         * @return a reader over the children of a constructed element
+         */
+        Reader reader() {
+            return new Reader(data, contentOffset, contentOffset + contentLength);
+        }
+
+        byte[] getContent() {
+            return Arrays.copyOfRange(data, contentOffset, contentOffset + contentLength);
+        }
+
+        /**
+         * @return the whole element including tag and length, e.g. the signed part of a structure
+         */
+        byte[] getEncoded() {
+            return Arrays.copyOfRange(data, start, contentOffset + contentLength);
+        }
+
+        boolean contentEquals(byte[] value) {
+            if (value.length != contentLength) {
+                return false;
+            }
+            for (int i = 0; i < contentLength; i++) {
+                if (data[contentOffset + i] != value[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the dotted form of an object identifier
+         */
+        String getOid() {
+            StringBuilder oid = new StringBuilder();
+            long value = 0;
+            for (int i = contentOffset; i < contentOffset + contentLength; i++) {
+                value = (value << 7) | (data[i] & 0x7f);
+                if ((data[i] & 0x80) == 0) {
+                    if (oid.length() == 0) {
+                        long first = Math.min(value / 40, 2);
+                        oid.append(first).append('.').append(value - first * 40);
+                    } else {
+                        oid.append('.').append(value);
+                    }
+                    value = 0;
+                }
+            }
+            return oid.toString();
+        }
+
+        String getString() {
+            return new String(data, contentOffset, contentLength, StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Sequential reader over the elements of a DER encoding.
+     */
+    static final class Reader {
+
+        private final byte[] data;
+        private final int end;
+        private int position;
+
+        Reader(byte[] data) {
+            this(data, 0, data.length);
+        }
+
+        private Reader(byte[] data, int offset, int end) {
+            this.data = data;
+            this.position = offset;
+            this.end = end;
+        }
+
+        boolean hasMore() {
+            return position < end;
+        }
+
+        /**
+         * @return the tag of the next element, or -1 at the end
+         */
+        int peekTag() {
+            return position < end ? data[position] & 0xff : -1;
+        }
+
+        Element next() throws IOException {
+            if (position + 2 > end) {
+                throw new IOException("Truncated DER encoding");
+            }
+            int start = position;
+            int tag = data[position++] & 0xff;
+            if ((tag & 0x1f) == 0x1f) {
+                throw new IOException("Multi byte DER tags are not supported");
+            }
+            int length = data[position++] & 0xff;
+            if (length == 0x80) {
+                throw new IOException("Indefinite DER lengths are not supported");
+            }
+            if (length > 0x80) {
+                int bytes = length & 0x7f;
+                if (bytes > 4 || position + bytes > end) {
+                    throw new IOException("Invalid DER length");
+                }
+                length = 0;
+                for (int i = 0; i < bytes; i++) {
+                    length = (length << 8) | (data[position++] & 0xff);
+                }
+            }
+            if (length < 0 || length > end - position) {
+                throw new IOException("DER length exceeds the enclosing element");
+            }
+            Element element = new Element(data, tag, start, position, length);
+            position += length;
+            return element;
+        }
+
+        /**
+         * @param tag expected tag
+         * @return the next element
+         * @throws IOException if the next element has another tag
+         */
+        Element next(int tag) throws IOException {
+            Element element = next();
+            if (element.getTag() != tag) {
+                throw new IOException("Expected DER tag 0x" + Integer.toHexString(tag) + " but found 0x" +
+                        Integer.toHexString(element.getTag()));
+            }
+            return element;
+        }
+    }
+}
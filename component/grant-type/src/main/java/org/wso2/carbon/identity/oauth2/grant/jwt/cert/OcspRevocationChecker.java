@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * {@link RevocationChecker} querying the OCSP responder of a certificate (RFC 6960). Requests are sent without a
+ * nonce so responders may answer from pre-signed responses; freshness is judged from the this and next update
+ * times instead. A response without a next update time is used until its this update time plus the maximum response
+ * age, and rejected once older, so that a captured response can not be replayed indefinitely. Responses must be
+ * signed by the issuer or by a responder certificate the issuer delegated OCSP signing to.
+ */
+public class OcspRevocationChecker implements RevocationChecker {
+
+    private static final Log log = LogFactory.getLog(OcspRevocationChecker.class);
+    private static final String OCSP_REQUEST_CONTENT_TYPE = "application/ocsp-request";
+    private static final String OCSP_BASIC_RESPONSE_OID = "1.3.6.1.5.5.7.48.1.1";
+    private static final String OCSP_SIGNING_KEY_PURPOSE_OID = "1.3.6.1.5.5.7.3.9";
+    private static final byte[] SHA1_ALGORITHM = Der.encode(Der.SEQUENCE,
+            Der.encode(Der.OID, new byte[]{0x2b, 0x0e, 0x03, 0x02, 0x1a}), Der.encode(Der.NULL));
+    private static final int MAX_RESPONSE_LENGTH = 64 * 1024;
+    private static final long MAX_CLOCK_SKEW_MILLIS = 5 * 60 * 1000L;
+    private static final int GOOD = 0x80;
+    private static final int REVOKED = 0xa1;
+    private static final Map<String, String> SIGNATURE_ALGORITHMS;
+
+    static {
+        Map<String, String> algorithms = new HashMap<>();
+        algorithms.put("1.2.840.113549.1.1.5", "SHA1withRSA");
+        algorithms.put("1.2.840.113549.1.1.11", "SHA256withRSA");
+        algorithms.put("1.2.840.113549.1.1.12", "SHA384withRSA");
+        algorithms.put("1.2.840.113549.1.1.13", "SHA512withRSA");
+        algorithms.put("1.2.840.10045.4.1", "SHA1withECDSA");
+        algorithms.put("1.2.840.10045.4.3.2", "SHA256withECDSA");
+        algorithms.put("1.2.840.10045.4.3.3", "SHA384withECDSA");
+        algorithms.put("1.2.840.10045.4.3.4", "SHA512withECDSA");
+        SIGNATURE_ALGORITHMS = Collections.unmodifiableMap(algorithms);
+    }
+
+    private final int timeoutMillis;
+    private final String responderUrl;
+    private final long maxResponseAgeMillis;
+
+    /**
+     * @param timeoutMillis        connect and read timeout of a request
+     * @param responderUrl         responder to query for every certificate instead of the one named in the
+     *                             certificate, or null
+     * @param maxResponseAgeMillis how long after its this update time a response without a next update time is used
+     */
+    public OcspRevocationChecker(int timeoutMillis, String responderUrl, long maxResponseAgeMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.responderUrl = StringUtils.isNotBlank(responderUrl) ? responderUrl.trim() : null;
+        this.maxResponseAgeMillis = maxResponseAgeMillis;
+    }
+
+    @Override
+    public RevocationStatus check(X509Certificate certificate, X509Certificate issuer) throws IOException {
+        List<String> urls = responderUrl != null ? Collections.singletonList(responderUrl) :
+                RevocationEndpoints.getOcspUrls(certificate);
+        if (urls.isEmpty()) {
+            return null;
+        }
+        if (issuer == null) {
+            throw new IOException("Issuer certificate of " + certificate.getSubjectX500Principal() +
+                    " is not available to build an OCSP request");
+        }
+        byte[] nameHash = sha1(issuer.getSubjectX500Principal().getEncoded());
+        byte[] keyHash = sha1(getPublicKeyBits(issuer));
+        byte[] serial = certificate.getSerialNumber().toByteArray();
+        byte[] certId = Der.encode(Der.SEQUENCE, SHA1_ALGORITHM, Der.encode(Der.OCTET_STRING, nameHash),
+                Der.encode(Der.OCTET_STRING, keyHash), Der.encode(Der.INTEGER, serial));
+        byte[] request = Der.encode(Der.SEQUENCE, Der.encode(Der.SEQUENCE, Der.encode(Der.SEQUENCE,
+                Der.encode(Der.SEQUENCE, certId))));
+        IOException failure = null;
+        for (String url : urls) {
+            try {
+                byte[] response = RevocationEndpoints.fetch(url, OCSP_REQUEST_CONTENT_TYPE, request, timeoutMillis,
+                        MAX_RESPONSE_LENGTH);
+                return parseResponse(response, issuer, nameHash, keyHash, serial, url);
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Unable to use the OCSP responder at " + url, e);
+                }
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    private RevocationStatus parseResponse(byte[] encoded, X509Certificate issuer, byte[] nameHash, byte[] keyHash,
+                                           byte[] serial, String url) throws IOException {
+        Der.Reader response = new Der.Reader(encoded).next(Der.SEQUENCE).reader();
+        byte[] responseStatus = response.next(Der.ENUMERATED).getContent();
+        if (responseStatus.length != 1 || responseStatus[0] != 0) {
+            throw new IOException("OCSP responder at " + url + " returned status " +
+                    (responseStatus.length > 0 ? responseStatus[0] : -1));
+        }
+        Der.Reader responseBytes = response.next(0xa0).reader().next(Der.SEQUENCE).reader();
+        if (!OCSP_BASIC_RESPONSE_OID.equals(responseBytes.next(Der.OID).getOid())) {
+            throw new IOException("OCSP responder at " + url + " did not return a basic response");
+        }
+        byte[] basicResponse = responseBytes.next(Der.OCTET_STRING).getContent();
+        Der.Reader basic = new Der.Reader(basicResponse).next(Der.SEQUENCE).reader();
+        Der.Element responseData = basic.next(Der.SEQUENCE);
+        String signatureAlgorithm = SIGNATURE_ALGORITHMS.get(basic.next(Der.SEQUENCE).reader().next(Der.OID).getOid());
+        byte[] signature = basic.next(Der.BIT_STRING).getContent();
+        List<X509Certificate> responderCertificates = new ArrayList<>();
+        if (basic.peekTag() == 0xa0) {
+            Der.Reader certificates = basic.next().reader().next(Der.SEQUENCE).reader();
+            while (certificates.hasMore()) {
+                responderCertificates.add(toCertificate(certificates.next(Der.SEQUENCE).getEncoded()));
+            }
+        }
+        if (signatureAlgorithm == null) {
+            throw new IOException("Unsupported signature algorithm of the OCSP response from " + url);
+        }
+        verifySignature(responseData.getEncoded(), signatureAlgorithm, signature, issuer, responderCertificates,
+                url);
+
+        Der.Reader data = responseData.reader();
+        if (data.peekTag() == 0xa0) {
+            data.next();
+        }
+        // responder id and produced at
+        data.next();
+        data.next(Der.GENERALIZED_TIME);
+        Der.Reader responses = data.next(Der.SEQUENCE).reader();
+        long now = System.currentTimeMillis();
+        while (responses.hasMore()) {
+            Der.Reader single = responses.next(Der.SEQUENCE).reader();
+            Der.Reader certId = single.next(Der.SEQUENCE).reader();
+            certId.next(Der.SEQUENCE);
+            if (!certId.next(Der.OCTET_STRING).contentEquals(nameHash) ||
+                    !certId.next(Der.OCTET_STRING).contentEquals(keyHash) ||
+                    !certId.next(Der.INTEGER).contentEquals(serial)) {
+                continue;
+            }
+            int certStatus = single.next().getTag();
+            long thisUpdate = parseTime(single.next(Der.GENERALIZED_TIME));
+            long nextUpdate = 0;
+            if (single.peekTag() == 0xa0) {
+                nextUpdate = parseTime(single.next().reader().next(Der.GENERALIZED_TIME));
+            }
+            if (thisUpdate > now + MAX_CLOCK_SKEW_MILLIS) {
+                throw new IOException("OCSP response from " + url + " is not yet valid");
+            }
+            if (nextUpdate != 0 && nextUpdate < now - MAX_CLOCK_SKEW_MILLIS) {
+                throw new IOException("OCSP response from " + url + " is outdated");
+            }
+            RevocationStatus.State state = certStatus == GOOD ? RevocationStatus.State.GOOD :
+                    certStatus == REVOKED ? RevocationStatus.State.REVOKED : RevocationStatus.State.UNKNOWN;
+            // Revocation is permanent, so only responses that could vouch for a certificate are bound in age.
+            if (nextUpdate == 0 && state != RevocationStatus.State.REVOKED) {
+                nextUpdate = thisUpdate + maxResponseAgeMillis;
+                if (nextUpdate < now - MAX_CLOCK_SKEW_MILLIS) {
+                    throw new IOException("OCSP response from " + url + " without a next update time is too old");
+                }
+            }
+            return new RevocationStatus(state, nextUpdate, url);
+        }
+        throw new IOException("OCSP response from " + url + " does not cover the requested certificate");
+    }
+
+    private void verifySignature(byte[] signed, String algorithm, byte[] signatureBits, X509Certificate issuer,
+                                 List<X509Certificate> responderCertificates, String url) throws IOException {
+        if (signatureBits.length < 1 || signatureBits[0] != 0) {
+            throw new IOException("Malformed signature of the OCSP response from " + url);
+        }
+        byte[] signature = new byte[signatureBits.length - 1];
+        System.arraycopy(signatureBits, 1, signature, 0, signature.length);
+        List<X509Certificate> signers = new ArrayList<>();
+        signers.add(issuer);
+        for (X509Certificate responderCertificate : responderCertificates) {
+            if (isDelegatedResponder(responderCertificate, issuer)) {
+                signers.add(responderCertificate);
+            }
+        }
+        for (X509Certificate signer : signers) {
+            try {
+                Signature verifier = Signature.getInstance(algorithm);
+                verifier.initVerify(signer.getPublicKey());
+                verifier.update(signed);
+                if (verifier.verify(signature)) {
+                    return;
+                }
+            } catch (GeneralSecurityException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Unable to verify the OCSP response from " + url + " with the key of " +
+                            signer.getSubjectX500Principal(), e);
+                }
+            }
+        }
+        throw new IOException("OCSP response from " + url + " is not signed by the issuer or a delegated responder");
+    }
+
+    private boolean isDelegatedResponder(X509Certificate responderCertificate, X509Certificate issuer) {
+        try {
+            if (!responderCertificate.getIssuerX500Principal().equals(issuer.getSubjectX500Principal())) {
+                return false;
+            }
+            List<String> keyPurposes = responderCertificate.getExtendedKeyUsage();
+            if (keyPurposes == null || !keyPurposes.contains(OCSP_SIGNING_KEY_PURPOSE_OID)) {
+                return false;
+            }
+            responderCertificate.checkValidity();
+            responderCertificate.verify(issuer.getPublicKey());
+            return true;
+        } catch (GeneralSecurityException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Ignoring OCSP responder certificate " + responderCertificate.getSubjectX500Principal(), e);
+            }
+            return false;
+        }
+    }
+
+    private static X509Certificate toCertificate(byte[] encoded) throws IOException {
+        try {
+            Certificate certificate = CertificateFactory.getInstance("X.509").generateCertificate(
+                    new ByteArrayInputStream(encoded));
+            return (X509Certificate) certificate;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Invalid certificate in OCSP response", e);
+        }
+    }
+
+    private static byte[] getPublicKeyBits(X509Certificate certificate) throws IOException {
+        Der.Reader subjectPublicKeyInfo = new Der.Reader(certificate.getPublicKey().getEncoded())
+                .next(Der.SEQUENCE).reader();
+        subjectPublicKeyInfo.next(Der.SEQUENCE);
+        byte[] bits = subjectPublicKeyInfo.next(Der.BIT_STRING).getContent();
+        byte[] key = new byte[bits.length - 1];
+        System.arraycopy(bits, 1, key, 0, key.length);
+        return key;
+    }
+
+    private static byte[] sha1(byte[] data) throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(data);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("SHA-1 is not available", e);
+        }
+    }
+
+    private static long parseTime(Der.Element time) throws IOException {
+        String value = time.getString();
+        if (value.length() < 15 || !value.endsWith("Z")) {
+            throw new IOException("Unsupported GeneralizedTime in OCSP response: " + value);
+        }
+        SimpleDateFormat format = new SimpleDateFormat("yyyyMMddHHmmss");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        try {
+            return format.parse(value.substring(0, 14)).getTime();
+        } catch (ParseException e) {
+            throw new IOException("Invalid GeneralizedTime in OCSP response: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+
+/**
+ * Source of revocation information for a certificate. Checkers perform network I/O and are only called from the
+ * background refresh of {@link SignerCertificateValidator}, never from the request path.
+ */
+public interface RevocationChecker {
+
+    /**
+     * @param certificate certificate to check
+     * @param issuer      certificate of the issuer of the certificate, or null if it could not be obtained
+     * @return the revocation status, or null if this checker has no information about the certificate
+     * @throws IOException if the revocation information could not be fetched or verified
+     */
+    RevocationStatus check(X509Certificate certificate, X509Certificate issuer) throws IOException;
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the revocation related URLs of a certificate (CRL distribution points and authority information access)
+ * and fetches their content over HTTP. Only http and https URLs are used; LDAP distribution points are ignored.
+ */
+final class RevocationEndpoints {
+
+    private static final String CRL_DISTRIBUTION_POINTS_OID = "2.5.29.31";
+    private static final String AUTHORITY_INFO_ACCESS_OID = "1.3.6.1.5.5.7.1.1";
+    // DER contents of the id-ad-ocsp and id-ad-caIssuers object identifiers
+    private static final byte[] ACCESS_METHOD_OCSP = {0x2b, 0x06, 0x01, 0x05, 0x05, 0x07, 0x30, 0x01};
+    private static final byte[] ACCESS_METHOD_CA_ISSUERS = {0x2b, 0x06, 0x01, 0x05, 0x05, 0x07, 0x30, 0x02};
+    // [6] IMPLICIT IA5String uniformResourceIdentifier of a GeneralName
+    private static final int URI_GENERAL_NAME = 0x86;
+
+    private RevocationEndpoints() {
+    }
+
+    static List<String> getCrlUrls(X509Certificate certificate) throws IOException {
+        List<String> urls = new ArrayList<>();
+        Der.Element extension = getExtension(certificate, CRL_DISTRIBUTION_POINTS_OID);
+        if (extension != null) {
+            collectUris(extension, urls);
+        }
+        return urls;
+    }
+
+    static List<String> getOcspUrls(X509Certificate certificate) throws IOException {
+        return getAccessLocations(certificate, ACCESS_METHOD_OCSP);
+    }
+
+    static List<String> getCaIssuersUrls(X509Certificate certificate) throws IOException {
+        return getAccessLocations(certificate, ACCESS_METHOD_CA_ISSUERS);
+    }
+
+    /**
+     * @param url            URL to fetch
+     * @param contentType    content type of the body, or null for a GET request
+     * @param body           request body, or null for a GET request
+     * @param timeoutMillis  connect and read timeout
+     * @param maxLength      maximum accepted response length
+     * @return the response body
+     * @throws IOException if the request failed or the response was not a 200 within the limits
+     */
+    static byte[] fetch(String url, String contentType, byte[] body, int timeoutMillis, int maxLength)
+            throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setUseCaches(false);
+            connection.setInstanceFollowRedirects(false);
+            if (body != null) {
+                connection.setRequestMethod("POST");
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", contentType);
+                connection.setFixedLengthStreamingMode(body.length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body);
+                }
+            }
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected HTTP status " + status + " from " + url);
+            }
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(connection.getContentLength(), 1024));
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (out.size() + read > maxLength) {
+                        throw new IOException("Response from " + url + " exceeds " + maxLength + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static List<String> getAccessLocations(X509Certificate certificate, byte[] accessMethod)
+            throws IOException {
+        List<String> urls = new ArrayList<>();
+        Der.Element extension = getExtension(certificate, AUTHORITY_INFO_ACCESS_OID);
+        if (extension == null) {
+            return urls;
+        }
+        Der.Reader descriptions = extension.reader();
+        while (descriptions.hasMore()) {
+            Der.Reader description = descriptions.next(Der.SEQUENCE).reader();
+            Der.Element method = description.next(Der.OID);
+            Der.Element location = description.next();
+            if (method.contentEquals(accessMethod) && location.getTag() == URI_GENERAL_NAME) {
+                addHttpUrl(location.getString(), urls);
+            }
+        }
+        return urls;
+    }
+
+    private static Der.Element getExtension(X509Certificate certificate, String oid) throws IOException {
+        byte[] value = certificate.getExtensionValue(oid);
+        if (value == null) {
+            return null;
+        }
+        // the extension value is returned wrapped in the OCTET STRING of the Extension structure
+        byte[] extension = new Der.Reader(value).next(Der.OCTET_STRING).getContent();
+        return new Der.Reader(extension).next(Der.SEQUENCE);
+    }
+
+    private static void collectUris(Der.Element element, List<String> urls) throws IOException {
+        Der.Reader reader = element.reader();
+        while (reader.hasMore()) {
+            Der.Element child = reader.next();
+            if (child.getTag() == URI_GENERAL_NAME) {
+                addHttpUrl(child.getString(), urls);
+            } else if (child.isConstructed()) {
+                collectUris(child, urls);
+            }
+        }
+    }
+
+    private static void addHttpUrl(String url, List<String> urls) {
+        if (StringUtils.startsWithIgnoreCase(url, "http://") || StringUtils.startsWithIgnoreCase(url, "https://")) {
+            urls.add(url);
+        }
+    }
+}
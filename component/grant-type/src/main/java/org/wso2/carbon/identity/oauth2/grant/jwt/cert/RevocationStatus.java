@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+/**
+ * Immutable revocation status of a certificate, as reported by a CRL or an OCSP responder.
+ */
+public class RevocationStatus {
+
+    /**
+     * Revocation state of a certificate.
+     */
+    public enum State {
+        GOOD,
+        REVOKED,
+        UNKNOWN
+    }
+
+    private final State state;
+    private final long nextUpdateMillis;
+    private final String source;
+
+    /**
+     * @param state            revocation state
+     * @param nextUpdateMillis time the source publishes newer information, or 0 if it did not say
+     * @param source           URL the status was obtained from, for logging
+     */
+    public RevocationStatus(State state, long nextUpdateMillis, String source) {
+        this.state = state;
+        this.nextUpdateMillis = nextUpdateMillis;
+        this.source = source;
+    }
+
+    public static RevocationStatus unknown(String source) {
+        return new RevocationStatus(State.UNKNOWN, 0, source);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getNextUpdateMillis() {
+        return nextUpdateMillis;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return state + (source != null ? " from " + source : "");
+    }
+}
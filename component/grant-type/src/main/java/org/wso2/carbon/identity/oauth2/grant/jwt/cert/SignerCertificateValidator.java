@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.JWTConstants;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateExpiredException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.CertificateNotYetValidException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validates the certificates assertion signatures are verified with. The validity period is checked on every
+ * call. Revocation status is kept in memory per issuer and serial number and refreshed by a background thread at
+ * the next update time of the CRL or OCSP response it came from, so the request path only waits for the network
+ * the first time a certificate is seen. A revoked status is final. A good status whose source gave no next update
+ * time is only trusted for the refresh interval. A good status becomes unknown when it can not be refreshed after
+ * its next update time, and the soft fail setting decides whether such certificates are accepted.
+ * <p/>
+ * Self-issued certificates, which is what most identity providers are configured with, have no revocation source
+ * and are only checked for validity.
+ */
+public class SignerCertificateValidator {
+
+    private static final Log log = LogFactory.getLog(SignerCertificateValidator.class);
+    private static final int MAX_ISSUER_CERTIFICATE_LENGTH = 64 * 1024;
+
+    private final boolean revocationCheckEnabled;
+    private final boolean softFail;
+    private final int timeoutMillis;
+    private final long initialCheckWaitMillis;
+    private final long refreshIntervalMillis;
+    private final long retryIntervalMillis;
+    private final int maxEntries;
+    private final List<RevocationChecker> checkers;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor refresher;
+
+    private final AtomicLong expired;
+    private final AtomicLong notYetValid;
+    private final AtomicLong revoked;
+    private final AtomicLong unknown;
+    private final AtomicLong softFailed;
+    private final AtomicLong untracked;
+    private final AtomicLong refreshes;
+    private final AtomicLong refreshFailures;
+
+    /**
+     * @param revocationCheckEnabled whether revocation is checked at all
+     * @param softFail               accept certificates whose revocation status is unknown
+     * @param timeoutMillis          timeout of a single CRL, OCSP or issuer certificate download
+     * @param initialCheckWaitMillis how long a request waits for the first check of a new certificate
+     * @param refreshIntervalMillis  refresh interval of statuses without a next update time, and the upper bound
+     *                               of the refresh interval of all statuses
+     * @param retryIntervalMillis    delay before a failed check is retried
+     * @param maxEntries             maximum number of certificates whose status is tracked
+     * @param checkers               revocation sources, consulted in order until one knows the status
+     */
+    public SignerCertificateValidator(boolean revocationCheckEnabled, boolean softFail, int timeoutMillis,
+                                      long initialCheckWaitMillis, long refreshIntervalMillis,
+                                      long retryIntervalMillis, int maxEntries, List<RevocationChecker> checkers) {
+        this.revocationCheckEnabled = revocationCheckEnabled;
+        this.softFail = softFail;
+        this.timeoutMillis = timeoutMillis;
+        this.initialCheckWaitMillis = initialCheckWaitMillis;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.retryIntervalMillis = Math.max(1000L, retryIntervalMillis);
+        this.maxEntries = maxEntries;
+        this.checkers = Collections.unmodifiableList(new ArrayList<>(checkers));
+        if (revocationCheckEnabled) {
+            refresher = new ScheduledThreadPoolExecutor(2, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "jwt-grant-revocation-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            refresher.setRemoveOnCancelPolicy(true);
+        } else {
+            refresher = null;
+        }
+
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        this.expired = metrics.counter("signerCertificate.expired");
+        this.notYetValid = metrics.counter("signerCertificate.notYetValid");
+        this.revoked = metrics.counter("revocation.revoked");
+        this.unknown = metrics.counter("revocation.unknown");
+        this.softFailed = metrics.counter("revocation.softFailed");
+        this.untracked = metrics.counter("revocation.untracked");
+        this.refreshes = metrics.counter("revocation.refreshes");
+        this.refreshFailures = metrics.counter("revocation.refreshFailures");
+    }
+
+    /**
+     * Create the validator configured in the JWT grant properties.
+     *
+     * @param properties JWT grant properties
+     * @return the validator, or null if signer certificates are not validated
+     */
+    public static SignerCertificateValidator fromProperties(Properties properties) {
+        if (!Boolean.parseBoolean(properties.getProperty(JWTConstants.SIGNER_CERTIFICATE_VALIDATION_ENABLED,
+                "true"))) {
+            return null;
+        }
+        boolean revocationCheckEnabled = Boolean.parseBoolean(
+                properties.getProperty(JWTConstants.REVOCATION_CHECK_ENABLED));
+        int timeoutMillis = Integer.parseInt(properties.getProperty(JWTConstants.REVOCATION_FETCH_TIMEOUT, "2000"));
+        long refreshIntervalMillis = TimeUnit.SECONDS.toMillis(
+                Long.parseLong(properties.getProperty(JWTConstants.REVOCATION_REFRESH_INTERVAL, "3600")));
+        List<RevocationChecker> checkers = new ArrayList<>();
+        for (String method : properties.getProperty(JWTConstants.REVOCATION_METHODS, "OCSP,CRL").split(",")) {
+            method = method.trim();
+            if ("OCSP".equalsIgnoreCase(method)) {
+                checkers.add(new OcspRevocationChecker(timeoutMillis,
+                        properties.getProperty(JWTConstants.REVOCATION_OCSP_RESPONDER_URL), refreshIntervalMillis));
+            } else if ("CRL".equalsIgnoreCase(method)) {
+                checkers.add(new CrlRevocationChecker(timeoutMillis, refreshIntervalMillis));
+            } else if (StringUtils.isNotEmpty(method)) {
+                throw new IllegalArgumentException("Unknown revocation method: " + method);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Signer certificate validation enabled. Revocation check: " + revocationCheckEnabled +
+                    ", methods: " + checkers.size());
+        }
+        return new SignerCertificateValidator(revocationCheckEnabled,
+                Boolean.parseBoolean(properties.getProperty(JWTConstants.REVOCATION_SOFT_FAIL, "true")),
+                timeoutMillis,
+                Long.parseLong(properties.getProperty(JWTConstants.REVOCATION_INITIAL_CHECK_WAIT, "3000")),
+                refreshIntervalMillis,
+                TimeUnit.SECONDS.toMillis(
+                        Long.parseLong(properties.getProperty(JWTConstants.REVOCATION_RETRY_INTERVAL, "60"))),
+                Integer.parseInt(properties.getProperty(JWTConstants.REVOCATION_MAX_ENTRIES, "1000")), checkers);
+    }
+
+    /**
+     * @param certificate certificate an assertion signature is verified with
+     * @throws CertificateValidationException if the certificate is outside its validity period, revoked, or its
+     *                                        revocation status is unknown and soft fail is disabled
+     */
+    public void validate(X509Certificate certificate) throws CertificateValidationException {
+        try {
+            certificate.checkValidity();
+        } catch (CertificateExpiredException e) {
+            expired.incrementAndGet();
+            throw new CertificateValidationException("Signer certificate " + certificate.getSubjectX500Principal() +
+                    " expired on " + certificate.getNotAfter());
+        } catch (CertificateNotYetValidException e) {
+            notYetValid.incrementAndGet();
+            throw new CertificateValidationException("Signer certificate " + certificate.getSubjectX500Principal() +
+                    " is not valid before " + certificate.getNotBefore());
+        }
+        if (!revocationCheckEnabled || isSelfIssued(certificate)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = getEntry(certificate, now);
+        RevocationStatus status = entry != null ? entry.status : null;
+        if (status != null && status.getState() == RevocationStatus.State.REVOKED) {
+            revoked.incrementAndGet();
+            throw new CertificateValidationException("Signer certificate " + certificate.getSubjectX500Principal() +
+                    " with serial number " + certificate.getSerialNumber().toString(16) + " is revoked");
+        }
+        if (status != null && status.getState() == RevocationStatus.State.GOOD &&
+                now < status.getNextUpdateMillis() + retryIntervalMillis) {
+            return;
+        }
+        unknown.incrementAndGet();
+        if (softFail) {
+            softFailed.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("Accepting signer certificate " + certificate.getSubjectX500Principal() +
+                        " with unknown revocation status.");
+            }
+            return;
+        }
+        throw new CertificateValidationException("Revocation status of signer certificate " +
+                certificate.getSubjectX500Principal() + " is unknown");
+    }
+
+    /**
+     * Stop the background refresh. Revocation statuses are no longer updated afterwards.
+     */
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+        entries.clear();
+    }
+
+    private Entry getEntry(X509Certificate certificate, long now) {
+        String key = certificate.getIssuerX500Principal().getName() + '\u0000' +
+                certificate.getSerialNumber().toString(16);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= maxEntries) {
+                evictIdle(now);
+                if (entries.size() >= maxEntries) {
+                    untracked.incrementAndGet();
+                    return null;
+                }
+            }
+            Entry newEntry = new Entry(key, certificate, now);
+            entry = entries.putIfAbsent(key, newEntry);
+            if (entry == null) {
+                entry = newEntry;
+                schedule(entry, 0);
+            }
+        }
+        entry.lastAccessMillis = now;
+        if (entry.status == null) {
+            awaitFirstCheck(entry);
+        }
+        return entry;
+    }
+
+    private void awaitFirstCheck(Entry entry) {
+        try {
+            if (!entry.firstCheck.await(initialCheckWaitMillis, TimeUnit.MILLISECONDS) && log.isDebugEnabled()) {
+                log.debug("Revocation status of " + entry.certificate.getSubjectX500Principal() +
+                        " not available within " + initialCheckWaitMillis + "ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void schedule(final Entry entry, long delayMillis) {
+        try {
+            refresher.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    refresh(entry);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // the refresher was shut down
+            entry.firstCheck.countDown();
+        }
+    }
+
+    private void refresh(Entry entry) {
+        long now = System.currentTimeMillis();
+        if (entries.get(entry.key) != entry) {
+            return;
+        }
+        if (now - entry.lastAccessMillis > 2 * refreshIntervalMillis) {
+            entries.remove(entry.key, entry);
+            if (log.isDebugEnabled()) {
+                log.debug("Stopped tracking revocation status of idle certificate " +
+                        entry.certificate.getSubjectX500Principal());
+            }
+            return;
+        }
+        if (entry.status != null && entry.status.getState() == RevocationStatus.State.REVOKED) {
+            // Revocation is permanent, so neither a later response nor a failed refresh may make the certificate
+            // usable again. The entry is only kept until the certificate is no longer presented.
+            schedule(entry, refreshIntervalMillis);
+            return;
+        }
+        refreshes.incrementAndGet();
+        RevocationStatus status = null;
+        IOException failure = null;
+        try {
+            if (entry.issuer == null) {
+                try {
+                    entry.issuer = fetchIssuerCertificate(entry.certificate);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            for (RevocationChecker checker : checkers) {
+                try {
+                    RevocationStatus checked = checker.check(entry.certificate, entry.issuer);
+                    if (checked != null) {
+                        status = checked;
+                        if (checked.getState() != RevocationStatus.State.UNKNOWN) {
+                            break;
+                        }
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error while checking the revocation status of " +
+                    entry.certificate.getSubjectX500Principal(), e);
+        }
+
+        long delay;
+        if (status != null && status.getState() != RevocationStatus.State.UNKNOWN) {
+            if (status.getState() == RevocationStatus.State.GOOD && status.getNextUpdateMillis() == 0) {
+                // Without a next update time the good status would never decay if the source became unreachable.
+                status = new RevocationStatus(status.getState(), now + refreshIntervalMillis, status.getSource());
+            }
+            entry.status = status;
+            long untilNextUpdate = status.getNextUpdateMillis() - now;
+            delay = status.getNextUpdateMillis() == 0 ? refreshIntervalMillis :
+                    untilNextUpdate > 0 ? Math.min(untilNextUpdate, refreshIntervalMillis) : retryIntervalMillis;
+            if (log.isDebugEnabled()) {
+                log.debug("Revocation status of " + entry.certificate.getSubjectX500Principal() + ": " + status +
+                        ", next check in " + delay + "ms.");
+            }
+        } else {
+            refreshFailures.incrementAndGet();
+            // A good status decays to unknown once its source has published newer information.
+            RevocationStatus previous = entry.status;
+            if (previous == null || (previous.getState() == RevocationStatus.State.GOOD &&
+                    previous.getNextUpdateMillis() <= now)) {
+                entry.status = status != null ? status : RevocationStatus.unknown(null);
+            }
+            delay = retryIntervalMillis;
+            if (failure != null) {
+                log.warn("Unable to determine the revocation status of signer certificate " +
+                        entry.certificate.getSubjectX500Principal() + ": " + failure.getMessage());
+            } else if (log.isDebugEnabled()) {
+                log.debug("No revocation source knows the status of " + entry.certificate.getSubjectX500Principal());
+            }
+        }
+        entry.firstCheck.countDown();
+        schedule(entry, delay);
+    }
+
+    private X509Certificate fetchIssuerCertificate(X509Certificate certificate) throws IOException {
+        IOException failure = null;
+        for (String url : RevocationEndpoints.getCaIssuersUrls(certificate)) {
+            try {
+                byte[] encoded = RevocationEndpoints.fetch(url, null, null, timeoutMillis,
+                        MAX_ISSUER_CERTIFICATE_LENGTH);
+                for (Certificate candidate : CertificateFactory.getInstance("X.509").generateCertificates(
+                        new ByteArrayInputStream(encoded))) {
+                    X509Certificate issuer = (X509Certificate) candidate;
+                    if (issuer.getSubjectX500Principal().equals(certificate.getIssuerX500Principal())) {
+                        certificate.verify(issuer.getPublicKey());
+                        return issuer;
+                    }
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (GeneralSecurityException e) {
+                failure = new IOException("Invalid issuer certificate at " + url, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return null;
+    }
+
+    private void evictIdle(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().lastAccessMillis > refreshIntervalMillis) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static boolean isSelfIssued(X509Certificate certificate) {
+        return certificate.getSubjectX500Principal().equals(certificate.getIssuerX500Principal());
+    }
+
+    private static class Entry {
+
+        private final String key;
+        private final X509Certificate certificate;
+        private final CountDownLatch firstCheck = new CountDownLatch(1);
+        private volatile X509Certificate issuer;
+        private volatile RevocationStatus status;
+        private volatile long lastAccessMillis;
+
+        Entry(String key, X509Certificate certificate, long now) {
+            this.key = key;
+            this.certificate = certificate;
+            this.lastAccessMillis = now;
+        }
+    }
+}
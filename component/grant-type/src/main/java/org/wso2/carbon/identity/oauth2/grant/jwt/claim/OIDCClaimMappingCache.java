@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.claim;
+
+import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.carbon.identity.application.common.model.ClaimMapping;
+import org.wso2.carbon.identity.base.IdentityException;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
+import org.wso2.carbon.identity.oauth2.util.ClaimsUtil;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches, per tenant and service provider, the OIDC claim each local claim is converted to, together with the
+ * {@link ClaimMapping} of that OIDC claim, so converting the claims of a token request is a single pass over a
+ * map. Mappings are resolved with {@link ClaimsUtil#convertClaimsToOIDCDialect}, the first time a local claim is
+ * seen for a service provider, so they follow the requested claims of the service provider and the OIDC claim
+ * dialect exactly as an uncached conversion would.
+ * <p/>
+ * Entries expire after a fixed time, which bounds how long claim dialect changes take to be picked up, and are
+ * dropped per tenant when a service provider of the tenant changes. Their size is bounded by the budget of the
+ * {@link JWTCacheManager}. The {@link ClaimMapping}s handed out are shared between requests and must not be modified.
+ */
+public class OIDCClaimMappingCache {
+
+    private static final OIDCClaimMappingCache instance = new OIDCClaimMappingCache();
+    private static final char KEY_SEPARATOR = '\u0000';
+    // Marks local claims the service provider does not release as OIDC claims.
+    private static final ClaimMapping UNMAPPED = new ClaimMapping();
+
+    // Claim mappings are shared between the local claims of an entry, so only their reference is charged per claim.
+    private static final long MAPPING_SIZE = SizeEstimator.REFERENCE + SizeEstimator.OBJECT_OVERHEAD;
+
+    private final ManagedCache<Entry> entries;
+    private volatile long timeToLiveMillis = 300000;
+
+    private OIDCClaimMappingCache() {
+        entries = JWTCacheManager.getInstance().getCache("oidcClaimMapping", new Weigher<Entry>() {
+            @Override
+            public long weigh(String key, Entry entry) {
+                return SizeEstimator.OBJECT_OVERHEAD + SizeEstimator.sizeOf(entry.mappings, MAPPING_SIZE);
+            }
+        });
+    }
+
+    public static OIDCClaimMappingCache getInstance() {
+        return instance;
+    }
+
+    public void configure(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Convert local claims to the OIDC claims of the service provider of the request.
+     *
+     * @param tokReqMsgCtx token request
+     * @param localClaims  claims in the local dialect
+     * @return the OIDC claims the service provider requested, keyed by their claim mapping
+     * @throws IdentityApplicationManagementException if the service provider can not be read
+     * @throws IdentityException                      if the OIDC claim dialect can not be read
+     */
+    public Map<ClaimMapping, String> toOIDCClaims(OAuthTokenReqMessageContext tokReqMsgCtx,
+                                                   Map<String, String> localClaims)
+            throws IdentityApplicationManagementException, IdentityException {
+        String key = tokReqMsgCtx.getOauth2AccessTokenReqDTO().getTenantDomain() + KEY_SEPARATOR +
+                tokReqMsgCtx.getOauth2AccessTokenReqDTO().getClientId();
+        Entry entry = entries.get(key);
+        Map<String, ClaimMapping> mappings = entry != null ? entry.mappings :
+                Collections.<String, ClaimMapping>emptyMap();
+
+        Map<ClaimMapping, String> oidcClaims = new HashMap<>();
+        Map<String, String> unresolved = null;
+        for (Map.Entry<String, String> localClaim : localClaims.entrySet()) {
+            ClaimMapping mapping = mappings.get(localClaim.getKey());
+            if (mapping == null) {
+                if (unresolved == null) {
+                    unresolved = new HashMap<>();
+                }
+                unresolved.put(localClaim.getKey(), localClaim.getKey());
+            } else if (mapping != UNMAPPED) {
+                oidcClaims.put(mapping, localClaim.getValue());
+            }
+        }
+        if (unresolved == null) {
+            return oidcClaims;
+        }
+
+        mappings = resolve(tokReqMsgCtx, key, entry, unresolved);
+        for (String localClaimUri : unresolved.keySet()) {
+            ClaimMapping mapping = mappings.get(localClaimUri);
+            if (mapping != UNMAPPED) {
+                oidcClaims.put(mapping, localClaims.get(localClaimUri));
+            }
+        }
+        return oidcClaims;
+    }
+
+    /**
+     * Drop the mappings of the service providers of a tenant.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void invalidate(String tenantDomain) {
+        entries.invalidate(tenantDomain + KEY_SEPARATOR);
+    }
+
+    private Map<String, ClaimMapping> resolve(OAuthTokenReqMessageContext tokReqMsgCtx, String key, Entry entry,
+                                              Map<String, String> unresolved)
+            throws IdentityApplicationManagementException, IdentityException {
+        // Each local claim is passed as its own value, so the converted map leads back from OIDC to local claims.
+        Map<String, String> resolved = ClaimsUtil.convertClaimsToOIDCDialect(tokReqMsgCtx, unresolved);
+        Map<String, ClaimMapping> mappings = entry != null ? new HashMap<>(entry.mappings) :
+                new HashMap<String, ClaimMapping>();
+        Map<String, ClaimMapping> mappingsByOIDCClaim = new HashMap<>();
+        for (ClaimMapping mapping : mappings.values()) {
+            if (mapping != UNMAPPED) {
+                mappingsByOIDCClaim.put(mapping.getLocalClaim().getClaimUri(), mapping);
+            }
+        }
+        if (resolved != null) {
+            for (Map.Entry<String, String> oidcClaim : resolved.entrySet()) {
+                if (!unresolved.containsKey(oidcClaim.getValue())) {
+                    continue;
+                }
+                ClaimMapping mapping = mappingsByOIDCClaim.get(oidcClaim.getKey());
+                if (mapping == null) {
+                    mapping = ClaimMapping.build(oidcClaim.getKey(), oidcClaim.getKey(), null, false);
+                    mappingsByOIDCClaim.put(oidcClaim.getKey(), mapping);
+                }
+                mappings.put(oidcClaim.getValue(), mapping);
+            }
+        }
+        for (String localClaimUri : unresolved.keySet()) {
+            if (!mappings.containsKey(localClaimUri)) {
+                mappings.put(localClaimUri, UNMAPPED);
+            }
+        }
+
+        // Newly resolved claims do not extend the lifetime of the entry.
+        long now = System.currentTimeMillis();
+        long expiryMillis = entry != null ? entry.expiryMillis : now + timeToLiveMillis;
+        if (expiryMillis > now) {
+            entries.put(key, new Entry(mappings, expiryMillis), expiryMillis - now);
+        }
+        return mappings;
+    }
+
+    private static class Entry {
+
+        private final Map<String, ClaimMapping> mappings;
+        private final long expiryMillis;
+
+        private Entry(Map<String, ClaimMapping> mappings, long expiryMillis) {
+            this.mappings = mappings;
+            this.expiryMillis = expiryMillis;
+        }
+    }
+}
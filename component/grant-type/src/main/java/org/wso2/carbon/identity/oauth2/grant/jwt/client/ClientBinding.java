@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.client;
+
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable set of the issuers and audiences an OAuth client may present assertions for. An empty set places no
+ * restriction on its part of the assertion. Issuers are compared case-insensitively, as identity providers are
+ * resolved, and audiences exactly, as they are matched against the token endpoint alias.
+ */
+public class ClientBinding {
+
+    /**
+     * Binding of the clients whose service provider configures no restriction.
+     */
+    public static final ClientBinding UNRESTRICTED = new ClientBinding(Collections.<String>emptyList(),
+            Collections.<String>emptyList());
+
+    private static final long SET_ENTRY_SIZE = 40;
+
+    private final Set<String> allowedIssuers;
+    private final Set<String> allowedAudiences;
+
+    public ClientBinding(Collection<String> allowedIssuers, Collection<String> allowedAudiences) {
+        this.allowedIssuers = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        this.allowedIssuers.addAll(allowedIssuers);
+        this.allowedAudiences = new HashSet<>(allowedAudiences);
+    }
+
+    public boolean isUnrestricted() {
+        return allowedIssuers.isEmpty() && allowedAudiences.isEmpty();
+    }
+
+    /**
+     * @param issuer   issuer claim of the assertion, may be null
+     * @param audience audience claim of the assertion, may be null
+     * @return null if the client may present the assertion, otherwise the reason it may not. Missing claims are
+     * left to the mandatory claim check.
+     */
+    public String check(String issuer, List<String> audience) {
+        if (issuer != null && !allowedIssuers.isEmpty() && !allowedIssuers.contains(issuer)) {
+            return "Client is not allowed to present assertions of the issuer " + issuer;
+        }
+        if (audience != null && !allowedAudiences.isEmpty()) {
+            for (String aud : audience) {
+                if (allowedAudiences.contains(aud)) {
+                    return null;
+                }
+            }
+            return "Client is not allowed to present assertions for the audience " + audience;
+        }
+        return null;
+    }
+
+    /**
+     * @return estimated heap footprint of the binding in bytes
+     */
+    public long estimateSize() {
+        long size = SizeEstimator.OBJECT_OVERHEAD * 5;
+        for (String issuer : allowedIssuers) {
+            size += SET_ENTRY_SIZE + SizeEstimator.sizeOf(issuer);
+        }
+        for (String aud : allowedAudiences) {
+            size += SET_ENTRY_SIZE + SizeEstimator.sizeOf(aud);
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "issuers " + allowedIssuers + ", audiences " + allowedAudiences;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.client;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationRequestConfig;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
+import org.wso2.carbon.identity.application.mgt.ApplicationManagementService;
+import org.wso2.carbon.identity.oauth2.grant.jwt.JWTConstants;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of the {@link ClientBinding} of each OAuth client, keyed by tenant and client id. Bindings are read from the
+ * {@link JWTConstants#ALLOWED_ISSUERS_SP_PROPERTY} and {@link JWTConstants#ALLOWED_AUDIENCES_SP_PROPERTY}
+ * properties of the client's service provider, so the check needs no service provider lookup once a client is
+ * indexed. Clients are indexed on first use and re-indexed whenever their service provider is created or updated on
+ * this node. Entries expire after a fixed time, which bounds how long changes made on other nodes of a cluster take
+ * to be picked up, and their size is bounded by the budget of the {@link JWTCacheManager}.
+ */
+public class ClientBindingIndex {
+
+    private static final Log log = LogFactory.getLog(ClientBindingIndex.class);
+    private static final ClientBindingIndex instance = new ClientBindingIndex();
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final ManagedCache<ClientBinding> bindings;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong rejected;
+    private volatile long timeToLiveMillis = 300000;
+
+    private ClientBindingIndex() {
+        bindings = JWTCacheManager.getInstance().getCache("clientBindings", new Weigher<ClientBinding>() {
+            @Override
+            public long weigh(String key, ClientBinding binding) {
+                return SizeEstimator.sizeOf(key) + (binding == ClientBinding.UNRESTRICTED ? 0 :
+                        binding.estimateSize());
+            }
+        });
+        rejected = GrantMetrics.getInstance().counter("clientBinding.rejected");
+    }
+
+    public static ClientBindingIndex getInstance() {
+        return instance;
+    }
+
+    public void configure(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Check that the client may present an assertion of the issuer for the audience.
+     *
+     * @param tenantDomain tenant domain
+     * @param clientId     OAuth client id
+     * @param issuer       issuer claim of the assertion, may be null
+     * @param audience     audience claim of the assertion, may be null
+     * @return null if the combination is allowed, otherwise the reason it is not
+     * @throws IdentityApplicationManagementException if the service provider of the client can not be loaded
+     */
+    public String check(String tenantDomain, String clientId, String issuer, List<String> audience)
+            throws IdentityApplicationManagementException {
+        String failure = getBinding(tenantDomain, clientId).check(issuer, audience);
+        if (failure != null) {
+            rejected.incrementAndGet();
+        }
+        return failure;
+    }
+
+    /**
+     * Re-index the OAuth clients of a service provider.
+     *
+     * @param tenantDomain    tenant domain
+     * @param serviceProvider service provider as stored
+     */
+    public void update(String tenantDomain, ServiceProvider serviceProvider) {
+        generation.incrementAndGet();
+        ClientBinding binding = buildBinding(serviceProvider);
+        for (String clientId : getClientIds(serviceProvider)) {
+            bindings.put(buildKey(tenantDomain, clientId), binding, timeToLiveMillis);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Client bindings of service provider: " + serviceProvider.getApplicationName() + " of tenant: " +
+                    tenantDomain + " updated to " + binding);
+        }
+    }
+
+    /**
+     * Drop the bindings of a tenant, e.g. after a service provider was deleted.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void invalidate(String tenantDomain) {
+        generation.incrementAndGet();
+        bindings.invalidate(tenantDomain + KEY_SEPARATOR);
+    }
+
+    private ClientBinding getBinding(String tenantDomain, String clientId)
+            throws IdentityApplicationManagementException {
+        String key = buildKey(tenantDomain, clientId);
+        ClientBinding binding = bindings.get(key);
+        if (binding != null) {
+            return binding;
+        }
+        long buildGeneration = generation.get();
+        ServiceProvider serviceProvider = ApplicationManagementService.getInstance()
+                .getServiceProviderByClientId(clientId, IdentityApplicationConstants.OAuth2.NAME, tenantDomain);
+        binding = buildBinding(serviceProvider);
+        // Only publish the binding if no service provider changed while it was being loaded.
+        if (generation.get() == buildGeneration) {
+            bindings.put(key, binding, timeToLiveMillis);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Indexed client: " + clientId + " of tenant: " + tenantDomain + " with " + binding);
+        }
+        return binding;
+    }
+
+    private static ClientBinding buildBinding(ServiceProvider serviceProvider) {
+        if (serviceProvider == null || serviceProvider.getSpProperties() == null) {
+            return ClientBinding.UNRESTRICTED;
+        }
+        List<String> allowedIssuers = new ArrayList<>();
+        List<String> allowedAudiences = new ArrayList<>();
+        for (ServiceProviderProperty spProperty : serviceProvider.getSpProperties()) {
+            if (JWTConstants.ALLOWED_ISSUERS_SP_PROPERTY.equals(spProperty.getName())) {
+                addValues(spProperty.getValue(), allowedIssuers);
+            } else if (JWTConstants.ALLOWED_AUDIENCES_SP_PROPERTY.equals(spProperty.getName())) {
+                addValues(spProperty.getValue(), allowedAudiences);
+            }
+        }
+        ClientBinding binding = new ClientBinding(allowedIssuers, allowedAudiences);
+        return binding.isUnrestricted() ? ClientBinding.UNRESTRICTED : binding;
+    }
+
+    private static void addValues(String propertyValue, List<String> values) {
+        if (propertyValue == null) {
+            return;
+        }
+        for (String value : StringUtils.split(propertyValue, ',')) {
+            if (StringUtils.isNotBlank(value)) {
+                values.add(value.trim());
+            }
+        }
+    }
+
+    private static List<String> getClientIds(ServiceProvider serviceProvider) {
+        List<String> clientIds = new ArrayList<>();
+        InboundAuthenticationConfig inboundConfig = serviceProvider.getInboundAuthenticationConfig();
+        if (inboundConfig == null || inboundConfig.getInboundAuthenticationRequestConfigs() == null) {
+            return clientIds;
+        }
+        for (InboundAuthenticationRequestConfig requestConfig :
+                inboundConfig.getInboundAuthenticationRequestConfigs()) {
+            if (IdentityApplicationConstants.OAuth2.NAME.equals(requestConfig.getInboundAuthType()) &&
+                    StringUtils.isNotEmpty(requestConfig.getInboundAuthKey())) {
+                clientIds.add(requestConfig.getInboundAuthKey());
+            }
+        }
+        return clientIds;
+    }
+
+    private static String buildKey(String tenantDomain, String clientId) {
+        return tenantDomain + KEY_SEPARATOR + clientId;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * {@link ReplayStore} that also keeps the assertion which used a JWT id, for stores shared with nodes that read the
+ * whole assertion back.
+ */
+public interface AssertionReplayStore extends ReplayStore {
+
+    /**
+     * Record a JWT id along with the assertion that used it, unless the id is already recorded and still live.
+     *
+     * @param jti                 JWT id
+     * @param expiryTimeMillis    expiry time of the record
+     * @param referenceTimeMillis an existing record expiring before this time is treated as absent
+     * @param assertion           assertion that used the JWT id
+     * @return true if the JWT id was recorded, false if it was already live or can not be recorded
+     */
+    boolean recordIfAbsent(String jti, long expiryTimeMillis, long referenceTimeMillis, SignedJWT assertion);
+}
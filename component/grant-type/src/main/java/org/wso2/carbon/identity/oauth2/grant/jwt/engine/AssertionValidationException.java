@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditReason;
+
+/**
+ * Rejection of an assertion by the {@link JWTAssertionValidator}, carrying the reason of the rejection and the
+ * identifying claims of the assertion as far as they were read. The stack trace is not filled in: rejections are
+ * part of normal operation, are identified by their reason and message, and can arrive in floods when a client
+ * misbehaves. The cause, if any, keeps its own stack trace.
+ */
+public class AssertionValidationException extends Exception {
+
+    private static final long serialVersionUID = 6158412086373620481L;
+
+    private final AuditReason reason;
+    private String issuer;
+    private String subject;
+    private String jti;
+
+    public AssertionValidationException(AuditReason reason, String message) {
+        super(message, null, false, false);
+        this.reason = reason;
+    }
+
+    public AssertionValidationException(AuditReason reason, String message, Throwable cause) {
+        super(message, cause, false, false);
+        this.reason = reason;
+    }
+
+    public AuditReason getReason() {
+        return reason;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    void setAssertionDetails(String issuer, String subject, String jti) {
+        this.issuer = issuer;
+        this.subject = subject;
+        this.jti = jti;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.SignedJWT;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditReason;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cert.CertificateValidationException;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cert.SignerCertificateValidator;
+
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+
+/**
+ * A {@link TrustedIssuer} with a fixed signing certificate. The verifier is created once, since it only depends on
+ * the certificate. The certificate itself is checked on every verification when a certificate validator is given.
+ */
+public class CertificateTrustedIssuer implements TrustedIssuer {
+
+    private final String name;
+    private final String tokenEndpointAlias;
+    private final X509Certificate certificate;
+    private final JWSVerifier verifier;
+    private final SignerCertificateValidator certificateValidator;
+
+    public CertificateTrustedIssuer(String name, String tokenEndpointAlias, X509Certificate certificate)
+            throws JOSEException {
+        this(name, tokenEndpointAlias, certificate, null);
+    }
+
+    public CertificateTrustedIssuer(String name, String tokenEndpointAlias, X509Certificate certificate,
+                                    SignerCertificateValidator certificateValidator) throws JOSEException {
+        this.name = name;
+        this.tokenEndpointAlias = tokenEndpointAlias;
+        this.certificate = certificate;
+        this.certificateValidator = certificateValidator;
+        PublicKey publicKey = certificate.getPublicKey();
+        if (publicKey instanceof RSAPublicKey) {
+            verifier = new RSASSAVerifier((RSAPublicKey) publicKey);
+        } else if (publicKey instanceof ECPublicKey) {
+            verifier = new ECDSAVerifier((ECPublicKey) publicKey);
+        } else {
+            throw new JOSEException("Unsupported public key type of issuer " + name + ": " +
+                    publicKey.getAlgorithm());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getTokenEndpointAlias() {
+        return tokenEndpointAlias;
+    }
+
+    public X509Certificate getCertificate() {
+        return certificate;
+    }
+
+    @Override
+    public boolean verifySignature(SignedJWT signedJWT) throws JOSEException, AssertionValidationException {
+        JWSAlgorithm algorithm = signedJWT.getHeader().getAlgorithm();
+        if (!verifier.supportedJWSAlgorithms().contains(algorithm)) {
+            throw new AssertionValidationException(AuditReason.SIGNATURE_INVALID, "Signature algorithm " + algorithm +
+                    " does not match the key of issuer " + name);
+        }
+        if (certificateValidator != null) {
+            try {
+                certificateValidator.validate(certificate);
+            } catch (CertificateValidationException e) {
+                throw new AssertionValidationException(AuditReason.CERTIFICATE_INVALID, e.getMessage(), e);
+            }
+        }
+        return signedJWT.verify(verifier);
+    }
+}
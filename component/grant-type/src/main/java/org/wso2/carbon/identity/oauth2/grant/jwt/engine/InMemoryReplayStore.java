@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ReplayStore} kept in the memory of a single process. The number of recorded JWT ids is bounded, and a JWT id
+ * that does not fit is not accepted: the store reports it as not recorded, so a flood of distinct assertions makes
+ * grants fail rather than silently turning replay detection off. Expired records are removed by a purge that
+ * piggybacks on regular requests at most once per purge interval, so a full store costs no scan per request.
+ */
+public class InMemoryReplayStore implements ReplayStore {
+
+    private static final Log log = LogFactory.getLog(InMemoryReplayStore.class);
+    private static final long DEFAULT_PURGE_INTERVAL_MILLIS = 1000;
+
+    private final ConcurrentMap<String, Long> expiryTimes = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long purgeIntervalMillis;
+    private final AtomicLong nextPurgeMillis;
+    private final AtomicBoolean purging = new AtomicBoolean();
+    private final AtomicBoolean full = new AtomicBoolean();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public InMemoryReplayStore(int maxEntries) {
+        this(maxEntries, DEFAULT_PURGE_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param maxEntries          largest number of recorded JWT ids
+     * @param purgeIntervalMillis shortest time between two purges of the expired records
+     */
+    public InMemoryReplayStore(int maxEntries, long purgeIntervalMillis) {
+        if (maxEntries < 1 || purgeIntervalMillis < 0) {
+            throw new IllegalArgumentException("Invalid replay store settings. Max entries: " + maxEntries +
+                    ", purge interval: " + purgeIntervalMillis);
+        }
+        this.maxEntries = maxEntries;
+        this.purgeIntervalMillis = purgeIntervalMillis;
+        this.nextPurgeMillis = new AtomicLong(System.currentTimeMillis() + purgeIntervalMillis);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Returns false also when the store is full of live records.
+     */
+    @Override
+    public boolean recordIfAbsent(String jti, long expiryTimeMillis, long referenceTimeMillis) {
+        purgeIfDue(referenceTimeMillis);
+        Long newExpiry = expiryTimeMillis;
+        while (true) {
+            Long existingExpiry = expiryTimes.get(jti);
+            if (existingExpiry == null) {
+                if (expiryTimes.size() >= maxEntries) {
+                    reject();
+                    return false;
+                }
+                if (expiryTimes.putIfAbsent(jti, newExpiry) == null) {
+                    return true;
+                }
+            } else if (existingExpiry >= referenceTimeMillis) {
+                return false;
+            } else if (expiryTimes.replace(jti, existingExpiry, newExpiry)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Add a record received from another store, keeping the later expiry time if the JWT id is already recorded.
+     * The record is dropped when the store is full.
+     *
+     * @param jti              JWT id
+     * @param expiryTimeMillis expiry time of the assertion
+     */
+    public void restore(String jti, long expiryTimeMillis) {
+        Long newExpiry = expiryTimeMillis;
+        while (true) {
+            Long existingExpiry = expiryTimes.get(jti);
+            if (existingExpiry == null) {
+                if (expiryTimes.size() >= maxEntries || expiryTimes.putIfAbsent(jti, newExpiry) == null) {
+                    return;
+                }
+            } else if (existingExpiry >= expiryTimeMillis || expiryTimes.replace(jti, existingExpiry, newExpiry)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return read-only view of the recorded JWT ids and their expiry times
+     */
+    public Set<Map.Entry<String, Long>> entries() {
+        return Collections.unmodifiableMap(expiryTimes).entrySet();
+    }
+
+    public int size() {
+        return expiryTimes.size();
+    }
+
+    /**
+     * @return number of JWT ids that were not accepted because the store was full
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    private void purgeIfDue(long referenceTimeMillis) {
+        long nextPurge = nextPurgeMillis.get();
+        long nowMillis = System.currentTimeMillis();
+        if (nowMillis >= nextPurge && nextPurgeMillis.compareAndSet(nextPurge, nowMillis + purgeIntervalMillis)) {
+            purge(referenceTimeMillis);
+        }
+    }
+
+    private void reject() {
+        rejected.incrementAndGet();
+        if (full.compareAndSet(false, true)) {
+            log.warn("Replay store is full with " + expiryTimes.size() + " live JWT ids. Assertions with new JWT " +
+                    "ids are rejected until records expire.");
+        }
+    }
+
+    private void purge(long referenceTimeMillis) {
+        if (!purging.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Iterator<Map.Entry<String, Long>> iterator = expiryTimes.entrySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getValue() < referenceTimeMillis) {
+                    iterator.remove();
+                }
+            }
+            if (expiryTimes.size() < maxEntries) {
+                full.set(false);
+            }
+        } finally {
+            purging.set(false);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditReason;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validates JWT bearer assertions as described in RFC 7523. The validator has no dependency on the Carbon runtime:
+ * issuer lookup, configuration and replay detection are reached through the {@link IssuerResolver},
+ * {@link ValidationSettings} and {@link ReplayStore} it is created with, so it can run inside the grant handler as
+ * well as in a standalone validation service.
+ * <p>
+ * The checks that follow issuer resolution are run as a {@link ValidationPlan} compiled once per tenant and issuer.
+ * The signature, audience and time checks are part of every plan; the plan only varies in whether it validates
+ * custom claims and records JWT ids.
+ */
+public class JWTAssertionValidator {
+
+    private static final Log log = LogFactory.getLog(JWTAssertionValidator.class);
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final long DEFAULT_PLAN_TIME_TO_LIVE_MILLIS = 300000;
+    private static final AtomicInteger nextValidatorId = new AtomicInteger();
+    private static final ManagedCache<ValidationPlan> plans = JWTCacheManager.getInstance().getCache(
+            "validationPlans", new Weigher<ValidationPlan>() {
+                @Override
+                public long weigh(String key, ValidationPlan plan) {
+                    return SizeEstimator.sizeOf(key) + plan.estimateSize();
+                }
+            });
+
+    private final IssuerResolver issuerResolver;
+    private final ValidationSettings validationSettings;
+    private final ReplayStore replayStore;
+    private final ValidationHooks hooks;
+    private final long planTimeToLiveMillis;
+    private final int validatorId = nextValidatorId.incrementAndGet();
+    private final ValidationStage customClaimsStage;
+    private final ValidationStage replayStage;
+    private final AtomicLong compiledPlans = GrantMetrics.getInstance().counter("validationPlans.compiled");
+
+    /**
+     * @param issuerResolver     issuer lookup
+     * @param validationSettings time settings
+     * @param replayStore        store of used JWT ids, or null to accept replayed assertions
+     * @param hooks              extension points
+     */
+    public JWTAssertionValidator(IssuerResolver issuerResolver, ValidationSettings validationSettings,
+                                 ReplayStore replayStore, ValidationHooks hooks) {
+        this(issuerResolver, validationSettings, replayStore, hooks, DEFAULT_PLAN_TIME_TO_LIVE_MILLIS);
+    }
+
+    /**
+     * @param issuerResolver       issuer lookup
+     * @param validationSettings   time settings
+     * @param replayStore          store of used JWT ids, or null to accept replayed assertions
+     * @param hooks                extension points
+     * @param planTimeToLiveMillis how long the validation plan compiled for an issuer is reused
+     */
+    public JWTAssertionValidator(IssuerResolver issuerResolver, ValidationSettings validationSettings,
+                                 ReplayStore replayStore, ValidationHooks hooks, long planTimeToLiveMillis) {
+        this.issuerResolver = issuerResolver;
+        this.validationSettings = validationSettings;
+        this.replayStore = replayStore;
+        this.hooks = hooks;
+        this.planTimeToLiveMillis = planTimeToLiveMillis;
+        this.customClaimsStage = ValidationStages.customClaims(hooks);
+        this.replayStage = replayStore != null ? ValidationStages.replay(replayStore) : null;
+    }
+
+    /**
+     * Validate an assertion.
+     *
+     * @param tenantDomain tenant the assertion is presented to
+     * @param clientId     client presenting the assertion, may be null
+     * @param signedJWT    assertion
+     * @return the validated assertion
+     * @throws AssertionValidationException if the assertion is rejected
+     */
+    public ValidatedAssertion validate(String tenantDomain, String clientId, SignedJWT signedJWT)
+            throws AssertionValidationException {
+
+        JWTClaimsSet claimsSet;
+        try {
+            claimsSet = signedJWT.getJWTClaimsSet();
+        } catch (ParseException e) {
+            throw new AssertionValidationException(AuditReason.INVALID_ASSERTION,
+                    "Error when trying to retrieve claimsSet from the JWT", e);
+        }
+        if (claimsSet == null) {
+            throw new AssertionValidationException(AuditReason.INVALID_ASSERTION,
+                    "Claim values are empty in the given JSON Web Token");
+        }
+
+        String issuer = claimsSet.getIssuer();
+        String subject = null;
+        String jti = claimsSet.getJWTID();
+        try {
+            hooks.afterClaimsParsed(tenantDomain, clientId, claimsSet);
+            subject = hooks.resolveSubject(claimsSet);
+            TrustedIssuer trustedIssuer = validateClaims(tenantDomain, clientId, signedJWT, claimsSet, issuer,
+                    subject, jti);
+            return new ValidatedAssertion(signedJWT, claimsSet, subject, trustedIssuer);
+        } catch (AssertionValidationException e) {
+            e.setAssertionDetails(issuer, subject, jti);
+            throw e;
+        }
+    }
+
+    private TrustedIssuer validateClaims(String tenantDomain, String clientId, SignedJWT signedJWT,
+                                         JWTClaimsSet claimsSet, String issuer, String subject, String jti)
+            throws AssertionValidationException {
+
+        List<String> audience = claimsSet.getAudience();
+        Date expirationTime = claimsSet.getExpirationTime();
+        if (StringUtils.isEmpty(issuer) || StringUtils.isEmpty(subject) || expirationTime == null ||
+                audience == null) {
+            throw new AssertionValidationException(AuditReason.MISSING_MANDATORY_CLAIMS, "Mandatory fields(Issuer, " +
+                    "Subject, Expiration time or Audience) are empty in the given JSON Web Token.");
+        }
+
+        hooks.beforeIssuerResolution(tenantDomain, clientId, issuer);
+        TrustedIssuer trustedIssuer = issuerResolver.resolve(tenantDomain, issuer);
+        if (trustedIssuer == null) {
+            throw new AssertionValidationException(AuditReason.UNKNOWN_ISSUER,
+                    "No Registered IDP found for the JWT with issuer name : " + issuer);
+        }
+        hooks.afterIssuerResolution(tenantDomain, issuer, trustedIssuer);
+
+        ValidationContext context = new ValidationContext(tenantDomain, signedJWT, claimsSet, jti, expirationTime,
+                audience, trustedIssuer, System.currentTimeMillis(), validationSettings.getTimeStampSkewMillis(),
+                validationSettings.getValidityPeriodMillis());
+        getPlan(tenantDomain, trustedIssuer).execute(context);
+        if (log.isDebugEnabled()) {
+            log.debug("JWT Token was validated successfully");
+        }
+        return trustedIssuer;
+    }
+
+    /**
+     * Remove the compiled plans of a tenant, so that they are rebuilt from the current issuer configuration.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public static void invalidatePlans(String tenantDomain) {
+        plans.invalidate(tenantDomain + KEY_SEPARATOR);
+    }
+
+    private ValidationPlan getPlan(String tenantDomain, TrustedIssuer trustedIssuer) {
+        String key = tenantDomain + KEY_SEPARATOR + validatorId + KEY_SEPARATOR + trustedIssuer.getName();
+        ValidationPlan plan = plans.get(key);
+        if (plan == null) {
+            plan = compilePlan(tenantDomain, trustedIssuer);
+            plans.put(key, plan, planTimeToLiveMillis);
+        }
+        return plan;
+    }
+
+    /**
+     * Build the stages an issuer needs. Custom claim validation is left out when no hook would look at the claims,
+     * and replay detection when no replay store is configured.
+     */
+    private ValidationPlan compilePlan(String tenantDomain, TrustedIssuer trustedIssuer) {
+        List<ValidationStage> stages = new ArrayList<>();
+        stages.add(ValidationStages.SIGNATURE);
+        stages.add(ValidationStages.AUDIENCE);
+        stages.add(ValidationStages.EXPIRATION_TIME);
+        stages.add(ValidationStages.NOT_BEFORE_TIME);
+        stages.add(ValidationStages.ISSUED_AT_TIME);
+        if (hooks.hasCustomClaimValidation(tenantDomain, trustedIssuer)) {
+            stages.add(customClaimsStage);
+        }
+        if (replayStore != null) {
+            stages.add(replayStage);
+        } else if (log.isDebugEnabled()) {
+            log.debug("List of used JSON Web Token IDs are not maintained for " + trustedIssuer.getName());
+        }
+        ValidationPlan plan = new ValidationPlan(stages);
+        compiledPlans.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug("Compiled validation plan " + plan + " for issuer " + trustedIssuer.getName() + " of tenant " +
+                    tenantDomain);
+        }
+        return plan;
+    }
+}
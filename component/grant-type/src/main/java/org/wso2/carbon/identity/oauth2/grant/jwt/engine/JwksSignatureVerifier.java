@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditReason;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+import org.wso2.carbon.identity.oauth2.grant.jwt.resilience.CircuitBreaker;
+import org.wso2.carbon.identity.oauth2.grant.jwt.resilience.DependencyGuard;
+import org.wso2.carbon.identity.oauth2.grant.jwt.resilience.DependencyUnavailableException;
+
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies signatures with keys from JWKS endpoints. Each endpoint has its own latency budget and circuit breaker,
+ * so a slow partner endpoint only affects the assertions of that partner. Key sets are refreshed after the refresh
+ * interval, or earlier when an assertion names a key that is not in the set, and while an endpoint is unavailable
+ * the last key set downloaded from it is used up to the staleness limit. Endpoints are held in a cache of the
+ * {@link JWTCacheManager}, weighed by their key sets; an endpoint that is evicted starts over with a closed circuit.
+ */
+public class JwksSignatureVerifier {
+
+    private static final Log log = LogFactory.getLog(JwksSignatureVerifier.class);
+    private static final String METRIC_NAME = "dependency.jwks";
+    private static final int MAX_JWKS_SIZE = 512 * 1024;
+    private static final long MIN_UNKNOWN_KEY_REFRESH_MILLIS = 30 * 1000L;
+    // The guard, circuit breaker and bookkeeping of an endpoint.
+    private static final long ENDPOINT_SIZE = 512;
+    // Parsed keys hold their parameters both encoded and as numbers.
+    private static final int KEY_SET_EXPANSION = 4;
+
+    private final int timeoutMillis;
+    private final long refreshIntervalMillis;
+    private final long maxStalenessMillis;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final ExecutorService executor;
+    private final ManagedCache<Endpoint> endpoints;
+    private final AtomicLong fallbackServed;
+
+    /**
+     * @param timeoutMillis         latency budget of a download, also used as its connect and read timeout
+     * @param refreshIntervalMillis how long a downloaded key set is used before it is downloaded again
+     * @param maxStalenessMillis    how long a key set is used while its endpoint is unavailable
+     * @param failureThreshold      consecutive failures that open the circuit of an endpoint
+     * @param openDurationMillis    how long the circuit of an endpoint stays open
+     * @param executor              bounded executor the downloads run on
+     */
+    public JwksSignatureVerifier(int timeoutMillis, long refreshIntervalMillis, long maxStalenessMillis,
+                                 int failureThreshold, long openDurationMillis, ExecutorService executor) {
+        this.timeoutMillis = timeoutMillis;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.maxStalenessMillis = Math.max(maxStalenessMillis, refreshIntervalMillis);
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.executor = executor;
+        this.fallbackServed = GrantMetrics.getInstance().counter("fallback.jwks.served");
+        this.endpoints = JWTCacheManager.getInstance().getCache("jwks", new Weigher<Endpoint>() {
+            @Override
+            public long weigh(String key, Endpoint endpoint) {
+                KeySet keySet = endpoint.keySet;
+                return ENDPOINT_SIZE + (keySet != null ? keySet.size : 0);
+            }
+        });
+    }
+
+    /**
+     * @param signedJWT assertion
+     * @param jwksUri   JWKS endpoint of the issuer
+     * @return true if a key of the endpoint verifies the signature
+     * @throws AssertionValidationException if no key set of the endpoint is available
+     */
+    public boolean verify(SignedJWT signedJWT, String jwksUri) throws JOSEException, AssertionValidationException {
+        Endpoint endpoint = getEndpoint(jwksUri);
+        KeySet keySet = getKeySet(endpoint, false);
+        Boolean verified = verify(signedJWT, keySet.jwkSet);
+        if (verified == null && System.currentTimeMillis() - keySet.fetchedAtMillis > MIN_UNKNOWN_KEY_REFRESH_MILLIS) {
+            if (log.isDebugEnabled()) {
+                log.debug("No matching key in the JWKS of " + jwksUri + ". Downloading it again.");
+            }
+            verified = verify(signedJWT, getKeySet(endpoint, true).jwkSet);
+        }
+        return verified != null && verified;
+    }
+
+    /**
+     * @return null if no key of the set matches the header, otherwise whether a matching key verified the signature
+     */
+    private Boolean verify(SignedJWT signedJWT, JWKSet jwkSet) throws JOSEException {
+        String keyId = signedJWT.getHeader().getKeyID();
+        JWSAlgorithm algorithm = signedJWT.getHeader().getAlgorithm();
+        Boolean verified = null;
+        for (JWK key : jwkSet.getKeys()) {
+            if ((keyId != null && !keyId.equals(key.getKeyID())) ||
+                    (key.getKeyUse() != null && key.getKeyUse() != KeyUse.SIGNATURE)) {
+                continue;
+            }
+            JWSVerifier verifier;
+            if (key instanceof RSAKey) {
+                verifier = new RSASSAVerifier((RSAKey) key);
+            } else if (key instanceof ECKey) {
+                verifier = new ECDSAVerifier((ECKey) key);
+            } else {
+                continue;
+            }
+            if (!verifier.supportedJWSAlgorithms().contains(algorithm)) {
+                continue;
+            }
+            if (signedJWT.verify(verifier)) {
+                return true;
+            }
+            verified = false;
+        }
+        return verified;
+    }
+
+    private Endpoint getEndpoint(String jwksUri) {
+        Endpoint endpoint = endpoints.get(jwksUri);
+        if (endpoint == null) {
+            endpoint = new Endpoint(jwksUri, new DependencyGuard("JWKS endpoint " + jwksUri, METRIC_NAME,
+                    timeoutMillis, new CircuitBreaker("JWKS endpoint " + jwksUri, METRIC_NAME, failureThreshold,
+                    openDurationMillis), executor));
+            endpoints.put(jwksUri, endpoint);
+        }
+        return endpoint;
+    }
+
+    private KeySet getKeySet(final Endpoint endpoint, boolean forceRefresh) throws AssertionValidationException {
+        long now = System.currentTimeMillis();
+        KeySet keySet = endpoint.keySet;
+        if (keySet != null && !forceRefresh && now - keySet.fetchedAtMillis < refreshIntervalMillis) {
+            return keySet;
+        }
+        // a single thread refreshes an endpoint that already has a usable key set, the others keep using it
+        boolean usable = keySet != null && now - keySet.fetchedAtMillis < maxStalenessMillis;
+        if (usable && !endpoint.refreshing.compareAndSet(false, true)) {
+            return keySet;
+        }
+        String failure;
+        try {
+            JWKSet jwkSet = endpoint.guard.call(new Callable<JWKSet>() {
+                @Override
+                public JWKSet call() throws Exception {
+                    return JWKSet.load(new URL(endpoint.uri), timeoutMillis, timeoutMillis, MAX_JWKS_SIZE);
+                }
+            });
+            KeySet newKeySet = new KeySet(jwkSet, System.currentTimeMillis());
+            endpoint.keySet = newKeySet;
+            // put the endpoint again so that it is charged for its new key set
+            endpoints.put(endpoint.uri, endpoint);
+            return newKeySet;
+        } catch (DependencyUnavailableException e) {
+            failure = e.getMessage();
+        } catch (ExecutionException e) {
+            failure = "Error while downloading the JWKS from " + endpoint.uri + ": " + e.getCause().getMessage();
+        } finally {
+            if (usable) {
+                endpoint.refreshing.set(false);
+            }
+        }
+        if (usable) {
+            fallbackServed.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug(failure + ". Using the key set downloaded " + (now - keySet.fetchedAtMillis) / 1000 +
+                        " seconds ago.");
+            }
+            return keySet;
+        }
+        throw new AssertionValidationException(AuditReason.IDP_ERROR, failure);
+    }
+
+    private static class Endpoint {
+
+        private final String uri;
+        private final DependencyGuard guard;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile KeySet keySet;
+
+        Endpoint(String uri, DependencyGuard guard) {
+            this.uri = uri;
+            this.guard = guard;
+        }
+    }
+
+    private static class KeySet {
+
+        private final JWKSet jwkSet;
+        private final long fetchedAtMillis;
+        private final long size;
+
+        KeySet(JWKSet jwkSet, long fetchedAtMillis) {
+            this.jwkSet = jwkSet;
+            this.fetchedAtMillis = fetchedAtMillis;
+            this.size = SizeEstimator.sizeOfParsed(jwkSet.toString().length(), KEY_SET_EXPANSION);
+        }
+    }
+}
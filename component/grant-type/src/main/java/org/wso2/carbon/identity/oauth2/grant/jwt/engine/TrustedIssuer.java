@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * An issuer whose assertions are accepted, as resolved by an {@link IssuerResolver}.
+ */
+public interface TrustedIssuer {
+
+    /**
+     * @return name of the issuer in the backing store
+     */
+    String getName();
+
+    /**
+     * @return the audience value the assertions of the issuer must contain, usually the token endpoint alias
+     */
+    String getTokenEndpointAlias();
+
+    /**
+     * @param signedJWT assertion
+     * @return true if the signature of the assertion was made by the issuer
+     * @throws JOSEException                if the signature can not be verified
+     * @throws AssertionValidationException if the verification key of the issuer can not be resolved
+     */
+    boolean verifySignature(SignedJWT signedJWT) throws JOSEException, AssertionValidationException;
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * An assertion accepted by the {@link JWTAssertionValidator}.
+ */
+public class ValidatedAssertion {
+
+    private final SignedJWT signedJWT;
+    private final JWTClaimsSet claimsSet;
+    private final String subject;
+    private final TrustedIssuer trustedIssuer;
+
+    ValidatedAssertion(SignedJWT signedJWT, JWTClaimsSet claimsSet, String subject, TrustedIssuer trustedIssuer) {
+        this.signedJWT = signedJWT;
+        this.claimsSet = claimsSet;
+        this.subject = subject;
+        this.trustedIssuer = trustedIssuer;
+    }
+
+    public SignedJWT getSignedJWT() {
+        return signedJWT;
+    }
+
+    public JWTClaimsSet getClaimsSet() {
+        return claimsSet;
+    }
+
+    public String getIssuer() {
+        return claimsSet.getIssuer();
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getJti() {
+        return claimsSet.getJWTID();
+    }
+
+    public TrustedIssuer getTrustedIssuer() {
+        return trustedIssuer;
+    }
+}
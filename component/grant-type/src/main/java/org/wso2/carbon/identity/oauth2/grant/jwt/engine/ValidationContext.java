@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * State shared by the stages of a {@link ValidationPlan} while they validate one assertion.
+ */
+final class ValidationContext {
+
+    final String tenantDomain;
+    final SignedJWT signedJWT;
+    final JWTClaimsSet claimsSet;
+    final String jti;
+    final Date expirationTime;
+    final List<String> audience;
+    final TrustedIssuer trustedIssuer;
+    final long currentTimeMillis;
+    final long timeStampSkewMillis;
+    final long validityPeriodMillis;
+
+    ValidationContext(String tenantDomain, SignedJWT signedJWT, JWTClaimsSet claimsSet, String jti,
+                      Date expirationTime, List<String> audience, TrustedIssuer trustedIssuer, long currentTimeMillis,
+                      long timeStampSkewMillis, long validityPeriodMillis) {
+        this.tenantDomain = tenantDomain;
+        this.signedJWT = signedJWT;
+        this.claimsSet = claimsSet;
+        this.jti = jti;
+        this.expirationTime = expirationTime;
+        this.audience = audience;
+        this.trustedIssuer = trustedIssuer;
+        this.currentTimeMillis = currentTimeMillis;
+        this.timeStampSkewMillis = timeStampSkewMillis;
+        this.validityPeriodMillis = validityPeriodMillis;
+    }
+}
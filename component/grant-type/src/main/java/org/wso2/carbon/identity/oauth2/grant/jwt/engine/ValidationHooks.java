@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import java.util.Map;
+
+/**
+ * Extension points of the {@link JWTAssertionValidator}. The default implementation takes the subject from the sub
+ * claim and adds no checks.
+ */
+public class ValidationHooks {
+
+    private final boolean customClaimsOverridden = isOverridden(getClass(), ValidationHooks.class,
+            "validateCustomClaims", String.class, TrustedIssuer.class, Map.class);
+
+    /**
+     * @param claimsSet claims of the assertion
+     * @return subject of the assertion
+     */
+    public String resolveSubject(JWTClaimsSet claimsSet) {
+        return claimsSet.getSubject();
+    }
+
+    /**
+     * Called as soon as the claims of the assertion are parsed, before any other check.
+     *
+     * @param tenantDomain tenant domain
+     * @param clientId     client of the request, may be null
+     * @param claimsSet    claims of the assertion
+     * @throws AssertionValidationException to reject the assertion
+     */
+    public void afterClaimsParsed(String tenantDomain, String clientId, JWTClaimsSet claimsSet)
+            throws AssertionValidationException {
+    }
+
+    /**
+     * Called once the mandatory claims are present and before the issuer is looked up.
+     *
+     * @param tenantDomain tenant domain
+     * @param clientId     client of the request, may be null
+     * @param issuer       issuer claim of the assertion
+     * @throws AssertionValidationException to reject the assertion
+     */
+    public void beforeIssuerResolution(String tenantDomain, String clientId, String issuer)
+            throws AssertionValidationException {
+    }
+
+    /**
+     * Called once the issuer is resolved and before the signature is verified.
+     *
+     * @param tenantDomain  tenant domain
+     * @param issuer        issuer claim of the assertion
+     * @param trustedIssuer resolved issuer
+     * @throws AssertionValidationException to reject the assertion
+     */
+    public void afterIssuerResolution(String tenantDomain, String issuer, TrustedIssuer trustedIssuer)
+            throws AssertionValidationException {
+    }
+
+    /**
+     * Validate the claims other than the registered ones.
+     *
+     * @param tenantDomain  tenant domain
+     * @param trustedIssuer issuer of the assertion
+     * @param claims        claims of the assertion
+     * @return whether the claims are valid
+     * @throws AssertionValidationException to reject the assertion with a specific message
+     */
+    public boolean validateCustomClaims(String tenantDomain, TrustedIssuer trustedIssuer, Map<String, Object> claims)
+            throws AssertionValidationException {
+        return true;
+    }
+
+    /**
+     * Whether {@link #validateCustomClaims(String, TrustedIssuer, Map)} has to be called for an issuer. It is asked
+     * when the validation plan of the issuer is compiled, and defaults to whether the method is overridden.
+     *
+     * @param tenantDomain  tenant domain
+     * @param trustedIssuer issuer of the assertions
+     * @return false to leave custom claim validation out of the issuer's plan
+     */
+    public boolean hasCustomClaimValidation(String tenantDomain, TrustedIssuer trustedIssuer) {
+        return customClaimsOverridden;
+    }
+
+    /**
+     * @param type           class to inspect
+     * @param base           class declaring the default implementation
+     * @param name           method name
+     * @param parameterTypes method parameter types
+     * @return whether a class between type and base redeclares the method
+     */
+    protected static boolean isOverridden(Class<?> type, Class<?> base, String name, Class<?>... parameterTypes) {
+        for (Class<?> current = type; current != null && current != base; current = current.getSuperclass()) {
+            try {
+                current.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Not declared at this level, look at the superclass.
+            }
+        }
+        return false;
+    }
+}
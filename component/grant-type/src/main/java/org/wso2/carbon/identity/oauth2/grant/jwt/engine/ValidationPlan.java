@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The checks an issuer's assertions go through once the issuer is resolved, in order. Plans are compiled per tenant
+ * and issuer by the {@link JWTAssertionValidator}, leaving out custom claim validation when no hook looks at the
+ * issuer's claims and replay detection when no replay store is configured.
+ */
+final class ValidationPlan {
+
+    private final ValidationStage[] stages;
+
+    ValidationPlan(List<ValidationStage> stages) {
+        this.stages = stages.toArray(new ValidationStage[stages.size()]);
+    }
+
+    /**
+     * Run the stages in order, stopping at the first that rejects the assertion.
+     *
+     * @param context assertion under validation
+     * @throws AssertionValidationException if a stage rejects the assertion
+     */
+    void execute(ValidationContext context) throws AssertionValidationException {
+        for (ValidationStage stage : stages) {
+            stage.validate(context);
+        }
+    }
+
+    /**
+     * @return estimated size of the plan in bytes. The stages themselves are shared between plans.
+     */
+    long estimateSize() {
+        return SizeEstimator.OBJECT_OVERHEAD * 2 + SizeEstimator.REFERENCE * stages.length;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(stages);
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jose.JOSEException;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditReason;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * The stages {@link ValidationPlan}s are compiled from. Stages without configuration are shared by all plans.
+ */
+final class ValidationStages {
+
+    private static final Log log = LogFactory.getLog(ValidationStages.class);
+
+    static final ValidationStage SIGNATURE = new SignatureStage();
+    static final ValidationStage AUDIENCE = new AudienceStage();
+    static final ValidationStage EXPIRATION_TIME = new ExpirationTimeStage();
+    static final ValidationStage NOT_BEFORE_TIME = new NotBeforeTimeStage();
+    static final ValidationStage ISSUED_AT_TIME = new IssuedAtTimeStage();
+
+    private ValidationStages() {
+    }
+
+    static ValidationStage customClaims(ValidationHooks hooks) {
+        return new CustomClaimsStage(hooks);
+    }
+
+    static ValidationStage replay(ReplayStore replayStore) {
+        return new ReplayStage(replayStore);
+    }
+
+    private static class SignatureStage implements ValidationStage {
+
+        @Override
+        public void validate(ValidationContext context) throws AssertionValidationException {
+            boolean signatureValid;
+            try {
+                signatureValid = context.trustedIssuer.verifySignature(context.signedJWT);
+            } catch (JOSEException e) {
+                throw new AssertionValidationException(AuditReason.SIGNATURE_INVALID, "Error when verifying signature",
+                        e);
+            }
+            if (!signatureValid) {
+                throw new AssertionValidationException(AuditReason.SIGNATURE_INVALID,
+                        "Signature or Message Authentication invalid.");
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Signature/MAC validated successfully.");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "signature";
+        }
+    }
+
+    private static class AudienceStage implements ValidationStage {
+
+        @Override
+        public void validate(ValidationContext context) throws AssertionValidationException {
+            String tokenEndPointAlias = context.trustedIssuer.getTokenEndpointAlias();
+            if (StringUtils.isEmpty(tokenEndPointAlias)) {
+                throw new AssertionValidationException(AuditReason.AUDIENCE_MISMATCH, "Token Endpoint alias of the " +
+                        "local Identity Provider has not been configured for " + context.trustedIssuer.getName());
+            }
+            for (String aud : context.audience) {
+                if (StringUtils.equals(tokenEndPointAlias, aud)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(tokenEndPointAlias + " of IDP was found in the list of audiences.");
+                    }
+                    return;
+                }
+            }
+            throw new AssertionValidationException(AuditReason.AUDIENCE_MISMATCH,
+                    "None of the audience values matched the tokenEndpoint Alias " + tokenEndPointAlias);
+        }
+
+        @Override
+        public String toString() {
+            return "audience";
+        }
+    }
+
+    /**
+     * The JWT MUST contain an exp claim, which is checked against the current time allowing for clock skew.
+     */
+    private static class ExpirationTimeStage implements ValidationStage {
+
+        @Override
+        public void validate(ValidationContext context) throws AssertionValidationException {
+            long expirationTimeInMillis = context.expirationTime.getTime();
+            if ((context.currentTimeMillis + context.timeStampSkewMillis) > expirationTimeInMillis) {
+                throw new AssertionValidationException(AuditReason.EXPIRED, "JSON Web Token is expired." +
+                        ", Expiration Time(ms) : " + expirationTimeInMillis +
+                        ", TimeStamp Skew : " + context.timeStampSkewMillis +
+                        ", Current Time : " + context.currentTimeMillis + ". JWT Rejected and validation terminated");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "exp";
+        }
+    }
+
+    /**
+     * The JWT MAY contain an nbf claim, which is checked against the current time allowing for clock skew.
+     */
+    private static class NotBeforeTimeStage implements ValidationStage {
+
+        @Override
+        public void validate(ValidationContext context) throws AssertionValidationException {
+            Date notBeforeTime = context.claimsSet.getNotBeforeTime();
+            if (notBeforeTime == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Not Before Time(nbf) not found in JWT. Continuing Validation");
+                }
+            } else if (context.currentTimeMillis + context.timeStampSkewMillis < notBeforeTime.getTime()) {
+                throw new AssertionValidationException(AuditReason.NOT_YET_VALID, "JSON Web Token is used before " +
+                        "Not_Before_Time." +
+                        ", Not Before Time(ms) : " + notBeforeTime.getTime() +
+                        ", TimeStamp Skew : " + context.timeStampSkewMillis +
+                        ", Current Time : " + context.currentTimeMillis + ". JWT Rejected and validation terminated");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "nbf";
+        }
+    }
+
+    /**
+     * The JWT MAY contain an iat claim. An iat too far in the past is rejected.
+     */
+    private static class IssuedAtTimeStage implements ValidationStage {
+
+        @Override
+        public void validate(ValidationContext context) throws AssertionValidationException {
+            Date issuedAtTime = context.claimsSet.getIssueTime();
+            if (issuedAtTime == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Issued At Time(iat) not found in JWT. Continuing Validation");
+                }
+            } else if (context.currentTimeMillis + context.timeStampSkewMillis - issuedAtTime.getTime() >
+                    context.validityPeriodMillis) {
+                throw new AssertionValidationException(AuditReason.ISSUED_TOO_LONG_AGO, "JSON Web Token is issued " +
+                        "before the allowed time." +
+                        ", Issued At Time(ms) : " + issuedAtTime.getTime() +
+                        ", Reject before limit(ms) : " + context.validityPeriodMillis +
+                        ", TimeStamp Skew : " + context.timeStampSkewMillis +
+                        ", Current Time : " + context.currentTimeMillis + ". JWT Rejected and validation terminated");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "iat";
+        }
+    }
+
+    private static class CustomClaimsStage implements ValidationStage {
+
+        private final ValidationHooks hooks;
+
+        CustomClaimsStage(ValidationHooks hooks) {
+            this.hooks = hooks;
+        }
+
+        @Override
+        public void validate(ValidationContext context) throws AssertionValidationException {
+            Map<String, Object> customClaims = context.claimsSet.getClaims();
+            if (customClaims != null && !hooks.validateCustomClaims(context.tenantDomain, context.trustedIssuer,
+                    customClaims)) {
+                throw new AssertionValidationException(AuditReason.CUSTOM_CLAIMS_INVALID,
+                        "Custom Claims in the JWT were invalid");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "customClaims";
+        }
+    }
+
+    /**
+     * Records the JWT id. It comes last, so that an assertion rejected for another reason does not use it up.
+     */
+    private static class ReplayStage implements ValidationStage {
+
+        private final ReplayStore replayStore;
+        private final AssertionReplayStore assertionReplayStore;
+
+        ReplayStage(ReplayStore replayStore) {
+            this.replayStore = replayStore;
+            this.assertionReplayStore = replayStore instanceof AssertionReplayStore ?
+                    (AssertionReplayStore) replayStore : null;
+        }
+
+        @Override
+        public void validate(ValidationContext context) throws AssertionValidationException {
+            if (context.jti == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("JSON Web Token ID(jti) not found in JWT. Continuing Validation");
+                }
+                return;
+            }
+            // Once the validity period after the iat has passed the assertion is rejected by its iat, so the JWT id
+            // need not be remembered any longer.
+            long expiryTimeMillis = context.expirationTime.getTime();
+            Date issuedAtTime = context.claimsSet.getIssueTime();
+            if (issuedAtTime != null) {
+                expiryTimeMillis = Math.min(expiryTimeMillis, issuedAtTime.getTime() + context.validityPeriodMillis);
+            }
+            long referenceTimeMillis = context.currentTimeMillis + context.timeStampSkewMillis;
+            boolean recorded = assertionReplayStore != null ?
+                    assertionReplayStore.recordIfAbsent(context.jti, expiryTimeMillis, referenceTimeMillis,
+                            context.signedJWT) :
+                    replayStore.recordIfAbsent(context.jti, expiryTimeMillis, referenceTimeMillis);
+            if (!recorded) {
+                throw new AssertionValidationException(AuditReason.REPLAYED, "JWT Token with jti " + context.jti +
+                        " has been replayed before the allowed expiry time : " + context.expirationTime);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "replay";
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.model.FederatedAuthenticatorConfig;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.application.common.model.Property;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationManagementUtil;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditReason;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cert.SignerCertificateValidator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.AssertionValidationException;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.IssuerResolver;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.JwksSignatureVerifier;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.TrustedIssuer;
+import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
+
+/**
+ * {@link IssuerResolver} over the Carbon identity provider store, read through the {@link IdentityProviderLookup}.
+ * The issuer is matched against the identity provider names of the tenant, and against the OIDC entity id of the
+ * resident identity provider.
+ */
+public class CarbonIssuerResolver implements IssuerResolver {
+
+    private static final Log log = LogFactory.getLog(CarbonIssuerResolver.class);
+    private static final String OIDC_IDP_ENTITY_ID = "IdPEntityId";
+    private static final String ERROR_GET_RESIDENT_IDP =
+            "Error while getting Resident Identity Provider of '%s' tenant.";
+
+    private final SignerCertificateResolver certificateResolver;
+    private final SignerCertificateValidator certificateValidator;
+    private final JwksSignatureVerifier jwksVerifier;
+
+    /**
+     * @param certificateResolver  resolves the signer certificates of identity providers
+     * @param certificateValidator validates signer certificates, or null to use them unchecked
+     * @param jwksVerifier         verifies signatures with keys of JWKS endpoints, or null to use the OAuth
+     *                             component's JWKS validation
+     */
+    public CarbonIssuerResolver(SignerCertificateResolver certificateResolver,
+                                SignerCertificateValidator certificateValidator, JwksSignatureVerifier jwksVerifier) {
+        this.certificateResolver = certificateResolver;
+        this.certificateValidator = certificateValidator;
+        this.jwksVerifier = jwksVerifier;
+    }
+
+    @Override
+    public TrustedIssuer resolve(String tenantDomain, String issuer) throws AssertionValidationException {
+        IdentityProvider identityProvider;
+        try {
+            identityProvider = IdentityProviderLookup.getInstance().getIdPByName(issuer, tenantDomain);
+        } catch (IdentityProviderManagementException e) {
+            throw new AssertionValidationException(AuditReason.IDP_ERROR,
+                    "Error while getting the Federated Identity Provider ", e);
+        }
+        if (identityProvider == null) {
+            return null;
+        }
+        // if no IDPs were found for a given name, the IdentityProviderManager returns a dummy IDP with the
+        // name "default". We need to handle this case.
+        if (IdentityProviderLookup.isPlaceholder(identityProvider)) {
+            //check whether this jwt was issued by the resident identity provider
+            identityProvider = getResidentIdPForIssuer(tenantDomain, issuer);
+            if (identityProvider == null) {
+                return null;
+            }
+        }
+        return new CarbonTrustedIssuer(identityProvider, getTokenEndpointAlias(tenantDomain, identityProvider),
+                certificateResolver, certificateValidator, jwksVerifier);
+    }
+
+    /**
+     * @param tenantDomain tenant Domain
+     * @param jwtIssuer    issuer extracted from assertion
+     * @return the resident identity provider if its OIDC entity id is the issuer, null otherwise
+     */
+    private IdentityProvider getResidentIdPForIssuer(String tenantDomain, String jwtIssuer)
+            throws AssertionValidationException {
+        String issuer = StringUtils.EMPTY;
+        IdentityProvider residentIdentityProvider;
+        try {
+            residentIdentityProvider = IdentityProviderLookup.getInstance().getResidentIdP(tenantDomain);
+        } catch (IdentityProviderManagementException e) {
+            throw new AssertionValidationException(AuditReason.IDP_ERROR,
+                    String.format(ERROR_GET_RESIDENT_IDP, tenantDomain), e);
+        }
+        FederatedAuthenticatorConfig[] fedAuthnConfigs = residentIdentityProvider.getFederatedAuthenticatorConfigs();
+        FederatedAuthenticatorConfig oauthAuthenticatorConfig =
+                IdentityApplicationManagementUtil.getFederatedAuthenticator(fedAuthnConfigs,
+                        IdentityApplicationConstants.Authenticator.OIDC.NAME);
+        if (oauthAuthenticatorConfig != null) {
+            issuer = IdentityApplicationManagementUtil.getProperty(oauthAuthenticatorConfig.getProperties(),
+                    OIDC_IDP_ENTITY_ID).getValue();
+        }
+        return jwtIssuer.equals(issuer) ? residentIdentityProvider : null;
+    }
+
+    /**
+     * @param tenantDomain     tenant domain
+     * @param identityProvider Identity provider
+     * @return token endpoint alias
+     */
+    private String getTokenEndpointAlias(String tenantDomain, IdentityProvider identityProvider) {
+        Property oauthTokenURL = null;
+        String tokenEndPointAlias = null;
+        if (IdentityApplicationConstants.RESIDENT_IDP_RESERVED_NAME.equals(
+                identityProvider.getIdentityProviderName())) {
+            try {
+                identityProvider = IdentityProviderLookup.getInstance().getResidentIdP(tenantDomain);
+            } catch (IdentityProviderManagementException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Error while getting Resident IDP :" + e.getMessage());
+                }
+            }
+            FederatedAuthenticatorConfig[] fedAuthnConfigs =
+                    identityProvider.getFederatedAuthenticatorConfigs();
+            FederatedAuthenticatorConfig oauthAuthenticatorConfig =
+                    IdentityApplicationManagementUtil.getFederatedAuthenticator(fedAuthnConfigs,
+                            IdentityApplicationConstants.Authenticator.OIDC.NAME);
+
+            if (oauthAuthenticatorConfig != null) {
+                oauthTokenURL = IdentityApplicationManagementUtil.getProperty(
+                        oauthAuthenticatorConfig.getProperties(),
+                        IdentityApplicationConstants.Authenticator.OIDC.OAUTH2_TOKEN_URL);
+            }
+            if (oauthTokenURL != null) {
+                tokenEndPointAlias = oauthTokenURL.getValue();
+                if (log.isDebugEnabled()) {
+                    log.debug("Token End Point Alias of Resident IDP :" + tokenEndPointAlias);
+                }
+            }
+        } else {
+            tokenEndPointAlias = identityProvider.getAlias();
+            if (log.isDebugEnabled()) {
+                log.debug("Token End Point Alias of the Federated IDP: " + tokenEndPointAlias);
+            }
+        }
+        return tokenEndPointAlias;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon;
+
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.cache.CacheEntry;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheEntry;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTReplayCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTReplayCacheEntry;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.AssertionReplayStore;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ReplayStore;
+
+import java.text.ParseException;
+import java.util.Date;
+
+/**
+ * {@link ReplayStore} over the Carbon {@link JWTReplayCache}. The cache offers no atomic insert, so two nodes or
+ * threads receiving the same assertion at the same instant may both accept it, as before the store was introduced.
+ * <p>
+ * Earlier versions of the grant handler keep the whole assertion in the {@link JWTCache}, and know nothing of the
+ * {@link JWTReplayCache}. So that nodes of both versions detect each other's replays during a rolling upgrade, JWT
+ * ids are also looked up in the {@link JWTCache}, and assertions are written to it in the format those versions
+ * read. This will be dropped in the next release, after which upgrades from those versions need a full cluster
+ * restart.
+ */
+public class CarbonReplayStore implements AssertionReplayStore {
+
+    private static final Log log = LogFactory.getLog(CarbonReplayStore.class);
+
+    private final JWTReplayCache replayCache;
+    private final JWTCache legacyCache;
+
+    /**
+     * @param replayCache cache of used JWT ids
+     * @param legacyCache cache of the assertions recorded by earlier versions
+     */
+    public CarbonReplayStore(JWTReplayCache replayCache, JWTCache legacyCache) {
+        this.replayCache = replayCache;
+        this.legacyCache = legacyCache;
+    }
+
+    @Override
+    public boolean recordIfAbsent(String jti, long expiryTimeMillis, long referenceTimeMillis) {
+        return recordIfAbsent(jti, expiryTimeMillis, referenceTimeMillis, null);
+    }
+
+    @Override
+    public boolean recordIfAbsent(String jti, long expiryTimeMillis, long referenceTimeMillis, SignedJWT assertion) {
+        CacheEntry entry = replayCache.getValueFromCache(jti);
+        if (entry instanceof JWTReplayCacheEntry) {
+            long cachedExpiryTimeMillis = ((JWTReplayCacheEntry) entry).getExpiryTimeMillis();
+            if (cachedExpiryTimeMillis >= referenceTimeMillis) {
+                return false;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("JWT Token has been reused after the allowed expiry time : " + cachedExpiryTimeMillis);
+            }
+        }
+        if (isLiveInLegacyCache(jti, referenceTimeMillis)) {
+            return false;
+        }
+        replayCache.addToCache(jti, new JWTReplayCacheEntry(expiryTimeMillis));
+        if (assertion != null) {
+            legacyCache.addToCache(jti, new JWTCacheEntry(assertion));
+        }
+        return true;
+    }
+
+    /**
+     * @return whether an earlier version recorded an assertion with the JWT id which has not expired yet
+     */
+    private boolean isLiveInLegacyCache(String jti, long referenceTimeMillis) {
+        CacheEntry entry = legacyCache.getValueFromCache(jti);
+        if (!(entry instanceof JWTCacheEntry)) {
+            return false;
+        }
+        Date cachedExpirationTime;
+        try {
+            cachedExpirationTime = ((JWTCacheEntry) entry).getJwt().getJWTClaimsSet().getExpirationTime();
+        } catch (ParseException e) {
+            // Earlier versions reject the JWT id in this case as well.
+            log.warn("Unable to parse the cached jwt assertion of JWT id: " + jti, e);
+            return true;
+        }
+        return cachedExpirationTime == null || cachedExpirationTime.getTime() >= referenceTimeMillis;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.lang.ArrayUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.application.common.model.IdentityProviderProperty;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.grant.jwt.JWTConstants;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditReason;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cert.CertificateValidationException;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cert.SignerCertificateValidator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.AssertionValidationException;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.JwksSignatureVerifier;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.TrustedIssuer;
+import org.wso2.carbon.identity.oauth2.validators.jwt.JWKSBasedJWTValidator;
+
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.RSAPublicKey;
+
+/**
+ * A {@link TrustedIssuer} backed by a Carbon identity provider. Signatures are verified against the JWKS endpoint
+ * of the identity provider when JWKS validation is enabled and the identity provider has one, and against its
+ * certificate otherwise. JWKS endpoints are read through the guarded {@link JwksSignatureVerifier} when one is
+ * given. The certificate is checked by the certificate validator, if one is given, before it is
+ * used; keys from JWKS endpoints are not certificates and are trusted as published.
+ */
+public class CarbonTrustedIssuer implements TrustedIssuer {
+
+    private static final Log log = LogFactory.getLog(CarbonTrustedIssuer.class);
+
+    private final IdentityProvider identityProvider;
+    private final String tokenEndpointAlias;
+    private final SignerCertificateResolver certificateResolver;
+    private final SignerCertificateValidator certificateValidator;
+    private final JwksSignatureVerifier jwksVerifier;
+
+    public CarbonTrustedIssuer(IdentityProvider identityProvider, String tokenEndpointAlias,
+                               SignerCertificateResolver certificateResolver,
+                               SignerCertificateValidator certificateValidator, JwksSignatureVerifier jwksVerifier) {
+        this.identityProvider = identityProvider;
+        this.tokenEndpointAlias = tokenEndpointAlias;
+        this.certificateResolver = certificateResolver;
+        this.certificateValidator = certificateValidator;
+        this.jwksVerifier = jwksVerifier;
+    }
+
+    @Override
+    public String getName() {
+        return identityProvider.getIdentityProviderName();
+    }
+
+    @Override
+    public String getTokenEndpointAlias() {
+        return tokenEndpointAlias;
+    }
+
+    public IdentityProvider getIdentityProvider() {
+        return identityProvider;
+    }
+
+    @Override
+    public boolean verifySignature(SignedJWT signedJWT) throws JOSEException, AssertionValidationException {
+
+        boolean isJWKSEnabled = Boolean.parseBoolean(IdentityUtil.getProperty(
+                JWTConstants.JWKS_VALIDATION_ENABLE_CONFIG));
+        if (isJWKSEnabled) {
+            if (log.isDebugEnabled()) {
+                log.debug("JWKS based JWT validation enabled.");
+            }
+            String jwksUri = getJwksUri();
+            if (jwksUri != null && jwksVerifier != null) {
+                return jwksVerifier.verify(signedJWT, jwksUri);
+            }
+            if (jwksUri != null) {
+                try {
+                    return new JWKSBasedJWTValidator().validateSignature(signedJWT.getParsedString(), jwksUri,
+                            signedJWT.getHeader().getAlgorithm().getName(), null);
+                } catch (IdentityOAuth2Exception e) {
+                    throw new AssertionValidationException(AuditReason.SIGNATURE_INVALID, e.getMessage(), e);
+                }
+            }
+        }
+
+        JWSHeader header = signedJWT.getHeader();
+        X509Certificate x509Certificate;
+        try {
+            x509Certificate = certificateResolver.resolveSignerCertificate(header, identityProvider);
+        } catch (IdentityOAuth2Exception e) {
+            throw new AssertionValidationException(AuditReason.SIGNATURE_INVALID, e.getMessage(), e);
+        }
+        if (x509Certificate == null) {
+            throw new AssertionValidationException(AuditReason.SIGNATURE_INVALID, "Unable to locate certificate for " +
+                    "Identity Provider " + identityProvider.getDisplayName() + "; JWT " + header.toString());
+        }
+        if (certificateValidator != null) {
+            try {
+                certificateValidator.validate(x509Certificate);
+            } catch (CertificateValidationException e) {
+                throw new AssertionValidationException(AuditReason.CERTIFICATE_INVALID, e.getMessage(), e);
+            }
+        }
+
+        String alg = header.getAlgorithm().getName();
+        if (StringUtils.isEmpty(alg)) {
+            throw new AssertionValidationException(AuditReason.SIGNATURE_INVALID, "Algorithm must not be null.");
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Signature Algorithm found in the JWT Header: " + alg);
+        }
+        JWSVerifier verifier = null;
+        if (alg.startsWith("RS")) {
+            PublicKey publicKey = x509Certificate.getPublicKey();
+            if (publicKey instanceof RSAPublicKey) {
+                verifier = new RSASSAVerifier((RSAPublicKey) publicKey);
+            } else {
+                throw new AssertionValidationException(AuditReason.SIGNATURE_INVALID,
+                        "Public key is not an RSA public key.");
+            }
+        } else if (log.isDebugEnabled()) {
+            log.debug("Signature Algorithm not supported yet : " + alg);
+        }
+        if (verifier == null) {
+            throw new AssertionValidationException(AuditReason.SIGNATURE_INVALID,
+                    "Could not create a signature verifier for algorithm type: " + alg);
+        }
+        return signedJWT.verify(verifier);
+    }
+
+    private String getJwksUri() {
+        IdentityProviderProperty[] identityProviderProperties = identityProvider.getIdpProperties();
+        if (!ArrayUtils.isEmpty(identityProviderProperties)) {
+            for (IdentityProviderProperty identityProviderProperty : identityProviderProperties) {
+                if (StringUtils.equals(identityProviderProperty.getName(), JWTConstants.JWKS_URI)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("JWKS endpoint set for the identity provider : " +
+                                identityProvider.getIdentityProviderName() + ", jwks_uri : " +
+                                identityProviderProperty.getValue());
+                    }
+                    return identityProviderProperty.getValue();
+                }
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("JWKS endpoint not specified for the identity provider : " +
+                    identityProvider.getIdentityProviderName());
+        }
+        return null;
+    }
+}
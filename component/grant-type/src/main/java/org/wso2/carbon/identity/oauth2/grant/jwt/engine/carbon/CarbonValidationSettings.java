@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon;
+
+import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ValidationSettings;
+
+/**
+ * {@link ValidationSettings} taking the clock skew from the OAuth server configuration and the validity period
+ * from jwt.properties.
+ */
+public class CarbonValidationSettings implements ValidationSettings {
+
+    private final long validityPeriodMillis;
+
+    /**
+     * @param validityPeriodMinutes validity period of assertions, in minutes
+     */
+    public CarbonValidationSettings(int validityPeriodMinutes) {
+        this.validityPeriodMillis = 1000L * 60 * validityPeriodMinutes;
+    }
+
+    @Override
+    public long getTimeStampSkewMillis() {
+        return OAuthServerConfiguration.getInstance().getTimeStampSkewInSeconds() * 1000;
+    }
+
+    @Override
+    public long getValidityPeriodMillis() {
+        return validityPeriodMillis;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.application.common.model.IdentityProviderProperty;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+import org.wso2.carbon.identity.oauth2.grant.jwt.resilience.DependencyGuard;
+import org.wso2.carbon.identity.oauth2.grant.jwt.resilience.DependencyUnavailableException;
+import org.wso2.carbon.identity.oauth2.grant.jwt.resilience.FallbackCache;
+import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
+import org.wso2.carbon.idp.mgt.IdentityProviderManager;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Identity provider lookups of the JWT grant. Without a guard the lookups go straight to the
+ * {@link IdentityProviderManager}. With a guard they run within its latency budget and circuit breaker, and when
+ * the identity provider store is unavailable the last identity provider configuration read successfully is used,
+ * up to the staleness limit of the fallback cache.
+ */
+public class IdentityProviderLookup {
+
+    private static final Log log = LogFactory.getLog(IdentityProviderLookup.class);
+    private static final String RESIDENT_IDP_KEY = "\u0000resident";
+    private static final String DEFAULT_IDP_NAME = "default";
+    private static final IdentityProviderLookup instance = new IdentityProviderLookup();
+    private static final String FALLBACK_CACHE_NAME = "fallback.idp";
+    // Authenticator, provisioning and claim configurations, which vary too much to be weighed one by one.
+    private static final long IDENTITY_PROVIDER_BASE_SIZE = 4096;
+    private static final long IDP_PROPERTY_SIZE = 128;
+
+    private volatile DependencyGuard guard;
+    private volatile FallbackCache<IdentityProvider> fallbackCache;
+
+    private IdentityProviderLookup() {
+    }
+
+    public static IdentityProviderLookup getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param guard              guard of the identity provider store, or null to call it directly
+     * @param maxStalenessMillis how long the last known good identity providers are used with the guard
+     */
+    public void configure(DependencyGuard guard, long maxStalenessMillis) {
+        this.fallbackCache = guard != null ? new FallbackCache<>(FALLBACK_CACHE_NAME, maxStalenessMillis,
+                new Weigher<IdentityProvider>() {
+                    @Override
+                    public long weigh(String key, IdentityProvider identityProvider) {
+                        IdentityProviderProperty[] idpProperties = identityProvider.getIdpProperties();
+                        return IDENTITY_PROVIDER_BASE_SIZE + SizeEstimator.sizeOf(identityProvider.getCertificate()) +
+                                (idpProperties != null ? idpProperties.length * IDP_PROPERTY_SIZE : 0);
+                    }
+                }) : null;
+        this.guard = guard;
+    }
+
+    public IdentityProvider getIdPByName(final String idPName, final String tenantDomain)
+            throws IdentityProviderManagementException {
+        if (guard == null) {
+            return IdentityProviderManager.getInstance().getIdPByName(idPName, tenantDomain);
+        }
+        return call(FallbackCache.buildKey(tenantDomain, idPName), new Callable<IdentityProvider>() {
+            @Override
+            public IdentityProvider call() throws IdentityProviderManagementException {
+                return IdentityProviderManager.getInstance().getIdPByName(idPName, tenantDomain);
+            }
+        });
+    }
+
+    public IdentityProvider getResidentIdP(final String tenantDomain) throws IdentityProviderManagementException {
+        if (guard == null) {
+            return IdentityProviderManager.getInstance().getResidentIdP(tenantDomain);
+        }
+        return call(FallbackCache.buildKey(tenantDomain, RESIDENT_IDP_KEY), new Callable<IdentityProvider>() {
+            @Override
+            public IdentityProvider call() throws IdentityProviderManagementException {
+                return IdentityProviderManager.getInstance().getResidentIdP(tenantDomain);
+            }
+        });
+    }
+
+    /**
+     * @param identityProvider identity provider returned by a lookup
+     * @return whether it is the placeholder the {@link IdentityProviderManager} returns for names that are not
+     * registered
+     */
+    public static boolean isPlaceholder(IdentityProvider identityProvider) {
+        return StringUtils.equalsIgnoreCase(identityProvider.getIdentityProviderName(), DEFAULT_IDP_NAME);
+    }
+
+    /**
+     * Drop the last known good identity providers of the tenant.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void invalidate(String tenantDomain) {
+        FallbackCache<IdentityProvider> cache = fallbackCache;
+        if (cache != null) {
+            cache.invalidate(tenantDomain);
+        }
+    }
+
+    private IdentityProvider call(String key, final Callable<IdentityProvider> lookup)
+            throws IdentityProviderManagementException {
+        // the lookup runs on a guard thread, which needs the carbon context of the request
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        final String contextTenantDomain = carbonContext.getTenantDomain();
+        final int contextTenantId = carbonContext.getTenantId();
+        Throwable failure;
+        try {
+            IdentityProvider identityProvider = guard.call(new Callable<IdentityProvider>() {
+                @Override
+                public IdentityProvider call() throws Exception {
+                    PrivilegedCarbonContext.startTenantFlow();
+                    try {
+                        PrivilegedCarbonContext context = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+                        context.setTenantId(contextTenantId);
+                        context.setTenantDomain(contextTenantDomain);
+                        return lookup.call();
+                    } finally {
+                        PrivilegedCarbonContext.endTenantFlow();
+                    }
+                }
+            });
+            // Unknown names resolve to the placeholder, which is not kept, so that requests naming arbitrary
+            // issuers can not push the registered identity providers out of the fallback cache.
+            if (identityProvider != null && !isPlaceholder(identityProvider)) {
+                fallbackCache.put(key, identityProvider);
+            }
+            return identityProvider;
+        } catch (DependencyUnavailableException e) {
+            failure = e;
+        } catch (ExecutionException e) {
+            failure = e.getCause();
+        }
+
+        IdentityProvider lastKnownGood = fallbackCache.get(key);
+        if (lastKnownGood != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Identity provider store unavailable: " + failure.getMessage() +
+                        ". Using the last known configuration of identity provider: " +
+                        lastKnownGood.getIdentityProviderName());
+            }
+            return lastKnownGood;
+        }
+        if (failure instanceof IdentityProviderManagementException) {
+            throw (IdentityProviderManagementException) failure;
+        }
+        throw new IdentityProviderManagementException("Identity provider store unavailable: " +
+                failure.getMessage(), failure);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon;
+
+import com.nimbusds.jose.JWSHeader;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+
+import java.security.cert.X509Certificate;
+
+/**
+ * Resolves the certificate that signed an assertion of an identity provider.
+ */
+public interface SignerCertificateResolver {
+
+    /**
+     * @param header header of the assertion
+     * @param idp    identity provider that issued the assertion
+     * @return the signer certificate, or null if none is found
+     * @throws IdentityOAuth2Exception if the certificate of the identity provider can not be read
+     */
+    X509Certificate resolveSignerCertificate(JWSHeader header, IdentityProvider idp) throws IdentityOAuth2Exception;
+}
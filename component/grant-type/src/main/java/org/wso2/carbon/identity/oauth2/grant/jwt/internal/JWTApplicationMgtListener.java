@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.internal;
+
+import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.mgt.listener.AbstractApplicationMgtListener;
+import org.wso2.carbon.identity.oauth2.grant.jwt.claim.OIDCClaimMappingCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.client.ClientBindingIndex;
+
+/**
+ * Keeps the state derived from service provider configurations in sync with the service provider store.
+ */
+public class JWTApplicationMgtListener extends AbstractApplicationMgtListener {
+
+    private static final int DEFAULT_ORDER_ID = 60;
+
+    @Override
+    public int getDefaultOrderId() {
+        return DEFAULT_ORDER_ID;
+    }
+
+    @Override
+    public boolean doPostCreateApplication(ServiceProvider serviceProvider, String tenantDomain, String userName)
+            throws IdentityApplicationManagementException {
+        ClientBindingIndex.getInstance().update(tenantDomain, serviceProvider);
+        return true;
+    }
+
+    @Override
+    public boolean doPostUpdateApplication(ServiceProvider serviceProvider, String tenantDomain, String userName)
+            throws IdentityApplicationManagementException {
+        OIDCClaimMappingCache.getInstance().invalidate(tenantDomain);
+        ClientBindingIndex.getInstance().update(tenantDomain, serviceProvider);
+        return true;
+    }
+
+    @Override
+    public boolean doPostDeleteApplication(String applicationName, String tenantDomain, String userName)
+            throws IdentityApplicationManagementException {
+        OIDCClaimMappingCache.getInstance().invalidate(tenantDomain);
+        // Only the name of the deleted service provider is known, so its clients can not be looked up.
+        ClientBindingIndex.getInstance().invalidate(tenantDomain);
+        return true;
+    }
+}
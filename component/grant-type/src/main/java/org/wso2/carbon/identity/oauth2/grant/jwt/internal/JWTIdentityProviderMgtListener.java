@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+package org.wso2.carbon.identity.oauth2.grant.jwt.internal;
+
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.JWTAssertionValidator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.carbon.IdentityProviderLookup;
+import org.wso2.carbon.identity.oauth2.grant.jwt.issuance.TokenReuseIndex;
+import org.wso2.carbon.identity.oauth2.grant.jwt.issuer.KnownIssuerRegistry;
+import org.wso2.carbon.identity.oauth2.grant.jwt.rules.ClaimRuleRegistry;
+import org.wso2.carbon.identity.oauth2.grant.jwt.user.AuthorizedUserCache;
+import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
+import org.wso2.carbon.idp.mgt.listener.AbstractIdentityProviderMgtListener;
+
+/**
+ * Keeps the state derived from identity provider configurations in sync with the identity provider store.
+ */
+public class JWTIdentityProviderMgtListener extends AbstractIdentityProviderMgtListener {
+
+    private static final int DEFAULT_ORDER_ID = 60;
+
+    @Override
+    public int getDefaultOrderId() {
+        return DEFAULT_ORDER_ID;
+    }
+
+    @Override
+    public boolean doPostAddIdP(IdentityProvider identityProvider, String tenantDomain)
+            throws IdentityProviderManagementException {
+        onIdentityProviderChange(tenantDomain);
+        return true;
+    }
+
+    @Override
+    public boolean doPostUpdateIdP(String oldIdPName, IdentityProvider identityProvider, String tenantDomain)
+            throws IdentityProviderManagementException {
+        onIdentityProviderChange(tenantDomain);
+        return true;
+    }
+
+    @Override
+    public boolean doPostDeleteIdP(String idPName, String tenantDomain) throws IdentityProviderManagementException {
+        onIdentityProviderChange(tenantDomain);
+        return true;
+    }
+
+    @Override
+    public boolean doPostUpdateResidentIdP(IdentityProvider identityProvider, String tenantDomain)
+            throws IdentityProviderManagementException {
+        onIdentityProviderChange(tenantDomain);
+        return true;
+    }
+
+    private void onIdentityProviderChange(String tenantDomain) {
+        KnownIssuerRegistry.getInstance().invalidate(tenantDomain);
+        TokenReuseIndex.getInstance().invalidate(tenantDomain);
+        ClaimRuleRegistry.getInstance().invalidate(tenantDomain);
+        AuthorizedUserCache.getInstance().invalidate(tenantDomain);
+        IdentityProviderLookup.getInstance().invalidate(tenantDomain);
+        JWTAssertionValidator.invalidatePlans(tenantDomain);
+    }
+}
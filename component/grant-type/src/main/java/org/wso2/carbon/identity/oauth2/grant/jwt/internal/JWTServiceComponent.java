@@ -20,6 +20,13 @@ package org.wso2.carbon.identity.oauth2.grant.jwt.internal;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
+import org.wso2.carbon.identity.application.mgt.listener.ApplicationMgtListener;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditLogger;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+import org.wso2.carbon.identity.oauth2.grant.jwt.replay.ClusteredReplayStore;
+import org.wso2.carbon.idp.mgt.listener.IdentityProviderMgtListener;
+import org.wso2.carbon.user.core.listener.UserOperationEventListener;
 
 /**
  * @scr.component name="identity.oauth2.grant.jwt.component" immediate="true"
@@ -28,12 +35,24 @@ public class JWTServiceComponent {
     private static Log log = LogFactory.getLog(JWTServiceComponent.class);
 
     protected void activate(ComponentContext ctxt) {
+        ctxt.getBundleContext().registerService(IdentityProviderMgtListener.class.getName(),
+                new JWTIdentityProviderMgtListener(), null);
+        ctxt.getBundleContext().registerService(UserOperationEventListener.class.getName(),
+                new JWTUserOperationEventListener(), null);
+        ctxt.getBundleContext().registerService(ApplicationMgtListener.class.getName(),
+                new JWTApplicationMgtListener(), null);
+        GrantMetrics.getInstance().register();
+        JWTCacheManager.getInstance().register();
         if (log.isDebugEnabled()) {
             log.debug("JWT grant handler is activated");
         }
     }
 
     protected void deactivate(ComponentContext ctxt) {
+        AuditLogger.getInstance().shutdown();
+        ClusteredReplayStore.stopShared();
+        GrantMetrics.getInstance().unregister();
+        JWTCacheManager.getInstance().unregister();
         if (log.isDebugEnabled()) {
             log.debug("JWT grant handler is deactivated");
         }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+package org.wso2.carbon.identity.oauth2.grant.jwt.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.oauth2.grant.jwt.user.AuthorizedUserCache;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.common.AbstractUserOperationEventListener;
+
+/**
+ * Drops the cached authorized users of a tenant when one of its users is deleted.
+ */
+public class JWTUserOperationEventListener extends AbstractUserOperationEventListener {
+
+    private static final Log log = LogFactory.getLog(JWTUserOperationEventListener.class);
+    private static final int EXECUTION_ORDER_ID = 160;
+
+    @Override
+    public int getExecutionOrderId() {
+        return EXECUTION_ORDER_ID;
+    }
+
+    @Override
+    public boolean doPostDeleteUser(String userName, UserStoreManager userStoreManager) throws UserStoreException {
+        String tenantDomain = IdentityTenantUtil.getTenantDomain(userStoreManager.getTenantId());
+        if (log.isDebugEnabled()) {
+            log.debug("User " + userName + " deleted. Clearing the cached authorized users of tenant: " +
+                    tenantDomain);
+        }
+        AuthorizedUserCache.getInstance().invalidate(tenantDomain);
+        return true;
+    }
+}
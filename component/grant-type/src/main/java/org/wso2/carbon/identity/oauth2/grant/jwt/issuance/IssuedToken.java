@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.issuance;
+
+import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenRespDTO;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+
+/**
+ * Snapshot of an access token response issued for a JWT bearer grant, from which a response with the remaining
+ * lifetime can be rebuilt without a token store write. The refresh token is not kept: it may be rotated by a refresh
+ * grant while the access token is still cached, so rebuilt responses carry none.
+ */
+class IssuedToken {
+
+    private final String accessToken;
+    private final String tokenType;
+    private final String authorizedScopes;
+    private final String tokenId;
+    private final long expiryTimeMillis;
+
+    IssuedToken(OAuth2AccessTokenRespDTO responseDTO, long issuedTimeMillis) {
+        this.accessToken = responseDTO.getAccessToken();
+        this.tokenType = responseDTO.getTokenType();
+        this.authorizedScopes = responseDTO.getAuthorizedScopes();
+        this.tokenId = responseDTO.getTokenId();
+        long validityMillis = responseDTO.getExpiresInMillis();
+        this.expiryTimeMillis = validityMillis > Long.MAX_VALUE - issuedTimeMillis ? Long.MAX_VALUE :
+                issuedTimeMillis + validityMillis;
+    }
+
+    String getAccessToken() {
+        return accessToken;
+    }
+
+    long getRemainingMillis(long currentTimeMillis) {
+        return expiryTimeMillis - currentTimeMillis;
+    }
+
+    long estimateSize() {
+        return SizeEstimator.OBJECT_OVERHEAD + SizeEstimator.sizeOf(accessToken, tokenType,
+                authorizedScopes, tokenId);
+    }
+
+    OAuth2AccessTokenRespDTO toResponse(long currentTimeMillis) {
+        long remainingMillis = getRemainingMillis(currentTimeMillis);
+        OAuth2AccessTokenRespDTO responseDTO = new OAuth2AccessTokenRespDTO();
+        responseDTO.setAccessToken(accessToken);
+        responseDTO.setTokenType(tokenType);
+        responseDTO.setAuthorizedScopes(authorizedScopes);
+        responseDTO.setTokenId(tokenId);
+        responseDTO.setExpiresInMillis(remainingMillis);
+        responseDTO.setExpiresIn(remainingMillis / 1000);
+        return responseDTO;
+    }
+}
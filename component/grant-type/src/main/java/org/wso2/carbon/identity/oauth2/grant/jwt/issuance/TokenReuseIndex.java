@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.issuance;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth.common.OAuthConstants;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenRespDTO;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the access tokens issued for JWT bearer grants, keyed by tenant, identity provider, client,
+ * subject and scope. A request whose key has a token with enough remaining lifetime gets a copy of that token instead
+ * of a newly persisted one. Concurrent requests for the same key are coalesced: one of them issues the token and the
+ * others wait for and reuse its result, so a burst of identical requests causes a single token store write. Issued
+ * tokens are held in a cache of the {@link JWTCacheManager} until they expire or are evicted.
+ * <p/>
+ * Before a token is reused its state is read through the OAuth token cache and store, and a token that is no longer
+ * active, e.g. because it was revoked or replaced by a refresh grant, is dropped and a new one issued. Refresh tokens
+ * are never reused, as they may have been rotated since.
+ */
+public class TokenReuseIndex {
+
+    private static final Log log = LogFactory.getLog(TokenReuseIndex.class);
+    private static final TokenReuseIndex instance = new TokenReuseIndex();
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final long COALESCE_WAIT_MILLIS = 5000;
+
+    private final ManagedCache<IssuedToken> issuedTokens;
+    private final ConcurrentMap<String, PendingIssuance> pendingIssuances = new ConcurrentHashMap<>();
+    private final AtomicLong reused;
+    private final AtomicLong coalesced;
+    private final AtomicLong issued;
+    private final AtomicLong inactive;
+
+    private TokenReuseIndex() {
+        issuedTokens = JWTCacheManager.getInstance().getCache("tokenReuse", new Weigher<IssuedToken>() {
+            @Override
+            public long weigh(String key, IssuedToken issuedToken) {
+                return issuedToken.estimateSize();
+            }
+        });
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        reused = metrics.counter("tokenReuse.reused");
+        coalesced = metrics.counter("tokenReuse.coalesced");
+        issued = metrics.counter("tokenReuse.issued");
+        inactive = metrics.counter("tokenReuse.inactive");
+    }
+
+    public static TokenReuseIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * Build the index key of a request. The scopes are sorted so that their order does not matter.
+     */
+    public static String buildKey(String tenantDomain, String identityProviderName, String clientId, String subject,
+                                  String[] scopes) {
+        StringBuilder key = new StringBuilder(128);
+        key.append(tenantDomain).append(KEY_SEPARATOR).append(identityProviderName).append(KEY_SEPARATOR)
+                .append(clientId).append(KEY_SEPARATOR).append(subject);
+        if (scopes != null) {
+            String[] sortedScopes = scopes.clone();
+            Arrays.sort(sortedScopes);
+            for (String scope : sortedScopes) {
+                key.append(KEY_SEPARATOR).append(scope);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Return a still valid token of the key, or issue a new one.
+     *
+     * @param key                index key built with {@link #buildKey}
+     * @param minRemainingMillis minimum remaining lifetime for a token to be reused
+     * @param tokenIssuer        issues a new token when none can be reused
+     * @return the access token response
+     * @throws IdentityOAuth2Exception if issuing a new token fails
+     */
+    public OAuth2AccessTokenRespDTO issue(String key, long minRemainingMillis, TokenIssuer tokenIssuer)
+            throws IdentityOAuth2Exception {
+        OAuth2AccessTokenRespDTO reusable = getReusable(key, minRemainingMillis);
+        if (reusable != null) {
+            reused.incrementAndGet();
+            return reusable;
+        }
+
+        PendingIssuance pendingIssuance = new PendingIssuance();
+        PendingIssuance inProgress = pendingIssuances.putIfAbsent(key, pendingIssuance);
+        if (inProgress != null) {
+            // Another request is issuing a token for the same key. Wait for it, and issue our own token if it fails.
+            if (inProgress.await()) {
+                reusable = getReusable(key, minRemainingMillis);
+                if (reusable != null) {
+                    coalesced.incrementAndGet();
+                    return reusable;
+                }
+            }
+            return issueAndIndex(key, tokenIssuer);
+        }
+        try {
+            return issueAndIndex(key, tokenIssuer);
+        } finally {
+            pendingIssuances.remove(key, pendingIssuance);
+            pendingIssuance.complete();
+        }
+    }
+
+    /**
+     * Drop the tokens of a tenant, for example when one of its identity providers changes.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void invalidate(String tenantDomain) {
+        issuedTokens.invalidate(tenantDomain + KEY_SEPARATOR);
+    }
+
+    private OAuth2AccessTokenRespDTO getReusable(String key, long minRemainingMillis) {
+        IssuedToken issuedToken = issuedTokens.get(key);
+        if (issuedToken == null) {
+            return null;
+        }
+        long currentTimeMillis = System.currentTimeMillis();
+        if (issuedToken.getRemainingMillis(currentTimeMillis) < minRemainingMillis) {
+            return null;
+        }
+        if (!isActive(issuedToken.getAccessToken())) {
+            inactive.incrementAndGet();
+            issuedTokens.remove(key);
+            return null;
+        }
+        return issuedToken.toResponse(currentTimeMillis);
+    }
+
+    /**
+     * @param accessToken access token
+     * @return true if the token store holds the token in the active state
+     */
+    private boolean isActive(String accessToken) {
+        try {
+            AccessTokenDO accessTokenDO = OAuth2Util.getAccessTokenDOfromTokenIdentifier(accessToken);
+            return accessTokenDO != null &&
+                    OAuthConstants.TokenStates.TOKEN_STATE_ACTIVE.equals(accessTokenDO.getTokenState());
+        } catch (IdentityOAuth2Exception | IllegalArgumentException e) {
+            // The token store reports tokens that are not active as invalid.
+            if (log.isDebugEnabled()) {
+                log.debug("Issued access token is no longer active. A new token will be issued.", e);
+            }
+            return false;
+        }
+    }
+
+    private OAuth2AccessTokenRespDTO issueAndIndex(String key, TokenIssuer tokenIssuer)
+            throws IdentityOAuth2Exception {
+        long issuedTimeMillis = System.currentTimeMillis();
+        OAuth2AccessTokenRespDTO responseDTO = tokenIssuer.issue();
+        issued.incrementAndGet();
+        if (responseDTO == null || responseDTO.isError() || responseDTO.getExpiresInMillis() <= 0) {
+            return responseDTO;
+        }
+        IssuedToken issuedToken = new IssuedToken(responseDTO, issuedTimeMillis);
+        issuedTokens.put(key, issuedToken, issuedToken.getRemainingMillis(issuedTimeMillis));
+        return responseDTO;
+    }
+
+    /**
+     * Token issuance in progress for a key, on which concurrent requests for the same key wait.
+     */
+    private static class PendingIssuance {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        boolean await() {
+            try {
+                return latch.await(COALESCE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        void complete() {
+            latch.countDown();
+        }
+    }
+}
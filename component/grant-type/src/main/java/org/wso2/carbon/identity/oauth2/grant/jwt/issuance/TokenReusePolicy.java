@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.issuance;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.application.common.model.IdentityProviderProperty;
+import org.wso2.carbon.identity.oauth2.grant.jwt.JWTConstants;
+
+/**
+ * Token reuse settings of an identity provider. Reuse is opt-in: it applies only to identity providers that set the
+ * {@link JWTConstants#TOKEN_REUSE_IDP_PROPERTY} property to true. A token is reused only while at least the minimum
+ * remaining lifetime is left, which defaults to the global value and can be overridden with the
+ * {@link JWTConstants#TOKEN_REUSE_MIN_LIFETIME_IDP_PROPERTY} property, in seconds.
+ */
+public class TokenReusePolicy {
+
+    private static final Log log = LogFactory.getLog(TokenReusePolicy.class);
+
+    private final boolean enabled;
+    private final long minRemainingMillis;
+
+    private TokenReusePolicy(boolean enabled, long minRemainingMillis) {
+        this.enabled = enabled;
+        this.minRemainingMillis = minRemainingMillis;
+    }
+
+    /**
+     * @param identityProvider          identity provider that issued the assertion
+     * @param defaultMinRemainingMillis minimum remaining lifetime used when the identity provider sets none
+     * @return the token reuse policy of the identity provider
+     */
+    public static TokenReusePolicy of(IdentityProvider identityProvider, long defaultMinRemainingMillis) {
+        boolean enabled = false;
+        long minRemainingMillis = defaultMinRemainingMillis;
+        IdentityProviderProperty[] idpProperties = identityProvider.getIdpProperties();
+        if (idpProperties != null) {
+            for (IdentityProviderProperty idpProperty : idpProperties) {
+                if (JWTConstants.TOKEN_REUSE_IDP_PROPERTY.equals(idpProperty.getName())) {
+                    enabled = Boolean.parseBoolean(idpProperty.getValue());
+                } else if (JWTConstants.TOKEN_REUSE_MIN_LIFETIME_IDP_PROPERTY.equals(idpProperty.getName()) &&
+                        StringUtils.isNotBlank(idpProperty.getValue())) {
+                    try {
+                        minRemainingMillis = Long.parseLong(idpProperty.getValue().trim()) * 1000;
+                    } catch (NumberFormatException e) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Invalid minimum remaining token lifetime configured for identity provider: " +
+                                    identityProvider.getIdentityProviderName(), e);
+                        }
+                    }
+                }
+            }
+        }
+        return new TokenReusePolicy(enabled, minRemainingMillis);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getMinRemainingMillis() {
+        return minRemainingMillis;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.issuer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.model.FederatedAuthenticatorConfig;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.application.common.model.Property;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationManagementUtil;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
+import org.wso2.carbon.idp.mgt.IdentityProviderManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a {@link KnownIssuerSet} per tenant, holding the names of all the registered identity providers and the
+ * entity id of the resident identity provider. Assertions whose issuer is not in the set can be rejected without
+ * calling the identity provider management layer. The set of a tenant is built on first use and dropped whenever an
+ * identity provider of that tenant changes on this node, when its time to live passes, or when the
+ * {@link JWTCacheManager} evicts it. Changes made on other nodes of a cluster are only seen once the time to live
+ * passes, so until then an identity provider added elsewhere is rejected as unknown.
+ * <p>
+ * Only one request per tenant builds the set. Concurrent requests of the tenant wait for it, so that a flood of
+ * assertions arriving while the set is missing reads the identity providers once.
+ */
+public class KnownIssuerRegistry {
+
+    private static final Log log = LogFactory.getLog(KnownIssuerRegistry.class);
+    private static final String OIDC_IDP_ENTITY_ID = "IdPEntityId";
+    private static final KnownIssuerRegistry instance = new KnownIssuerRegistry();
+    // How long a request waits for the issuer set another request of the tenant is building.
+    private static final long LOAD_WAIT_MILLIS = 5000;
+
+    private final ManagedCache<KnownIssuerSet> issuerSets;
+    private final ConcurrentMap<String, PendingLoad> pendingLoads = new ConcurrentHashMap<>();
+    private volatile long timeToLiveMillis = 60000;
+
+    private KnownIssuerRegistry() {
+        issuerSets = JWTCacheManager.getInstance().getCache("knownIssuers", new Weigher<KnownIssuerSet>() {
+            @Override
+            public long weigh(String key, KnownIssuerSet issuerSet) {
+                return issuerSet.estimateSize();
+            }
+        });
+    }
+
+    public static KnownIssuerRegistry getInstance() {
+        return instance;
+    }
+
+    public void configure(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Check whether the issuer belongs to a registered identity provider of the tenant. If the issuer set of the
+     * tenant can not be built, the issuer is treated as known so that the regular identity provider lookup decides.
+     *
+     * @param tenantDomain tenant domain
+     * @param issuer       issuer extracted from the assertion
+     * @return false only if the issuer is certainly not registered in the tenant
+     */
+    public boolean isKnownIssuer(String tenantDomain, String issuer) {
+        KnownIssuerSet issuerSet = issuerSets.get(tenantDomain);
+        if (issuerSet == null) {
+            issuerSet = loadIssuerSet(tenantDomain);
+            if (issuerSet == null) {
+                return true;
+            }
+        }
+        return issuerSet.contains(issuer);
+    }
+
+    /**
+     * Drop the issuer set of the tenant, so that it is rebuilt on the next request.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void invalidate(String tenantDomain) {
+        // A set being built may have read the identity providers before the change, so it is not published.
+        PendingLoad pendingLoad = pendingLoads.remove(tenantDomain);
+        if (pendingLoad != null) {
+            pendingLoad.stale = true;
+        }
+        issuerSets.remove(tenantDomain);
+        if (log.isDebugEnabled()) {
+            log.debug("Known issuers of tenant: " + tenantDomain + " invalidated.");
+        }
+    }
+
+    /**
+     * @return the issuer set of the tenant, or null if it could not be built in time
+     */
+    private KnownIssuerSet loadIssuerSet(String tenantDomain) {
+        PendingLoad pendingLoad = new PendingLoad();
+        PendingLoad inProgress = pendingLoads.putIfAbsent(tenantDomain, pendingLoad);
+        if (inProgress != null) {
+            KnownIssuerSet issuerSet = inProgress.await();
+            if (issuerSet == null && log.isDebugEnabled()) {
+                log.debug("Known issuers of tenant: " + tenantDomain + " were not loaded in time. Skipping the " +
+                        "known issuer check.");
+            }
+            return issuerSet;
+        }
+        try {
+            KnownIssuerSet issuerSet = buildIssuerSet(tenantDomain);
+            if (!pendingLoad.stale) {
+                issuerSets.put(tenantDomain, issuerSet, timeToLiveMillis);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Loaded " + issuerSet.size() + " known issuers for tenant: " + tenantDomain);
+            }
+            pendingLoad.issuerSet = issuerSet;
+            return issuerSet;
+        } catch (IdentityProviderManagementException e) {
+            log.warn("Error while loading the identity providers of tenant: " + tenantDomain +
+                    ". Skipping the known issuer check.", e);
+            return null;
+        } finally {
+            pendingLoads.remove(tenantDomain, pendingLoad);
+            pendingLoad.complete();
+        }
+    }
+
+    private KnownIssuerSet buildIssuerSet(String tenantDomain) throws IdentityProviderManagementException {
+        IdentityProviderManager identityProviderManager = IdentityProviderManager.getInstance();
+        List<String> issuerNames = new ArrayList<>();
+        List<IdentityProvider> identityProviders = identityProviderManager.getIdPs(tenantDomain);
+        if (identityProviders != null) {
+            for (IdentityProvider identityProvider : identityProviders) {
+                issuerNames.add(identityProvider.getIdentityProviderName());
+            }
+        }
+        String residentEntityId = getResidentEntityId(identityProviderManager.getResidentIdP(tenantDomain));
+        if (residentEntityId != null) {
+            issuerNames.add(residentEntityId);
+        }
+        return new KnownIssuerSet(issuerNames);
+    }
+
+    private String getResidentEntityId(IdentityProvider residentIdentityProvider) {
+        if (residentIdentityProvider == null) {
+            return null;
+        }
+        FederatedAuthenticatorConfig oauthAuthenticatorConfig = IdentityApplicationManagementUtil
+                .getFederatedAuthenticator(residentIdentityProvider.getFederatedAuthenticatorConfigs(),
+                        IdentityApplicationConstants.Authenticator.OIDC.NAME);
+        if (oauthAuthenticatorConfig == null) {
+            return null;
+        }
+        Property entityId = IdentityApplicationManagementUtil.getProperty(oauthAuthenticatorConfig.getProperties(),
+                OIDC_IDP_ENTITY_ID);
+        return entityId != null ? entityId.getValue() : null;
+    }
+
+    /**
+     * Issuer set being built for a tenant, on which concurrent requests of the tenant wait.
+     */
+    private static class PendingLoad {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile KnownIssuerSet issuerSet;
+        private volatile boolean stale;
+
+        KnownIssuerSet await() {
+            try {
+                latch.await(LOAD_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return issuerSet;
+        }
+
+        void complete() {
+            latch.countDown();
+        }
+    }
+}
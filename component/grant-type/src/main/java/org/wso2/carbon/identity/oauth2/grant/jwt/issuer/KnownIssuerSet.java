@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.issuer;
+
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable set of the issuer names known to a tenant. Membership is first tested against a Bloom filter, which
+ * answers most lookups for unknown issuers without touching the exact set, and confirmed against a sorted set.
+ * Both parts compare issuers case-insensitively so that the filter never rejects an issuer that the identity
+ * provider store would resolve.
+ */
+public class KnownIssuerSet {
+
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASH_FUNCTIONS = 7;
+    private static final int MIN_BITS = 64;
+    private static final long TREE_NODE_SIZE = 40;
+
+    private final long[] bits;
+    private final int bitCount;
+    private final Set<String> issuers;
+
+    public KnownIssuerSet(Collection<String> issuerNames) {
+        this.issuers = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (String issuerName : issuerNames) {
+            if (issuerName != null) {
+                issuers.add(issuerName);
+            }
+        }
+        int words = (Math.max(MIN_BITS, issuers.size() * BITS_PER_ENTRY) + 63) >>> 6;
+        this.bits = new long[words];
+        this.bitCount = words << 6;
+        for (String issuer : issuers) {
+            int hash1 = hash(issuer, 0x811C9DC5);
+            int hash2 = hash(issuer, 0x5BD1E995);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int index = indexOf(hash1 + i * hash2);
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    /**
+     * @param issuer issuer name taken from the assertion
+     * @return true if the issuer belongs to a registered identity provider of the tenant
+     */
+    public boolean contains(String issuer) {
+        if (issuer == null) {
+            return false;
+        }
+        int hash1 = hash(issuer, 0x811C9DC5);
+        int hash2 = hash(issuer, 0x5BD1E995);
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int index = indexOf(hash1 + i * hash2);
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return issuers.contains(issuer);
+    }
+
+    public int size() {
+        return issuers.size();
+    }
+
+    /**
+     * @return estimated heap footprint of the set in bytes
+     */
+    public long estimateSize() {
+        long size = SizeEstimator.OBJECT_OVERHEAD * 3 + bits.length * 8L;
+        for (String issuer : issuers) {
+            size += TREE_NODE_SIZE + SizeEstimator.sizeOf(issuer);
+        }
+        return size;
+    }
+
+    private int indexOf(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * FNV-1a style hash over the lower-cased characters, so that no lower-cased copy of the issuer is allocated.
+     */
+    private static int hash(String value, int seed) {
+        int hash = seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= Character.toLowerCase(value.charAt(i));
+            hash *= 0x01000193;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.jwe;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEDecrypter;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.crypto.ECDHDecrypter;
+import com.nimbusds.jose.crypto.RSADecrypter;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.core.util.KeyStoreManager;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decrypts nested JWT assertions, i.e. a signed JWT wrapped in a JWE, with the private key of the tenant. The
+ * tenant key is read from the key store once and held in a decrypter per tenant and algorithm, so a request only
+ * pays for the decryption itself. A tenant has a single private key, so the key id of the JWE header is not part of
+ * the cache key and requests can not make the key be read again by varying it. Decrypters are held in a cache of the
+ * {@link JWTCacheManager}. Decryption counts and times are kept per algorithm in {@link GrantMetrics}.
+ * <p/>
+ * Parsing and decryption are separate steps, so that callers can admit the request on the outer header before
+ * spending private key work on it.
+ */
+public class AssertionDecrypter {
+
+    private static final Log log = LogFactory.getLog(AssertionDecrypter.class);
+    private static final AssertionDecrypter instance = new AssertionDecrypter();
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int JWE_PARTS = 5;
+    // The private key and the decrypter holding it.
+    private static final long DECRYPTER_SIZE = 2048;
+
+    private final ManagedCache<CachedDecrypter> decrypters;
+    private final AtomicLong keysResolved;
+
+    private AssertionDecrypter() {
+        decrypters = JWTCacheManager.getInstance().getCache("jweDecrypters", new Weigher<CachedDecrypter>() {
+            @Override
+            public long weigh(String key, CachedDecrypter cachedDecrypter) {
+                return DECRYPTER_SIZE;
+            }
+        });
+        keysResolved = GrantMetrics.getInstance().counter("jwe.keysResolved");
+    }
+
+    public static AssertionDecrypter getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param assertion compact serialized assertion
+     * @return true if the assertion is in the five part JWE compact serialization
+     */
+    public static boolean isEncrypted(String assertion) {
+        int parts = 1;
+        for (int i = 0; i < assertion.length(); i++) {
+            if (assertion.charAt(i) == '.') {
+                parts++;
+            }
+        }
+        return parts == JWE_PARTS;
+    }
+
+    /**
+     * Parse the outer JWE of a nested JWT assertion, without any key work.
+     *
+     * @param assertion compact serialized JWE
+     * @return the parsed JWE
+     * @throws IdentityOAuth2Exception if the assertion is not a JWE or uses an unsupported key management algorithm
+     */
+    public JWEObject parse(String assertion) throws IdentityOAuth2Exception {
+
+        JWEObject jweObject;
+        try {
+            jweObject = JWEObject.parse(assertion);
+        } catch (ParseException e) {
+            throw new IdentityOAuth2Exception("Error while parsing the encrypted JWT: " + e.getMessage(), e);
+        }
+        JWEAlgorithm algorithm = jweObject.getHeader().getAlgorithm();
+        if (!JWEAlgorithm.Family.RSA.contains(algorithm) && !JWEAlgorithm.Family.ECDH_ES.contains(algorithm)) {
+            throw new IdentityOAuth2Exception("Encryption algorithm " + algorithm + " is not supported");
+        }
+        return jweObject;
+    }
+
+    /**
+     * Decrypt a nested JWT assertion.
+     *
+     * @param jweObject    JWE parsed with {@link #parse(String)}
+     * @param tenantDomain tenant whose private key the assertion is encrypted to
+     * @return the signed JWT carried by the JWE
+     * @throws IdentityOAuth2Exception if the assertion can not be decrypted or does not carry a signed JWT
+     */
+    public SignedJWT decrypt(JWEObject jweObject, String tenantDomain) throws IdentityOAuth2Exception {
+
+        JWEHeader header = jweObject.getHeader();
+        CachedDecrypter cachedDecrypter = getDecrypter(tenantDomain, header);
+
+        long start = System.nanoTime();
+        try {
+            jweObject.decrypt(cachedDecrypter.decrypter);
+        } catch (JOSEException e) {
+            throw new IdentityOAuth2Exception("Error while decrypting the JWT with algorithm " + header.getAlgorithm()
+                    + " and encryption method " + header.getEncryptionMethod(), e);
+        }
+        cachedDecrypter.decryptNanos.addAndGet(System.nanoTime() - start);
+        cachedDecrypter.decrypted.incrementAndGet();
+
+        SignedJWT signedJWT = jweObject.getPayload().toSignedJWT();
+        if (signedJWT == null) {
+            throw new IdentityOAuth2Exception("Encrypted JWT does not contain a signed JWT");
+        }
+        return signedJWT;
+    }
+
+    /**
+     * Drop the decrypters of a tenant, e.g. after its key store changed.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void invalidate(String tenantDomain) {
+        decrypters.invalidate(tenantDomain + KEY_SEPARATOR);
+    }
+
+    private CachedDecrypter getDecrypter(String tenantDomain, JWEHeader header) throws IdentityOAuth2Exception {
+
+        JWEAlgorithm algorithm = header.getAlgorithm();
+        String key = tenantDomain + KEY_SEPARATOR + algorithm.getName();
+        CachedDecrypter cachedDecrypter = decrypters.get(key);
+        if (cachedDecrypter != null) {
+            return cachedDecrypter;
+        }
+
+        PrivateKey privateKey = getTenantPrivateKey(tenantDomain);
+        JWEDecrypter decrypter;
+        try {
+            if (JWEAlgorithm.Family.RSA.contains(algorithm) && privateKey instanceof RSAPrivateKey) {
+                decrypter = new RSADecrypter(privateKey);
+            } else if (JWEAlgorithm.Family.ECDH_ES.contains(algorithm) && privateKey instanceof ECPrivateKey) {
+                decrypter = new ECDHDecrypter((ECPrivateKey) privateKey);
+            } else {
+                throw new IdentityOAuth2Exception("Encryption algorithm " + algorithm + " is not supported with the "
+                        + privateKey.getAlgorithm() + " key of tenant " + tenantDomain);
+            }
+        } catch (JOSEException e) {
+            throw new IdentityOAuth2Exception("Error while creating the decrypter for algorithm " + algorithm, e);
+        }
+        keysResolved.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug("Resolved the " + algorithm + " decrypter of tenant " + tenantDomain);
+        }
+
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        cachedDecrypter = new CachedDecrypter(decrypter, metrics.counter("jwe." + algorithm.getName() + ".decrypted"),
+                metrics.counter("jwe." + algorithm.getName() + ".decryptNanos"));
+        decrypters.put(key, cachedDecrypter);
+        return cachedDecrypter;
+    }
+
+    private PrivateKey getTenantPrivateKey(String tenantDomain) throws IdentityOAuth2Exception {
+
+        try {
+            int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+            KeyStoreManager keyStoreManager = KeyStoreManager.getInstance(tenantId);
+            if (MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equals(tenantDomain)) {
+                return keyStoreManager.getDefaultPrivateKey();
+            }
+            // Tenant key stores are named after the tenant domain and hold a single key aliased by the domain.
+            String keyStoreName = tenantDomain.trim().replace(".", "-") + ".jks";
+            Key key = keyStoreManager.getPrivateKey(keyStoreName, tenantDomain);
+            if (!(key instanceof PrivateKey)) {
+                throw new IdentityOAuth2Exception("Private key of tenant " + tenantDomain + " is not available");
+            }
+            return (PrivateKey) key;
+        } catch (IdentityOAuth2Exception e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IdentityOAuth2Exception("Error while obtaining the private key of tenant " + tenantDomain, e);
+        }
+    }
+
+    private static class CachedDecrypter {
+
+        private final JWEDecrypter decrypter;
+        private final AtomicLong decrypted;
+        private final AtomicLong decryptNanos;
+
+        private CachedDecrypter(JWEDecrypter decrypter, AtomicLong decrypted, AtomicLong decryptNanos) {
+            this.decrypter = decrypter;
+            this.decrypted = decrypted;
+            this.decryptNanos = decryptNanos;
+        }
+    }
+}
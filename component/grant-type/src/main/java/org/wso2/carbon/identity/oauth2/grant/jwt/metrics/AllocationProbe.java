@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.JWTConstants;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the bytes a sample of the grant validations allocate, using the per thread allocation counter of the
+ * HotSpot {@link ThreadMXBean}. The sampled bytes and the number of samples are published as the
+ * validateGrant.sampledBytes and validateGrant.samples metrics, so that their ratio is the allocation per validated
+ * grant, and samples above the allocation budget are counted in validateGrant.overBudget. A sample includes a few
+ * dozen bytes allocated by the probe itself.
+ * <p/>
+ * The HotSpot extension of the bean is looked up reflectively, since com.sun.management is not exported to bundles;
+ * on other virtual machines the probe is not created.
+ */
+public class AllocationProbe {
+
+    /**
+     * Returned by {@link #start()} when the current call is not sampled.
+     */
+    public static final long NOT_SAMPLED = -1;
+
+    private static final Log log = LogFactory.getLog(AllocationProbe.class);
+    private static final String HOTSPOT_THREAD_MX_BEAN = "com.sun.management.ThreadMXBean";
+
+    private final ThreadMXBean threadMXBean;
+    private final Method allocatedBytesMethod;
+    private final int sampleInterval;
+    private final long budgetBytes;
+    private final AtomicLong samples;
+    private final AtomicLong sampledBytes;
+    private final AtomicLong overBudget;
+
+    private AllocationProbe(ThreadMXBean threadMXBean, Method allocatedBytesMethod, int sampleInterval,
+                            long budgetBytes) {
+        this.threadMXBean = threadMXBean;
+        this.allocatedBytesMethod = allocatedBytesMethod;
+        this.sampleInterval = sampleInterval;
+        this.budgetBytes = budgetBytes;
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        this.samples = metrics.counter("validateGrant.samples");
+        this.sampledBytes = metrics.counter("validateGrant.sampledBytes");
+        this.overBudget = metrics.counter("validateGrant.overBudget");
+    }
+
+    /**
+     * @param properties JWT grant properties
+     * @return the probe, or null if it is disabled or the virtual machine does not count allocated bytes per thread
+     */
+    public static AllocationProbe fromProperties(Properties properties) {
+        if (!Boolean.parseBoolean(properties.getProperty(JWTConstants.ALLOCATION_PROBE_ENABLED))) {
+            return null;
+        }
+        int sampleInterval = Integer.parseInt(
+                properties.getProperty(JWTConstants.ALLOCATION_PROBE_SAMPLE_INTERVAL, "100"));
+        long budgetBytes = Long.parseLong(properties.getProperty(JWTConstants.ALLOCATION_BUDGET, "65536"));
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("Allocation probe sample interval must be positive: " +
+                    sampleInterval);
+        }
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        try {
+            Class<?> hotSpotType = Class.forName(HOTSPOT_THREAD_MX_BEAN, false, ClassLoader.getSystemClassLoader());
+            if (hotSpotType.isInstance(threadMXBean) &&
+                    (Boolean) hotSpotType.getMethod("isThreadAllocatedMemorySupported").invoke(threadMXBean) &&
+                    (Boolean) hotSpotType.getMethod("isThreadAllocatedMemoryEnabled").invoke(threadMXBean)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Sampling the allocation of one in " + sampleInterval + " grant validations against a " +
+                            "budget of " + budgetBytes + " bytes.");
+                }
+                return new AllocationProbe(threadMXBean, hotSpotType.getMethod("getThreadAllocatedBytes", long.class),
+                        sampleInterval, budgetBytes);
+            }
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException |
+                InvocationTargetException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Per thread allocation counter is not available", e);
+            }
+        }
+        log.warn("Per thread allocation counting is not supported by this virtual machine. Allocation probe disabled.");
+        return null;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far if this call is sampled, otherwise
+     * {@link #NOT_SAMPLED}
+     */
+    public long start() {
+        if (ThreadLocalRandom.current().nextInt(sampleInterval) != 0) {
+            return NOT_SAMPLED;
+        }
+        return allocatedBytes();
+    }
+
+    /**
+     * Record the bytes allocated since {@link #start()}.
+     *
+     * @param startBytes value returned by {@link #start()}
+     */
+    public void stop(long startBytes) {
+        if (startBytes < 0) {
+            return;
+        }
+        long endBytes = allocatedBytes();
+        if (endBytes < 0) {
+            return;
+        }
+        long bytes = endBytes - startBytes;
+        samples.incrementAndGet();
+        sampledBytes.addAndGet(bytes);
+        if (budgetBytes > 0 && bytes > budgetBytes) {
+            overBudget.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("Grant validation allocated " + bytes + " bytes, over the budget of " + budgetBytes +
+                        " bytes.");
+            }
+        }
+    }
+
+    private long allocatedBytes() {
+        try {
+            return (Long) allocatedBytesMethod.invoke(threadMXBean, Thread.currentThread().getId());
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            return NOT_SAMPLED;
+        }
+    }
+}
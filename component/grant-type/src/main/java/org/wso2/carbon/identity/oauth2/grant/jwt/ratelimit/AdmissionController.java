@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.ratelimit;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.application.common.model.IdentityProviderProperty;
+import org.wso2.carbon.identity.oauth2.grant.jwt.JWTConstants;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for JWT bearer grant requests. Every request takes a permit from the bucket of its issuer, its
+ * OAuth client and its tenant as soon as the assertion claims are read, so that rejected requests cost neither an
+ * identity provider lookup nor a signature verification. A request rejected by one of these buckets gives back the
+ * permits it took from the others.
+ * <p/>
+ * Encrypted assertions first take a permit from the decryption bucket of their tenant and client. This bucket is
+ * checked before the assertion is decrypted, since its issuer is only known after the private key work.
+ * <p/>
+ * The issuer limit defaults to the configured global value and can be overridden per identity provider with the
+ * {@link JWTConstants#RATE_LIMIT_IDP_PROPERTY} and {@link JWTConstants#RATE_LIMIT_BURST_IDP_PROPERTY} properties.
+ * An override takes effect once the identity provider has been resolved for a request of that issuer.
+ */
+public class AdmissionController {
+
+    private static final Log log = LogFactory.getLog(AdmissionController.class);
+    private static final String KEY_SEPARATOR = "|";
+
+    private final RateLimiter issuerLimiter;
+    private final RateLimiter clientLimiter;
+    private final RateLimiter tenantLimiter;
+    private final RateLimiter decryptionLimiter;
+
+    public AdmissionController(RateLimit issuerLimit, RateLimit clientLimit, RateLimit tenantLimit,
+                               RateLimit decryptionLimit, int maxKeys, long idleTimeoutNanos) {
+        this.issuerLimiter = createLimiter(RateLimitScope.ISSUER, issuerLimit, maxKeys, idleTimeoutNanos);
+        this.clientLimiter = createLimiter(RateLimitScope.CLIENT, clientLimit, maxKeys, idleTimeoutNanos);
+        this.tenantLimiter = createLimiter(RateLimitScope.TENANT, tenantLimit, maxKeys, idleTimeoutNanos);
+        this.decryptionLimiter = createLimiter(RateLimitScope.DECRYPTION, decryptionLimit, maxKeys,
+                idleTimeoutNanos);
+    }
+
+    /**
+     * Build the admission controller from the grant handler configuration.
+     *
+     * @param properties grant handler properties
+     * @return admission controller, or null if rate limiting is disabled
+     */
+    public static AdmissionController fromProperties(Properties properties) {
+        if (!Boolean.parseBoolean(properties.getProperty(JWTConstants.RATE_LIMIT_ENABLED))) {
+            return null;
+        }
+        RateLimit issuerLimit = new RateLimit(
+                Double.parseDouble(properties.getProperty(JWTConstants.ISSUER_RATE_LIMIT, "500")),
+                Integer.parseInt(properties.getProperty(JWTConstants.ISSUER_RATE_LIMIT_BURST, "1000")));
+        RateLimit clientLimit = new RateLimit(
+                Double.parseDouble(properties.getProperty(JWTConstants.CLIENT_RATE_LIMIT, "100")),
+                Integer.parseInt(properties.getProperty(JWTConstants.CLIENT_RATE_LIMIT_BURST, "200")));
+        RateLimit tenantLimit = new RateLimit(
+                Double.parseDouble(properties.getProperty(JWTConstants.TENANT_RATE_LIMIT, "2000")),
+                Integer.parseInt(properties.getProperty(JWTConstants.TENANT_RATE_LIMIT_BURST, "4000")));
+        RateLimit decryptionLimit = new RateLimit(
+                Double.parseDouble(properties.getProperty(JWTConstants.DECRYPTION_RATE_LIMIT, "50")),
+                Integer.parseInt(properties.getProperty(JWTConstants.DECRYPTION_RATE_LIMIT_BURST, "100")));
+        int maxKeys = Integer.parseInt(properties.getProperty(JWTConstants.RATE_LIMIT_MAX_KEYS, "10000"));
+        long idleTimeoutNanos = TimeUnit.SECONDS.toNanos(
+                Long.parseLong(properties.getProperty(JWTConstants.RATE_LIMIT_IDLE_TIMEOUT, "300")));
+        if (log.isDebugEnabled()) {
+            log.debug("Rate limiting enabled. Issuer: " + issuerLimit + ", Client: " + clientLimit + ", Tenant: " +
+                    tenantLimit + ", Decryption: " + decryptionLimit);
+        }
+        return new AdmissionController(issuerLimit, clientLimit, tenantLimit, decryptionLimit, maxKeys,
+                idleTimeoutNanos);
+    }
+
+    /**
+     * Take a permit for the request from the issuer, client and tenant buckets.
+     *
+     * @param tenantDomain tenant domain
+     * @param issuer       issuer of the assertion
+     * @param clientId     OAuth client id of the request
+     * @return null if the request is admitted, otherwise the scope whose limit was exceeded
+     */
+    public RateLimitScope tryAdmit(String tenantDomain, String issuer, String clientId) {
+        long nowNanos = System.nanoTime();
+        String issuerKey = tenantDomain + KEY_SEPARATOR + issuer;
+        if (!issuerLimiter.tryAcquire(issuerKey, nowNanos)) {
+            return RateLimitScope.ISSUER;
+        }
+        String clientKey = clientId != null ? tenantDomain + KEY_SEPARATOR + clientId : null;
+        if (clientKey != null && !clientLimiter.tryAcquire(clientKey, nowNanos)) {
+            issuerLimiter.release(issuerKey);
+            return RateLimitScope.CLIENT;
+        }
+        if (!tenantLimiter.tryAcquire(tenantDomain, nowNanos)) {
+            issuerLimiter.release(issuerKey);
+            if (clientKey != null) {
+                clientLimiter.release(clientKey);
+            }
+            return RateLimitScope.TENANT;
+        }
+        return null;
+    }
+
+    /**
+     * Take a permit for decrypting an encrypted assertion of the request.
+     *
+     * @param tenantDomain tenant domain
+     * @param clientId     OAuth client id of the request
+     * @return true if the assertion may be decrypted
+     */
+    public boolean tryAdmitDecryption(String tenantDomain, String clientId) {
+        return decryptionLimiter.tryAcquire(tenantDomain + KEY_SEPARATOR + clientId, System.nanoTime());
+    }
+
+    /**
+     * Apply the issuer limit configured on the identity provider, if any.
+     *
+     * @param tenantDomain     tenant domain
+     * @param issuer           issuer of the assertion
+     * @param identityProvider identity provider resolved for the issuer
+     */
+    public void applyIdentityProviderLimit(String tenantDomain, String issuer, IdentityProvider identityProvider) {
+        String permits = null;
+        String burst = null;
+        IdentityProviderProperty[] idpProperties = identityProvider.getIdpProperties();
+        if (idpProperties != null) {
+            for (IdentityProviderProperty idpProperty : idpProperties) {
+                if (JWTConstants.RATE_LIMIT_IDP_PROPERTY.equals(idpProperty.getName())) {
+                    permits = idpProperty.getValue();
+                } else if (JWTConstants.RATE_LIMIT_BURST_IDP_PROPERTY.equals(idpProperty.getName())) {
+                    burst = idpProperty.getValue();
+                }
+            }
+        }
+
+        String key = tenantDomain + KEY_SEPARATOR + issuer;
+        RateLimit current = issuerLimiter.getRateLimit(key);
+        if (current == null) {
+            return;
+        }
+        RateLimit configured = issuerLimiter.getDefaultLimit();
+        if (StringUtils.isNotBlank(permits)) {
+            try {
+                double permitsPerSecond = Double.parseDouble(permits.trim());
+                int burstSize = StringUtils.isNotBlank(burst) ? Integer.parseInt(burst.trim()) :
+                        (int) Math.ceil(permitsPerSecond);
+                if (current.getPermitsPerSecond() == permitsPerSecond && current.getBurst() == burstSize) {
+                    return;
+                }
+                configured = new RateLimit(permitsPerSecond, burstSize);
+            } catch (IllegalArgumentException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Invalid rate limit configured for identity provider: " +
+                            identityProvider.getIdentityProviderName() + ". Using the default issuer limit.", e);
+                }
+            }
+        }
+        if (current != configured) {
+            issuerLimiter.setRateLimit(key, configured);
+            if (log.isDebugEnabled()) {
+                log.debug("Rate limit of issuer: " + issuer + " in tenant: " + tenantDomain + " set to " +
+                        configured);
+            }
+        }
+    }
+
+    private static RateLimiter createLimiter(RateLimitScope scope, RateLimit rateLimit, int maxKeys,
+                                             long idleTimeoutNanos) {
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        return new RateLimiter(scope.getScopeName(), rateLimit, maxKeys, idleTimeoutNanos,
+                metrics.counter("rateLimit." + scope.getScopeName() + ".rejected"),
+                metrics.counter("rateLimit." + scope.getScopeName() + ".evicted"));
+    }
+}
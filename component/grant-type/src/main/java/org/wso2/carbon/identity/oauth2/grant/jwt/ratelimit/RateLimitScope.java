@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.ratelimit;
+
+/**
+ * The dimensions on which JWT bearer grant requests are rate limited.
+ */
+public enum RateLimitScope {
+
+    ISSUER("issuer"),
+    CLIENT("client"),
+    TENANT("tenant"),
+    DECRYPTION("decryption");
+
+    private final String scopeName;
+    private final String rejectionMessage;
+
+    RateLimitScope(String scopeName) {
+        this.scopeName = scopeName;
+        this.rejectionMessage = "Rate limit exceeded for the " + scopeName + " of the JWT";
+    }
+
+    public String getScopeName() {
+        return scopeName;
+    }
+
+    /**
+     * @return message of the assertions rejected by the limit of the scope, built once since rejections come in
+     * bursts
+     */
+    public String getRejectionMessage() {
+        return rejectionMessage;
+    }
+}
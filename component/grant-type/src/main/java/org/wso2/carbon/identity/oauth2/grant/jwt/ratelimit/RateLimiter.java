@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.ratelimit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A set of {@link TokenBucket}s keyed by an arbitrary string. The number of buckets is bounded: buckets that have not
+ * been used for the idle timeout are evicted by a sweep that piggybacks on regular requests, and once the bound is
+ * reached the least recently used buckets are evicted to make room for new keys, so that rotating key values can not
+ * get past the limiter. Evictions are done in batches to spread the cost of the scan over many new keys.
+ */
+public class RateLimiter {
+
+    private static final Log log = LogFactory.getLog(RateLimiter.class);
+    private static final int EVICTION_BATCH_DIVISOR = 100;
+    private static final Comparator<Map.Entry<String, TokenBucket>> MOST_RECENTLY_USED_FIRST =
+            new Comparator<Map.Entry<String, TokenBucket>>() {
+                @Override
+                public int compare(Map.Entry<String, TokenBucket> first, Map.Entry<String, TokenBucket> second) {
+                    long difference = first.getValue().getLastAccessNanos() - second.getValue().getLastAccessNanos();
+                    return difference > 0 ? -1 : (difference < 0 ? 1 : 0);
+                }
+            };
+
+    private final String name;
+    private final RateLimit defaultLimit;
+    private final int maxKeys;
+    private final long idleTimeoutNanos;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong rejected;
+    private final AtomicLong evicted;
+
+    public RateLimiter(String name, RateLimit defaultLimit, int maxKeys, long idleTimeoutNanos, AtomicLong rejected,
+                       AtomicLong evicted) {
+        this.name = name;
+        this.defaultLimit = defaultLimit;
+        this.maxKeys = maxKeys;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.nextSweepNanos = new AtomicLong(System.nanoTime() + idleTimeoutNanos);
+        this.rejected = rejected;
+        this.evicted = evicted;
+    }
+
+    /**
+     * Take a permit for the key.
+     *
+     * @param key      limiter key
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return true if the request is admitted
+     */
+    public boolean tryAcquire(String key, long nowNanos) {
+        long nextSweep = nextSweepNanos.get();
+        if (nowNanos - nextSweep > 0 && nextSweepNanos.compareAndSet(nextSweep, nowNanos + idleTimeoutNanos)) {
+            sweep(nowNanos);
+        }
+        if (getOrCreateBucket(key, nowNanos).tryAcquire(nowNanos)) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Give back a permit taken by {@link #tryAcquire(String, long)}, when the request was rejected by another limit.
+     *
+     * @param key limiter key
+     */
+    public void release(String key) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.release();
+        }
+    }
+
+    /**
+     * Override the limit of a single key. Passing null restores the default limit.
+     *
+     * @param key       limiter key
+     * @param rateLimit limit of the key
+     */
+    public void setRateLimit(String key, RateLimit rateLimit) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.setRateLimit(rateLimit != null ? rateLimit : defaultLimit);
+        }
+    }
+
+    /**
+     * @param key limiter key
+     * @return the limit currently applied to the key, or null if the key has no bucket
+     */
+    public RateLimit getRateLimit(String key) {
+        TokenBucket bucket = buckets.get(key);
+        return bucket != null ? bucket.getRateLimit() : null;
+    }
+
+    public RateLimit getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private TokenBucket getOrCreateBucket(String key, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            sweep(nowNanos);
+            if (buckets.size() >= maxKeys) {
+                evictLeastRecentlyUsed();
+            }
+        }
+        TokenBucket newBucket = new TokenBucket(defaultLimit, nowNanos);
+        bucket = buckets.putIfAbsent(key, newBucket);
+        return bucket != null ? bucket : newBucket;
+    }
+
+    private void sweep(long nowNanos) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int evicted = 0;
+            Iterator<TokenBucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (nowNanos - iterator.next().getLastAccessNanos() > idleTimeoutNanos) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+            if (log.isDebugEnabled() && evicted > 0) {
+                log.debug("Evicted " + evicted + " idle buckets from the " + name + " rate limiter.");
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Evict a batch of the least recently used buckets. Concurrent callers do not wait for the eviction, so the
+     * bound may be exceeded by the number of keys created meanwhile.
+     */
+    private void evictLeastRecentlyUsed() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int batchSize = Math.max(1, maxKeys / EVICTION_BATCH_DIVISOR);
+            PriorityQueue<Map.Entry<String, TokenBucket>> oldest = new PriorityQueue<>(batchSize,
+                    MOST_RECENTLY_USED_FIRST);
+            for (Map.Entry<String, TokenBucket> entry : buckets.entrySet()) {
+                if (oldest.size() < batchSize) {
+                    oldest.add(entry);
+                } else if (MOST_RECENTLY_USED_FIRST.compare(entry, oldest.peek()) > 0) {
+                    oldest.poll();
+                    oldest.add(entry);
+                }
+            }
+            for (Map.Entry<String, TokenBucket> entry : oldest) {
+                buckets.remove(entry.getKey(), entry.getValue());
+            }
+            evicted.addAndGet(oldest.size());
+            if (log.isDebugEnabled()) {
+                log.debug("Evicted the " + oldest.size() + " least recently used buckets from the " + name +
+                        " rate limiter.");
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The bucket is kept as a single theoretical arrival time (the generic cell rate
+ * algorithm), so taking a permit is one compare-and-set and refilling needs no background work.
+ */
+public class TokenBucket {
+
+    private final AtomicLong theoreticalArrivalTime;
+    private volatile RateLimit rateLimit;
+    private volatile long lastAccessNanos;
+
+    public TokenBucket(RateLimit rateLimit, long nowNanos) {
+        this.rateLimit = rateLimit;
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+        this.lastAccessNanos = nowNanos;
+    }
+
+    /**
+     * Take a permit from the bucket.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return true if a permit was available
+     */
+    public boolean tryAcquire(long nowNanos) {
+        lastAccessNanos = nowNanos;
+        RateLimit limit = rateLimit;
+        while (true) {
+            long arrivalTime = theoreticalArrivalTime.get();
+            long base = arrivalTime - nowNanos > 0 ? arrivalTime : nowNanos;
+            if (base - nowNanos > limit.getBurstToleranceNanos()) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, base + limit.getEmissionIntervalNanos())) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a permit taken by {@link #tryAcquire(long)}.
+     */
+    public void release() {
+        theoreticalArrivalTime.addAndGet(-rateLimit.getEmissionIntervalNanos());
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+}
@@ -0,0 +1,647 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.replay;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.JWTConstants;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.InMemoryReplayStore;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ReplayStore;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ValidationSettings;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * {@link ReplayStore} partitioned over the members of a cluster. Every JWT id has a single owner, picked on a
+ * {@link HashRing}, which makes the check and the update atomic across the cluster: the owner records the JWT id in
+ * its {@link InMemoryReplayStore}, and the other members ask the owner over the {@link ReplayProtocol}.
+ * <p/>
+ * The ring holds the configured members that can be reached. A member that stops tells the others, after handing its
+ * live records over, and they take it off their rings at once. A member that can not be reached for the failure
+ * timeout is taken off the ring too, losing the records it owned, and is put back once a new connection to it is
+ * opened. The configured members can be changed over JMX through {@link ReplayClusterMXBean}.
+ * <p/>
+ * When the ring changes, only the JWT ids of the moved key ranges change owner. Each member pushes the live records
+ * it owned in those ranges to their new owners, and for a handoff period JWT ids are recorded at both their previous
+ * and their new owner, so an assertion replayed while records are in transit is still rejected.
+ * <p/>
+ * If an owner can not be reached in time the assertion is rejected, since two members recording the same JWT id
+ * locally would both accept it. Until a failed member is taken off the ring, that rejects the JWT ids it owns, about
+ * one in the number of members. The local fallback restores availability at the cost of that guarantee, and is only
+ * used when configured. Members may also see a failure at slightly different times, and while their rings differ a
+ * JWT id can be recorded at two owners.
+ * <p/>
+ * Records are kept for at most the validity period plus the clock skew, which bounds the memory a member can be made
+ * to hold. Assertions expiring later are rejected, as their JWT id could not be remembered until they expire. So are
+ * JWT ids longer than {@link ReplayProtocol#MAX_JTI_SIZE} bytes, which can not be sent to their owner.
+ */
+public class ClusteredReplayStore implements ReplayStore, ReplayClusterMXBean {
+
+    private static final Log log = LogFactory.getLog(ClusteredReplayStore.class);
+    private static final int QUEUED_BATCHES_PER_PEER = 16;
+    private static final String FALLBACK_REJECT = "reject";
+    private static final String FALLBACK_LOCAL = "local";
+    private static final String OBJECT_NAME = "org.wso2.carbon.identity.oauth2.grant.jwt:type=ReplayCluster";
+    private static final long MEMBER_CHECK_INTERVAL_MILLIS = 500;
+
+    private static ClusteredReplayStore shared;
+
+    private final String localMember;
+    private final InMemoryReplayStore localStore;
+    private final byte[] secret;
+    private final ValidationSettings validationSettings;
+    private final boolean localFallback;
+    private final ReplayPeerServer server;
+    private final int virtualNodes;
+    private final int maxBatchSize;
+    private final long requestTimeoutMillis;
+    private final long handoffMillis;
+    private final long failureTimeoutMillis;
+    private final ConcurrentMap<String, ReplayPeer> peers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService maintenance;
+    private final AtomicLong localRecords;
+    private final AtomicLong remoteRecords;
+    private final AtomicLong unavailable;
+    private final AtomicLong fallbacks;
+    private final AtomicLong lifetimeExceeded;
+    private final AtomicLong oversizeJtis;
+    private final AtomicLong transferred;
+    private final AtomicLong batches;
+    private volatile Topology topology;
+    private Set<String> configuredMembers;
+    // Configured members taken off the ring, with the number of connections opened to them when they were.
+    private final Map<String, Long> excludedMembers = new HashMap<>();
+
+    /**
+     * The current ring and, during a handoff, the ring it replaced.
+     */
+    private static final class Topology {
+
+        private final HashRing ring;
+        private final HashRing previousRing;
+        private final long handoffDeadlineMillis;
+
+        private Topology(HashRing ring, HashRing previousRing, long handoffDeadlineMillis) {
+            this.ring = ring;
+            this.previousRing = previousRing;
+            this.handoffDeadlineMillis = handoffDeadlineMillis;
+        }
+
+        private HashRing previousRing(long nowMillis) {
+            return previousRing != null && nowMillis < handoffDeadlineMillis ? previousRing : null;
+        }
+    }
+
+    /**
+     * @param localMember          id of this member, as the host:port the other members connect to
+     * @param members              ids of all members, with or without this member
+     * @param bindAddress          address the peer server listens on
+     * @param localStore           store of the JWT ids this member owns
+     * @param secret               secret shared by the members, authenticating every frame between them
+     * @param validationSettings   validity period and clock skew of assertions, which bound the record lifetime
+     * @param localFallback        record JWT ids locally when their owner can not be reached, instead of rejecting
+     * @param virtualNodes         positions of each member on the ring
+     * @param maxBatchSize         largest number of JWT ids sent to a member in one frame
+     * @param requestTimeoutMillis longest time to wait for the owner of a JWT id
+     * @param handoffMillis        time JWT ids are also recorded at their previous owner after the members change
+     * @param failureTimeoutMillis time a member can not be reached before it is taken off the ring
+     */
+    public ClusteredReplayStore(String localMember, Collection<String> members, InetSocketAddress bindAddress,
+                                InMemoryReplayStore localStore, byte[] secret, ValidationSettings validationSettings,
+                                boolean localFallback, int virtualNodes, int maxBatchSize, long requestTimeoutMillis,
+                                long handoffMillis, long failureTimeoutMillis) {
+        if (virtualNodes < 1 || maxBatchSize < 1 || requestTimeoutMillis < 1 || handoffMillis < 0 ||
+                failureTimeoutMillis < 1) {
+            throw new IllegalArgumentException("Invalid replay cluster settings. Virtual nodes: " + virtualNodes +
+                    ", batch size: " + maxBatchSize + ", request timeout: " + requestTimeoutMillis +
+                    ", handoff period: " + handoffMillis + ", failure timeout: " + failureTimeoutMillis);
+        }
+        if (secret == null || secret.length < ReplayProtocol.MIN_SECRET_SIZE) {
+            throw new IllegalArgumentException("The replay cluster secret must be at least " +
+                    ReplayProtocol.MIN_SECRET_SIZE + " bytes long");
+        }
+        ReplayPeer.parseAddress(localMember);
+        this.localMember = localMember;
+        this.configuredMembers = memberSet(members);
+        this.localStore = localStore;
+        this.secret = secret.clone();
+        this.validationSettings = validationSettings;
+        this.localFallback = localFallback;
+        this.virtualNodes = virtualNodes;
+        this.maxBatchSize = maxBatchSize;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.handoffMillis = handoffMillis;
+        this.failureTimeoutMillis = failureTimeoutMillis;
+        this.server = new ReplayPeerServer(bindAddress, this.secret, new ReplayPeerServer.RequestHandler() {
+            // Members check the lifetime before sending. These limits, which allow for another clock skew between
+            // the members, keep a misbehaving member from pinning records or expiring live ones.
+            @Override
+            public boolean record(String jti, long expiryTimeMillis, long referenceTimeMillis) {
+                long nowMillis = System.currentTimeMillis();
+                long skewMillis = ClusteredReplayStore.this.validationSettings.getTimeStampSkewMillis();
+                return ClusteredReplayStore.this.localStore.recordIfAbsent(jti,
+                        Math.min(expiryTimeMillis, maxExpiryTimeMillis(nowMillis + skewMillis)),
+                        Math.min(referenceTimeMillis, nowMillis + 2 * skewMillis));
+            }
+
+            @Override
+            public void restore(String jti, long expiryTimeMillis) {
+                long skewMillis = ClusteredReplayStore.this.validationSettings.getTimeStampSkewMillis();
+                ClusteredReplayStore.this.localStore.restore(jti,
+                        Math.min(expiryTimeMillis, maxExpiryTimeMillis(System.currentTimeMillis() + skewMillis)));
+            }
+
+            @Override
+            public void leave(final String member) {
+                // The ring is changed under the lock of the store, which the selector thread must not wait for.
+                try {
+                    maintenance.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            onLeave(member);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Ignoring leave of replay cluster member " + member + " while stopping");
+                    }
+                }
+            }
+        });
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "jwt-replay-cluster-" + ClusteredReplayStore.this.localMember);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        this.localRecords = metrics.counter("replay.cluster.local");
+        this.remoteRecords = metrics.counter("replay.cluster.remote");
+        this.unavailable = metrics.counter("replay.cluster.unavailable");
+        this.fallbacks = metrics.counter("replay.cluster.fallback");
+        this.lifetimeExceeded = metrics.counter("replay.cluster.lifetimeExceeded");
+        this.oversizeJtis = metrics.counter("replay.cluster.oversizeJti");
+        this.transferred = metrics.counter("replay.cluster.transferred");
+        this.batches = metrics.counter("replay.cluster.batches");
+    }
+
+    /**
+     * @param properties         JWT grant properties
+     * @param validationSettings validity period and clock skew of assertions
+     * @return the store described by the properties, not yet started
+     */
+    public static ClusteredReplayStore fromProperties(Properties properties, ValidationSettings validationSettings) {
+        String localMember = properties.getProperty(JWTConstants.REPLAY_CLUSTER_LOCAL_MEMBER);
+        if (StringUtils.isBlank(localMember)) {
+            throw new IllegalArgumentException(JWTConstants.REPLAY_CLUSTER_LOCAL_MEMBER + " is required when " +
+                    JWTConstants.CLUSTERED_REPLAY_ENABLED + " is set");
+        }
+        localMember = localMember.trim();
+        List<String> members = parseMembers(properties.getProperty(JWTConstants.REPLAY_CLUSTER_MEMBERS, ""));
+        InetSocketAddress localAddress = ReplayPeer.parseAddress(localMember);
+        String bindHost = properties.getProperty(JWTConstants.REPLAY_CLUSTER_BIND_ADDRESS);
+        InetSocketAddress bindAddress = StringUtils.isBlank(bindHost) ? localAddress :
+                new InetSocketAddress(bindHost.trim(), localAddress.getPort());
+        String secret = properties.getProperty(JWTConstants.REPLAY_CLUSTER_SECRET);
+        if (StringUtils.isBlank(secret)) {
+            throw new IllegalArgumentException(JWTConstants.REPLAY_CLUSTER_SECRET + " is required when " +
+                    JWTConstants.CLUSTERED_REPLAY_ENABLED + " is set");
+        }
+        String fallback = properties.getProperty(JWTConstants.REPLAY_CLUSTER_FALLBACK, FALLBACK_REJECT).trim();
+        if (!FALLBACK_REJECT.equalsIgnoreCase(fallback) && !FALLBACK_LOCAL.equalsIgnoreCase(fallback)) {
+            throw new IllegalArgumentException("Unknown " + JWTConstants.REPLAY_CLUSTER_FALLBACK + ": " + fallback);
+        }
+        return new ClusteredReplayStore(localMember, members, bindAddress,
+                new InMemoryReplayStore(Integer.parseInt(
+                        properties.getProperty(JWTConstants.REPLAY_CLUSTER_MAX_ENTRIES, "100000"))),
+                secret.trim().getBytes(StandardCharsets.UTF_8), validationSettings,
+                FALLBACK_LOCAL.equalsIgnoreCase(fallback),
+                Integer.parseInt(properties.getProperty(JWTConstants.REPLAY_CLUSTER_VIRTUAL_NODES, "64")),
+                Integer.parseInt(properties.getProperty(JWTConstants.REPLAY_CLUSTER_BATCH_SIZE, "256")),
+                Long.parseLong(properties.getProperty(JWTConstants.REPLAY_CLUSTER_REQUEST_TIMEOUT, "100")),
+                Long.parseLong(properties.getProperty(JWTConstants.REPLAY_CLUSTER_HANDOFF_PERIOD, "60")) * 1000,
+                Long.parseLong(properties.getProperty(JWTConstants.REPLAY_CLUSTER_FAILURE_TIMEOUT, "5")) * 1000);
+    }
+
+    /**
+     * @param members comma separated host:port of the members
+     * @return the members
+     */
+    private static List<String> parseMembers(String members) {
+        List<String> parsed = new ArrayList<>();
+        for (String member : StringUtils.split(members, ',')) {
+            if (StringUtils.isNotBlank(member)) {
+                ReplayPeer.parseAddress(member.trim());
+                parsed.add(member.trim());
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Start the store shared by the grant handlers of this node, unless it is already started.
+     *
+     * @param properties         JWT grant properties
+     * @param validationSettings validity period and clock skew of assertions
+     * @return the shared store
+     * @throws IOException if the peer server can not listen on its address
+     */
+    public static synchronized ClusteredReplayStore startShared(Properties properties,
+                                                                ValidationSettings validationSettings)
+            throws IOException {
+        if (shared == null) {
+            ClusteredReplayStore store = fromProperties(properties, validationSettings);
+            store.start();
+            store.register();
+            shared = store;
+        }
+        return shared;
+    }
+
+    public static synchronized void stopShared() {
+        if (shared != null) {
+            shared.unregister();
+            shared.stop();
+            shared = null;
+        }
+    }
+
+    public synchronized void start() throws IOException {
+        server.start();
+        createPeers();
+        updateRing();
+        maintenance.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                checkMembers();
+            }
+        }, MEMBER_CHECK_INTERVAL_MILLIS, MEMBER_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (log.isDebugEnabled()) {
+            log.debug("Replay cluster member " + localMember + " started with members " +
+                    topology.ring.getMembers());
+        }
+    }
+
+    /**
+     * Hand the live records of this member over to the remaining members, tell them this member is leaving, then
+     * stop. The others take this member off their rings once they received its records.
+     */
+    public synchronized void stop() {
+        Topology current = topology;
+        if (current != null && current.ring.getMembers().size() > 1) {
+            List<String> remaining = new ArrayList<>(current.ring.getMembers());
+            remaining.remove(localMember);
+            transfer(new HashRing(remaining, virtualNodes));
+            byte[] encodedMember = ReplayProtocol.encodeJti(localMember);
+            for (ReplayPeer peer : peers.values()) {
+                peer.leave(encodedMember);
+            }
+        }
+        maintenance.shutdownNow();
+        for (ReplayPeer peer : peers.values()) {
+            peer.close(requestTimeoutMillis * 10);
+        }
+        peers.clear();
+        server.stop();
+        topology = null;
+    }
+
+    /**
+     * Change the configured members of the cluster. JWT ids whose owner changes are pushed to their new owner in the
+     * background, and recorded at both owners until the handoff period ends.
+     *
+     * @param members ids of all members, with or without this member
+     */
+    public synchronized void setMembers(Collection<String> members) {
+        configuredMembers = memberSet(members);
+        excludedMembers.keySet().retainAll(configuredMembers);
+        if (topology != null) {
+            createPeers();
+            updateRing();
+        }
+    }
+
+    @Override
+    public void updateMembers(String members) {
+        setMembers(parseMembers(members));
+    }
+
+    @Override
+    public List<String> getMembers() {
+        Topology current = topology;
+        return current != null ? current.ring.getMembers() : new ArrayList<String>();
+    }
+
+    @Override
+    public synchronized List<String> getConfiguredMembers() {
+        return new ArrayList<>(configuredMembers);
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+
+    @Override
+    public boolean recordIfAbsent(String jti, long expiryTimeMillis, long referenceTimeMillis) {
+        long nowMillis = System.currentTimeMillis();
+        if (expiryTimeMillis > maxExpiryTimeMillis(nowMillis)) {
+            lifetimeExceeded.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("Rejecting JWT id " + jti + " expiring at " + expiryTimeMillis + ", after the longest " +
+                        "time the replay cluster keeps records.");
+            }
+            return false;
+        }
+        // Such JWT ids can not be sent to their owner, so recording them anywhere else would let them be replayed.
+        byte[] encodedJti = ReplayProtocol.encodeJti(jti);
+        if (encodedJti == null) {
+            oversizeJtis.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("Rejecting JWT id longer than " + ReplayProtocol.MAX_JTI_SIZE + " bytes.");
+            }
+            return false;
+        }
+        Topology current = topology;
+        if (current == null) {
+            return localStore.recordIfAbsent(jti, expiryTimeMillis, referenceTimeMillis);
+        }
+        String owner = current.ring.ownerOf(jti);
+        HashRing previousRing = current.previousRing(nowMillis);
+        String previousOwner = previousRing != null ? previousRing.ownerOf(jti) : null;
+        // A previous owner that left handed its records over before leaving, or lost them.
+        if (previousOwner == null || previousOwner.equals(owner) || !current.ring.contains(previousOwner)) {
+            return recordAt(owner, jti, encodedJti, expiryTimeMillis, referenceTimeMillis);
+        }
+
+        // The JWT id may be recorded only at its previous owner until the handoff completes, so it must be absent
+        // at both. Both owners are asked before waiting for either.
+        ReplayPeer.Request ownerRequest = send(owner, encodedJti, expiryTimeMillis, referenceTimeMillis);
+        ReplayPeer.Request previousOwnerRequest = send(previousOwner, encodedJti, expiryTimeMillis,
+                referenceTimeMillis);
+        boolean recorded = complete(owner, ownerRequest, jti, expiryTimeMillis, referenceTimeMillis);
+        boolean recordedAtPrevious = complete(previousOwner, previousOwnerRequest, jti, expiryTimeMillis,
+                referenceTimeMillis);
+        return recorded && recordedAtPrevious;
+    }
+
+    private boolean recordAt(String member, String jti, byte[] encodedJti, long expiryTimeMillis,
+                             long referenceTimeMillis) {
+        ReplayPeer.Request request = send(member, encodedJti, expiryTimeMillis, referenceTimeMillis);
+        return complete(member, request, jti, expiryTimeMillis, referenceTimeMillis);
+    }
+
+    /**
+     * @return the request sent to the member, or null if the member is this member or can not be asked
+     */
+    private ReplayPeer.Request send(String member, byte[] encodedJti, long expiryTimeMillis,
+                                    long referenceTimeMillis) {
+        if (localMember.equals(member)) {
+            return null;
+        }
+        ReplayPeer peer = peers.get(member);
+        return peer != null ? peer.record(encodedJti, expiryTimeMillis, referenceTimeMillis) : null;
+    }
+
+    private boolean complete(String member, ReplayPeer.Request request, String jti, long expiryTimeMillis,
+                             long referenceTimeMillis) {
+        if (localMember.equals(member)) {
+            localRecords.incrementAndGet();
+            return localStore.recordIfAbsent(jti, expiryTimeMillis, referenceTimeMillis);
+        }
+        int result = request != null ? request.await(requestTimeoutMillis) : ReplayPeer.UNAVAILABLE;
+        if (result != ReplayPeer.UNAVAILABLE) {
+            remoteRecords.incrementAndGet();
+            return result == ReplayPeer.RECORDED;
+        }
+        unavailable.incrementAndGet();
+        if (!localFallback) {
+            if (log.isDebugEnabled()) {
+                log.debug("Replay cluster member " + member + " is unavailable. Rejecting JWT id " + jti);
+            }
+            return false;
+        }
+        fallbacks.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug("Replay cluster member " + member + " is unavailable. Recording the JWT id locally.");
+        }
+        return localStore.recordIfAbsent(jti, expiryTimeMillis, referenceTimeMillis);
+    }
+
+    /**
+     * @return the latest expiry time of a record made at the given time: the validity period plus the clock skew
+     */
+    private long maxExpiryTimeMillis(long nowMillis) {
+        return nowMillis + validationSettings.getValidityPeriodMillis() + validationSettings.getTimeStampSkewMillis();
+    }
+
+    /**
+     * Push the live records of this member that another member owns on the ring.
+     */
+    private void transfer(HashRing ring) {
+        long nowMillis = System.currentTimeMillis();
+        int count = 0;
+        for (Map.Entry<String, Long> entry : localStore.entries()) {
+            if (entry.getValue() < nowMillis) {
+                continue;
+            }
+            String owner = ring.ownerOf(entry.getKey());
+            if (localMember.equals(owner)) {
+                continue;
+            }
+            ReplayPeer peer = peers.get(owner);
+            byte[] encodedJti = ReplayProtocol.encodeJti(entry.getKey());
+            if (peer != null && encodedJti != null && peer.transfer(encodedJti, entry.getValue())) {
+                count++;
+            }
+        }
+        transferred.addAndGet(count);
+        if (log.isDebugEnabled()) {
+            log.debug("Transferred " + count + " JWT ids to the replay cluster members " + ring.getMembers());
+        }
+    }
+
+    private Set<String> memberSet(Collection<String> members) {
+        Set<String> memberSet = new TreeSet<>(members);
+        memberSet.add(localMember);
+        return memberSet;
+    }
+
+    private void createPeers() {
+        for (String member : configuredMembers) {
+            if (!member.equals(localMember) && !peers.containsKey(member)) {
+                peers.put(member, new ReplayPeer(member, secret, maxBatchSize, maxBatchSize * QUEUED_BATCHES_PER_PEER,
+                        (int) requestTimeoutMillis, failureTimeoutMillis, batches));
+            }
+        }
+    }
+
+    /**
+     * Put the configured members that are not excluded on the ring, if they are not already on it.
+     */
+    private synchronized void updateRing() {
+        List<String> members = new ArrayList<>(configuredMembers);
+        members.removeAll(excludedMembers.keySet());
+        Topology current = topology;
+        if (current != null && current.ring.getMembers().equals(members)) {
+            return;
+        }
+        final HashRing ring = new HashRing(members, virtualNodes);
+        if (current == null) {
+            topology = new Topology(ring, null, 0);
+            return;
+        }
+        topology = new Topology(ring, current.ring, System.currentTimeMillis() + handoffMillis);
+        log.info("Replay cluster members changed from " + current.ring.getMembers() + " to " + ring.getMembers());
+        maintenance.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (topology != null && topology.ring == ring) {
+                    transfer(ring);
+                }
+            }
+        });
+        maintenance.schedule(new Runnable() {
+            @Override
+            public void run() {
+                retirePeers();
+            }
+        }, handoffMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Take the members that could not be reached for the failure timeout off the ring, and put the excluded members
+     * back once a new connection to them is open.
+     */
+    private synchronized void checkMembers() {
+        if (topology == null) {
+            return;
+        }
+        long nowMillis = System.currentTimeMillis();
+        for (String member : configuredMembers) {
+            ReplayPeer peer = peers.get(member);
+            if (peer == null) {
+                continue;
+            }
+            Long excludedAtConnections = excludedMembers.get(member);
+            if (excludedAtConnections == null) {
+                long unreachableSinceMillis = peer.getUnreachableSinceMillis();
+                if (unreachableSinceMillis != 0 && nowMillis - unreachableSinceMillis >= failureTimeoutMillis) {
+                    excludedMembers.put(member, peer.getConnections());
+                    log.warn("Replay cluster member " + member + " can not be reached. Taking it off the ring; " +
+                            "the JWT ids it recorded are lost.");
+                }
+            } else if (peer.isConnected() && peer.getConnections() > excludedAtConnections) {
+                excludedMembers.remove(member);
+                log.info("Replay cluster member " + member + " can be reached again. Putting it back on the ring.");
+            }
+        }
+        updateRing();
+    }
+
+    private synchronized void onLeave(String member) {
+        ReplayPeer peer = peers.get(member);
+        if (topology == null || peer == null || !configuredMembers.contains(member)) {
+            return;
+        }
+        // The member is put back once it restarted, which opens a new connection to it.
+        excludedMembers.put(member, peer.getConnections());
+        updateRing();
+    }
+
+    /**
+     * Register the store in the platform MBean server.
+     */
+    public void register() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while registering the replay cluster MBean", e);
+        }
+    }
+
+    /**
+     * Remove the store from the platform MBean server.
+     */
+    public void unregister() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while unregistering the replay cluster MBean", e);
+        }
+    }
+
+    /**
+     * Close the connections to the members that are no longer configured, once the handoff is over.
+     */
+    private synchronized void retirePeers() {
+        Topology current = topology;
+        if (current == null) {
+            return;
+        }
+        HashRing previousRing = current.previousRing(System.currentTimeMillis());
+        Iterator<Map.Entry<String, ReplayPeer>> iterator = peers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, ReplayPeer> entry = iterator.next();
+            String member = entry.getKey();
+            if (!configuredMembers.contains(member) && !current.ring.contains(member) &&
+                    (previousRing == null || !previousRing.contains(member))) {
+                iterator.remove();
+                entry.getValue().close(0);
+                if (log.isDebugEnabled()) {
+                    log.debug("Closed the connection to former replay cluster member " + member);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.replay;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent hash ring assigning every JWT id to one member. Each member is placed on the ring at a number
+ * of virtual node positions, so that adding or removing a member only moves the key ranges next to its positions
+ * and the remaining ranges keep their owner. Lookups are a binary search over a sorted array and allocate nothing.
+ */
+public class HashRing {
+
+    private final List<String> members;
+    private final long[] positions;
+    private final String[] owners;
+
+    /**
+     * @param members      member ids
+     * @param virtualNodes positions of each member on the ring
+     */
+    public HashRing(Collection<String> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes per member must be positive: " + virtualNodes);
+        }
+        this.members = Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(members)));
+        // Sorted by position, and by member id for the unlikely case of two members hashing to the same position.
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                long position = hash(member + '#' + i);
+                String existing = ring.get(position);
+                if (existing == null || existing.compareTo(member) > 0) {
+                    ring.put(position, member);
+                }
+            }
+        }
+        this.positions = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        int index = 0;
+        for (Map.Entry<Long, String> entry : ring.entrySet()) {
+            positions[index] = entry.getKey();
+            owners[index] = entry.getValue();
+            index++;
+        }
+    }
+
+    /**
+     * @param key JWT id
+     * @return the member owning the key, or null if the ring has no members
+     */
+    public String ownerOf(String key) {
+        if (positions.length == 0) {
+            return null;
+        }
+        long hash = hash(key);
+        int low = 0;
+        int high = positions.length - 1;
+        // Find the first position at or after the hash, wrapping around to the first position.
+        if (hash > positions[high]) {
+            return owners[0];
+        }
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return owners[low];
+    }
+
+    public List<String> getMembers() {
+        return members;
+    }
+
+    public boolean contains(String member) {
+        return members.contains(member);
+    }
+
+    /**
+     * 64 bit FNV-1a over the bytes of the UTF-16 characters, followed by the MurmurHash3 finalizer to spread similar
+     * keys. Every member must compute the same hash, so this must never change.
+     */
+    static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            hash ^= c & 0xFF;
+            hash *= 0x100000001B3L;
+            hash ^= c >>> 8;
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB93FE1A85EC3L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.replay;
+
+import java.util.List;
+
+/**
+ * JMX view of the replay cluster membership of this node.
+ */
+public interface ReplayClusterMXBean {
+
+    /**
+     * @return members currently on the ring, which leaves out the configured members that can not be reached
+     */
+    List<String> getMembers();
+
+    /**
+     * @return members this node may share the used JWT ids with, including this node
+     */
+    List<String> getConfiguredMembers();
+
+    /**
+     * Replace the configured members, e.g. to add a node without restarting the cluster. Not persisted: the next
+     * start of the node uses the members of its properties again.
+     *
+     * @param members comma separated host:port of the members
+     */
+    void updateMembers(String members);
+}
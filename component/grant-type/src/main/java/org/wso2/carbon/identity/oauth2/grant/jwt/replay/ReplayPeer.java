@@ -0,0 +1,552 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.replay;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+
+/**
+ * Client side of the {@link ReplayProtocol} for one remote member. Callers enqueue requests; a writer thread drains
+ * the queue into one frame per batch and sends it without waiting for earlier results, and a reader thread
+ * completes the waiting callers as the results arrive. While the member can not be reached requests fail at once,
+ * so a lost member costs callers a fallback rather than a timeout.
+ * <p/>
+ * The connection is kept open while idle, and reopened once it is lost, so the time since the member was last
+ * reachable tells whether it is still running. A connection on which records go unanswered for the failure timeout
+ * is treated as lost, as a member whose host fails may never close it.
+ */
+class ReplayPeer {
+
+    static final int RECORDED = 1;
+    static final int REPLAYED = 0;
+    static final int UNAVAILABLE = -1;
+
+    private static final Log log = LogFactory.getLog(ReplayPeer.class);
+    private static final int PENDING = -2;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final String memberId;
+    private final InetSocketAddress address;
+    private final byte[] secret;
+    private final int maxBatchSize;
+    private final int connectTimeoutMillis;
+    private final long failureTimeoutMillis;
+    private final AtomicLong batches;
+    private final BlockingQueue<Request> queue;
+    private volatile Connection connection;
+    private volatile long nextConnectMillis;
+    private volatile boolean running = true;
+    private volatile long unreachableSinceMillis;
+    private volatile long connections;
+    private int nextCorrelationId;
+    private final Thread writerThread;
+
+    /**
+     * An item sent to the member. Record requests are waited on, transfers and leaves are not.
+     */
+    static final class Request {
+
+        private final byte type;
+        private final byte[] jti;
+        private final long expiryTimeMillis;
+        private final long referenceTimeMillis;
+        private final CountDownLatch done;
+        private volatile int result = PENDING;
+
+        private Request(byte type, byte[] jti, long expiryTimeMillis, long referenceTimeMillis) {
+            this.type = type;
+            this.jti = jti;
+            this.expiryTimeMillis = expiryTimeMillis;
+            this.referenceTimeMillis = referenceTimeMillis;
+            this.done = type == ReplayProtocol.RECORD ? new CountDownLatch(1) : null;
+        }
+
+        private void complete(int result) {
+            if (done != null && this.result == PENDING) {
+                this.result = result;
+                done.countDown();
+            }
+        }
+
+        /**
+         * @param timeoutMillis longest time to wait for the result
+         * @return {@link #RECORDED}, {@link #REPLAYED} or {@link #UNAVAILABLE} if the member did not answer in time
+         */
+        int await(long timeoutMillis) {
+            try {
+                if (!done.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return UNAVAILABLE;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return UNAVAILABLE;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @param memberId             member id, as host:port
+     * @param secret               secret shared by the members
+     * @param maxBatchSize         largest number of JWT ids sent in one frame
+     * @param maxQueueSize         largest number of requests waiting to be sent
+     * @param connectTimeoutMillis connect timeout
+     * @param failureTimeoutMillis time records may go unanswered before the connection is treated as lost
+     * @param batches              counter of the frames sent
+     */
+    ReplayPeer(String memberId, byte[] secret, int maxBatchSize, int maxQueueSize, int connectTimeoutMillis,
+               long failureTimeoutMillis, AtomicLong batches) {
+        this.memberId = memberId;
+        this.address = parseAddress(memberId);
+        this.secret = secret;
+        this.maxBatchSize = maxBatchSize;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.failureTimeoutMillis = failureTimeoutMillis;
+        this.batches = batches;
+        this.queue = new ArrayBlockingQueue<>(maxQueueSize);
+        this.writerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "jwt-replay-peer-writer-" + memberId);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Send a JWT id to be recorded by the member.
+     *
+     * @return the request to wait on, or null if the member is unavailable
+     */
+    Request record(byte[] jti, long expiryTimeMillis, long referenceTimeMillis) {
+        if (!isAvailable()) {
+            return null;
+        }
+        Request request = new Request(ReplayProtocol.RECORD, jti, expiryTimeMillis, referenceTimeMillis);
+        return queue.offer(request) ? request : null;
+    }
+
+    /**
+     * Hand a recorded JWT id over to the member.
+     *
+     * @return false if the JWT id could not be queued
+     */
+    boolean transfer(byte[] jti, long expiryTimeMillis) {
+        return isAvailable() && queue.offer(new Request(ReplayProtocol.TRANSFER, jti, expiryTimeMillis, 0));
+    }
+
+    /**
+     * Tell the member that a member is stopping, after the transfers queued before.
+     *
+     * @param member encoded id of the stopping member
+     * @return false if the message could not be queued
+     */
+    boolean leave(byte[] member) {
+        return isAvailable() && queue.offer(new Request(ReplayProtocol.LEAVE, member, 0, 0));
+    }
+
+    /**
+     * Wait until the queued requests have been written, then stop the peer.
+     *
+     * @param drainTimeoutMillis longest time to wait for the queue to be written
+     */
+    void close(long drainTimeoutMillis) {
+        long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+        while (!queue.isEmpty() && isAvailable() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(drainTimeoutMillis + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    String getMemberId() {
+        return memberId;
+    }
+
+    boolean isConnected() {
+        return connection != null;
+    }
+
+    /**
+     * @return number of connections opened to the member so far
+     */
+    long getConnections() {
+        return connections;
+    }
+
+    /**
+     * @return time since which the member could not be reached, or 0 if it was reachable when last tried
+     */
+    long getUnreachableSinceMillis() {
+        return unreachableSinceMillis;
+    }
+
+    private boolean isAvailable() {
+        return running && (connection != null || System.currentTimeMillis() >= nextConnectMillis);
+    }
+
+    private void writeLoop() {
+        List<Request> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            Request first;
+            try {
+                first = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first == null) {
+                connect();
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+            Connection current = connect();
+            if (current == null) {
+                fail(batch);
+            } else {
+                try {
+                    send(current, batch);
+                } catch (IOException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Error while writing to replay peer " + memberId, e);
+                    }
+                    disconnect(current);
+                    fail(batch);
+                }
+            }
+            batch.clear();
+        }
+        Connection current = connection;
+        if (current != null) {
+            disconnect(current);
+        }
+        List<Request> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        fail(remaining);
+    }
+
+    private Connection connect() {
+        Connection current = connection;
+        if (current != null) {
+            long awaitingSinceMillis = current.awaitingSinceMillis;
+            if (awaitingSinceMillis == 0 || System.currentTimeMillis() - awaitingSinceMillis < failureTimeoutMillis) {
+                return current;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Replay peer " + memberId + " did not answer for " + failureTimeoutMillis + " ms");
+            }
+            disconnect(current);
+        }
+        if (System.currentTimeMillis() < nextConnectMillis) {
+            return null;
+        }
+        SocketChannel channel = null;
+        byte[] key;
+        try {
+            channel = SocketChannel.open();
+            channel.socket().setTcpNoDelay(true);
+            channel.socket().connect(address, connectTimeoutMillis);
+            byte[] clientNonce = ReplayProtocol.newNonce();
+            ByteBuffer preface = ByteBuffer.allocate(4 + ReplayProtocol.NONCE_SIZE);
+            preface.putInt(ReplayProtocol.MAGIC).put(clientNonce).flip();
+            while (preface.hasRemaining()) {
+                channel.write(preface);
+            }
+            // the socket stream honours the read timeout, unlike the channel
+            channel.socket().setSoTimeout(connectTimeoutMillis);
+            byte[] serverNonce = new byte[ReplayProtocol.NONCE_SIZE];
+            new DataInputStream(channel.socket().getInputStream()).readFully(serverNonce);
+            key = ReplayProtocol.connectionKey(secret, clientNonce, serverNonce);
+        } catch (IOException e) {
+            nextConnectMillis = System.currentTimeMillis() + RECONNECT_DELAY_MILLIS;
+            markUnreachable();
+            closeChannel(channel);
+            if (log.isDebugEnabled()) {
+                log.debug("Can not connect to replay peer " + memberId, e);
+            }
+            return null;
+        }
+        final Connection newConnection;
+        try {
+            newConnection = new Connection(channel, key);
+        } catch (IOException e) {
+            closeChannel(channel);
+            nextConnectMillis = System.currentTimeMillis() + RECONNECT_DELAY_MILLIS;
+            markUnreachable();
+            log.error("Can not authenticate to replay peer " + memberId, e);
+            return null;
+        }
+        Thread readerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readLoop(newConnection);
+            }
+        }, "jwt-replay-peer-reader-" + memberId);
+        readerThread.setDaemon(true);
+        connection = newConnection;
+        connections++;
+        unreachableSinceMillis = 0;
+        readerThread.start();
+        if (log.isDebugEnabled()) {
+            log.debug("Connected to replay peer " + memberId);
+        }
+        return newConnection;
+    }
+
+    private void send(Connection current, List<Request> batch) throws IOException {
+        int records = 0;
+        int recordBytes = 0;
+        int transfers = 0;
+        int transferBytes = 0;
+        int leaves = 0;
+        int leaveBytes = 0;
+        for (Request request : batch) {
+            if (request.type == ReplayProtocol.RECORD) {
+                records++;
+                recordBytes += 18 + request.jti.length;
+            } else if (request.type == ReplayProtocol.TRANSFER) {
+                transfers++;
+                transferBytes += 10 + request.jti.length;
+            } else {
+                leaves++;
+                leaveBytes += 2 + request.jti.length;
+            }
+        }
+        int frameSize = 4 + ReplayProtocol.FRAME_HEADER_SIZE + ReplayProtocol.TAG_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate((records > 0 ? frameSize + recordBytes : 0) +
+                (transfers > 0 ? frameSize + transferBytes : 0) + leaves * frameSize + leaveBytes);
+        if (records > 0) {
+            Request[] pending = new Request[records];
+            int correlationId = nextCorrelationId++;
+            buffer.putInt(ReplayProtocol.FRAME_HEADER_SIZE + recordBytes + ReplayProtocol.TAG_SIZE);
+            int bodyStart = buffer.position();
+            buffer.put(ReplayProtocol.RECORD);
+            buffer.putInt(correlationId);
+            buffer.putInt(records);
+            int i = 0;
+            for (Request request : batch) {
+                if (request.type == ReplayProtocol.RECORD) {
+                    buffer.putLong(request.expiryTimeMillis);
+                    buffer.putLong(request.referenceTimeMillis);
+                    ReplayProtocol.putJti(buffer, request.jti);
+                    pending[i++] = request;
+                }
+            }
+            putTag(current, buffer, bodyStart);
+            if (current.awaitingSinceMillis == 0) {
+                current.awaitingSinceMillis = System.currentTimeMillis();
+            }
+            current.inFlight.put(correlationId, pending);
+        }
+        if (transfers > 0) {
+            buffer.putInt(ReplayProtocol.FRAME_HEADER_SIZE + transferBytes + ReplayProtocol.TAG_SIZE);
+            int bodyStart = buffer.position();
+            buffer.put(ReplayProtocol.TRANSFER);
+            buffer.putInt(0);
+            buffer.putInt(transfers);
+            for (Request request : batch) {
+                if (request.type == ReplayProtocol.TRANSFER) {
+                    buffer.putLong(request.expiryTimeMillis);
+                    ReplayProtocol.putJti(buffer, request.jti);
+                }
+            }
+            putTag(current, buffer, bodyStart);
+        }
+        // Leaves follow the transfers of the same batch, so the member has the records before it changes its ring.
+        for (Request request : batch) {
+            if (request.type == ReplayProtocol.LEAVE) {
+                buffer.putInt(ReplayProtocol.FRAME_HEADER_SIZE + 2 + request.jti.length + ReplayProtocol.TAG_SIZE);
+                int bodyStart = buffer.position();
+                buffer.put(ReplayProtocol.LEAVE);
+                buffer.putInt(0);
+                buffer.putInt(1);
+                ReplayProtocol.putJti(buffer, request.jti);
+                putTag(current, buffer, bodyStart);
+            }
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            current.channel.write(buffer);
+        }
+        batches.incrementAndGet();
+    }
+
+    private static void putTag(Connection current, ByteBuffer buffer, int bodyStart) {
+        ByteBuffer body = buffer.duplicate();
+        body.limit(buffer.position());
+        body.position(bodyStart);
+        ReplayProtocol.putTag(buffer, current.sendMac, ReplayProtocol.CLIENT_TO_SERVER, current.sendSequence++, body);
+    }
+
+    private void readLoop(Connection current) {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        try {
+            while (true) {
+                header.clear();
+                readFully(current.channel, header);
+                int length = header.getInt(0);
+                if (length < ReplayProtocol.FRAME_HEADER_SIZE + ReplayProtocol.TAG_SIZE ||
+                        length > ReplayProtocol.MAX_FRAME_SIZE) {
+                    throw new IOException("Invalid replay frame length: " + length);
+                }
+                ByteBuffer frame = ByteBuffer.allocate(length);
+                readFully(current.channel, frame);
+                frame.flip();
+                if (!ReplayProtocol.verifyTag(current.receiveMac, ReplayProtocol.SERVER_TO_CLIENT,
+                        current.receiveSequence++, frame)) {
+                    log.warn("Closing the connection to replay peer " + memberId + " after a response that failed " +
+                            "authentication. Check that all members share the same secret.");
+                    throw new IOException("Replay response failed authentication");
+                }
+                frame.limit(length - ReplayProtocol.TAG_SIZE);
+                byte type = frame.get();
+                int correlationId = frame.getInt();
+                int count = frame.getInt();
+                Request[] pending = current.inFlight.remove(correlationId);
+                if (type != ReplayProtocol.RESULT || pending == null || pending.length != count ||
+                        frame.remaining() != count) {
+                    throw new IOException("Unexpected replay response " + correlationId + " from " + memberId);
+                }
+                for (Request request : pending) {
+                    request.complete(frame.get() == 1 ? RECORDED : REPLAYED);
+                }
+                current.awaitingSinceMillis = current.inFlight.isEmpty() ? 0 : System.currentTimeMillis();
+            }
+        } catch (IOException e) {
+            if (running && log.isDebugEnabled()) {
+                log.debug("Connection to replay peer " + memberId + " closed", e);
+            }
+        } finally {
+            disconnect(current);
+        }
+    }
+
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Replay peer closed the connection");
+            }
+        }
+    }
+
+    private void disconnect(Connection current) {
+        synchronized (current) {
+            if (connection == current) {
+                connection = null;
+                markUnreachable();
+            }
+            closeChannel(current.channel);
+        }
+        for (Request[] pending : current.inFlight.values()) {
+            fail(pending);
+        }
+        current.inFlight.clear();
+    }
+
+    private void markUnreachable() {
+        if (unreachableSinceMillis == 0) {
+            unreachableSinceMillis = System.currentTimeMillis();
+        }
+    }
+
+    private static void fail(Iterable<Request> requests) {
+        for (Request request : requests) {
+            request.complete(UNAVAILABLE);
+        }
+    }
+
+    private static void fail(Request[] requests) {
+        for (Request request : requests) {
+            request.complete(UNAVAILABLE);
+        }
+    }
+
+    private static void closeChannel(SocketChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error while closing replay peer connection", e);
+            }
+        }
+    }
+
+    /**
+     * @param memberId member id, as host:port
+     * @return the address of the member
+     */
+    static InetSocketAddress parseAddress(String memberId) {
+        int colon = memberId.lastIndexOf(':');
+        if (colon <= 0 || colon == memberId.length() - 1) {
+            throw new IllegalArgumentException("Replay cluster member must be host:port: " + memberId);
+        }
+        return new InetSocketAddress(memberId.substring(0, colon),
+                Integer.parseInt(memberId.substring(colon + 1)));
+    }
+
+    private static final class Connection {
+
+        private final SocketChannel channel;
+        private final ConcurrentMap<Integer, Request[]> inFlight = new ConcurrentHashMap<>();
+        // Frames are written by the writer thread and read by the reader thread, each with its own MAC.
+        private final Mac sendMac;
+        private final Mac receiveMac;
+        private long sendSequence;
+        private long receiveSequence;
+        // Time since which records are waiting for an answer, or 0 if none are.
+        private volatile long awaitingSinceMillis;
+
+        private Connection(SocketChannel channel, byte[] key) throws IOException {
+            this.channel = channel;
+            this.sendMac = ReplayProtocol.newMac(key);
+            this.receiveMac = ReplayProtocol.newMac(key);
+        }
+    }
+}
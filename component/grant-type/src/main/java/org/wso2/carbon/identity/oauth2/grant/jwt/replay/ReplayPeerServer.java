@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.replay;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import javax.crypto.Mac;
+
+/**
+ * Server side of the {@link ReplayProtocol}. A single selector thread accepts connections, decodes every complete
+ * frame in the read buffer and writes the results back, so a batch of JWT ids costs one read and one write. Records
+ * are handled inline on the selector thread, as they are only a map lookup. Frames are only handled once their tag
+ * shows they come from a member knowing the shared secret.
+ */
+class ReplayPeerServer {
+
+    private static final Log log = LogFactory.getLog(ReplayPeerServer.class);
+    private static final int MIN_RECORD_ITEM_SIZE = 18;
+    private static final int MIN_TRANSFER_ITEM_SIZE = 10;
+    private static final int MAX_PENDING_OUTPUT = 4 * ReplayProtocol.MAX_FRAME_SIZE;
+
+    /**
+     * Handles the items received by the server. Called on the selector thread.
+     */
+    interface RequestHandler {
+
+        boolean record(String jti, long expiryTimeMillis, long referenceTimeMillis);
+
+        void restore(String jti, long expiryTimeMillis);
+
+        void leave(String member);
+    }
+
+    private final InetSocketAddress address;
+    private final byte[] secret;
+    private final RequestHandler requestHandler;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    /**
+     * @param address        address to listen on
+     * @param secret         secret shared by the members
+     * @param requestHandler handler of the authenticated items
+     */
+    ReplayPeerServer(InetSocketAddress address, byte[] secret, RequestHandler requestHandler) {
+        this.address = address;
+        this.secret = secret;
+        this.requestHandler = requestHandler;
+    }
+
+    synchronized void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        selectorThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runSelector();
+            }
+        }, "jwt-replay-peer-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runSelector() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        if (key.isWritable()) {
+                            write((Connection) key.attachment());
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read((Connection) key.attachment());
+                        }
+                    } catch (IOException e) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Closing replay peer connection after I/O error", e);
+                        }
+                        close(key);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            log.error("Replay peer server selector failed", e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        Connection connection = new Connection(channel, key);
+        key.attach(connection);
+        connection.out.put(connection.serverNonce);
+        updateInterest(connection);
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (!connection.in.hasRemaining()) {
+            connection.in = grow(connection.in, connection.in.capacity() * 2);
+        }
+        if (connection.channel.read(connection.in) < 0) {
+            close(connection.key);
+            return;
+        }
+        process(connection);
+        updateInterest(connection);
+    }
+
+    private void write(Connection connection) throws IOException {
+        ByteBuffer out = connection.out;
+        out.flip();
+        connection.channel.write(out);
+        out.compact();
+        updateInterest(connection);
+    }
+
+    private void updateInterest(Connection connection) {
+        int pending = connection.out.position();
+        if (pending == 0) {
+            connection.key.interestOps(SelectionKey.OP_READ);
+        } else if (pending > MAX_PENDING_OUTPUT) {
+            // Stop reading from a client that does not read its results.
+            connection.key.interestOps(SelectionKey.OP_WRITE);
+        } else {
+            connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Handle every complete frame in the read buffer of the connection, keeping the bytes of a partial frame.
+     */
+    private void process(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        int required = 0;
+        in.flip();
+        try {
+            if (connection.mac == null) {
+                if (in.remaining() < 4 + ReplayProtocol.NONCE_SIZE) {
+                    return;
+                }
+                if (in.getInt() != ReplayProtocol.MAGIC) {
+                    throw new IOException("Connection from " + connection.channel.getRemoteAddress() +
+                            " is not a replay peer");
+                }
+                byte[] clientNonce = new byte[ReplayProtocol.NONCE_SIZE];
+                in.get(clientNonce);
+                connection.mac = ReplayProtocol.newMac(ReplayProtocol.connectionKey(secret, clientNonce,
+                        connection.serverNonce));
+            }
+            while (in.remaining() >= 4) {
+                int length = in.getInt(in.position());
+                if (length < ReplayProtocol.FRAME_HEADER_SIZE + ReplayProtocol.TAG_SIZE ||
+                        length > ReplayProtocol.MAX_FRAME_SIZE) {
+                    throw new IOException("Invalid replay frame length: " + length);
+                }
+                if (in.remaining() < 4 + length) {
+                    required = 4 + length;
+                    break;
+                }
+                in.getInt();
+                int frameEnd = in.position() + length;
+                ByteBuffer frame = in.duplicate();
+                frame.limit(frameEnd);
+                handleFrame(connection, frame, length);
+                in.position(frameEnd);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Malformed replay frame", e);
+        } finally {
+            in.compact();
+        }
+        if (required > in.capacity()) {
+            connection.in = grow(in, required);
+        }
+    }
+
+    private void handleFrame(Connection connection, ByteBuffer frame, int length) throws IOException {
+        if (!ReplayProtocol.verifyTag(connection.mac, ReplayProtocol.CLIENT_TO_SERVER, connection.receiveSequence++,
+                frame)) {
+            log.warn("Closing the replay peer connection from " + connection.channel.getRemoteAddress() +
+                    " after a frame that failed authentication. Check that all members share the same secret.");
+            throw new IOException("Replay frame failed authentication");
+        }
+        frame.limit(frame.limit() - ReplayProtocol.TAG_SIZE);
+        byte type = frame.get();
+        int correlationId = frame.getInt();
+        int count = frame.getInt();
+        int itemsSize = length - ReplayProtocol.FRAME_HEADER_SIZE - ReplayProtocol.TAG_SIZE;
+        if (type == ReplayProtocol.RECORD) {
+            if (count < 0 || count > itemsSize / MIN_RECORD_ITEM_SIZE) {
+                throw new IOException("Invalid replay record count: " + count);
+            }
+            ByteBuffer out = reserve(connection, 4 + ReplayProtocol.FRAME_HEADER_SIZE + count +
+                    ReplayProtocol.TAG_SIZE);
+            out.putInt(ReplayProtocol.FRAME_HEADER_SIZE + count + ReplayProtocol.TAG_SIZE);
+            int bodyStart = out.position();
+            out.put(ReplayProtocol.RESULT);
+            out.putInt(correlationId);
+            out.putInt(count);
+            for (int i = 0; i < count; i++) {
+                long expiryTimeMillis = frame.getLong();
+                long referenceTimeMillis = frame.getLong();
+                String jti = ReplayProtocol.getJti(frame);
+                out.put(requestHandler.record(jti, expiryTimeMillis, referenceTimeMillis) ? (byte) 1 : (byte) 0);
+            }
+            ByteBuffer body = out.duplicate();
+            body.limit(out.position());
+            body.position(bodyStart);
+            ReplayProtocol.putTag(out, connection.mac, ReplayProtocol.SERVER_TO_CLIENT, connection.sendSequence++,
+                    body);
+        } else if (type == ReplayProtocol.TRANSFER) {
+            if (count < 0 || count > itemsSize / MIN_TRANSFER_ITEM_SIZE) {
+                throw new IOException("Invalid replay transfer count: " + count);
+            }
+            for (int i = 0; i < count; i++) {
+                long expiryTimeMillis = frame.getLong();
+                requestHandler.restore(ReplayProtocol.getJti(frame), expiryTimeMillis);
+            }
+        } else if (type == ReplayProtocol.LEAVE) {
+            if (count != 1) {
+                throw new IOException("Invalid replay leave count: " + count);
+            }
+            requestHandler.leave(ReplayProtocol.getJti(frame));
+        } else {
+            throw new IOException("Unknown replay frame type: " + type);
+        }
+    }
+
+    private static ByteBuffer reserve(Connection connection, int size) {
+        if (connection.out.remaining() < size) {
+            connection.out = grow(connection.out, Math.max(connection.out.capacity() * 2,
+                    connection.out.position() + size));
+        }
+        return connection.out;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error while closing replay peer connection", e);
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            close(key);
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.error("Error while closing the replay peer server selector", e);
+        }
+    }
+
+    private static class Connection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private ByteBuffer in = ByteBuffer.allocate(4096);
+        private ByteBuffer out = ByteBuffer.allocate(4096);
+        private final byte[] serverNonce = ReplayProtocol.newNonce();
+        private Mac mac;
+        private long receiveSequence;
+        private long sendSequence;
+
+        private Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+}
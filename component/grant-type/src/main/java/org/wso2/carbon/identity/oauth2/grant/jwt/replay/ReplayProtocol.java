@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Binary protocol spoken between replay peers. Members share a secret, from which every connection derives its own
+ * key: the client opens with the {@link #MAGIC} and a random nonce, the server answers with a nonce of its own, and
+ * the key is the HMAC-SHA256 of both nonces under the shared secret. Frames follow in both directions:
+ * <pre>
+ * int    length of the rest of the frame
+ * byte   frame type
+ * int    correlation id, echoed in the response to a {@link #RECORD} frame
+ * int    number of items
+ * items
+ * byte[] HMAC-SHA256 tag of the direction, the sequence number of the frame in that direction and the frame from
+ *        its type to its last item, under the connection key
+ * </pre>
+ * A frame with a wrong tag closes the connection, so only members knowing the secret can record JWT ids, and frames
+ * can not be replayed within or across connections.
+ * <p/>
+ * A {@link #RECORD} item is the expiry time and reference time of the JWT id as two longs, then the JWT id as a
+ * short length and UTF-8 bytes; it is answered by a {@link #RESULT} frame with one byte per item, 1 if the JWT id
+ * was recorded and 0 if it was already live or could not be recorded. A {@link #TRANSFER} item is the expiry time
+ * and the JWT id, and is not answered. A {@link #LEAVE} frame has one item, the id of a member that is stopping,
+ * encoded like a JWT id, and is not answered either. Clients may send further frames without waiting for the
+ * responses of earlier ones; responses come in request order. All numbers are big-endian.
+ */
+final class ReplayProtocol {
+
+    static final int MAGIC = 0x4A544932;
+    static final byte RECORD = 1;
+    static final byte RESULT = 2;
+    static final byte TRANSFER = 3;
+    static final byte LEAVE = 4;
+    static final byte CLIENT_TO_SERVER = 1;
+    static final byte SERVER_TO_CLIENT = 2;
+    static final int FRAME_HEADER_SIZE = 9;
+    static final int TAG_SIZE = 32;
+    static final int NONCE_SIZE = 16;
+    static final int MAX_FRAME_SIZE = 1024 * 1024;
+    static final int MAX_JTI_SIZE = 1024;
+    static final int MIN_SECRET_SIZE = 16;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final SecureRandom random = new SecureRandom();
+
+    private ReplayProtocol() {
+    }
+
+    /**
+     * @param jti JWT id
+     * @return the encoded JWT id, or null if it is too long to be sent
+     */
+    static byte[] encodeJti(String jti) {
+        byte[] bytes = jti.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= MAX_JTI_SIZE ? bytes : null;
+    }
+
+    static byte[] newNonce() {
+        byte[] nonce = new byte[NONCE_SIZE];
+        random.nextBytes(nonce);
+        return nonce;
+    }
+
+    /**
+     * @return the key of a connection, derived from the shared secret and the nonces of both sides
+     */
+    static byte[] connectionKey(byte[] secret, byte[] clientNonce, byte[] serverNonce) throws IOException {
+        Mac mac = newMac(secret);
+        mac.update(clientNonce);
+        mac.update(serverNonce);
+        return mac.doFinal();
+    }
+
+    static Mac newMac(byte[] key) throws IOException {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IOException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Append the tag of the frame body between the position and the limit of the body buffer.
+     */
+    static void putTag(ByteBuffer buffer, Mac mac, byte direction, long sequence, ByteBuffer body) {
+        buffer.put(tag(mac, direction, sequence, body));
+    }
+
+    /**
+     * @param body frame from its type to its last item, followed by the tag, between its position and limit
+     * @return whether the tag at the end of the frame is valid
+     */
+    static boolean verifyTag(Mac mac, byte direction, long sequence, ByteBuffer body) {
+        ByteBuffer content = body.duplicate();
+        content.limit(body.limit() - TAG_SIZE);
+        byte[] received = new byte[TAG_SIZE];
+        ByteBuffer tag = body.duplicate();
+        tag.position(body.limit() - TAG_SIZE);
+        tag.get(received);
+        return MessageDigest.isEqual(tag(mac, direction, sequence, content), received);
+    }
+
+    private static byte[] tag(Mac mac, byte direction, long sequence, ByteBuffer body) {
+        mac.update(direction);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            mac.update((byte) (sequence >>> shift));
+        }
+        mac.update(body.duplicate());
+        return mac.doFinal();
+    }
+
+    static void putJti(ByteBuffer buffer, byte[] jti) {
+        buffer.putShort((short) jti.length);
+        buffer.put(jti);
+    }
+
+    static String getJti(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length > MAX_JTI_SIZE || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid JWT id length: " + length);
+        }
+        String jti = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return jti;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.resilience;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker of a single dependency. The circuit opens after a number of consecutive failures, rejects calls
+ * while open, and after the open duration lets one trial call through; the circuit closes if the trial succeeds and
+ * opens again otherwise.
+ * <p/>
+ * Breakers created with the same metric name share their counters, so a family of breakers (e.g. one per JWKS
+ * endpoint) is reported as one: {@code <name>.opened}, {@code <name>.shortCircuited} and the gauge
+ * {@code <name>.openCircuits}.
+ */
+public class CircuitBreaker {
+
+    private static final Log log = LogFactory.getLog(CircuitBreaker.class);
+
+    /**
+     * State of a circuit.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtNanos;
+
+    private final AtomicLong opened;
+    private final AtomicLong shortCircuited;
+    private final AtomicLong openCircuits;
+
+    /**
+     * @param name               name of the protected dependency, for logging
+     * @param metricName         prefix of the counters of the breaker
+     * @param failureThreshold   consecutive failures that open the circuit
+     * @param openDurationMillis how long the circuit stays open before a trial call
+     */
+    public CircuitBreaker(String name, String metricName, int failureThreshold, long openDurationMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        this.opened = metrics.counter(metricName + ".opened");
+        this.shortCircuited = metrics.counter(metricName + ".shortCircuited");
+        this.openCircuits = metrics.counter(metricName + ".openCircuits");
+    }
+
+    /**
+     * Ask for permission to call the dependency. Every permitted call must be followed by {@link #onSuccess()} or
+     * {@link #onFailure()}.
+     *
+     * @return false if the circuit is open
+     */
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos &&
+                state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Trying " + name + " after the circuit was open.");
+            }
+            return true;
+        }
+        shortCircuited.incrementAndGet();
+        return false;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.get() != State.CLOSED && state.getAndSet(State.CLOSED) != State.CLOSED) {
+            openCircuits.decrementAndGet();
+            log.info("Circuit of " + name + " closed.");
+        }
+    }
+
+    public void onFailure() {
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            openedAtNanos = System.nanoTime();
+            state.compareAndSet(State.HALF_OPEN, State.OPEN);
+            return;
+        }
+        if (current == State.CLOSED && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAtNanos = System.nanoTime();
+            if (state.compareAndSet(State.CLOSED, State.OPEN)) {
+                opened.incrementAndGet();
+                openCircuits.incrementAndGet();
+                log.warn("Circuit of " + name + " opened after " + failureThreshold + " consecutive failures.");
+            }
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+}
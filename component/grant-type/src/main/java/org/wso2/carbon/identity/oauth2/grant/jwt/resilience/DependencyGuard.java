@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.resilience;
+
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calls a dependency on a bounded executor so the calling thread waits at most the latency budget, and feeds the
+ * outcome to a {@link CircuitBreaker}. A call that exceeds its budget keeps its executor thread until it returns,
+ * which is what bounds the threads a stalled dependency can hold; once the executor is saturated, calls fail
+ * immediately.
+ */
+public class DependencyGuard {
+
+    private final String name;
+    private final long budgetMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService executor;
+
+    private final AtomicLong timeouts;
+    private final AtomicLong failures;
+    private final AtomicLong saturated;
+
+    /**
+     * @param name           name of the dependency, for messages
+     * @param metricName     prefix of the counters of the guard
+     * @param budgetMillis   latency budget of a call
+     * @param circuitBreaker circuit breaker of the dependency
+     * @param executor       bounded executor the calls run on
+     */
+    public DependencyGuard(String name, String metricName, long budgetMillis, CircuitBreaker circuitBreaker,
+                           ExecutorService executor) {
+        this.name = name;
+        this.budgetMillis = budgetMillis;
+        this.circuitBreaker = circuitBreaker;
+        this.executor = executor;
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        this.timeouts = metrics.counter(metricName + ".timeouts");
+        this.failures = metrics.counter(metricName + ".failures");
+        this.saturated = metrics.counter(metricName + ".saturated");
+    }
+
+    /**
+     * @param threadNamePrefix prefix of the thread names
+     * @param threads          maximum number of concurrent dependency calls
+     * @param queueSize        maximum number of calls waiting for a thread
+     * @return a bounded executor of daemon threads for dependency calls
+     */
+    public static ExecutorService newExecutor(final String threadNamePrefix, int threads, int queueSize) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, queueSize)), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, threadNamePrefix + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * @param callable call of the dependency
+     * @param <T>      result type
+     * @return the result of the call
+     * @throws DependencyUnavailableException if the call was not made or did not complete within the budget
+     * @throws ExecutionException             if the call failed; the cause is the exception of the dependency
+     */
+    public <T> T call(Callable<T> callable) throws DependencyUnavailableException, ExecutionException {
+        if (!circuitBreaker.allowRequest()) {
+            throw new DependencyUnavailableException("Circuit of " + name + " is open");
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(callable);
+        } catch (RejectedExecutionException e) {
+            saturated.incrementAndGet();
+            circuitBreaker.onFailure();
+            throw new DependencyUnavailableException("No capacity left to call " + name);
+        }
+        try {
+            T result = future.get(budgetMillis, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.incrementAndGet();
+            circuitBreaker.onFailure();
+            throw new DependencyUnavailableException(name + " did not respond within " + budgetMillis + "ms");
+        } catch (ExecutionException e) {
+            failures.incrementAndGet();
+            circuitBreaker.onFailure();
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            Thread.currentThread().interrupt();
+            throw new DependencyUnavailableException("Interrupted while calling " + name);
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
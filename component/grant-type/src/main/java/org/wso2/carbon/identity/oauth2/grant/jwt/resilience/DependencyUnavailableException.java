@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.resilience;
+
+/**
+ * Thrown when a dependency is not called because its circuit is open or the guard has no capacity left, or when
+ * the call did not complete within its latency budget.
+ */
+public class DependencyUnavailableException extends Exception {
+
+    private static final long serialVersionUID = -5381746618302648741L;
+
+    public DependencyUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.resilience;
+
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last known good results of a dependency, served when the dependency is unavailable as long as they are not older
+ * than the staleness limit. Keys are prefixed with the tenant domain so the results of a tenant can be dropped
+ * when its configuration changes. Results are held in a cache of the {@link JWTCacheManager}, so the results kept
+ * are bounded by its memory budget.
+ *
+ * @param <V> result type
+ */
+public class FallbackCache<V> {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+    // A result is stored again once it is this share of the staleness limit old, rather than after every call.
+    private static final int REFRESH_DIVISOR = 10;
+
+    private final long maxStalenessMillis;
+    private final ManagedCache<Entry<V>> entries;
+    private final AtomicLong served;
+    private final AtomicLong missed;
+
+    /**
+     * @param name               name of the cache, also the prefix of its counters
+     * @param maxStalenessMillis maximum age of a result that is served
+     * @param weigher            estimates the size of a result
+     */
+    public FallbackCache(String name, long maxStalenessMillis, final Weigher<V> weigher) {
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.entries = JWTCacheManager.getInstance().getCache(name, new Weigher<Entry<V>>() {
+            @Override
+            public long weigh(String key, Entry<V> entry) {
+                return weigher.weigh(key, entry.value);
+            }
+        });
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        this.served = metrics.counter(name + ".served");
+        this.missed = metrics.counter(name + ".missed");
+    }
+
+    public static String buildKey(String tenantDomain, String id) {
+        return tenantDomain + KEY_SEPARATOR + id;
+    }
+
+    /**
+     * @param key   key built with {@link #buildKey(String, String)}
+     * @param value result of a successful call
+     */
+    public void put(String key, V value) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.peek(key);
+        if (entry != null && now - entry.storedAtMillis < maxStalenessMillis / REFRESH_DIVISOR) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, now), maxStalenessMillis);
+    }
+
+    /**
+     * @param key key built with {@link #buildKey(String, String)}
+     * @return the last known good result, or null if there is none within the staleness limit
+     */
+    public V get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            missed.incrementAndGet();
+            return null;
+        }
+        served.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Drop all results of the tenant.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void invalidate(String tenantDomain) {
+        entries.invalidate(tenantDomain + KEY_SEPARATOR);
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long storedAtMillis;
+
+        Entry(V value, long storedAtMillis) {
+            this.value = value;
+            this.storedAtMillis = storedAtMillis;
+        }
+    }
+}
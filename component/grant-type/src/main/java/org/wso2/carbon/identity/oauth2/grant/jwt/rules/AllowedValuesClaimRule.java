@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.rules;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Requires the claim value to be one of a set of allowed values. For an array claim every element must be allowed.
+ */
+public class AllowedValuesClaimRule extends ClaimRule {
+
+    private final Set<String> allowedValues;
+
+    public AllowedValuesClaimRule(String claimName, Set<String> allowedValues) {
+        super(claimName);
+        this.allowedValues = Collections.unmodifiableSet(new HashSet<>(allowedValues));
+    }
+
+    @Override
+    protected boolean matchesValue(Object value) {
+        if (value instanceof List) {
+            List<?> values = (List<?>) value;
+            for (int i = 0; i < values.size(); i++) {
+                if (!allowedValues.contains(asString(values.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return allowedValues.contains(asString(value));
+    }
+
+    @Override
+    public String getDescription() {
+        return "one of " + allowedValues;
+    }
+}
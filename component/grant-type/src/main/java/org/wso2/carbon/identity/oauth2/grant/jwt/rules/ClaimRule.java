@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.rules;
+
+import java.util.Map;
+
+/**
+ * A single compiled check on one claim of an assertion. Rules are immutable and evaluated on the request path, so
+ * implementations must not allocate while testing a claim set.
+ */
+public abstract class ClaimRule {
+
+    private final String claimName;
+
+    protected ClaimRule(String claimName) {
+        this.claimName = claimName;
+    }
+
+    /**
+     * @param claims claims of the assertion
+     * @return true if the claims satisfy the rule
+     */
+    public boolean matches(Map<String, Object> claims) {
+        Object value = claims.get(claimName);
+        // Only the required rule constrains the presence of a claim, the others check it when it is there.
+        return value == null ? matchesAbsent() : matchesValue(value);
+    }
+
+    protected boolean matchesAbsent() {
+        return true;
+    }
+
+    protected abstract boolean matchesValue(Object value);
+
+    /**
+     * @return a short description of the rule, used when reporting a failed rule
+     */
+    public abstract String getDescription();
+
+    public String getClaimName() {
+        return claimName;
+    }
+
+    /**
+     * @return the value as a string, without allocating for string claims
+     */
+    static String asString(Object value) {
+        return value instanceof String ? (String) value : String.valueOf(value);
+    }
+}
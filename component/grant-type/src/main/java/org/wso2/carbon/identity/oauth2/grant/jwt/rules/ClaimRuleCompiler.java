@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.rules;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles the claim rule configuration of an identity provider. The configuration is a JSON object keyed by claim
+ * name, for example:
+ * <pre>
+ * {
+ *   "department": {"required": true, "values": ["engineering", "operations"]},
+ *   "email": {"pattern": "[^@]+@example\\.com"},
+ *   "level": {"min": 1, "max": 5},
+ *   "groups": {"contains": ["partners"]}
+ * }
+ * </pre>
+ * A claim that is not required is only checked when present, except for "contains" which needs the array claim.
+ */
+public class ClaimRuleCompiler {
+
+    private static final String REQUIRED = "required";
+    private static final String VALUES = "values";
+    private static final String PATTERN = "pattern";
+    private static final String MIN = "min";
+    private static final String MAX = "max";
+    private static final String CONTAINS = "contains";
+
+    private ClaimRuleCompiler() {
+    }
+
+    /**
+     * @param source claim rule configuration
+     * @return the compiled rule set
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public static ClaimRuleSet compile(String source) {
+        Map<String, Object> config;
+        try {
+            config = JSONObjectUtils.parse(source);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Claim rules are not a valid JSON object: " + e.getMessage(), e);
+        }
+
+        List<ClaimRule> rules = new ArrayList<>();
+        // Presence checks first, since they are the cheapest and most likely to fail.
+        for (Map.Entry<String, Object> entry : config.entrySet()) {
+            Map<String, Object> claimConfig = getClaimConfig(entry.getKey(), entry.getValue());
+            if (Boolean.TRUE.equals(claimConfig.get(REQUIRED))) {
+                rules.add(new RequiredClaimRule(entry.getKey()));
+            }
+        }
+        for (Map.Entry<String, Object> entry : config.entrySet()) {
+            String claimName = entry.getKey();
+            Map<String, Object> claimConfig = getClaimConfig(claimName, entry.getValue());
+            for (Map.Entry<String, Object> constraint : claimConfig.entrySet()) {
+                String name = constraint.getKey();
+                Object value = constraint.getValue();
+                if (VALUES.equals(name)) {
+                    rules.add(new AllowedValuesClaimRule(claimName, getStrings(claimName, name, value)));
+                } else if (PATTERN.equals(name)) {
+                    rules.add(new PatternClaimRule(claimName, getPattern(claimName, value)));
+                } else if (CONTAINS.equals(name)) {
+                    Set<String> requiredValues = getStrings(claimName, name, value);
+                    rules.add(new ContainsClaimRule(claimName, requiredValues.toArray(new String[0])));
+                } else if (!REQUIRED.equals(name) && !MIN.equals(name) && !MAX.equals(name)) {
+                    throw new IllegalArgumentException("Unknown rule " + name + " for claim " + claimName);
+                }
+            }
+            if (claimConfig.containsKey(MIN) || claimConfig.containsKey(MAX)) {
+                rules.add(new RangeClaimRule(claimName, getNumber(claimName, MIN, claimConfig.get(MIN),
+                        Double.NEGATIVE_INFINITY), getNumber(claimName, MAX, claimConfig.get(MAX),
+                        Double.POSITIVE_INFINITY)));
+            }
+        }
+        return new ClaimRuleSet(source, rules.toArray(new ClaimRule[rules.size()]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getClaimConfig(String claimName, Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Rules of claim " + claimName + " must be a JSON object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static Set<String> getStrings(String claimName, String rule, Object value) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Rule " + rule + " of claim " + claimName + " must be an array");
+        }
+        Set<String> strings = new HashSet<>();
+        for (Object element : (List<?>) value) {
+            strings.add(String.valueOf(element));
+        }
+        return strings;
+    }
+
+    private static Pattern getPattern(String claimName, Object value) {
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("Pattern of claim " + claimName + " must be a string");
+        }
+        try {
+            return Pattern.compile((String) value);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid pattern for claim " + claimName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static double getNumber(String claimName, String rule, Object value, double defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("Rule " + rule + " of claim " + claimName + " must be a number");
+        }
+        return ((Number) value).doubleValue();
+    }
+}
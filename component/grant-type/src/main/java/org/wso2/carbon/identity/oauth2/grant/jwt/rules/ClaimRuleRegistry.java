@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.rules;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.application.common.model.IdentityProviderProperty;
+import org.wso2.carbon.identity.oauth2.grant.jwt.JWTConstants;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+import org.wso2.carbon.identity.oauth2.grant.jwt.metrics.GrantMetrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the compiled claim rules of each identity provider, configured as JSON in the
+ * {@link JWTConstants#CLAIM_RULES_IDP_PROPERTY} property. Rules are compiled on first use and only recompiled when
+ * the configured JSON changes, or after the {@link JWTCacheManager} evicted them. Evaluation counts and times are
+ * kept in {@link GrantMetrics}.
+ */
+public class ClaimRuleRegistry {
+
+    private static final Log log = LogFactory.getLog(ClaimRuleRegistry.class);
+    private static final ClaimRuleRegistry instance = new ClaimRuleRegistry();
+    private static final char KEY_SEPARATOR = '\u0000';
+    // Compiled rules keep the source and hold the parsed values and patterns.
+    private static final int COMPILED_EXPANSION = 3;
+
+    private final ManagedCache<ClaimRuleSet> ruleSets;
+    private final AtomicLong compilations;
+    private final AtomicLong evaluations;
+    private final AtomicLong evaluationNanos;
+    private final AtomicLong rejected;
+
+    private ClaimRuleRegistry() {
+        ruleSets = JWTCacheManager.getInstance().getCache("claimRules", new Weigher<ClaimRuleSet>() {
+            @Override
+            public long weigh(String key, ClaimRuleSet ruleSet) {
+                return SizeEstimator.sizeOfParsed(ruleSet.getSource().length() * 2, COMPILED_EXPANSION);
+            }
+        });
+        GrantMetrics metrics = GrantMetrics.getInstance();
+        compilations = metrics.counter("claimRules.compilations");
+        evaluations = metrics.counter("claimRules.evaluations");
+        evaluationNanos = metrics.counter("claimRules.evaluationNanos");
+        rejected = metrics.counter("claimRules.rejected");
+    }
+
+    public static ClaimRuleRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Evaluate the claim rules of the identity provider.
+     *
+     * @param tenantDomain     tenant domain
+     * @param identityProvider identity provider that issued the assertion
+     * @param claims           claims of the assertion
+     * @return null if the identity provider has no rules or the claims satisfy them, otherwise the reason of the
+     * failure
+     */
+    public String evaluate(String tenantDomain, IdentityProvider identityProvider, Map<String, Object> claims) {
+        ClaimRuleSet ruleSet = getRuleSet(tenantDomain, identityProvider);
+        if (ruleSet == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        String failure = ruleSet.evaluate(claims);
+        evaluationNanos.addAndGet(System.nanoTime() - start);
+        evaluations.incrementAndGet();
+        if (failure != null) {
+            rejected.incrementAndGet();
+        }
+        return failure;
+    }
+
+    /**
+     * @param identityProvider identity provider
+     * @return whether claim rules are configured for the identity provider
+     */
+    public boolean hasRules(IdentityProvider identityProvider) {
+        return getRuleSource(identityProvider) != null;
+    }
+
+    /**
+     * Drop the rule sets of a tenant, e.g. after an identity provider was removed.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void invalidate(String tenantDomain) {
+        ruleSets.invalidate(tenantDomain + KEY_SEPARATOR);
+    }
+
+    private ClaimRuleSet getRuleSet(String tenantDomain, IdentityProvider identityProvider) {
+        String source = getRuleSource(identityProvider);
+        String key = tenantDomain + KEY_SEPARATOR + identityProvider.getIdentityProviderName();
+        if (source == null) {
+            ruleSets.remove(key);
+            return null;
+        }
+        ClaimRuleSet ruleSet = ruleSets.get(key);
+        if (ruleSet != null && source.equals(ruleSet.getSource())) {
+            return ruleSet;
+        }
+        try {
+            ruleSet = ClaimRuleCompiler.compile(source);
+            if (log.isDebugEnabled()) {
+                log.debug("Compiled " + ruleSet.size() + " claim rules of identity provider: " +
+                        identityProvider.getIdentityProviderName());
+            }
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid claim rules configured for identity provider: " +
+                    identityProvider.getIdentityProviderName() + ". Assertions of the identity provider will be " +
+                    "rejected until the rules are fixed.", e);
+            ruleSet = new ClaimRuleSet(source, "Claim rules of the identity provider are invalid");
+        }
+        compilations.incrementAndGet();
+        ruleSets.put(key, ruleSet);
+        return ruleSet;
+    }
+
+    private static String getRuleSource(IdentityProvider identityProvider) {
+        IdentityProviderProperty[] idpProperties = identityProvider.getIdpProperties();
+        if (idpProperties != null) {
+            for (IdentityProviderProperty idpProperty : idpProperties) {
+                if (JWTConstants.CLAIM_RULES_IDP_PROPERTY.equals(idpProperty.getName()) &&
+                        StringUtils.isNotBlank(idpProperty.getValue())) {
+                    return idpProperty.getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
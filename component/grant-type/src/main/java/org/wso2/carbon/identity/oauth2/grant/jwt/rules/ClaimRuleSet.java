@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.rules;
+
+import java.util.Map;
+
+/**
+ * The compiled claim rules of an identity provider, evaluated in order until one fails. A rule set whose
+ * configuration could not be compiled rejects every assertion, since the intended checks can not be applied.
+ */
+public class ClaimRuleSet {
+
+    private final String source;
+    private final ClaimRule[] rules;
+    private final String compileError;
+
+    ClaimRuleSet(String source, ClaimRule[] rules) {
+        this.source = source;
+        this.rules = rules;
+        this.compileError = null;
+    }
+
+    ClaimRuleSet(String source, String compileError) {
+        this.source = source;
+        this.rules = new ClaimRule[0];
+        this.compileError = compileError;
+    }
+
+    /**
+     * @param claims claims of the assertion
+     * @return null if the claims satisfy all the rules, otherwise the reason of the failure
+     */
+    public String evaluate(Map<String, Object> claims) {
+        if (compileError != null) {
+            return compileError;
+        }
+        for (ClaimRule rule : rules) {
+            if (!rule.matches(claims)) {
+                return "Claim " + rule.getClaimName() + " is not " + rule.getDescription();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the configuration the rule set was compiled from
+     */
+    String getSource() {
+        return source;
+    }
+
+    public int size() {
+        return rules.length;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.rules;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Requires an array claim to contain all of a set of values.
+ */
+public class ContainsClaimRule extends ClaimRule {
+
+    private final String[] requiredValues;
+
+    public ContainsClaimRule(String claimName, String[] requiredValues) {
+        super(claimName);
+        this.requiredValues = requiredValues.clone();
+    }
+
+    @Override
+    protected boolean matchesAbsent() {
+        return false;
+    }
+
+    @Override
+    protected boolean matchesValue(Object value) {
+        if (!(value instanceof List)) {
+            return false;
+        }
+        List<?> values = (List<?>) value;
+        for (String requiredValue : requiredValues) {
+            if (!containsValue(values, requiredValue)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsValue(List<?> values, String requiredValue) {
+        for (int i = 0; i < values.size(); i++) {
+            if (requiredValue.equals(asString(values.get(i)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String getDescription() {
+        return "containing " + Arrays.toString(requiredValues);
+    }
+}
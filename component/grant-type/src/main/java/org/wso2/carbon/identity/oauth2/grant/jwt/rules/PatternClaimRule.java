@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.rules;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Requires the whole claim value to match a regular expression. For an array claim every element must match. The
+ * pattern is compiled once when the rule is built.
+ */
+public class PatternClaimRule extends ClaimRule {
+
+    private final Pattern pattern;
+
+    public PatternClaimRule(String claimName, Pattern pattern) {
+        super(claimName);
+        this.pattern = pattern;
+    }
+
+    @Override
+    protected boolean matchesValue(Object value) {
+        if (value instanceof List) {
+            List<?> values = (List<?>) value;
+            for (int i = 0; i < values.size(); i++) {
+                if (!pattern.matcher(asString(values.get(i))).matches()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return pattern.matcher(asString(value)).matches();
+    }
+
+    @Override
+    public String getDescription() {
+        return "matching " + pattern.pattern();
+    }
+}
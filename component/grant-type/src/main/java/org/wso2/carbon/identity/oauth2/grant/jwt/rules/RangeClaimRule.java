@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.rules;
+
+import java.util.Date;
+
+/**
+ * Requires a numeric claim to be within an inclusive range. Date claims are compared in seconds since the epoch,
+ * which is how they appear in the assertion.
+ */
+public class RangeClaimRule extends ClaimRule {
+
+    private final double min;
+    private final double max;
+
+    public RangeClaimRule(String claimName, double min, double max) {
+        super(claimName);
+        if (min > max) {
+            throw new IllegalArgumentException("Minimum " + min + " of claim " + claimName + " is above maximum " +
+                    max);
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    protected boolean matchesValue(Object value) {
+        double number;
+        if (value instanceof Number) {
+            number = ((Number) value).doubleValue();
+        } else if (value instanceof Date) {
+            number = ((Date) value).getTime() / 1000;
+        } else {
+            return false;
+        }
+        return number >= min && number <= max;
+    }
+
+    @Override
+    public String getDescription() {
+        return "in range [" + min + ", " + max + "]";
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.sidecar;
+
+import com.nimbusds.jose.JOSEException;
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cert.SignerCertificateValidator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.CertificateTrustedIssuer;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.IssuerResolver;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.TrustedIssuer;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * {@link IssuerResolver} over a fixed set of issuers read from the sidecar configuration:
+ * <pre>
+ * issuers=partner
+ * issuer.partner.name=https://partner.example.com
+ * issuer.partner.audience=https://localhost:9443/oauth2/token
+ * issuer.partner.certificate=/opt/sidecar/partner.pem
+ * issuer.partner.tenantDomain=example.com
+ * </pre>
+ * An issuer without a tenant domain is trusted by every tenant.
+ */
+public class ConfiguredIssuerResolver implements IssuerResolver {
+
+    private static final String ISSUERS = "issuers";
+    private static final String ISSUER_PREFIX = "issuer.";
+    private static final String ANY_TENANT = "";
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final Map<String, TrustedIssuer> issuers;
+
+    private ConfiguredIssuerResolver(Map<String, TrustedIssuer> issuers) {
+        this.issuers = issuers;
+    }
+
+    /**
+     * @param properties sidecar configuration
+     * @return the resolver of the configured issuers
+     * @throws IOException              if a certificate can not be read
+     * @throws IllegalArgumentException if an issuer is not fully configured
+     */
+    public static ConfiguredIssuerResolver fromProperties(Properties properties) throws IOException {
+        Map<String, TrustedIssuer> issuers = new HashMap<>();
+        SignerCertificateValidator certificateValidator = SignerCertificateValidator.fromProperties(properties);
+        for (String id : StringUtils.split(properties.getProperty(ISSUERS, ""), ',')) {
+            id = id.trim();
+            String name = getRequired(properties, id, "name");
+            String audience = getRequired(properties, id, "audience");
+            String certificatePath = getRequired(properties, id, "certificate");
+            String tenantDomain = properties.getProperty(ISSUER_PREFIX + id + ".tenantDomain", ANY_TENANT).trim();
+            try {
+                issuers.put(tenantDomain + KEY_SEPARATOR + name, new CertificateTrustedIssuer(name, audience,
+                        readCertificate(certificatePath), certificateValidator));
+            } catch (JOSEException | CertificateException e) {
+                throw new IllegalArgumentException("Invalid certificate for issuer " + id + ": " + e.getMessage(), e);
+            }
+        }
+        return new ConfiguredIssuerResolver(issuers);
+    }
+
+    @Override
+    public TrustedIssuer resolve(String tenantDomain, String issuer) {
+        TrustedIssuer trustedIssuer = issuers.get(tenantDomain + KEY_SEPARATOR + issuer);
+        if (trustedIssuer == null) {
+            trustedIssuer = issuers.get(ANY_TENANT + KEY_SEPARATOR + issuer);
+        }
+        return trustedIssuer;
+    }
+
+    public int size() {
+        return issuers.size();
+    }
+
+    private static String getRequired(Properties properties, String id, String name) {
+        String value = properties.getProperty(ISSUER_PREFIX + id + "." + name);
+        if (StringUtils.isBlank(value)) {
+            throw new IllegalArgumentException("Missing " + ISSUER_PREFIX + id + "." + name);
+        }
+        return value.trim();
+    }
+
+    private static X509Certificate readCertificate(String path) throws IOException, CertificateException {
+        try (InputStream inputStream = new FileInputStream(path)) {
+            return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(inputStream);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.sidecar;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A response of the {@link ValidationServer}.
+ */
+public class HttpResponse {
+
+    private static final String JSON_CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    private final int status;
+    private final String reasonPhrase;
+    private final byte[] body;
+
+    public HttpResponse(int status, String reasonPhrase, byte[] body) {
+        this.status = status;
+        this.reasonPhrase = reasonPhrase;
+        this.body = body;
+    }
+
+    public static HttpResponse json(int status, String reasonPhrase, String json) {
+        return new HttpResponse(status, reasonPhrase, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    ByteBuffer encode(boolean keepAlive) {
+        StringBuilder head = new StringBuilder(128);
+        head.append("HTTP/1.1 ").append(status).append(' ').append(reasonPhrase).append("\r\n")
+                .append("Content-Type: ").append(JSON_CONTENT_TYPE).append("\r\n")
+                .append("Content-Length: ").append(body.length).append("\r\n")
+                .append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        ByteBuffer buffer = ByteBuffer.allocate(headBytes.length + body.length);
+        buffer.put(headBytes).put(body);
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.sidecar;
+
+import com.nimbusds.jwt.SignedJWT;
+import net.minidev.json.JSONObject;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.JWTConstants;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditReason;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.AssertionValidationException;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.JWTAssertionValidator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ValidatedAssertion;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serves the validation endpoint of the sidecar:
+ * <pre>
+ * POST /validate
+ * Content-Type: application/x-www-form-urlencoded
+ *
+ * assertion=eyJhbGciOiJSUzI1NiJ9...&amp;tenant_domain=carbon.super&amp;client_id=client
+ * </pre>
+ * The response is a JSON object with "valid": true and the issuer, subject, JWT id and expiry of the assertion, or
+ * "valid": false with the rejection reason. GET /health reports that the sidecar is up.
+ */
+public class ValidationRequestHandler implements ValidationServer.RequestHandler {
+
+    private static final Log log = LogFactory.getLog(ValidationRequestHandler.class);
+    private static final String VALIDATE_PATH = "/validate";
+    private static final String HEALTH_PATH = "/health";
+    private static final String TENANT_DOMAIN_PARAM = "tenant_domain";
+    private static final String CLIENT_ID_PARAM = "client_id";
+
+    private final JWTAssertionValidator validator;
+    private final String defaultTenantDomain;
+
+    public ValidationRequestHandler(JWTAssertionValidator validator, String defaultTenantDomain) {
+        this.validator = validator;
+        this.defaultTenantDomain = defaultTenantDomain;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        if (HEALTH_PATH.equals(request.getPath())) {
+            return HttpResponse.json(200, "OK", "{\"status\":\"UP\"}");
+        }
+        if (!VALIDATE_PATH.equals(request.getPath())) {
+            return HttpResponse.json(404, "Not Found", "{}");
+        }
+        if (!"POST".equals(request.getMethod())) {
+            return HttpResponse.json(405, "Method Not Allowed", "{}");
+        }
+
+        Map<String, String> params;
+        try {
+            params = parseForm(new String(request.getBody(), StandardCharsets.ISO_8859_1));
+        } catch (IllegalArgumentException | UnsupportedEncodingException e) {
+            return invalid(400, "Bad Request", AuditReason.INVALID_ASSERTION, "Malformed request body");
+        }
+        String assertion = params.get(JWTConstants.OAUTH_JWT_ASSERTION);
+        if (StringUtils.isEmpty(assertion)) {
+            return invalid(400, "Bad Request", AuditReason.INVALID_ASSERTION,
+                    "No assertion was found in the request");
+        }
+        String tenantDomain = params.get(TENANT_DOMAIN_PARAM);
+        if (StringUtils.isEmpty(tenantDomain)) {
+            tenantDomain = defaultTenantDomain;
+        }
+
+        SignedJWT signedJWT;
+        try {
+            signedJWT = SignedJWT.parse(assertion);
+        } catch (ParseException e) {
+            return invalid(200, "OK", AuditReason.INVALID_ASSERTION, "Error while parsing the JWT");
+        }
+        try {
+            ValidatedAssertion validatedAssertion = validator.validate(tenantDomain, params.get(CLIENT_ID_PARAM),
+                    signedJWT);
+            JSONObject response = new JSONObject();
+            response.put("valid", true);
+            response.put("iss", validatedAssertion.getIssuer());
+            response.put("sub", validatedAssertion.getSubject());
+            response.put("jti", validatedAssertion.getJti());
+            response.put("exp", validatedAssertion.getClaimsSet().getExpirationTime().getTime() / 1000);
+            response.put("tenant_domain", tenantDomain);
+            return HttpResponse.json(200, "OK", response.toJSONString());
+        } catch (AssertionValidationException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Assertion rejected: " + e.getMessage());
+            }
+            return invalid(200, "OK", e.getReason(), e.getMessage());
+        }
+    }
+
+    private static HttpResponse invalid(int status, String reasonPhrase, AuditReason reason, String description) {
+        JSONObject response = new JSONObject();
+        response.put("valid", false);
+        response.put("reason", reason.name());
+        response.put("error_description", description);
+        return HttpResponse.json(status, reasonPhrase, response.toJSONString());
+    }
+
+    private static Map<String, String> parseForm(String body) throws UnsupportedEncodingException {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : StringUtils.split(body, '&')) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, equals), "UTF-8"),
+                        URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+            }
+        }
+        return params;
+    }
+}
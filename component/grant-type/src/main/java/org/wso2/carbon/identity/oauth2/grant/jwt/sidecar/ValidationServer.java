@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.sidecar;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Minimal HTTP/1.1 server on non-blocking channels. A single selector thread accepts connections, reads and parses
+ * requests and writes responses, while requests are handled on a worker pool so that signature verification does
+ * not stall the selector. Connections are kept alive and pipelined requests are served in order. Only requests
+ * with a Content-Length body are supported.
+ */
+public class ValidationServer {
+
+    private static final Log log = LogFactory.getLog(ValidationServer.class);
+    private static final int MAX_HEADER_SIZE = 8192;
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+
+    /**
+     * Handles the requests of the server. Called on a worker thread.
+     */
+    public interface RequestHandler {
+
+        HttpResponse handle(HttpRequest request);
+    }
+
+    private final InetSocketAddress address;
+    private final int maxBodySize;
+    private final ExecutorService workers;
+    private final RequestHandler requestHandler;
+    private final Queue<Connection> completed = new ConcurrentLinkedQueue<>();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    /**
+     * @param address        address to listen on
+     * @param maxBodySize    largest accepted request body, in bytes
+     * @param workers        pool the requests are handled on, preferably with a bounded queue
+     * @param requestHandler request handler
+     */
+    public ValidationServer(InetSocketAddress address, int maxBodySize, ExecutorService workers,
+                            RequestHandler requestHandler) {
+        this.address = address;
+        this.maxBodySize = maxBodySize;
+        this.workers = workers;
+        this.requestHandler = requestHandler;
+    }
+
+    public synchronized void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        selectorThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runSelector();
+            }
+        }, "jwt-validation-selector");
+        selectorThread.start();
+    }
+
+    /**
+     * @return the port the server listens on, which is useful when it was started on port 0
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+    }
+
+    private void runSelector() {
+        try {
+            while (running) {
+                selector.select();
+                Connection connection;
+                while ((connection = completed.poll()) != null) {
+                    if (connection.key.isValid()) {
+                        connection.key.interestOps(SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isReadable()) {
+                            read((Connection) key.attachment());
+                        } else if (key.isWritable()) {
+                            write((Connection) key.attachment());
+                        }
+                    } catch (IOException e) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Closing connection after I/O error", e);
+                        }
+                        close(key);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            log.error("Validation server selector failed", e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (!connection.in.hasRemaining()) {
+            connection.grow(connection.in.capacity() * 2);
+        }
+        if (connection.channel.read(connection.in) < 0) {
+            close(connection.key);
+            return;
+        }
+        dispatch(connection);
+    }
+
+    private void write(Connection connection) throws IOException {
+        connection.channel.write(connection.out);
+        if (connection.out.hasRemaining()) {
+            return;
+        }
+        connection.out = null;
+        if (!connection.keepAlive) {
+            close(connection.key);
+            return;
+        }
+        connection.key.interestOps(SelectionKey.OP_READ);
+        // The buffer may already hold the next pipelined request.
+        dispatch(connection);
+    }
+
+    /**
+     * Hand the buffered request of the connection to a worker, if it has been fully read.
+     */
+    private void dispatch(final Connection connection) {
+        ByteBuffer in = connection.in;
+        int headerEnd = indexOf(in, HEADER_END);
+        if (headerEnd < 0) {
+            if (in.position() >= MAX_HEADER_SIZE) {
+                respondAndClose(connection, 431, "Request Header Fields Too Large");
+            }
+            return;
+        }
+
+        String head = new String(in.array(), 0, headerEnd, StandardCharsets.ISO_8859_1);
+        String[] lines = head.split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length != 3) {
+            respondAndClose(connection, 400, "Bad Request");
+            return;
+        }
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) {
+                headers.put(lines[i].substring(0, colon).trim().toLowerCase(), lines[i].substring(colon + 1).trim());
+            }
+        }
+        if (headers.containsKey("transfer-encoding")) {
+            respondAndClose(connection, 411, "Length Required");
+            return;
+        }
+        int contentLength;
+        try {
+            String contentLengthHeader = headers.get("content-length");
+            contentLength = contentLengthHeader == null ? 0 : Integer.parseInt(contentLengthHeader);
+        } catch (NumberFormatException e) {
+            respondAndClose(connection, 400, "Bad Request");
+            return;
+        }
+        if (contentLength < 0 || contentLength > maxBodySize) {
+            respondAndClose(connection, 413, "Payload Too Large");
+            return;
+        }
+        int requestEnd = headerEnd + HEADER_END.length + contentLength;
+        if (in.position() < requestEnd) {
+            if (in.capacity() < requestEnd) {
+                connection.grow(requestEnd);
+            }
+            return;
+        }
+
+        byte[] body = new byte[contentLength];
+        System.arraycopy(in.array(), headerEnd + HEADER_END.length, body, 0, contentLength);
+        // Keep any bytes of a following request.
+        in.flip();
+        in.position(requestEnd);
+        in.compact();
+
+        String version = requestLine[2];
+        String connectionHeader = headers.get("connection");
+        connection.keepAlive = "HTTP/1.1".equals(version) ? !"close".equalsIgnoreCase(connectionHeader) :
+                "keep-alive".equalsIgnoreCase(connectionHeader);
+        final HttpRequest request = new HttpRequest(requestLine[0], requestLine[1], headers, body);
+
+        connection.key.interestOps(0);
+        try {
+            workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    HttpResponse response;
+                    try {
+                        response = requestHandler.handle(request);
+                    } catch (RuntimeException e) {
+                        log.error("Error while handling request to " + request.getPath(), e);
+                        response = HttpResponse.json(500, "Internal Server Error", "{}");
+                    }
+                    complete(connection, response);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            connection.out = HttpResponse.json(503, "Service Unavailable", "{}").encode(connection.keepAlive);
+            connection.key.interestOps(SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void complete(Connection connection, HttpResponse response) {
+        connection.out = response.encode(connection.keepAlive);
+        completed.add(connection);
+        selector.wakeup();
+    }
+
+    private void respondAndClose(Connection connection, int status, String reasonPhrase) {
+        connection.keepAlive = false;
+        connection.out = HttpResponse.json(status, reasonPhrase, "{}").encode(false);
+        connection.key.interestOps(SelectionKey.OP_WRITE);
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte[] pattern) {
+        byte[] array = buffer.array();
+        int limit = buffer.position() - pattern.length;
+        outer:
+        for (int i = 0; i <= limit; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (array[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error while closing connection", e);
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            close(key);
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.error("Error while closing the validation server selector", e);
+        }
+    }
+
+    private static class Connection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private ByteBuffer in = ByteBuffer.allocate(4096);
+        private ByteBuffer out;
+        private boolean keepAlive;
+
+        private Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        private void grow(int capacity) {
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            in.flip();
+            grown.put(in);
+            in = grown;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.sidecar;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.FixedValidationSettings;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.InMemoryReplayStore;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.JWTAssertionValidator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ReplayStore;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ValidationHooks;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Standalone JWT assertion validation service, running the same {@link JWTAssertionValidator} as the grant handler
+ * outside of the Carbon runtime. Start it with the bundle, nimbus-jose-jwt, json-smart, commons-lang and
+ * commons-logging on the class path:
+ * <pre>
+ * java -cp ... org.wso2.carbon.identity.oauth2.grant.jwt.sidecar.ValidationSidecar sidecar.properties
+ * </pre>
+ * Apart from the issuers read by {@link ConfiguredIssuerResolver}, the configuration holds bindAddress, port,
+ * workerThreads, workerQueueSize, maxRequestSize, defaultTenantDomain, timeStampSkew (seconds), validityPeriod
+ * (minutes), replayDetectionEnabled and replayCacheMaxEntries. Replay detection is local to each sidecar. Signer
+ * certificates are validated with the signerCertificateValidationEnabled and revocation* settings of jwt.properties.
+ */
+public class ValidationSidecar {
+
+    private static final Log log = LogFactory.getLog(ValidationSidecar.class);
+
+    private final ValidationServer server;
+
+    public ValidationSidecar(Properties properties) throws IOException {
+        ReplayStore replayStore = null;
+        if (Boolean.parseBoolean(properties.getProperty("replayDetectionEnabled", "true"))) {
+            replayStore = new InMemoryReplayStore(Integer.parseInt(
+                    properties.getProperty("replayCacheMaxEntries", "100000")));
+        }
+        JWTAssertionValidator validator = new JWTAssertionValidator(
+                ConfiguredIssuerResolver.fromProperties(properties),
+                new FixedValidationSettings(
+                        TimeUnit.SECONDS.toMillis(Long.parseLong(properties.getProperty("timeStampSkew", "300"))),
+                        TimeUnit.MINUTES.toMillis(Long.parseLong(properties.getProperty("validityPeriod", "30")))),
+                replayStore, new ValidationHooks());
+
+        int workerThreads = Integer.parseInt(properties.getProperty("workerThreads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Integer.parseInt(properties.getProperty("workerQueueSize", "1024"))));
+        server = new ValidationServer(
+                new InetSocketAddress(properties.getProperty("bindAddress", "127.0.0.1"),
+                        Integer.parseInt(properties.getProperty("port", "9765"))),
+                Integer.parseInt(properties.getProperty("maxRequestSize", "65536")), workers,
+                new ValidationRequestHandler(validator, properties.getProperty("defaultTenantDomain",
+                        "carbon.super")));
+    }
+
+    public void start() throws IOException {
+        server.start();
+        log.info("JWT validation sidecar listening on port " + server.getPort());
+    }
+
+    public void stop() {
+        server.stop();
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: ValidationSidecar <configuration file>");
+            System.exit(1);
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(args[0])) {
+            properties.load(inputStream);
+        }
+        final ValidationSidecar sidecar = new ValidationSidecar(properties);
+        sidecar.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                sidecar.stop();
+            }
+        }));
+    }
+}
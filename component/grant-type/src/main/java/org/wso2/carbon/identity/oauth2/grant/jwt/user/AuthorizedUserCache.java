@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.user;
+
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.JWTCacheManager;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.ManagedCache;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.SizeEstimator;
+import org.wso2.carbon.identity.oauth2.grant.jwt.cache.Weigher;
+
+/**
+ * Cache of the authorized users resolved from assertion subjects, keyed by tenant, identity provider,
+ * subject and whether the subject is split into user store domain, user name and tenant. Entries expire after a
+ * fixed time and are dropped per tenant when an identity provider or a user of the tenant changes. The cache holds
+ * its own instances and hands out copies, so a request can not change the user seen by another. Its size is bounded
+ * by the budget of the {@link JWTCacheManager}.
+ */
+public class AuthorizedUserCache {
+
+    private static final AuthorizedUserCache instance = new AuthorizedUserCache();
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final ManagedCache<AuthenticatedUser> users;
+    private volatile long timeToLiveMillis = 300000;
+
+    private AuthorizedUserCache() {
+        users = JWTCacheManager.getInstance().getCache("authorizedUser", new Weigher<AuthenticatedUser>() {
+            @Override
+            public long weigh(String key, AuthenticatedUser user) {
+                return SizeEstimator.OBJECT_OVERHEAD * 2 + SizeEstimator.sizeOf(user.getUserName(),
+                        user.getTenantDomain(), user.getUserStoreDomain(), user.getAuthenticatedSubjectIdentifier(),
+                        user.getFederatedIdPName());
+            }
+        });
+    }
+
+    public static AuthorizedUserCache getInstance() {
+        return instance;
+    }
+
+    public void configure(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    public static String buildKey(String tenantDomain, String identityProviderName, String subject,
+                                  boolean splitSubject) {
+        return tenantDomain + KEY_SEPARATOR + identityProviderName + KEY_SEPARATOR + subject + KEY_SEPARATOR +
+                splitSubject;
+    }
+
+    /**
+     * @param key cache key built with {@link #buildKey(String, String, String, boolean)}
+     * @return a copy of the cached user, or null if there is no live entry for the key
+     */
+    public AuthenticatedUser get(String key) {
+        AuthenticatedUser user = users.get(key);
+        return user != null ? copy(user) : null;
+    }
+
+    /**
+     * @param key  cache key built with {@link #buildKey(String, String, String, boolean)}
+     * @param user resolved user, which is copied before it is cached
+     */
+    public void put(String key, AuthenticatedUser user) {
+        users.put(key, copy(user), timeToLiveMillis);
+    }
+
+    /**
+     * Drop the users of a tenant.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void invalidate(String tenantDomain) {
+        users.invalidate(tenantDomain + KEY_SEPARATOR);
+    }
+
+    private static AuthenticatedUser copy(AuthenticatedUser user) {
+        AuthenticatedUser copy = new AuthenticatedUser();
+        copy.setUserName(user.getUserName());
+        copy.setTenantDomain(user.getTenantDomain());
+        copy.setUserStoreDomain(user.getUserStoreDomain());
+        copy.setAuthenticatedSubjectIdentifier(user.getAuthenticatedSubjectIdentifier());
+        copy.setFederatedUser(user.isFederatedUser());
+        copy.setFederatedIdPName(user.getFederatedIdPName());
+        return copy;
+    }
+}
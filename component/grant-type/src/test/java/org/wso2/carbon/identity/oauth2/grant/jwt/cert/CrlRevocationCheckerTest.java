@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+public class CrlRevocationCheckerTest {
+
+    private TestHttpServer server;
+    private TestPki.Authority authority;
+    private CrlRevocationChecker checker;
+    private int crls;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        server = new TestHttpServer();
+        authority = new TestPki.Authority("CN=Test CA");
+        checker = new CrlRevocationChecker(2000, TestPki.HOUR_MILLIS);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        server.close();
+        checker.clear();
+    }
+
+    @Test
+    public void testCertificateNotOnCrlIsGood() throws Exception {
+        String url = newCrlUrl();
+        X509Certificate certificate = authority.issue("CN=signer", url, null);
+        Date nextUpdate = new Date((System.currentTimeMillis() + TestPki.HOUR_MILLIS) / 1000 * 1000);
+        server.respond(path(url), authority.crl(nextUpdate));
+
+        RevocationStatus status = checker.check(certificate, authority.certificate);
+        assertEquals(status.getState(), RevocationStatus.State.GOOD);
+        assertEquals(status.getNextUpdateMillis(), nextUpdate.getTime());
+        assertEquals(status.getSource(), url);
+    }
+
+    @Test
+    public void testCertificateOnCrlIsRevoked() throws Exception {
+        String url = newCrlUrl();
+        X509Certificate certificate = authority.issue("CN=signer", url, null);
+        X509Certificate other = authority.issue("CN=other", url, null);
+        server.respond(path(url), authority.crl(new Date(System.currentTimeMillis() + TestPki.HOUR_MILLIS),
+                certificate.getSerialNumber()));
+
+        assertEquals(checker.check(certificate, authority.certificate).getState(), RevocationStatus.State.REVOKED);
+        assertEquals(checker.check(other, authority.certificate).getState(), RevocationStatus.State.GOOD);
+    }
+
+    @Test
+    public void testCrlIsDownloadedOncePerUrl() throws Exception {
+        String url = newCrlUrl();
+        server.respond(path(url), authority.crl(new Date(System.currentTimeMillis() + TestPki.HOUR_MILLIS)));
+        int requests = server.getRequestCount();
+        checker.check(authority.issue("CN=first", url, null), authority.certificate);
+        checker.check(authority.issue("CN=second", url, null), authority.certificate);
+        assertEquals(server.getRequestCount(), requests + 1);
+    }
+
+    @Test
+    public void testExpiredCrlReportsItsNextUpdate() throws Exception {
+        String url = newCrlUrl();
+        X509Certificate certificate = authority.issue("CN=signer", url, null);
+        Date nextUpdate = new Date((System.currentTimeMillis() - TestPki.HOUR_MILLIS) / 1000 * 1000);
+        server.respond(path(url), authority.crl(nextUpdate));
+
+        RevocationStatus status = checker.check(certificate, authority.certificate);
+        assertEquals(status.getNextUpdateMillis(), nextUpdate.getTime());
+    }
+
+    @Test
+    public void testCrlSignedWithOtherKeyIsRejected() throws Exception {
+        String url = newCrlUrl();
+        X509Certificate certificate = authority.issue("CN=signer", url, null);
+        server.respond(path(url), authority.crl(TestPki.newKeyPair().getPrivate(),
+                new Date(System.currentTimeMillis() + TestPki.HOUR_MILLIS)));
+        assertCheckFails(certificate);
+    }
+
+    @Test
+    public void testCrlOfOtherIssuerIsRejected() throws Exception {
+        String url = newCrlUrl();
+        X509Certificate certificate = authority.issue("CN=signer", url, null);
+        TestPki.Authority other = new TestPki.Authority("CN=Other CA", authority.keyPair);
+        server.respond(path(url), other.crl(new Date(System.currentTimeMillis() + TestPki.HOUR_MILLIS),
+                certificate.getSerialNumber()));
+        assertCheckFails(certificate);
+    }
+
+    @Test
+    public void testMalformedCrlIsRejected() throws Exception {
+        String url = newCrlUrl();
+        X509Certificate certificate = authority.issue("CN=signer", url, null);
+        server.respond(path(url), new byte[]{0x30, 0x03, 0x02, 0x01});
+        assertCheckFails(certificate);
+    }
+
+    @Test
+    public void testUnavailableCrlFails() throws Exception {
+        assertCheckFails(authority.issue("CN=signer", newCrlUrl(), null));
+    }
+
+    @Test
+    public void testCertificateWithoutDistributionPointIsNotChecked() throws Exception {
+        assertNull(checker.check(authority.issue("CN=signer", null, null), authority.certificate));
+    }
+
+    private void assertCheckFails(X509Certificate certificate) {
+        try {
+            checker.check(certificate, authority.certificate);
+            fail("Revocation status was reported for an unusable CRL");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private String newCrlUrl() {
+        return server.url("/crl/" + (++crls) + ".crl");
+    }
+
+    private static String path(String url) {
+        return url.substring(url.indexOf('/', "http://".length()));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import com.nimbusds.jose.util.Base64;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.security.cert.X509Certificate;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Checks the {@link DecodedCertificateCache} the grant handler resolves identity provider certificates through, and
+ * guards the allocation of a lookup that hits the cache in the same way as the JWTAssertionValidatorAllocationTest
+ * guards assertion validation.
+ */
+public class DecodedCertificateCacheTest {
+
+    private static final Log log = LogFactory.getLog(DecodedCertificateCacheTest.class);
+    // Measured on OpenJDK 17: 160 bytes.
+    private static final long CACHED_DECODE_MAX_BYTES = 224;
+    private static final int WARM_UP_ITERATIONS = 20000;
+    private static final int MEASURED_ITERATIONS = 10000;
+
+    private TestPki.Authority authority;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        authority = new TestPki.Authority("CN=Test CA");
+    }
+
+    @Test
+    public void testCertificateIsDecodedOnce() throws Exception {
+        String encoded = encode(authority.issue("CN=signer", null, null));
+        X509Certificate first = DecodedCertificateCache.getInstance().decode(encoded);
+        assertSame(DecodedCertificateCache.getInstance().decode(encoded), first);
+    }
+
+    @Test
+    public void testChangedCertificateIsDecodedAgain() throws Exception {
+        X509Certificate original = authority.issue("CN=signer", null, null);
+        X509Certificate renewed = authority.issue("CN=signer", null, null);
+        assertEquals(DecodedCertificateCache.getInstance().decode(encode(original)), original);
+        assertEquals(DecodedCertificateCache.getInstance().decode(encode(renewed)), renewed);
+    }
+
+    @Test
+    public void testCachedDecodeAllocation() throws Exception {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean) ||
+                !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            throw new SkipException("Per thread allocation counting is not supported by this virtual machine");
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        DecodedCertificateCache cache = DecodedCertificateCache.getInstance();
+        String encoded = encode(authority.issue("CN=signer", null, null));
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            cache.decode(encoded);
+        }
+        long threadId = Thread.currentThread().getId();
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            cache.decode(encoded);
+        }
+        long average = (threadMXBean.getThreadAllocatedBytes(threadId) - start) / MEASURED_ITERATIONS;
+        log.info("Cached signer certificate lookup allocates " + average + " bytes");
+        assertTrue(average <= CACHED_DECODE_MAX_BYTES, "Cached signer certificate lookup allocates " + average +
+                " bytes, over the limit of " + CACHED_DECODE_MAX_BYTES + " bytes");
+    }
+
+    private static String encode(X509Certificate certificate) throws Exception {
+        return Base64.encode(certificate.getEncoded()).toString();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class DerTest {
+
+    @Test
+    public void testEncodedElementIsReadBack() throws Exception {
+        byte[] content = new byte[300];
+        content[299] = 7;
+        byte[] encoded = Der.encode(Der.SEQUENCE, Der.encode(Der.OCTET_STRING, content), Der.encode(Der.NULL));
+
+        Der.Reader reader = new Der.Reader(encoded).next(Der.SEQUENCE).reader();
+        Der.Element octets = reader.next(Der.OCTET_STRING);
+        assertTrue(octets.contentEquals(content));
+        assertEquals(octets.getEncoded().length, 304);
+        assertEquals(reader.next(Der.NULL).getContent().length, 0);
+        assertFalse(reader.hasMore());
+        assertEquals(reader.peekTag(), -1);
+    }
+
+    @Test
+    public void testOidIsDecoded() throws Exception {
+        byte[] encoded = Der.encode(Der.OID, new byte[]{0x2b, 0x06, 0x01, 0x05, 0x05, 0x07, 0x30, 0x01});
+        assertEquals(new Der.Reader(encoded).next(Der.OID).getOid(), "1.3.6.1.5.5.7.48.1");
+        encoded = Der.encode(Der.OID, new byte[]{0x2a, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xf7, 0x0d, 0x01,
+                0x01, 0x0b});
+        assertEquals(new Der.Reader(encoded).next(Der.OID).getOid(), "1.2.840.113549.1.1.11");
+    }
+
+    @Test
+    public void testTruncatedElementIsRejected() {
+        assertInvalid(new byte[]{0x30});
+        assertInvalid(new byte[]{0x04, 0x05, 0x01, 0x02});
+        assertInvalid(new byte[]{0x04, (byte) 0x82, 0x01});
+    }
+
+    @Test
+    public void testLengthBeyondEnclosingElementIsRejected() throws Exception {
+        byte[] encoded = {0x30, 0x03, 0x04, 0x05, 0x01, 0x02, 0x03, 0x04, 0x05};
+        Der.Reader reader = new Der.Reader(encoded).next(Der.SEQUENCE).reader();
+        try {
+            reader.next();
+            fail("Element longer than its parent was read");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUnsupportedEncodingsAreRejected() {
+        assertInvalid(new byte[]{0x30, (byte) 0x80, 0x00, 0x00});
+        assertInvalid(new byte[]{0x1f, 0x01, 0x00});
+        assertInvalid(new byte[]{0x04, (byte) 0x85, 0x01, 0x00, 0x00, 0x00, 0x00});
+        assertInvalid(new byte[]{0x04, (byte) 0x84, (byte) 0x80, 0x00, 0x00, 0x00});
+    }
+
+    @Test
+    public void testUnexpectedTagIsRejected() {
+        try {
+            new Der.Reader(Der.encode(Der.INTEGER, new byte[]{1})).next(Der.SEQUENCE);
+            fail("Integer was read as a sequence");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static void assertInvalid(byte[] encoded) {
+        try {
+            new Der.Reader(encoded).next();
+            fail("Invalid DER encoding was read");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.Req;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class OcspRevocationCheckerTest {
+
+    private static final String RESPONDER_PATH = "/ocsp";
+
+    private TestHttpServer server;
+    private TestPki.Authority authority;
+    private X509Certificate certificate;
+    private OcspRevocationChecker checker;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        server = new TestHttpServer();
+        authority = new TestPki.Authority("CN=Test CA");
+        certificate = authority.issue("CN=signer", null, server.url(RESPONDER_PATH));
+        checker = new OcspRevocationChecker(2000, null, TestPki.HOUR_MILLIS);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testGoodResponse() throws Exception {
+        Date nextUpdate = new Date((System.currentTimeMillis() + TestPki.HOUR_MILLIS) / 1000 * 1000);
+        respond(CertificateStatus.GOOD, nextUpdate);
+
+        RevocationStatus status = checker.check(certificate, authority.certificate);
+        assertEquals(status.getState(), RevocationStatus.State.GOOD);
+        assertEquals(status.getNextUpdateMillis(), nextUpdate.getTime());
+        assertEquals(status.getSource(), server.url(RESPONDER_PATH));
+    }
+
+    @Test
+    public void testRequestIdentifiesCertificate() throws Exception {
+        respond(CertificateStatus.GOOD, null);
+        checker.check(certificate, authority.certificate);
+
+        Req[] requests = new OCSPReq(server.getLastRequest()).getRequestList();
+        assertEquals(requests.length, 1);
+        assertEquals(requests[0].getCertID().getSerialNumber(), certificate.getSerialNumber());
+        assertTrue(requests[0].getCertID().matchesIssuer(new JcaX509CertificateHolder(authority.certificate),
+                new JcaDigestCalculatorProviderBuilder().build()));
+    }
+
+    @Test
+    public void testRevokedResponse() throws Exception {
+        respond(new RevokedStatus(new Date(), CRLReason.keyCompromise), null);
+        RevocationStatus status = checker.check(certificate, authority.certificate);
+        assertEquals(status.getState(), RevocationStatus.State.REVOKED);
+        assertEquals(status.getNextUpdateMillis(), 0);
+    }
+
+    @Test
+    public void testUnknownResponse() throws Exception {
+        respond(new UnknownStatus(), null);
+        assertEquals(checker.check(certificate, authority.certificate).getState(), RevocationStatus.State.UNKNOWN);
+    }
+
+    @Test
+    public void testExpiredResponseIsRejected() throws Exception {
+        respond(CertificateStatus.GOOD, new Date(System.currentTimeMillis() - TestPki.HOUR_MILLIS));
+        assertCheckFails();
+    }
+
+    @Test
+    public void testResponseWithoutNextUpdateIsUsedForMaxAge() throws Exception {
+        Date thisUpdate = new Date((System.currentTimeMillis() - 60000) / 1000 * 1000);
+        server.respond(RESPONDER_PATH, authority.ocspResponse(certificate, CertificateStatus.GOOD, thisUpdate, null,
+                authority.keyPair.getPrivate()));
+        RevocationStatus status = checker.check(certificate, authority.certificate);
+        assertEquals(status.getState(), RevocationStatus.State.GOOD);
+        assertEquals(status.getNextUpdateMillis(), thisUpdate.getTime() + TestPki.HOUR_MILLIS);
+    }
+
+    @Test
+    public void testOldResponseWithoutNextUpdateIsRejected() throws Exception {
+        server.respond(RESPONDER_PATH, authority.ocspResponse(certificate, CertificateStatus.GOOD,
+                new Date(System.currentTimeMillis() - 2 * TestPki.HOUR_MILLIS), null, authority.keyPair.getPrivate()));
+        assertCheckFails();
+    }
+
+    @Test
+    public void testOldRevokedResponseIsAccepted() throws Exception {
+        server.respond(RESPONDER_PATH, authority.ocspResponse(certificate,
+                new RevokedStatus(new Date(), CRLReason.keyCompromise),
+                new Date(System.currentTimeMillis() - 2 * TestPki.HOUR_MILLIS), null, authority.keyPair.getPrivate()));
+        assertEquals(checker.check(certificate, authority.certificate).getState(), RevocationStatus.State.REVOKED);
+    }
+
+    @Test
+    public void testResponseSignedWithOtherKeyIsRejected() throws Exception {
+        server.respond(RESPONDER_PATH, authority.ocspResponse(certificate, CertificateStatus.GOOD, null,
+                TestPki.newKeyPair().getPrivate()));
+        assertCheckFails();
+    }
+
+    @Test
+    public void testResponseOfDelegatedResponderIsAccepted() throws Exception {
+        KeyPair responderKeyPair = TestPki.newKeyPair();
+        X509Certificate responder = authority.issueResponder(responderKeyPair, true);
+        server.respond(RESPONDER_PATH, authority.ocspResponse(certificate, new UnknownStatus(), null,
+                responderKeyPair.getPrivate(), responder));
+        assertEquals(checker.check(certificate, authority.certificate).getState(), RevocationStatus.State.UNKNOWN);
+    }
+
+    @Test
+    public void testResponderWithoutOcspSigningPurposeIsRejected() throws Exception {
+        KeyPair responderKeyPair = TestPki.newKeyPair();
+        X509Certificate responder = authority.issueResponder(responderKeyPair, false);
+        server.respond(RESPONDER_PATH, authority.ocspResponse(certificate, CertificateStatus.GOOD, null,
+                responderKeyPair.getPrivate(), responder));
+        assertCheckFails();
+    }
+
+    @Test
+    public void testResponderCertifiedByOtherAuthorityIsRejected() throws Exception {
+        KeyPair responderKeyPair = TestPki.newKeyPair();
+        X509Certificate responder = new TestPki.Authority("CN=Test CA", TestPki.newKeyPair())
+                .issueResponder(responderKeyPair, true);
+        server.respond(RESPONDER_PATH, authority.ocspResponse(certificate, CertificateStatus.GOOD, null,
+                responderKeyPair.getPrivate(), responder));
+        assertCheckFails();
+    }
+
+    @Test
+    public void testResponseForOtherCertificateIsRejected() throws Exception {
+        X509Certificate other = authority.issue("CN=other", null, server.url(RESPONDER_PATH));
+        server.respond(RESPONDER_PATH, authority.ocspResponse(other, CertificateStatus.GOOD, null,
+                authority.keyPair.getPrivate()));
+        assertCheckFails();
+    }
+
+    @Test
+    public void testUnsuccessfulResponseIsRejected() throws Exception {
+        server.respond(RESPONDER_PATH, new OCSPRespBuilder().build(OCSPRespBuilder.TRY_LATER, null).getEncoded());
+        assertCheckFails();
+    }
+
+    @Test
+    public void testMalformedResponseIsRejected() throws Exception {
+        byte[] response = authority.ocspResponse(certificate, CertificateStatus.GOOD, null,
+                authority.keyPair.getPrivate());
+        server.respond(RESPONDER_PATH, java.util.Arrays.copyOf(response, response.length / 2));
+        assertCheckFails();
+    }
+
+    @Test
+    public void testConfiguredResponderOverridesCertificate() throws Exception {
+        server.respond("/configured", authority.ocspResponse(certificate,
+                new RevokedStatus(new Date(), CRLReason.keyCompromise), null, authority.keyPair.getPrivate()));
+        respond(CertificateStatus.GOOD, null);
+        RevocationStatus status = new OcspRevocationChecker(2000, server.url("/configured"), TestPki.HOUR_MILLIS)
+                .check(certificate, authority.certificate);
+        assertEquals(status.getState(), RevocationStatus.State.REVOKED);
+    }
+
+    @Test
+    public void testCertificateWithoutResponderIsNotChecked() throws Exception {
+        assertNull(checker.check(authority.issue("CN=signer", null, null), authority.certificate));
+    }
+
+    private void respond(CertificateStatus status, Date nextUpdate) throws Exception {
+        server.respond(RESPONDER_PATH, authority.ocspResponse(certificate, status, nextUpdate,
+                authority.keyPair.getPrivate()));
+    }
+
+    private void assertCheckFails() {
+        try {
+            checker.check(certificate, authority.certificate);
+            fail("Revocation status was reported for an unusable OCSP response");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
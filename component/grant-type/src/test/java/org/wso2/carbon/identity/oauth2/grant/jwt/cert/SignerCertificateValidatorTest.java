@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class SignerCertificateValidatorTest {
+
+    private static final long RETRY_INTERVAL_MILLIS = 1000;
+
+    private TestPki.Authority authority;
+    private final List<SignerCertificateValidator> validators = new ArrayList<>();
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        authority = new TestPki.Authority("CN=Test CA");
+    }
+
+    @AfterMethod
+    public void shutdown() {
+        for (SignerCertificateValidator validator : validators) {
+            validator.shutdown();
+        }
+        validators.clear();
+    }
+
+    @Test
+    public void testRevokedStatusSurvivesFailedRefresh() throws Exception {
+        // The revoked status is already past its next update, so a refresh is due right after the first check.
+        ScriptedChecker checker = new ScriptedChecker(
+                new RevocationStatus(RevocationStatus.State.REVOKED, System.currentTimeMillis() - 1, "test"));
+        SignerCertificateValidator validator = newValidator(true, 60000, checker);
+        X509Certificate certificate = authority.issue("CN=signer", null, null);
+
+        assertRejected(validator, certificate, "is revoked");
+        Thread.sleep(3 * RETRY_INTERVAL_MILLIS);
+        assertRejected(validator, certificate, "is revoked");
+    }
+
+    @Test
+    public void testRevokedStatusIsNotReplacedByGoodResponse() throws Exception {
+        ScriptedChecker checker = new ScriptedChecker(
+                new RevocationStatus(RevocationStatus.State.REVOKED, System.currentTimeMillis() - 1, "test"),
+                new RevocationStatus(RevocationStatus.State.GOOD, 0, "test"));
+        SignerCertificateValidator validator = newValidator(true, 60000, checker);
+        X509Certificate certificate = authority.issue("CN=signer", null, null);
+
+        assertRejected(validator, certificate, "is revoked");
+        Thread.sleep(3 * RETRY_INTERVAL_MILLIS);
+        assertRejected(validator, certificate, "is revoked");
+    }
+
+    @Test
+    public void testGoodStatusBecomesUnknownWhenRefreshFailsAfterNextUpdate() throws Exception {
+        ScriptedChecker checker = new ScriptedChecker(
+                new RevocationStatus(RevocationStatus.State.GOOD, System.currentTimeMillis() + 200, "test"));
+        SignerCertificateValidator validator = newValidator(false, 60000, checker);
+        X509Certificate certificate = authority.issue("CN=signer", null, null);
+
+        validator.validate(certificate);
+        checker.awaitChecks(2);
+        assertRejected(validator, certificate, "is unknown");
+    }
+
+    @Test
+    public void testGoodStatusIsKeptWhenRefreshFailsBeforeNextUpdate() throws Exception {
+        ScriptedChecker checker = new ScriptedChecker(new RevocationStatus(RevocationStatus.State.GOOD,
+                System.currentTimeMillis() + TestPki.HOUR_MILLIS, "test"));
+        SignerCertificateValidator validator = newValidator(false, 200, checker);
+        X509Certificate certificate = authority.issue("CN=signer", null, null);
+
+        validator.validate(certificate);
+        checker.awaitChecks(2);
+        validator.validate(certificate);
+    }
+
+    @Test
+    public void testGoodStatusWithoutNextUpdateBecomesUnknownWhenRefreshFails() throws Exception {
+        ScriptedChecker checker = new ScriptedChecker(new RevocationStatus(RevocationStatus.State.GOOD, 0, "test"));
+        SignerCertificateValidator validator = newValidator(false, 1000, checker);
+        X509Certificate certificate = authority.issue("CN=signer", null, null);
+
+        validator.validate(certificate);
+        checker.awaitChecks(2);
+        assertRejected(validator, certificate, "is unknown");
+    }
+
+    @Test
+    public void testUnknownStatusFollowsSoftFail() throws Exception {
+        X509Certificate certificate = authority.issue("CN=signer", null, null);
+        newValidator(true, 60000, new ScriptedChecker(RevocationStatus.unknown("test"))).validate(certificate);
+        assertRejected(newValidator(false, 60000, new ScriptedChecker(RevocationStatus.unknown("test"))),
+                certificate, "is unknown");
+    }
+
+    @Test
+    public void testSelfIssuedCertificateIsNotChecked() throws Exception {
+        ScriptedChecker checker = new ScriptedChecker(new RevocationStatus(RevocationStatus.State.REVOKED, 0, "test"));
+        newValidator(false, 60000, checker).validate(authority.certificate);
+        assertEquals(checker.checks.get(), 0);
+    }
+
+    @Test
+    public void testRevokedCertificateOnCrl() throws Exception {
+        try (TestHttpServer server = new TestHttpServer()) {
+            server.respond("/ca.crt", authority.certificate.getEncoded());
+            X509Certificate revoked = withIssuerUrl(server, "/revoked.crl");
+            X509Certificate good = withIssuerUrl(server, "/good.crl");
+            Date nextUpdate = new Date(System.currentTimeMillis() + TestPki.HOUR_MILLIS);
+            server.respond("/revoked.crl", authority.crl(nextUpdate, revoked.getSerialNumber()));
+            server.respond("/good.crl", authority.crl(nextUpdate));
+
+            SignerCertificateValidator validator = newValidator(false, 60000,
+                    new CrlRevocationChecker(2000, TestPki.HOUR_MILLIS));
+            assertRejected(validator, revoked, "is revoked");
+            validator.validate(good);
+        }
+    }
+
+    @Test
+    public void testGoodStatusOfExpiredCrlIsUnknown() throws Exception {
+        try (TestHttpServer server = new TestHttpServer()) {
+            server.respond("/ca.crt", authority.certificate.getEncoded());
+            X509Certificate certificate = withIssuerUrl(server, "/expired.crl");
+            server.respond("/expired.crl", authority.crl(new Date(System.currentTimeMillis() - TestPki.HOUR_MILLIS)));
+
+            SignerCertificateValidator validator = newValidator(false, 60000,
+                    new CrlRevocationChecker(2000, TestPki.HOUR_MILLIS));
+            assertRejected(validator, certificate, "is unknown");
+        }
+    }
+
+    private X509Certificate withIssuerUrl(TestHttpServer server, String crlPath) throws Exception {
+        return authority.issue("CN=signer", server.url(crlPath), null, server.url("/ca.crt"));
+    }
+
+    private SignerCertificateValidator newValidator(boolean softFail, long refreshIntervalMillis,
+                                                    RevocationChecker checker) {
+        SignerCertificateValidator validator = new SignerCertificateValidator(true, softFail, 2000, 5000,
+                refreshIntervalMillis, RETRY_INTERVAL_MILLIS, 100, Collections.singletonList(checker));
+        validators.add(validator);
+        return validator;
+    }
+
+    private static void assertRejected(SignerCertificateValidator validator, X509Certificate certificate,
+                                       String expectedMessage) {
+        try {
+            validator.validate(certificate);
+            fail("Certificate was accepted, expected it to be rejected as it " + expectedMessage);
+        } catch (CertificateValidationException e) {
+            assertTrue(e.getMessage().contains(expectedMessage), e.getMessage());
+        }
+    }
+
+    /**
+     * Checker answering with the given statuses in turn, and failing once they are used up.
+     */
+    private static class ScriptedChecker implements RevocationChecker {
+
+        private final ConcurrentLinkedQueue<RevocationStatus> statuses;
+        private final AtomicInteger checks = new AtomicInteger();
+
+        ScriptedChecker(RevocationStatus... statuses) {
+            this.statuses = new ConcurrentLinkedQueue<>(Arrays.asList(statuses));
+        }
+
+        @Override
+        public RevocationStatus check(X509Certificate certificate, X509Certificate issuer) throws IOException {
+            checks.incrementAndGet();
+            RevocationStatus status = statuses.poll();
+            if (status == null) {
+                throw new IOException("Revocation source is unavailable");
+            }
+            return status;
+        }
+
+        void awaitChecks(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (checks.get() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(checks.get() >= count, "Revocation status was not refreshed");
+            // let the refresh that made the last check store its result
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.cert;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AccessDescription;
+import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.asn1.x509.X509ObjectIdentifiers;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509v2CRLBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.jcajce.JcaBasicOCSPRespBuilder;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Certificates, CRLs and OCSP responses for the revocation tests, built with Bouncy Castle so that the hand written
+ * DER handling of the checkers is tested against an independent encoder.
+ */
+final class TestPki {
+
+    static final long HOUR_MILLIS = 3600000L;
+    private static final AtomicLong SERIAL_NUMBERS = new AtomicLong(System.currentTimeMillis());
+
+    private TestPki() {
+    }
+
+    static KeyPair newKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * Certificate authority with a self-signed certificate.
+     */
+    static final class Authority {
+
+        final KeyPair keyPair;
+        final X509Certificate certificate;
+
+        Authority(String name) throws Exception {
+            this(name, newKeyPair());
+        }
+
+        /**
+         * @param name    subject and issuer name
+         * @param keyPair keys of the authority, e.g. shared with another authority to test name checks
+         */
+        Authority(String name, KeyPair keyPair) throws Exception {
+            this.keyPair = keyPair;
+            X509v3CertificateBuilder builder = newCertificateBuilder(new X500Name(name), new X500Name(name),
+                    keyPair);
+            builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(true));
+            this.certificate = sign(builder, keyPair.getPrivate());
+        }
+
+        /**
+         * @param subject name of the certificate
+         * @param crlUrl  CRL distribution point, or null
+         * @param ocspUrl OCSP responder, or null
+         * @return a certificate issued by this authority
+         */
+        X509Certificate issue(String subject, String crlUrl, String ocspUrl) throws Exception {
+            return issue(subject, crlUrl, ocspUrl, null);
+        }
+
+        /**
+         * @param caIssuersUrl location of the certificate of this authority, or null
+         */
+        X509Certificate issue(String subject, String crlUrl, String ocspUrl, String caIssuersUrl) throws Exception {
+            X509v3CertificateBuilder builder = newCertificateBuilder(new X500Name(subject),
+                    new JcaX509CertificateHolder(certificate).getSubject(), newKeyPair());
+            if (crlUrl != null) {
+                GeneralNames names = new GeneralNames(new GeneralName(GeneralName.uniformResourceIdentifier, crlUrl));
+                builder.addExtension(Extension.cRLDistributionPoints, false, new CRLDistPoint(
+                        new DistributionPoint[]{new DistributionPoint(new DistributionPointName(names), null, null)}));
+            }
+            List<AccessDescription> accessDescriptions = new ArrayList<>();
+            if (ocspUrl != null) {
+                accessDescriptions.add(new AccessDescription(X509ObjectIdentifiers.ocspAccessMethod,
+                        new GeneralName(GeneralName.uniformResourceIdentifier, ocspUrl)));
+            }
+            if (caIssuersUrl != null) {
+                accessDescriptions.add(new AccessDescription(X509ObjectIdentifiers.id_ad_caIssuers,
+                        new GeneralName(GeneralName.uniformResourceIdentifier, caIssuersUrl)));
+            }
+            if (!accessDescriptions.isEmpty()) {
+                builder.addExtension(Extension.authorityInfoAccess, false, new AuthorityInformationAccess(
+                        accessDescriptions.toArray(new AccessDescription[accessDescriptions.size()])));
+            }
+            return sign(builder, keyPair.getPrivate());
+        }
+
+        /**
+         * @return a responder certificate this authority delegated OCSP signing to
+         */
+        X509Certificate issueResponder(KeyPair responderKeyPair, boolean ocspSigning) throws Exception {
+            X509v3CertificateBuilder builder = newCertificateBuilder(new X500Name("CN=OCSP Responder"),
+                    new JcaX509CertificateHolder(certificate).getSubject(), responderKeyPair);
+            if (ocspSigning) {
+                builder.addExtension(Extension.extendedKeyUsage, false,
+                        new ExtendedKeyUsage(KeyPurposeId.id_kp_OCSPSigning));
+            }
+            return sign(builder, keyPair.getPrivate());
+        }
+
+        /**
+         * @param nextUpdate time of the next update, or null
+         * @param revoked    serial numbers of the revoked certificates
+         * @return a DER encoded CRL signed by this authority
+         */
+        byte[] crl(Date nextUpdate, BigInteger... revoked) throws Exception {
+            return crl(keyPair.getPrivate(), nextUpdate, revoked);
+        }
+
+        byte[] crl(PrivateKey signingKey, Date nextUpdate, BigInteger... revoked) throws Exception {
+            Date thisUpdate = new Date(System.currentTimeMillis() - HOUR_MILLIS);
+            if (nextUpdate != null && !nextUpdate.after(thisUpdate)) {
+                thisUpdate = new Date(nextUpdate.getTime() - HOUR_MILLIS);
+            }
+            X509v2CRLBuilder builder = new JcaX509v2CRLBuilder(certificate.getSubjectX500Principal(), thisUpdate);
+            if (nextUpdate != null) {
+                builder.setNextUpdate(nextUpdate);
+            }
+            for (BigInteger serialNumber : revoked) {
+                builder.addCRLEntry(serialNumber, thisUpdate, CRLReason.keyCompromise);
+            }
+            return builder.build(new JcaContentSignerBuilder("SHA256withRSA").build(signingKey)).getEncoded();
+        }
+
+        /**
+         * @param subject    certificate the response is about
+         * @param status     {@link CertificateStatus#GOOD}, a revoked or an unknown status
+         * @param nextUpdate time of the next update, or null
+         * @param signingKey key the response is signed with
+         * @param chain      certificates included in the response
+         * @return a DER encoded successful OCSP response
+         */
+        byte[] ocspResponse(X509Certificate subject, CertificateStatus status, Date nextUpdate, PrivateKey signingKey,
+                            X509Certificate... chain) throws Exception {
+            Date thisUpdate = new Date(System.currentTimeMillis() - 60000);
+            if (nextUpdate != null && !nextUpdate.after(thisUpdate)) {
+                thisUpdate = new Date(nextUpdate.getTime() - HOUR_MILLIS);
+            }
+            return ocspResponse(subject, status, thisUpdate, nextUpdate, signingKey, chain);
+        }
+
+        /**
+         * @param subject    certificate the response is about
+         * @param status     {@link CertificateStatus#GOOD}, a revoked or an unknown status
+         * @param thisUpdate time the status is known to be correct at
+         * @param nextUpdate time of the next update, or null
+         * @param signingKey key the response is signed with
+         * @param chain      certificates included in the response
+         * @return a DER encoded successful OCSP response
+         */
+        byte[] ocspResponse(X509Certificate subject, CertificateStatus status, Date thisUpdate, Date nextUpdate,
+                            PrivateKey signingKey, X509Certificate... chain) throws Exception {
+            DigestCalculatorProvider digests = new JcaDigestCalculatorProviderBuilder().build();
+            CertificateID certificateId = new CertificateID(digests.get(CertificateID.HASH_SHA1),
+                    new JcaX509CertificateHolder(certificate), subject.getSerialNumber());
+            BasicOCSPRespBuilder builder = new JcaBasicOCSPRespBuilder(keyPair.getPublic(),
+                    digests.get(CertificateID.HASH_SHA1));
+            builder.addResponse(certificateId, status, thisUpdate, nextUpdate);
+            X509CertificateHolder[] holders = new X509CertificateHolder[chain.length];
+            for (int i = 0; i < chain.length; i++) {
+                holders[i] = new JcaX509CertificateHolder(chain[i]);
+            }
+            BasicOCSPResp response = builder.build(new JcaContentSignerBuilder("SHA256withRSA").build(signingKey),
+                    holders, new Date());
+            return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, response).getEncoded();
+        }
+    }
+
+    private static X509v3CertificateBuilder newCertificateBuilder(X500Name subject, X500Name issuer,
+                                                                  KeyPair subjectKeyPair) {
+        long now = System.currentTimeMillis();
+        return new JcaX509v3CertificateBuilder(issuer, BigInteger.valueOf(SERIAL_NUMBERS.incrementAndGet()),
+                new Date(now - HOUR_MILLIS), new Date(now + 24 * HOUR_MILLIS), subject, subjectKeyPair.getPublic());
+    }
+
+    private static X509Certificate sign(X509v3CertificateBuilder builder, PrivateKey signingKey) throws Exception {
+        return new JcaX509CertificateConverter().getCertificate(
+                builder.build(new JcaContentSignerBuilder("SHA256withRSA").build(signingKey)));
+    }
+}
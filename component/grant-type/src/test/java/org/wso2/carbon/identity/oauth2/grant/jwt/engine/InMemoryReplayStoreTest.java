@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class InMemoryReplayStoreTest {
+
+    @Test
+    public void testLiveJtiIsRejected() {
+        InMemoryReplayStore store = new InMemoryReplayStore(10);
+        long now = System.currentTimeMillis();
+        assertTrue(store.recordIfAbsent("a", now + 60000, now));
+        assertFalse(store.recordIfAbsent("a", now + 60000, now));
+    }
+
+    @Test
+    public void testExpiredJtiIsRecordedAgain() {
+        InMemoryReplayStore store = new InMemoryReplayStore(10);
+        long now = System.currentTimeMillis();
+        assertTrue(store.recordIfAbsent("a", now - 1, now - 60000));
+        assertTrue(store.recordIfAbsent("a", now + 60000, now));
+    }
+
+    @Test
+    public void testFullStoreRejectsNewJti() {
+        InMemoryReplayStore store = new InMemoryReplayStore(2, 60000);
+        long now = System.currentTimeMillis();
+        assertTrue(store.recordIfAbsent("a", now + 60000, now));
+        assertTrue(store.recordIfAbsent("b", now + 60000, now));
+        assertFalse(store.recordIfAbsent("c", now + 60000, now));
+        assertFalse(store.recordIfAbsent("a", now + 60000, now));
+        assertEquals(store.size(), 2);
+        assertEquals(store.getRejectedCount(), 1);
+    }
+
+    @Test
+    public void testExpiredRecordsArePurgedOnInterval() throws Exception {
+        InMemoryReplayStore store = new InMemoryReplayStore(2, 0);
+        long now = System.currentTimeMillis();
+        assertTrue(store.recordIfAbsent("a", now + 10, now));
+        assertTrue(store.recordIfAbsent("b", now + 10, now));
+        Thread.sleep(20);
+        long later = System.currentTimeMillis();
+        assertTrue(store.recordIfAbsent("c", later + 60000, later));
+        assertEquals(store.size(), 1);
+    }
+
+    @Test
+    public void testRestoreKeepsLaterExpiry() {
+        InMemoryReplayStore store = new InMemoryReplayStore(10);
+        long now = System.currentTimeMillis();
+        store.restore("a", now + 60000);
+        store.restore("a", now + 1000);
+        assertFalse(store.recordIfAbsent("a", now + 60000, now + 30000));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Guards the allocation of {@link JWTAssertionValidator#validate} for the common assertion profiles. Each profile
+ * validates freshly parsed assertions, as the grant handler does, and the average bytes the validating thread
+ * allocates per call must stay within the profile's limit. The limits are about a third above the allocation
+ * measured when they were set, so that a regression fails the build while JIT and library noise does not; lower
+ * them when an optimization lands.
+ * <p/>
+ * Only the validator is measured here, not the whole validateGrant of the grant handler, which needs the Carbon
+ * runtime. The signer certificate lookup of the handler is guarded by the DecodedCertificateCacheTest. The savings in
+ * the handler's private claim helpers, getClaims, handleLocalClaims and handleClaimsForResidentIDP, are not guarded
+ * by any test.
+ * <p/>
+ * Needs the per thread allocation counter of HotSpot, and is skipped on other virtual machines.
+ */
+public class JWTAssertionValidatorAllocationTest {
+
+    private static final Log log = LogFactory.getLog(JWTAssertionValidatorAllocationTest.class);
+    // Measured on OpenJDK 17: 6240, 6264, 9160 and 14384 bytes.
+    private static final long HS256_MAX_BYTES = 8192;
+    private static final long HS256_REPLAY_STORE_MAX_BYTES = 8192;
+    private static final long HS256_ENTERPRISE_CLAIMS_MAX_BYTES = 12288;
+    private static final long RS256_REPLAY_STORE_MAX_BYTES = 19456;
+
+    private static final int WARM_UP_ITERATIONS = 2000;
+    private static final int MEASURED_ITERATIONS = 1000;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+
+    @BeforeClass
+    public void setUp() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean) ||
+                !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            throw new SkipException("Per thread allocation counting is not supported by this virtual machine");
+        }
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void testHs256Allocation() throws Exception {
+        final byte[] secret = TestAssertions.newSecret();
+        assertWithinLimit("HS256", HS256_MAX_BYTES, new TestAssertions.MacTrustedIssuer(TestAssertions.ISSUER,
+                secret), false, new Signer() {
+            @Override
+            public String sign() throws Exception {
+                return TestAssertions.sign(TestAssertions.validClaims().build(), secret).serialize();
+            }
+        });
+    }
+
+    @Test
+    public void testHs256WithReplayStoreAllocation() throws Exception {
+        final byte[] secret = TestAssertions.newSecret();
+        assertWithinLimit("HS256 with replay store", HS256_REPLAY_STORE_MAX_BYTES,
+                new TestAssertions.MacTrustedIssuer(TestAssertions.ISSUER, secret), true, new Signer() {
+                    @Override
+                    public String sign() throws Exception {
+                        return TestAssertions.sign(TestAssertions.validClaims().build(), secret).serialize();
+                    }
+                });
+    }
+
+    @Test
+    public void testHs256WithEnterpriseClaimsAllocation() throws Exception {
+        final byte[] secret = TestAssertions.newSecret();
+        assertWithinLimit("HS256 with enterprise claims", HS256_ENTERPRISE_CLAIMS_MAX_BYTES,
+                new TestAssertions.MacTrustedIssuer(TestAssertions.ISSUER, secret), true, new Signer() {
+                    @Override
+                    public String sign() throws Exception {
+                        return TestAssertions.sign(TestAssertions.enterpriseClaims().build(), secret).serialize();
+                    }
+                });
+    }
+
+    @Test
+    public void testRs256WithReplayStoreAllocation() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        final KeyPair keyPair = generator.generateKeyPair();
+        assertWithinLimit("RS256 with replay store", RS256_REPLAY_STORE_MAX_BYTES,
+                new TestAssertions.RsaTrustedIssuer(TestAssertions.ISSUER, (RSAPublicKey) keyPair.getPublic()), true,
+                new Signer() {
+                    @Override
+                    public String sign() throws Exception {
+                        JWTClaimsSet claimsSet = TestAssertions.validClaims().build();
+                        return TestAssertions.sign(claimsSet, (RSAPrivateKey) keyPair.getPrivate()).serialize();
+                    }
+                });
+    }
+
+    private void assertWithinLimit(String profile, long maxBytes, TrustedIssuer trustedIssuer,
+                                   boolean replayStore, Signer signer) throws Exception {
+        JWTAssertionValidator validator = new JWTAssertionValidator(TestAssertions.resolver(trustedIssuer),
+                new FixedValidationSettings(TestAssertions.SKEW_MILLIS, TestAssertions.VALIDITY_PERIOD_MILLIS),
+                replayStore ? new InMemoryReplayStore(WARM_UP_ITERATIONS + MEASURED_ITERATIONS) : null,
+                new ValidationHooks());
+        validate(validator, sign(signer, WARM_UP_ITERATIONS));
+
+        List<SignedJWT> assertions = parse(sign(signer, MEASURED_ITERATIONS));
+        long threadId = Thread.currentThread().getId();
+        long overhead = measureOverhead(threadId);
+        long total = 0;
+        for (SignedJWT assertion : assertions) {
+            long start = threadMXBean.getThreadAllocatedBytes(threadId);
+            validator.validate(TestAssertions.TENANT, "client", assertion);
+            total += threadMXBean.getThreadAllocatedBytes(threadId) - start - overhead;
+        }
+        long average = total / MEASURED_ITERATIONS;
+        log.info(profile + " validation allocates " + average + " bytes per assertion");
+        assertTrue(average <= maxBytes, profile + " validation allocates " + average +
+                " bytes per assertion, over the limit of " + maxBytes + " bytes");
+    }
+
+    private long measureOverhead(long threadId) {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 100; i++) {
+            long start = threadMXBean.getThreadAllocatedBytes(threadId);
+            overhead = Math.min(overhead, threadMXBean.getThreadAllocatedBytes(threadId) - start);
+        }
+        return overhead;
+    }
+
+    private static void validate(JWTAssertionValidator validator, List<String> assertions) throws Exception {
+        for (SignedJWT assertion : parse(assertions)) {
+            validator.validate(TestAssertions.TENANT, "client", assertion);
+        }
+    }
+
+    private static List<String> sign(Signer signer, int count) throws Exception {
+        List<String> assertions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            assertions.add(signer.sign());
+        }
+        return assertions;
+    }
+
+    private static List<SignedJWT> parse(List<String> serialized) throws Exception {
+        List<SignedJWT> assertions = new ArrayList<>(serialized.size());
+        for (String assertion : serialized) {
+            assertions.add(SignedJWT.parse(assertion));
+        }
+        return assertions;
+    }
+
+    private interface Signer {
+
+        String sign() throws Exception;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.oauth2.grant.jwt.audit.AuditReason;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+public class JWTAssertionValidatorTest {
+
+    private byte[] secret;
+    private TrustedIssuer trustedIssuer;
+    private JWTAssertionValidator validator;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        secret = TestAssertions.newSecret();
+        trustedIssuer = new TestAssertions.MacTrustedIssuer(TestAssertions.ISSUER, secret);
+        validator = newValidator(new InMemoryReplayStore(1000), new ValidationHooks());
+    }
+
+    private JWTAssertionValidator newValidator(ReplayStore replayStore, ValidationHooks hooks) {
+        return new JWTAssertionValidator(TestAssertions.resolver(trustedIssuer),
+                new FixedValidationSettings(TestAssertions.SKEW_MILLIS, TestAssertions.VALIDITY_PERIOD_MILLIS),
+                replayStore, hooks);
+    }
+
+    @Test
+    public void testValidAssertionIsAccepted() throws Exception {
+        JWTClaimsSet claimsSet = TestAssertions.validClaims().build();
+        ValidatedAssertion assertion = validator.validate(TestAssertions.TENANT, "client",
+                TestAssertions.sign(claimsSet, secret));
+        assertEquals(assertion.getIssuer(), TestAssertions.ISSUER);
+        assertEquals(assertion.getSubject(), "alice");
+        assertEquals(assertion.getJti(), claimsSet.getJWTID());
+        assertSame(assertion.getTrustedIssuer(), trustedIssuer);
+    }
+
+    @Test
+    public void testReplayedAssertionIsRejected() throws Exception {
+        SignedJWT signedJWT = TestAssertions.sign(TestAssertions.validClaims().build(), secret);
+        validator.validate(TestAssertions.TENANT, "client", signedJWT);
+        assertRejected(signedJWT, AuditReason.REPLAYED);
+    }
+
+    @Test
+    public void testAssertionWithoutReplayStoreCanBeReused() throws Exception {
+        validator = newValidator(null, new ValidationHooks());
+        SignedJWT signedJWT = TestAssertions.sign(TestAssertions.validClaims().build(), secret);
+        validator.validate(TestAssertions.TENANT, "client", signedJWT);
+        validator.validate(TestAssertions.TENANT, "client", signedJWT);
+    }
+
+    @Test
+    public void testMissingSubjectIsRejected() throws Exception {
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().subject(null).build(), secret),
+                AuditReason.MISSING_MANDATORY_CLAIMS);
+    }
+
+    @Test
+    public void testMissingExpirationTimeIsRejected() throws Exception {
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().expirationTime(null).build(), secret),
+                AuditReason.MISSING_MANDATORY_CLAIMS);
+    }
+
+    @Test
+    public void testUnknownIssuerIsRejected() throws Exception {
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().issuer("https://unknown.example.com")
+                .build(), secret), AuditReason.UNKNOWN_ISSUER);
+    }
+
+    @Test
+    public void testSignatureWithOtherKeyIsRejected() throws Exception {
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().build(), TestAssertions.newSecret()),
+                AuditReason.SIGNATURE_INVALID);
+    }
+
+    @Test
+    public void testOtherAudienceIsRejected() throws Exception {
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().audience("https://other.example.com")
+                .build(), secret), AuditReason.AUDIENCE_MISMATCH);
+    }
+
+    @Test
+    public void testExpiredAssertionIsRejected() throws Exception {
+        long expired = System.currentTimeMillis() - TestAssertions.SKEW_MILLIS - 1000;
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().expirationTime(new Date(expired)).build(),
+                secret), AuditReason.EXPIRED);
+    }
+
+    @Test
+    public void testAssertionExpiringWithinSkewIsRejected() throws Exception {
+        long expiringWithinSkew = System.currentTimeMillis() + TestAssertions.SKEW_MILLIS / 2;
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().expirationTime(new Date(expiringWithinSkew))
+                .build(), secret), AuditReason.EXPIRED);
+    }
+
+    @Test
+    public void testFutureNotBeforeTimeIsRejected() throws Exception {
+        long notBefore = System.currentTimeMillis() + TestAssertions.SKEW_MILLIS + 60000;
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().notBeforeTime(new Date(notBefore)).build(),
+                secret), AuditReason.NOT_YET_VALID);
+    }
+
+    @Test
+    public void testAssertionIssuedBeforeValidityPeriodIsRejected() throws Exception {
+        long issued = System.currentTimeMillis() - TestAssertions.VALIDITY_PERIOD_MILLIS -
+                TestAssertions.SKEW_MILLIS - 60000;
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().issueTime(new Date(issued)).build(),
+                secret), AuditReason.ISSUED_TOO_LONG_AGO);
+    }
+
+    @Test
+    public void testRejectedAssertionDoesNotUseItsJti() throws Exception {
+        JWTClaimsSet claimsSet = TestAssertions.validClaims().build();
+        assertRejected(TestAssertions.sign(claimsSet, TestAssertions.newSecret()), AuditReason.SIGNATURE_INVALID);
+        validator.validate(TestAssertions.TENANT, "client", TestAssertions.sign(claimsSet, secret));
+    }
+
+    @Test
+    public void testFullReplayStoreRejectsNewJti() throws Exception {
+        validator = newValidator(new InMemoryReplayStore(1), new ValidationHooks());
+        validator.validate(TestAssertions.TENANT, "client",
+                TestAssertions.sign(TestAssertions.validClaims().build(), secret));
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().build(), secret), AuditReason.REPLAYED);
+    }
+
+    @Test
+    public void testAssertionReplayStoreReceivesAssertion() throws Exception {
+        final SignedJWT[] recorded = new SignedJWT[1];
+        validator = newValidator(new AssertionReplayStore() {
+            @Override
+            public boolean recordIfAbsent(String jti, long expiryTimeMillis, long referenceTimeMillis,
+                                          SignedJWT assertion) {
+                recorded[0] = assertion;
+                return true;
+            }
+
+            @Override
+            public boolean recordIfAbsent(String jti, long expiryTimeMillis, long referenceTimeMillis) {
+                fail("Assertion was not passed to the replay store");
+                return false;
+            }
+        }, new ValidationHooks());
+        SignedJWT signedJWT = TestAssertions.sign(TestAssertions.validClaims().build(), secret);
+        validator.validate(TestAssertions.TENANT, "client", signedJWT);
+        assertSame(recorded[0], signedJWT);
+    }
+
+    @Test
+    public void testCustomClaimsHookRejects() throws Exception {
+        validator = newValidator(null, new ValidationHooks() {
+            @Override
+            public boolean validateCustomClaims(String tenantDomain, TrustedIssuer trustedIssuer,
+                                                Map<String, Object> claims) {
+                return "engineering".equals(claims.get("department"));
+            }
+        });
+        validator.validate(TestAssertions.TENANT, "client", TestAssertions.sign(TestAssertions.validClaims()
+                .claim("department", "engineering").build(), secret));
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().claim("department", "sales").build(),
+                secret), AuditReason.CUSTOM_CLAIMS_INVALID);
+    }
+
+    @Test
+    public void testHooksRejectBeforeIssuerResolution() throws Exception {
+        final AtomicInteger resolutions = new AtomicInteger();
+        validator = new JWTAssertionValidator(new IssuerResolver() {
+            @Override
+            public TrustedIssuer resolve(String tenantDomain, String issuer) {
+                resolutions.incrementAndGet();
+                return trustedIssuer;
+            }
+        }, new FixedValidationSettings(TestAssertions.SKEW_MILLIS, TestAssertions.VALIDITY_PERIOD_MILLIS), null,
+                new ValidationHooks() {
+                    @Override
+                    public void beforeIssuerResolution(String tenantDomain, String clientId, String issuer)
+                            throws AssertionValidationException {
+                        if ("blocked".equals(clientId)) {
+                            throw new AssertionValidationException(AuditReason.RATE_LIMITED, "Rate limited");
+                        }
+                    }
+                });
+        try {
+            validator.validate(TestAssertions.TENANT, "blocked",
+                    TestAssertions.sign(TestAssertions.validClaims().build(), secret));
+            fail("Assertion of a blocked client was accepted");
+        } catch (AssertionValidationException e) {
+            assertEquals(e.getReason(), AuditReason.RATE_LIMITED);
+            assertEquals(e.getIssuer(), TestAssertions.ISSUER);
+        }
+        assertEquals(resolutions.get(), 0);
+    }
+
+    @Test
+    public void testInvalidatedPlanFollowsIssuerChange() throws Exception {
+        validator.validate(TestAssertions.TENANT, "client",
+                TestAssertions.sign(TestAssertions.validClaims().build(), secret));
+        final byte[] rotatedSecret = TestAssertions.newSecret();
+        trustedIssuer = new TestAssertions.MacTrustedIssuer(TestAssertions.ISSUER, rotatedSecret);
+        validator = newValidator(new InMemoryReplayStore(1000), new ValidationHooks());
+        JWTAssertionValidator.invalidatePlans(TestAssertions.TENANT);
+        validator.validate(TestAssertions.TENANT, "client",
+                TestAssertions.sign(TestAssertions.validClaims().build(), rotatedSecret));
+        assertRejected(TestAssertions.sign(TestAssertions.validClaims().build(), secret),
+                AuditReason.SIGNATURE_INVALID);
+    }
+
+    private void assertRejected(SignedJWT signedJWT, AuditReason expectedReason) {
+        try {
+            validator.validate(TestAssertions.TENANT, "client", signedJWT);
+            fail("Assertion was accepted, expected rejection for " + expectedReason);
+        } catch (AssertionValidationException e) {
+            assertEquals(e.getReason(), expectedReason, e.getMessage());
+        }
+    }
+}
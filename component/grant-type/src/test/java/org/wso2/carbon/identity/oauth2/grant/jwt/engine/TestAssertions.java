@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.engine;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.security.SecureRandom;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Issuers and assertions shared by the engine tests. Assertions are signed with HMAC keys, so that no key store or
+ * certificate is needed.
+ */
+final class TestAssertions {
+
+    static final String TENANT = "carbon.super";
+    static final String ISSUER = "https://issuer.example.com";
+    static final String TOKEN_ENDPOINT = "https://localhost:9443/oauth2/token";
+    static final long SKEW_MILLIS = 300000;
+    static final long VALIDITY_PERIOD_MILLIS = 1800000;
+
+    private TestAssertions() {
+    }
+
+    static byte[] newSecret() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+
+    /**
+     * @return claims of a valid assertion of {@link #ISSUER}, expiring in ten minutes
+     */
+    static JWTClaimsSet.Builder validClaims() {
+        long now = System.currentTimeMillis();
+        return new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject("alice")
+                .audience(TOKEN_ENDPOINT)
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(new Date(now))
+                .notBeforeTime(new Date(now))
+                .expirationTime(new Date(now + 600000));
+    }
+
+    /**
+     * @return claims of a larger assertion, with a list audience and custom claims as sent by enterprise issuers
+     */
+    static JWTClaimsSet.Builder enterpriseClaims() {
+        Map<String, Object> address = new HashMap<>();
+        address.put("country", "LK");
+        address.put("locality", "Colombo");
+        return validClaims()
+                .audience(Arrays.asList(TOKEN_ENDPOINT, "https://api.example.com"))
+                .claim("email", "alice@example.com")
+                .claim("groups", Arrays.asList("engineering", "admin", "on-call"))
+                .claim("department", "engineering")
+                .claim("address", address);
+    }
+
+    static SignedJWT sign(JWTClaimsSet claimsSet, byte[] secret) throws JOSEException {
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claimsSet);
+        signedJWT.sign(new MACSigner(secret));
+        return signedJWT;
+    }
+
+    static SignedJWT sign(JWTClaimsSet claimsSet, RSAPrivateKey privateKey) throws JOSEException {
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+        signedJWT.sign(new RSASSASigner(privateKey));
+        return signedJWT;
+    }
+
+    static IssuerResolver resolver(final TrustedIssuer trustedIssuer) {
+        return new IssuerResolver() {
+            @Override
+            public TrustedIssuer resolve(String tenantDomain, String issuer) {
+                return trustedIssuer.getName().equals(issuer) ? trustedIssuer : null;
+            }
+        };
+    }
+
+    /**
+     * Issuer verifying HMAC signatures with a shared secret.
+     */
+    static final class MacTrustedIssuer extends VerifierTrustedIssuer {
+
+        MacTrustedIssuer(String name, byte[] secret) throws JOSEException {
+            super(name, new MACVerifier(secret));
+        }
+    }
+
+    /**
+     * Issuer verifying RSA signatures with the public key of its certificate.
+     */
+    static final class RsaTrustedIssuer extends VerifierTrustedIssuer {
+
+        RsaTrustedIssuer(String name, RSAPublicKey publicKey) {
+            super(name, new RSASSAVerifier(publicKey));
+        }
+    }
+
+    private abstract static class VerifierTrustedIssuer implements TrustedIssuer {
+
+        private final String name;
+        private final JWSVerifier verifier;
+
+        VerifierTrustedIssuer(String name, JWSVerifier verifier) {
+            this.name = name;
+            this.verifier = verifier;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getTokenEndpointAlias() {
+            return TOKEN_ENDPOINT;
+        }
+
+        @Override
+        public boolean verifySignature(SignedJWT signedJWT) throws JOSEException {
+            return signedJWT.verify(verifier);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License
+ */
+
+package org.wso2.carbon.identity.oauth2.grant.jwt.replay;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.FixedValidationSettings;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.InMemoryReplayStore;
+import org.wso2.carbon.identity.oauth2.grant.jwt.engine.ValidationSettings;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Runs replay cluster members on the loopback interface and checks that every JWT id is accepted once across the
+ * cluster, while the members change and when members can not be reached.
+ */
+public class ClusteredReplayStoreTest {
+
+    private static final byte[] SECRET = "replay-cluster-test-secret".getBytes(StandardCharsets.UTF_8);
+    private static final long SKEW_MILLIS = 300000;
+    private static final long VALIDITY_PERIOD_MILLIS = 1800000;
+    private static final ValidationSettings SETTINGS = new FixedValidationSettings(SKEW_MILLIS,
+            VALIDITY_PERIOD_MILLIS);
+    private static final long HANDOFF_MILLIS = 1500;
+    private static final long FAILURE_TIMEOUT_MILLIS = 2000;
+    private static final int JTIS = 1000;
+
+    private final List<ClusteredReplayStore> started = new ArrayList<>();
+    private final List<InMemoryReplayStore> localStores = new ArrayList<>();
+
+    @AfterMethod
+    public void stopMembers() {
+        for (ClusteredReplayStore store : started) {
+            store.stop();
+        }
+        started.clear();
+        localStores.clear();
+    }
+
+    @Test
+    public void testJtiIsAcceptedOnceAcrossMembers() throws Exception {
+        List<String> members = newMembers(3);
+        ClusteredReplayStore[] nodes = start(members, members, SECRET, false);
+        long expiry = expiry();
+        for (int i = 0; i < JTIS; i++) {
+            String jti = "jti-" + i;
+            assertTrue(nodes[i % 3].recordIfAbsent(jti, expiry, now()), jti);
+            assertFalse(nodes[(i + 1) % 3].recordIfAbsent(jti, expiry, now()), jti);
+            assertFalse(nodes[(i + 2) % 3].recordIfAbsent(jti, expiry, now()), jti);
+        }
+    }
+
+    @Test
+    public void testConcurrentRequestsAcceptEachJtiOnce() throws Exception {
+        List<String> members = newMembers(3);
+        final ClusteredReplayStore[] nodes = start(members, members, SECRET, false);
+        final AtomicLong accepted = new AtomicLong();
+        Thread[] threads = new Thread[12];
+        for (int t = 0; t < threads.length; t++) {
+            final ClusteredReplayStore node = nodes[t % 3];
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < JTIS; i++) {
+                        if (node.recordIfAbsent("concurrent-" + i, expiry(), now())) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(accepted.get(), JTIS);
+    }
+
+    @Test
+    public void testJoiningMemberKeepsRecords() throws Exception {
+        List<String> members = newMembers(4);
+        List<String> initial = members.subList(0, 3);
+        ClusteredReplayStore[] nodes = start(initial, initial, SECRET, false);
+        long expiry = expiry();
+        for (int i = 0; i < JTIS; i++) {
+            assertTrue(nodes[i % 3].recordIfAbsent("jti-" + i, expiry, now()));
+        }
+
+        ClusteredReplayStore joined = start(members.get(3), members, SECRET, false);
+        for (ClusteredReplayStore node : nodes) {
+            node.setMembers(members);
+        }
+        List<ClusteredReplayStore> all = new ArrayList<>(Arrays.asList(nodes));
+        all.add(joined);
+        assertAllReplayed(all, "during the handoff");
+        Thread.sleep(HANDOFF_MILLIS + 500);
+        assertAllReplayed(all, "after the handoff");
+    }
+
+    @Test
+    public void testLeavingMemberHandsOverRecords() throws Exception {
+        List<String> members = newMembers(4);
+        ClusteredReplayStore[] nodes = start(members, members, SECRET, false);
+        long expiry = expiry();
+        for (int i = 0; i < JTIS; i++) {
+            assertTrue(nodes[i % 4].recordIfAbsent("jti-" + i, expiry, now()));
+        }
+
+        String orphaned = jtiOwnedBy(nodes[0], members.get(1));
+        nodes[1].stop();
+        started.remove(nodes[1]);
+        List<String> remaining = new ArrayList<>(members);
+        remaining.remove(1);
+        List<ClusteredReplayStore> all = new ArrayList<>();
+        for (int i : new int[]{0, 2, 3}) {
+            // well within the failure timeout, so the members learnt of the leave from the stopped member
+            awaitMembers(nodes[i], remaining, FAILURE_TIMEOUT_MILLIS / 2);
+            all.add(nodes[i]);
+        }
+        assertAllReplayed(all, "during the handoff");
+        assertTrue(nodes[0].recordIfAbsent(orphaned, expiry(), now()));
+        Thread.sleep(HANDOFF_MILLIS + 500);
+        assertAllReplayed(all, "after the handoff");
+    }
+
+    @Test
+    public void testUnreachableMemberIsTakenOffRingAndPutBack() throws Exception {
+        List<String> members = newMembers(2);
+        ClusteredReplayStore node = start(members.get(0), members, SECRET, false);
+        String jti = jtiOwnedBy(node, members.get(1));
+        assertFalse(node.recordIfAbsent(jti, expiry(), now()));
+
+        awaitMembers(node, members.subList(0, 1), FAILURE_TIMEOUT_MILLIS + 5000);
+        assertTrue(node.recordIfAbsent(jti, expiry(), now()));
+
+        start(members.get(1), members, SECRET, false);
+        awaitMembers(node, members, 5000);
+        assertFalse(node.recordIfAbsent(jti, expiry(), now()), "JWT id was not handed over to the returning owner");
+    }
+
+    @Test
+    public void testMembersCanBeChangedOverJmx() throws Exception {
+        List<String> members = newMembers(2);
+        ClusteredReplayStore node = start(members.get(0), members.subList(0, 1), SECRET, false);
+        start(members.get(1), members, SECRET, false);
+        ObjectName objectName = new ObjectName("org.wso2.carbon.identity.oauth2.grant.jwt:type=ReplayCluster");
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        node.register();
+        try {
+            mBeanServer.invoke(objectName, "updateMembers", new Object[]{members.get(0) + ", " + members.get(1)},
+                    new String[]{String.class.getName()});
+            List<String> expected = new ArrayList<>(new TreeSet<>(members));
+            assertEquals(Arrays.asList((String[]) mBeanServer.getAttribute(objectName, "ConfiguredMembers")),
+                    expected);
+            assertEquals(node.getMembers(), expected);
+        } finally {
+            node.unregister();
+        }
+        assertFalse(mBeanServer.isRegistered(objectName));
+    }
+
+    @Test
+    public void testUnreachableOwnerRejects() throws Exception {
+        List<String> members = newMembers(2);
+        ClusteredReplayStore node = start(members.get(0), members, SECRET, false);
+        String jti = jtiOwnedBy(node, members.get(1));
+        assertFalse(node.recordIfAbsent(jti, expiry(), now()));
+        assertFalse(node.recordIfAbsent(jti, expiry(), now()));
+    }
+
+    @Test
+    public void testUnreachableOwnerWithLocalFallback() throws Exception {
+        List<String> members = newMembers(2);
+        ClusteredReplayStore node = start(members.get(0), members, SECRET, true);
+        String jti = jtiOwnedBy(node, members.get(1));
+        assertTrue(node.recordIfAbsent(jti, expiry(), now()));
+        assertFalse(node.recordIfAbsent(jti, expiry(), now()));
+    }
+
+    @Test
+    public void testExpiryBeyondRecordLifetimeIsRejected() throws Exception {
+        List<String> members = newMembers(2);
+        ClusteredReplayStore[] nodes = start(members, members, SECRET, false);
+        long tooLate = now() + VALIDITY_PERIOD_MILLIS + SKEW_MILLIS + 60000;
+        for (ClusteredReplayStore node : nodes) {
+            assertFalse(node.recordIfAbsent("long-lived-" + node.getPort(), tooLate, now() + SKEW_MILLIS));
+        }
+        assertTrue(nodes[0].recordIfAbsent("short-lived", now() + VALIDITY_PERIOD_MILLIS, now() + SKEW_MILLIS));
+    }
+
+    @Test
+    public void testOversizeJtiIsRejectedWithLocalFallback() throws Exception {
+        List<String> members = newMembers(2);
+        ClusteredReplayStore node = start(members.get(0), members, SECRET, true);
+        StringBuilder jti = new StringBuilder();
+        while (jti.length() <= ReplayProtocol.MAX_JTI_SIZE) {
+            jti.append("oversize-");
+        }
+        assertFalse(node.recordIfAbsent(jti.toString(), expiry(), now()));
+        assertTrue(localStores.get(0).entries().isEmpty());
+    }
+
+    @Test
+    public void testIncomingExpiryIsCapped() throws Exception {
+        List<String> members = newMembers(2);
+        start(members.get(0), members, SECRET, false);
+        ReplayPeer peer = new ReplayPeer(members.get(0), SECRET, 16, 64, 1000, 5000, new AtomicLong());
+        try {
+            ReplayPeer.Request request = peer.record(ReplayProtocol.encodeJti("pinned"), Long.MAX_VALUE, now());
+            assertEquals(request.await(5000), ReplayPeer.RECORDED);
+            long latest = now() + VALIDITY_PERIOD_MILLIS + 2 * SKEW_MILLIS;
+            for (Map.Entry<String, Long> entry : localStores.get(0).entries()) {
+                assertTrue(entry.getValue() <= latest, "Record of " + entry.getKey() + " expires at " +
+                        entry.getValue());
+            }
+        } finally {
+            peer.close(0);
+        }
+    }
+
+    @Test
+    public void testMemberWithOtherSecretCanNotRecord() throws Exception {
+        List<String> members = newMembers(2);
+        ClusteredReplayStore owner = start(members.get(0), members, SECRET, false);
+        ClusteredReplayStore intruder = start(members.get(1), members,
+                "another-secret-of-this-test".getBytes(StandardCharsets.UTF_8), true);
+        String jti = jtiOwnedBy(intruder, members.get(0));
+
+        // the intruder can not reach the owner and falls back to its own store
+        assertTrue(intruder.recordIfAbsent(jti, expiry(), now()));
+        assertTrue(owner.recordIfAbsent(jti, expiry(), now()));
+    }
+
+    @Test
+    public void testForgedFrameIsNotHandled() throws Exception {
+        List<String> members = newMembers(1);
+        ClusteredReplayStore owner = start(members.get(0), members, SECRET, false);
+        byte[] jti = ReplayProtocol.encodeJti("forged");
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("127.0.0.1", owner.getPort()), 1000);
+            socket.setSoTimeout(5000);
+            int bodySize = ReplayProtocol.FRAME_HEADER_SIZE + 18 + jti.length;
+            ByteBuffer frame = ByteBuffer.allocate(4 + ReplayProtocol.NONCE_SIZE + 4 + bodySize +
+                    ReplayProtocol.TAG_SIZE);
+            frame.putInt(ReplayProtocol.MAGIC).put(ReplayProtocol.newNonce());
+            frame.putInt(bodySize + ReplayProtocol.TAG_SIZE).put(ReplayProtocol.RECORD).putInt(1).putInt(1);
+            frame.putLong(expiry()).putLong(now());
+            ReplayProtocol.putJti(frame, jti);
+            frame.put(new byte[ReplayProtocol.TAG_SIZE]);
+            OutputStream out = socket.getOutputStream();
+            out.write(frame.array());
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            in.readFully(new byte[ReplayProtocol.NONCE_SIZE]);
+            assertEquals(in.read(), -1, "Connection was not closed after a forged frame");
+        }
+        assertTrue(owner.recordIfAbsent("forged", expiry(), now()));
+    }
+
+    private void assertAllReplayed(List<ClusteredReplayStore> nodes, String phase) {
+        long expiry = expiry();
+        for (int i = 0; i < JTIS; i++) {
+            ClusteredReplayStore node = nodes.get(i % nodes.size());
+            if (node.recordIfAbsent("jti-" + i, expiry, now())) {
+                fail("jti-" + i + " was accepted again " + phase);
+            }
+        }
+    }
+
+    private static void awaitMembers(ClusteredReplayStore node, List<String> members, long timeoutMillis)
+            throws InterruptedException {
+        List<String> expected = new ArrayList<>(new TreeSet<>(members));
+        long deadline = now() + timeoutMillis;
+        while (!node.getMembers().equals(expected) && now() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(node.getMembers(), expected);
+    }
+
+    private String jtiOwnedBy(ClusteredReplayStore store, String member) {
+        HashRing ring = new HashRing(store.getMembers(), 64);
+        for (int i = 0; ; i++) {
+            if (member.equals(ring.ownerOf("owned-" + i))) {
+                return "owned-" + i;
+            }
+        }
+    }
+
+    private ClusteredReplayStore[] start(List<String> localMembers, List<String> members, byte[] secret,
+                                         boolean localFallback) throws IOException {
+        ClusteredReplayStore[] nodes = new ClusteredReplayStore[localMembers.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = start(localMembers.get(i), members, secret, localFallback);
+        }
+        return nodes;
+    }
+
+    private ClusteredReplayStore start(String localMember, List<String> members, byte[] secret,
+                                       boolean localFallback) throws IOException {
+        InMemoryReplayStore localStore = new InMemoryReplayStore(100000);
+        ClusteredReplayStore store = new ClusteredReplayStore(localMember, members,
+                ReplayPeer.parseAddress(localMember), localStore, secret, SETTINGS, localFallback, 64, 256, 500,
+                HANDOFF_MILLIS, FAILURE_TIMEOUT_MILLIS);
+        store.start();
+        started.add(store);
+        localStores.add(localStore);
+        return store;
+    }
+
+    private static List<String> newMembers(int count) throws IOException {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                members.add("127.0.0.1:" + socket.getLocalPort());
+            }
+        }
+        return members;
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+
+    private static long expiry() {
+        return now() + 600000;
+    }
+}